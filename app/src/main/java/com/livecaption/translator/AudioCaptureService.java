@@ -7,6 +7,7 @@ import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.app.Service;
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.media.AudioAttributes;
 import android.media.AudioFormat;
@@ -15,10 +16,19 @@ import android.media.AudioRecord;
 import android.media.projection.MediaProjection;
 import android.media.projection.MediaProjectionManager;
 import android.os.Build;
+import android.os.Handler;
 import android.os.IBinder;
+import android.os.Looper;
 import android.util.Log;
 import android.widget.Toast;
 
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import androidx.annotation.RequiresApi;
 import androidx.core.app.ActivityCompat;
 import androidx.core.app.NotificationCompat;
@@ -33,6 +43,10 @@ public class AudioCaptureService extends Service {
     private static final int CHANNEL_CONFIG = AudioFormat.CHANNEL_IN_MONO;
     private static final int AUDIO_FORMAT = AudioFormat.ENCODING_PCM_16BIT;
 
+    private static final String LATENCY_DUMP_FILE = "latency_dump.txt";
+    // 세션별 자막 기록 (HistoryActivity에서 읽음)
+    static final String HISTORY_DIR = "caption_history";
+
     private MediaProjection mediaProjection;
     private AudioRecord audioRecord;
     private Thread audioThread;
@@ -43,11 +57,83 @@ public class AudioCaptureService extends Service {
     private String targetLanguage;
     private boolean isModelInitialized = false;
 
+    private VoiceActivityDetector voiceActivityDetector;
+    // 캡처 프레임 길이 (설정값 또는 RTF 자동 조정)
+    private volatile FrameSizeTuner frameSizeTuner;
+    // VAD를 통과한 프레임을 인식기로 전달 (세션 동안 한 번만 생성)
+    private final VoiceActivityDetector.FrameSink speechSink = this::processAudioData;
+
+    // 결과마다 싱글톤 락을 잡지 않도록 onCreate에서 한 번만 조회
+    private TranslationManager translationManager;
+    private CaptionEventBus captionEventBus;
+    // 번역 전 신뢰도 필터 (메인 스레드 전용)
+    private final CaptionQualityFilter captionQualityFilter = new CaptionQualityFilter();
+    // 긴 발화의 안정된 앞부분을 먼저 번역
+    private CaptionSegmenter captionSegmenter;
+    // 세션 자막 기록 (최종 자막을 기록 전용 스레드에서 파일에 덧붙임)
+    private CaptionHistory captionHistory;
+    private ExecutorService historyExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // 중간 결과가 PAUSE_MS 동안 그대로면 쉼으로 보고 남은 단어까지 번역
+    private final Runnable segmentPauseCheck = new Runnable() {
+        @Override
+        public void run() {
+            captionSegmenter.onIdle(System.nanoTime());
+        }
+    };
+
+    // 인식 결과 콜백 (서비스당 한 번 생성해 등록, 메인 스레드에서 호출됨)
+    private final RecognitionCallback recognitionCallback = new RecognitionCallback() {
+        @Override
+        public void onUtteranceRecognized(Utterance utterance, UtteranceTrace trace) {
+            Log.d(TAG, "Recognized: " + utterance);
+
+            if (trace != null) {
+                trace.markDispatched();
+            }
+            mainHandler.removeCallbacks(segmentPauseCheck);
+
+            // 신뢰도 낮은 조각은 번역하지 않음 (단어 정보가 있을 때만 동작)
+            Utterance kept = captionQualityFilter.filter(utterance);
+            if (kept == null) {
+                Log.d(TAG, "Dropped low-confidence utterance: " + utterance);
+                // 이미 번역을 보낸 앞부분이 있으면 그것만으로 자막을 마무리
+                captionSegmenter.onFinal("", 0, trace, System.nanoTime());
+                return;
+            }
+
+            // 앞부분을 먼저 번역했으면 남은 꼬리만, 아니면 발화 전체를 번역
+            captionSegmenter.onFinal(kept.getText(), kept.getDisplayDurationMs(), trace,
+                    System.nanoTime());
+        }
+
+        @Override
+        public void onPartialTextRecognized(String text) {
+            // 원문 중간 결과 표시 + 안정된 앞부분은 먼저 번역
+            captionSegmenter.onPartial(text, System.nanoTime());
+            mainHandler.removeCallbacks(segmentPauseCheck);
+            mainHandler.postDelayed(segmentPauseCheck, CaptionSegmenter.PAUSE_MS);
+        }
+
+        @Override
+        public void onError(String error) {
+            Log.e(TAG, "Recognition error: " + error);
+        }
+    };
+
     @Override
     public void onCreate() {
         super.onCreate();
         createNotificationChannel();
+        translationManager = TranslationManager.getInstance(this);
+        captionEventBus = CaptionEventBus.getInstance();
+        // 구간은 모두 이어 붙여야 하므로 최신 우선 스케줄러를 거치지 않음 (순서는 스케줄러 순번으로 맞춤)
+        captionSegmenter = new CaptionSegmenter(translationManager.getTranslationScheduler(),
+                captionEventBus, LatencyTracker.getInstance());
         speechRecognitionManager = new SpeechRecognitionManager(this);
+        speechRecognitionManager.setRecognitionCallback(recognitionCallback);
+        speechRecognitionManager.setLanguageDetectionCallback(this::onLanguageDetected);
+        voiceActivityDetector = new VoiceActivityDetector(SAMPLE_RATE);
     }
 
     @Override
@@ -60,6 +146,24 @@ public class AudioCaptureService extends Service {
 
             startForeground(NOTIFICATION_ID, createNotification());
 
+            frameSizeTuner = createFrameSizeTuner();
+            speechRecognitionManager.setFrameSizeTuner(frameSizeTuner);
+            Log.d(TAG, "Capture frame: " + frameSizeTuner);
+
+            // 자동 감지: 선택한 언어로 시작해 다른 모델과 비교 후 결정
+            SharedPreferences prefs = getSharedPreferences(SettingsActivity.PREFS_NAME, MODE_PRIVATE);
+            speechRecognitionManager.setAutoDetectEnabled(prefs.getBoolean("auto_detect", false));
+            // 단어 시각: 자막 표시 시간과 번역 전 신뢰도 필터에 사용
+            speechRecognitionManager.setWordTimingEnabled(prefs.getBoolean("word_timing", false));
+            // 끝점이 오지 않는 발화를 마무리할 기준 (0이면 제한 없음)
+            speechRecognitionManager.setUtteranceLimitsMs(
+                    prefs.getInt("max_utterance_ms", UtteranceLimiter.DEFAULT_MAX_UTTERANCE_MS),
+                    prefs.getInt("max_trailing_silence_ms", UtteranceLimiter.DEFAULT_MAX_TRAILING_SILENCE_MS));
+
+            // 음성 모델 로드와 병렬로 번역 모델 미리 준비
+            translationManager.prewarm(sourceLanguage, targetLanguage);
+            captionSegmenter.setLanguages(sourceLanguage, targetLanguage);
+
             // 음성 인식 모델 초기화
             initializeSpeechModel(() -> {
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
@@ -71,6 +175,51 @@ public class AudioCaptureService extends Service {
         return START_STICKY;
     }
 
+    /**
+     * 설정의 프레임 길이 (0이면 자동 조정, 지난 세션의 조정 결과부터 시작)
+     */
+    private FrameSizeTuner createFrameSizeTuner() {
+        SharedPreferences prefs = getSharedPreferences(SettingsActivity.PREFS_NAME, MODE_PRIVATE);
+        int frameMs = prefs.getInt("frame_duration_ms", FrameSizeTuner.DEFAULT_FRAME_MS);
+        if (frameMs == 0) {
+            return new FrameSizeTuner(SAMPLE_RATE,
+                    prefs.getInt("tuned_frame_ms", FrameSizeTuner.MIN_FRAME_MS), true);
+        }
+        return new FrameSizeTuner(SAMPLE_RATE, frameMs, false);
+    }
+
+    /**
+     * 자동 조정 결과를 저장 (다음 세션 시작값, 설정 화면 표시용)
+     */
+    private void saveFrameTuning() {
+        FrameSizeTuner tuner = frameSizeTuner;
+        if (tuner == null || !tuner.isAutoTune() || tuner.getRealTimeFactor() < 0) {
+            return;
+        }
+        Log.d(TAG, "Frame tuning result: " + tuner);
+        getSharedPreferences(SettingsActivity.PREFS_NAME, MODE_PRIVATE).edit()
+                .putInt("tuned_frame_ms", tuner.getFrameMs())
+                .putFloat("tuned_rtf", (float) tuner.getRealTimeFactor())
+                .apply();
+    }
+
+    /**
+     * 언어 감지 결과 반영 (메인 스레드). 교체는 인식기가 실제로 새 언어로 바뀌는 발화 경계에서
+     * 전달되므로, 이전 언어로 끊긴 발화는 이전 언어로, 그 다음 발화부터 새 언어로 번역된다.
+     */
+    private void onLanguageDetected(LanguageDetectingDecoder.ProbeReport report) {
+        Log.d(TAG, "Language detection: " + report);
+        if (!report.isSwitched()) {
+            return;
+        }
+
+        String label = Languages.toLabel(report.getLanguage());
+        sourceLanguage = label != null ? label : report.getLanguage();
+        translationManager.prewarm(sourceLanguage, targetLanguage);
+        captionSegmenter.setLanguages(sourceLanguage, targetLanguage);
+        showToast("감지된 언어: " + sourceLanguage);
+    }
+
     private void initializeSpeechModel(Runnable onComplete) {
         speechRecognitionManager.initializeModel(sourceLanguage,
                 new SpeechRecognitionManager.ModelInitCallback() {
@@ -78,6 +227,7 @@ public class AudioCaptureService extends Service {
                     public void onInitialized() {
                         Log.d(TAG, "Speech model initialized successfully");
                         isModelInitialized = true;
+                        LatencyTracker.getInstance().markModelReady();
                         if (onComplete != null) {
                             onComplete.run();
                         }
@@ -131,7 +281,8 @@ public class AudioCaptureService extends Service {
                             .setSampleRate(SAMPLE_RATE)
                             .setChannelMask(CHANNEL_CONFIG)
                             .build())
-                    .setBufferSizeInBytes(bufferSize * 2) // 버퍼 크기 증가
+                    // 최소 버퍼의 2배, 그리고 가장 긴 프레임 2개는 담을 수 있게
+                    .setBufferSizeInBytes(Math.max(bufferSize * 2, frameSizeTuner.getMaxFrameBytes() * 2))
                     .setAudioPlaybackCaptureConfig(config)
                     .build();
 
@@ -141,6 +292,7 @@ public class AudioCaptureService extends Service {
                 return;
             }
 
+            openCaptionHistory();
             audioRecord.startRecording();
             isCapturing = true;
 
@@ -155,33 +307,53 @@ public class AudioCaptureService extends Service {
         }
     }
 
+    private void openCaptionHistory() {
+        try {
+            captionHistory = CaptionHistory.createSession(new File(getFilesDir(), HISTORY_DIR));
+            // 세그먼트 확장 등 파일 I/O가 발행 스레드(메인)를 막지 않도록 전용 스레드에서 쓰고,
+            // 최종 자막은 합치지 않고 모두 받음 (기록이 빠지지 않게)
+            historyExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "CaptionHistory"));
+            captionEventBus.subscribeFinals(captionHistory, historyExecutor);
+        } catch (IOException e) {
+            Log.e(TAG, "Error creating caption history", e);
+        }
+    }
+
+    private void closeCaptionHistory() {
+        if (captionHistory == null) {
+            return;
+        }
+        captionEventBus.unsubscribe(captionHistory);
+        final CaptionHistory history = captionHistory;
+        captionHistory = null;
+        // 이미 넘겨진 자막을 모두 쓴 뒤 기록 스레드에서 닫음
+        historyExecutor.execute(() -> {
+            Log.d(TAG, "Caption history: " + history);
+            try {
+                history.close();
+            } catch (IOException e) {
+                Log.e(TAG, "Error closing caption history", e);
+            }
+        });
+        historyExecutor.shutdown();
+        historyExecutor = null;
+    }
+
     private void startAudioProcessing() {
+        final FrameSizeTuner tuner = frameSizeTuner;
         audioThread = new Thread(() -> {
-            int bufferSize = AudioRecord.getMinBufferSize(
-                    SAMPLE_RATE,
-                    CHANNEL_CONFIG,
-                    AUDIO_FORMAT
-            );
-            byte[] audioBuffer = new byte[bufferSize];
+            // getMinBufferSize와 무관하게 설정된 프레임 길이만큼 읽음 (자동 모드는 읽을 때마다 길이 확인)
+            byte[] audioBuffer = new byte[tuner.getMaxFrameBytes()];
 
-            Log.d(TAG, "Audio processing thread started");
+            Log.d(TAG, "Audio processing thread started: " + tuner);
 
             while (isCapturing && audioRecord != null) {
-                int bytesRead = audioRecord.read(audioBuffer, 0, bufferSize);
+                int bytesRead = audioRecord.read(audioBuffer, 0, tuner.getFrameBytes());
 
                 if (bytesRead > 0) {
-                    // 오디오 레벨 체크 (디버깅용)
-                    int sum = 0;
-                    for (int i = 0; i < bytesRead; i++) {
-                        sum += Math.abs(audioBuffer[i]);
-                    }
-                    int average = sum / bytesRead;
-
-                    if (average > 5) { // 무음이 아닌 경우만 처리
-                        // Vosk로 오디오 데이터 전달
-                        if (isModelInitialized) {
-                            processAudioData(audioBuffer, bytesRead);
-                        }
+                    // 음성 구간만 Vosk로 전달 (무음/잡음 프레임은 인식기에 보내지 않음)
+                    if (isModelInitialized) {
+                        voiceActivityDetector.process(audioBuffer, bytesRead, speechSink);
                     }
                 } else if (bytesRead < 0) {
                     Log.e(TAG, "Error reading audio: " + bytesRead);
@@ -189,51 +361,14 @@ public class AudioCaptureService extends Service {
                 }
             }
 
-            Log.d(TAG, "Audio processing thread ended");
+            Log.d(TAG, "Audio processing thread ended: " + voiceActivityDetector + ", " + tuner);
         });
         audioThread.start();
     }
 
     private void processAudioData(byte[] audioData, int size) {
-        if (!isModelInitialized) {
-            return;
-        }
-
-        // Vosk 음성 인식 처리
-        speechRecognitionManager.processAudio(audioData, size,
-                new SpeechRecognitionManager.RecognitionCallback() {
-                    @Override
-                    public void onTextRecognized(String text) {
-                        Log.d(TAG, "Recognized text: " + text);
-
-                        // 번역 처리
-                        TranslationManager.getInstance(AudioCaptureService.this)
-                                .translate(text, sourceLanguage, targetLanguage,
-                                        new TranslationManager.TranslationCallback() {
-                                            @Override
-                                            public void onTranslationSuccess(String translatedText) {
-                                                Log.d(TAG, "Translated text: " + translatedText);
-
-                                                // 오버레이에 자막 표시
-                                                Intent broadcastIntent = new Intent(
-                                                        "com.livecaption.translator.UPDATE_SUBTITLE");
-                                                broadcastIntent.putExtra("originalText", text);
-                                                broadcastIntent.putExtra("translatedText", translatedText);
-                                                sendBroadcast(broadcastIntent);
-                                            }
-
-                                            @Override
-                                            public void onTranslationError(String error) {
-                                                Log.e(TAG, "Translation error: " + error);
-                                            }
-                                        });
-                    }
-
-                    @Override
-                    public void onError(String error) {
-                        Log.e(TAG, "Recognition error: " + error);
-                    }
-                });
+        // 캡처 스레드 핫패스: 링 버퍼에 복사만 하고 할당 없이 반환
+        speechRecognitionManager.processAudio(audioData, size);
     }
 
     private void showToast(final String message) {
@@ -311,12 +446,56 @@ public class AudioCaptureService extends Service {
         }
 
         if (speechRecognitionManager != null) {
+            Log.d(TAG, "Audio queue stats: " + speechRecognitionManager.getAudioQueue()
+                    + ", " + speechRecognitionManager.getLoadShedder()
+                    + ", " + speechRecognitionManager.getUtteranceLimiter()
+                    + ", " + speechRecognitionManager.getLanguageDetector());
             speechRecognitionManager.destroy();
         }
 
+        mainHandler.removeCallbacks(segmentPauseCheck);
+        Log.d(TAG, "Caption quality: " + captionQualityFilter + ", " + captionSegmenter);
+        closeCaptionHistory();
+        saveFrameTuning();
+        writeLatencyDump();
+
         Log.d(TAG, "Audio capture stopped");
     }
 
+    /**
+     * 세션 지연 통계를 파일로 저장 (adb pull /data/data/.../files/latency_dump.txt)
+     */
+    private void writeLatencyDump() {
+        try {
+            LatencyTracker.getInstance().writeDumpFile(new File(getFilesDir(), LATENCY_DUMP_FILE));
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing latency dump", e);
+        }
+    }
+
+    /**
+     * adb shell dumpsys activity service com.livecaption.translator/.AudioCaptureService
+     */
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter writer, String[] args) {
+        LatencyTracker.getInstance().dump(writer);
+        if (speechRecognitionManager != null) {
+            writer.println("Audio queue: " + speechRecognitionManager.getAudioQueue());
+            writer.println("Load shedding: " + speechRecognitionManager.getLoadShedder());
+            writer.println("Endpoints: " + speechRecognitionManager.getUtteranceLimiter());
+            writer.println("Language detection: " + speechRecognitionManager.getLanguageDetector());
+        }
+        writer.println("Caption quality: " + captionQualityFilter);
+        writer.println("Caption segments: " + captionSegmenter);
+        writer.println("VAD: " + voiceActivityDetector);
+        writer.println("Capture frame: " + frameSizeTuner);
+        writer.println("Caption bus: " + captionEventBus);
+        writer.println("Caption history: " + captionHistory);
+        writer.println("Translation: " + translationManager.getTranslationScheduler());
+        writer.println("Translation cache: " + translationManager.getTranslationCache());
+        ModelCache.getInstance(this).dump(writer);
+    }
+
     @Override
     public IBinder onBind(Intent intent) {
         return null;
@@ -0,0 +1,73 @@
+package com.livecaption.translator;
+
+/**
+ * 오버레이로 전달되는 자막 이벤트
+ */
+public final class CaptionEvent {
+
+    public final String originalText;
+    public final String translatedText;
+    public final boolean isPartial;
+    // 표시 시간 (ms, 0이면 다음 자막이 올 때까지 유지)
+    public final long displayDurationMs;
+
+    // 발화 지연 추적 (없으면 null)
+    public final UtteranceTrace trace;
+
+    // CaptionEventBus가 발행 시점에 기록
+    long sequence;
+    long publishTimeNanos;
+
+    private CaptionEvent(String originalText, String translatedText, boolean isPartial,
+                         long displayDurationMs, UtteranceTrace trace) {
+        this.originalText = originalText;
+        this.translatedText = translatedText;
+        this.isPartial = isPartial;
+        this.displayDurationMs = displayDurationMs;
+        this.trace = trace;
+    }
+
+    /**
+     * 번역까지 끝난 최종 자막
+     */
+    public static CaptionEvent translated(String originalText, String translatedText,
+                                          UtteranceTrace trace) {
+        return translated(originalText, translatedText, 0, trace);
+    }
+
+    /**
+     * 표시 시간이 정해진 최종 자막 (발화 길이 기준, {@link Utterance#getDisplayDurationMs()})
+     */
+    public static CaptionEvent translated(String originalText, String translatedText,
+                                          long displayDurationMs, UtteranceTrace trace) {
+        return new CaptionEvent(originalText, translatedText, false, displayDurationMs, trace);
+    }
+
+    /**
+     * 번역 전 중간 인식 결과 (원문만)
+     */
+    public static CaptionEvent partial(String originalText) {
+        return partial(originalText, null);
+    }
+
+    /**
+     * 중간 인식 결과 + 먼저 번역된 앞부분 (CaptionSegmenter, 아직 번역된 구간이 없으면 null)
+     */
+    public static CaptionEvent partial(String originalText, String translatedPrefix) {
+        return new CaptionEvent(originalText, translatedPrefix, true, 0, null);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getPublishTimeNanos() {
+        return publishTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "CaptionEvent{#" + sequence + (isPartial ? " partial" : "")
+                + ", original=" + originalText + ", translated=" + translatedText + "}";
+    }
+}
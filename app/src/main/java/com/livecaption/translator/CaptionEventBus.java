@@ -0,0 +1,205 @@
+package com.livecaption.translator;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 같은 프로세스 안에서 자막 이벤트를 전달하는 발행/구독 채널.
+ * sendBroadcast와 달리 Binder/Bundle을 거치지 않으며, 구독자 스레드에
+ * 아직 처리되지 않은 이벤트가 있으면 최신 이벤트로 합쳐서 한 번만 전달한다.
+ */
+public class CaptionEventBus {
+
+    private static final CaptionEventBus instance = new CaptionEventBus();
+
+    public interface Subscriber {
+        void onCaption(CaptionEvent event);
+    }
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // 발행 → 구독자 콜백 반환까지의 지연 통계 (화면 반영 시점이 아님: 오버레이는 다음 프레임에
+    // 그리므로, 발행 → 렌더링은 LatencyTracker의 render 히스토그램으로 본다)
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong totalDispatchNanos = new AtomicLong();
+    private final AtomicLong maxDispatchNanos = new AtomicLong();
+    private volatile long lastDispatchNanos;
+
+    public static CaptionEventBus getInstance() {
+        return instance;
+    }
+
+    /**
+     * 구독 등록
+     *
+     * @param executor 이벤트를 처리할 스레드 (예: 메인 Handler::post)
+     */
+    public void subscribe(Subscriber subscriber, Executor executor) {
+        subscriptions.add(new Subscription(subscriber, executor, false));
+    }
+
+    /**
+     * 최종 자막만 합치지 않고 모두 전달하는 구독 (기록용, 중간 결과는 전달하지 않음).
+     * 발행 순서대로 처리되도록 executor는 단일 스레드여야 한다.
+     */
+    public void subscribeFinals(Subscriber subscriber, Executor executor) {
+        subscriptions.add(new Subscription(subscriber, executor, true));
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.subscriber == subscriber) {
+                subscriptions.remove(subscription);
+            }
+        }
+    }
+
+    public void publish(CaptionEvent event) {
+        event.sequence = sequence.incrementAndGet();
+        event.publishTimeNanos = System.nanoTime();
+        if (event.trace != null) {
+            event.trace.markPublished();
+        }
+        published.incrementAndGet();
+
+        for (Subscription subscription : subscriptions) {
+            subscription.enqueue(event);
+        }
+    }
+
+    private void recordDispatch(long dispatchNanos) {
+        dispatched.incrementAndGet();
+        totalDispatchNanos.addAndGet(dispatchNanos);
+        lastDispatchNanos = dispatchNanos;
+
+        long max;
+        do {
+            max = maxDispatchNanos.get();
+        } while (dispatchNanos > max && !maxDispatchNanos.compareAndSet(max, dispatchNanos));
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public double getAverageDispatchMs() {
+        long count = dispatched.get();
+        return count == 0 ? 0 : totalDispatchNanos.get() / 1e6 / count;
+    }
+
+    public double getMaxDispatchMs() {
+        return maxDispatchNanos.get() / 1e6;
+    }
+
+    public double getLastDispatchMs() {
+        return lastDispatchNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.US,
+                "CaptionEventBus{published=%d, dispatched=%d, coalesced=%d, "
+                        + "avgDispatch=%.2fms, maxDispatch=%.2fms}",
+                published.get(), dispatched.get(), coalesced.get(),
+                getAverageDispatchMs(), getMaxDispatchMs());
+    }
+
+    /**
+     * 구독자별 대기 슬롯. 최종 자막과 중간 자막을 따로 보관해서
+     * 중간 결과가 아직 그려지지 않은 최종 자막을 덮어쓰지 않도록 한다.
+     * finalsOnly면 슬롯 없이 최종 자막마다 executor에 넘긴다.
+     */
+    private class Subscription implements Runnable {
+        final Subscriber subscriber;
+        final Executor executor;
+        final boolean finalsOnly;
+
+        private CaptionEvent pendingFinal;
+        private CaptionEvent pendingPartial;
+        private boolean scheduled;
+
+        Subscription(Subscriber subscriber, Executor executor, boolean finalsOnly) {
+            this.subscriber = subscriber;
+            this.executor = executor;
+            this.finalsOnly = finalsOnly;
+        }
+
+        void enqueue(final CaptionEvent event) {
+            if (finalsOnly) {
+                if (!event.isPartial) {
+                    try {
+                        executor.execute(() -> dispatch(event));
+                    } catch (RejectedExecutionException e) {
+                        // 구독 해지와 겹쳐 executor가 이미 종료됨
+                    }
+                }
+                return;
+            }
+
+            boolean schedule;
+            synchronized (this) {
+                CaptionEvent replaced;
+                if (event.isPartial) {
+                    replaced = pendingPartial;
+                    pendingPartial = event;
+                } else {
+                    replaced = pendingFinal;
+                    pendingFinal = event;
+                }
+                if (replaced != null) {
+                    coalesced.incrementAndGet();
+                    if (replaced.trace != null) {
+                        // 그려지지 않을 최종 자막: 지연 통계에서 빠지지 않도록 따로 셈
+                        LatencyTracker.getInstance().recordSuperseded();
+                    }
+                }
+                schedule = !scheduled;
+                scheduled = true;
+            }
+
+            if (schedule) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            CaptionEvent finalEvent;
+            CaptionEvent partialEvent;
+            synchronized (this) {
+                finalEvent = pendingFinal;
+                partialEvent = pendingPartial;
+                pendingFinal = null;
+                pendingPartial = null;
+                scheduled = false;
+            }
+
+            if (finalEvent != null) {
+                dispatch(finalEvent);
+            }
+            // 최종 자막보다 새로운 중간 결과만 표시
+            if (partialEvent != null
+                    && (finalEvent == null || partialEvent.sequence > finalEvent.sequence)) {
+                dispatch(partialEvent);
+            }
+        }
+
+        private void dispatch(CaptionEvent event) {
+            subscriber.onCaption(event);
+            recordDispatch(System.nanoTime() - event.publishTimeNanos);
+        }
+    }
+}
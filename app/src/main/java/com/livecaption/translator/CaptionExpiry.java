@@ -0,0 +1,53 @@
+package com.livecaption.translator;
+
+/**
+ * 자막 표시 시간 정책.
+ * 글자 수를 읽기 속도(초당 글자)로 나눈 시간을 기본으로 하고, 말한 길이로 정한 표시 시간
+ * ({@link Utterance#getDisplayDurationMs()})이 더 길면 그쪽을 쓴다. 원문과 번역 중 긴 줄 기준이다.
+ * 읽기 속도 0은 만료 없음 (말한 길이가 없으면 다음 자막이 올 때까지 유지).
+ */
+public class CaptionExpiry {
+
+    public static final int DEFAULT_CHARS_PER_SECOND = 15;
+
+    /** 자막이 없는 상태가 이만큼 이어지면 오버레이 창을 떼어냄 */
+    public static final long DETACH_DELAY_MS = 30000;
+
+    // 짧은 자막도 눈에 들어올 여유
+    static final long BASE_MS = 1000;
+    static final long MIN_DISPLAY_MS = Utterance.MIN_DISPLAY_MS;
+    // 두 줄을 꽉 채운 번역도 읽을 수 있는 정도
+    static final long MAX_DISPLAY_MS = 10000;
+
+    private int charsPerSecond = DEFAULT_CHARS_PER_SECOND;
+
+    /**
+     * 읽기 속도 (초당 글자, 0이면 글자 수로 만료하지 않음)
+     */
+    public void setCharsPerSecond(int charsPerSecond) {
+        this.charsPerSecond = Math.max(0, charsPerSecond);
+    }
+
+    public int getCharsPerSecond() {
+        return charsPerSecond;
+    }
+
+    /**
+     * 자막 표시 시간 (ms, 0이면 만료 없음)
+     *
+     * @param spokenDisplayMs 말한 길이로 정한 표시 시간 (없으면 0)
+     */
+    public long displayDurationMs(String originalText, String translatedText, long spokenDisplayMs) {
+        if (charsPerSecond == 0) {
+            return spokenDisplayMs;
+        }
+        int chars = Math.max(length(originalText), length(translatedText));
+        long readingMs = BASE_MS + chars * 1000L / charsPerSecond;
+        long duration = Math.max(readingMs, spokenDisplayMs);
+        return Math.max(MIN_DISPLAY_MS, Math.min(MAX_DISPLAY_MS, duration));
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.trim().length();
+    }
+}
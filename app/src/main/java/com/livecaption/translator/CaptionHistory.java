@@ -0,0 +1,381 @@
+package com.livecaption.translator;
+
+import android.util.Log;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 세션 자막 기록 (스크롤백용). 최종 자막을 세션마다 파일 하나에 덧붙여 쓰고,
+ * 힙에는 최근 자막 몇 개(링)와 줄별 파일 위치(int 하나씩)만 둔다.
+ * <ul>
+ *   <li>파일은 세그먼트(기본 256KB) 단위로 memory-map해서 쓴다. 쓰기는 메모리 복사이고 내용은 페이지 캐시에 있어
+ *       힙을 쓰지 않는다. 레코드는 세그먼트 경계를 넘지 않는다.</li>
+ *   <li>레코드: [본문 길이 int][시각 long][원문 바이트 수 int][원문 UTF-8][번역 UTF-8].
+ *       원문 바이트 수의 위 두 비트는 원문/번역이 null인지 표시한다 (빈 문자열과 구분).
+ *       본문을 다 쓴 뒤 길이를 마지막에 쓰므로, 길이가 0인 곳이 기록의 끝(또는 세그먼트의 남은 공간)이다.</li>
+ *   <li>링에 없는 오래된 줄은 위치 색인으로 바로 찾아 읽는다. 화면은 보이는 줄만 {@link #get(int)}/{@link #page(int, int)}로 가져간다.</li>
+ * </ul>
+ * 여러 스레드에서 써도 된다 (버스 발행 스레드에서 쓰고 화면에서 읽음).
+ */
+public class CaptionHistory implements CaptionEventBus.Subscriber, Closeable {
+
+    private static final String TAG = "CaptionHistory";
+
+    static final int DEFAULT_SEGMENT_BYTES = 256 * 1024;
+    static final int DEFAULT_RING_CAPACITY = 64;
+    // 보관할 세션 파일 수 (새 세션을 만들 때 오래된 것부터 삭제)
+    static final int MAX_SESSIONS = 5;
+    // 레코드가 세그먼트에 들어가도록 자르는 길이 (UTF-8 한 글자 최대 3바이트)
+    static final int MAX_TEXT_CHARS = 2000;
+
+    private static final String SESSION_PREFIX = "session-";
+    private static final String SESSION_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 4;
+    private static final int FIXED_BODY_BYTES = 8 + 4;
+    // 원문 바이트 수 필드의 null 표시
+    private static final int ORIGINAL_NULL = 1 << 31;
+    private static final int TRANSLATED_NULL = 1 << 30;
+    private static final int LENGTH_MASK = TRANSLATED_NULL - 1;
+
+    /**
+     * 기록된 자막 한 줄 (불변)
+     */
+    public static final class Entry {
+        public final long timeMs;
+        public final String originalText;
+        public final String translatedText;
+
+        Entry(long timeMs, String originalText, String translatedText) {
+            this.timeMs = timeMs;
+            this.originalText = originalText;
+            this.translatedText = translatedText;
+        }
+    }
+
+    private final File file;
+    private final boolean writable;
+    private final int segmentBytes;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    // 줄별 레코드 위치 (파일 기준), 다음 쓰기 위치
+    private int[] offsets = new int[1024];
+    private int count;
+    private int writeOffset;
+
+    // 최근 줄 (링): 인덱스 i는 ring[i % 크기]
+    private final Entry[] ring;
+
+    private long ringHits;
+    private long mappedReads;
+    private boolean closed;
+
+    CaptionHistory(File file, boolean writable, int segmentBytes, int ringCapacity) throws IOException {
+        this.file = file;
+        this.writable = writable;
+        this.segmentBytes = segmentBytes;
+        this.ring = new Entry[ringCapacity];
+        randomAccessFile = new RandomAccessFile(file, writable ? "rw" : "r");
+        channel = randomAccessFile.getChannel();
+        try {
+            scan();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 새 세션 기록을 만든다. dir의 오래된 세션은 MAX_SESSIONS개만 남기고 지운다.
+     */
+    public static CaptionHistory createSession(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        String name = SESSION_PREFIX
+                + new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date()) + SESSION_SUFFIX;
+        File file = new File(dir, name);
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Cannot replace " + file);
+        }
+        deleteOldSessions(dir, MAX_SESSIONS - 1);
+        return new CaptionHistory(file, true, DEFAULT_SEGMENT_BYTES, DEFAULT_RING_CAPACITY);
+    }
+
+    /**
+     * 세션 기록을 읽기 전용으로 연다 (파일을 한 번 훑어 위치 색인만 만든다). 세그먼트 크기는 쓸 때와 같아야 한다.
+     */
+    public static CaptionHistory openForReading(File file) throws IOException {
+        return new CaptionHistory(file, false, DEFAULT_SEGMENT_BYTES, DEFAULT_RING_CAPACITY);
+    }
+
+    /**
+     * 가장 최근 세션 파일 (없으면 null)
+     */
+    public static File latestSession(File dir) {
+        File[] sessions = listSessions(dir);
+        return sessions.length == 0 ? null : sessions[sessions.length - 1];
+    }
+
+    private static File[] listSessions(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return new File[0];
+        }
+        List<File> sessions = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(SESSION_PREFIX) && name.endsWith(SESSION_SUFFIX)) {
+                sessions.add(file);
+            }
+        }
+        // 이름에 시각이 들어 있어 이름순 = 시간순
+        File[] sorted = sessions.toArray(new File[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static void deleteOldSessions(File dir, int keep) {
+        File[] sessions = listSessions(dir);
+        for (int i = 0; i < sessions.length - keep; i++) {
+            if (!sessions[i].delete()) {
+                Log.w(TAG, "Cannot delete old session " + sessions[i]);
+            }
+        }
+    }
+
+    /**
+     * 파일에 이미 있는 레코드의 위치 색인을 만든다 (길이 0에서 다음 세그먼트로, 세그먼트 처음이 0이면 끝)
+     */
+    private void scan() throws IOException {
+        long size = channel.size();
+        int offset = 0;
+        while (offset < size) {
+            ByteBuffer segment = segment(offset / segmentBytes, size);
+            int position = offset % segmentBytes;
+            int length = position + HEADER_BYTES <= segment.limit() ? segment.getInt(position) : 0;
+            if (length <= 0 || position + HEADER_BYTES + length > segment.limit()) {
+                int next = (offset / segmentBytes + 1) * segmentBytes;
+                if (position == 0 || next >= size) {
+                    break;
+                }
+                offset = next;
+                continue;
+            }
+            addOffset(offset);
+            offset += HEADER_BYTES + length;
+        }
+        writeOffset = offset;
+    }
+
+    /**
+     * 최종 자막만 기록 (중간 결과는 건너뜀)
+     */
+    @Override
+    public void onCaption(CaptionEvent event) {
+        if (event.isPartial) {
+            return;
+        }
+        try {
+            append(System.currentTimeMillis(), event.originalText, event.translatedText);
+        } catch (IOException e) {
+            Log.e(TAG, "Error appending caption", e);
+        }
+    }
+
+    /**
+     * 한 줄 추가
+     *
+     * @return 추가된 줄의 인덱스
+     */
+    public synchronized int append(long timeMs, String originalText, String translatedText) throws IOException {
+        if (!writable || closed) {
+            throw new IOException("History is not writable");
+        }
+        originalText = trim(originalText);
+        translatedText = trim(translatedText);
+        byte[] original = encode(originalText);
+        byte[] translated = encode(translatedText);
+        int lengthField = original.length
+                | (originalText == null ? ORIGINAL_NULL : 0)
+                | (translatedText == null ? TRANSLATED_NULL : 0);
+        int length = FIXED_BODY_BYTES + original.length + translated.length;
+
+        int position = writeOffset % segmentBytes;
+        if (position + HEADER_BYTES + length > segmentBytes) {
+            // 남은 공간은 0으로 두고 다음 세그먼트 처음부터
+            writeOffset = (writeOffset / segmentBytes + 1) * segmentBytes;
+            position = 0;
+        }
+        MappedByteBuffer segment = segment(writeOffset / segmentBytes, Long.MAX_VALUE);
+        segment.putLong(position + HEADER_BYTES, timeMs);
+        segment.putInt(position + HEADER_BYTES + 8, lengthField);
+        put(segment, position + HEADER_BYTES + FIXED_BODY_BYTES, original);
+        put(segment, position + HEADER_BYTES + FIXED_BODY_BYTES + original.length, translated);
+        // 길이를 마지막에 써서 읽는 쪽이 덜 쓴 레코드를 보지 않게
+        segment.putInt(position, length);
+
+        int index = addOffset(writeOffset);
+        writeOffset += HEADER_BYTES + length;
+        ring[index % ring.length] = new Entry(timeMs, originalText, translatedText);
+        return index;
+    }
+
+    private int addOffset(int offset) {
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[count] = offset;
+        return count++;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * index번째 줄 (0이 가장 오래된 줄). 최근 줄은 링에서, 나머지는 파일에서 읽는다.
+     */
+    public synchronized Entry get(int index) throws IOException {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + count);
+        }
+        if (closed) {
+            throw new IOException("History is closed");
+        }
+        Entry entry = ring[index % ring.length];
+        if (entry != null && index >= count - ring.length) {
+            ringHits++;
+            return entry;
+        }
+        mappedReads++;
+        return read(offsets[index]);
+    }
+
+    /**
+     * [from, from + size) 범위의 줄 (범위를 넘는 부분은 빠짐)
+     */
+    public synchronized List<Entry> page(int from, int size) throws IOException {
+        int start = Math.max(0, from);
+        int end = Math.min(count, from + size);
+        List<Entry> entries = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            entries.add(get(i));
+        }
+        return entries;
+    }
+
+    private Entry read(int offset) throws IOException {
+        ByteBuffer segment = segment(offset / segmentBytes, channel.size());
+        int position = offset % segmentBytes;
+        int length = segment.getInt(position);
+        long timeMs = segment.getLong(position + HEADER_BYTES);
+        int lengthField = segment.getInt(position + HEADER_BYTES + 8);
+        int originalLength = lengthField & LENGTH_MASK;
+        int textStart = position + HEADER_BYTES + FIXED_BODY_BYTES;
+        String original = (lengthField & ORIGINAL_NULL) != 0 ? null
+                : decode(get(segment, textStart, originalLength));
+        String translated = (lengthField & TRANSLATED_NULL) != 0 ? null
+                : decode(get(segment, textStart + originalLength, length - FIXED_BODY_BYTES - originalLength));
+        return new Entry(timeMs, original, translated);
+    }
+
+    /**
+     * index번째 세그먼트 매핑 (처음 쓰는 세그먼트는 새로 매핑, 쓰기 모드에서는 파일이 늘어남)
+     */
+    private MappedByteBuffer segment(int index, long fileSize) throws IOException {
+        while (segments.size() <= index) {
+            long start = (long) segments.size() * segmentBytes;
+            MappedByteBuffer segment;
+            if (writable) {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, start, segmentBytes);
+            } else {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(segmentBytes, Math.max(0, fileSize - start)));
+            }
+            segments.add(segment);
+        }
+        return segments.get(index);
+    }
+
+    private static void put(ByteBuffer segment, int position, byte[] bytes) {
+        ByteBuffer target = segment.duplicate();
+        target.position(position);
+        target.put(bytes);
+    }
+
+    private static byte[] get(ByteBuffer segment, int position, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer source = segment.duplicate();
+        source.position(position);
+        source.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * 너무 긴 텍스트는 최근 MAX_TEXT_CHARS자만 남김 (서로게이트 쌍 가운데서 자르지 않음)
+     */
+    static String trim(String text) {
+        if (text == null || text.length() <= MAX_TEXT_CHARS) {
+            return text;
+        }
+        int start = text.length() - MAX_TEXT_CHARS;
+        if (Character.isLowSurrogate(text.charAt(start))) {
+            start++;
+        }
+        return text.substring(start);
+    }
+
+    private static byte[] encode(String text) {
+        return text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decode(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (writable) {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+        segments.clear();
+        Arrays.fill(ring, null);
+        channel.close();
+        randomAccessFile.close();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CaptionHistory{" + file.getName()
+                + ", lines=" + count
+                + ", bytes=" + writeOffset
+                + ", segments=" + segments.size()
+                + ", ringHits=" + ringHits
+                + ", mappedReads=" + mappedReads + "}";
+    }
+}
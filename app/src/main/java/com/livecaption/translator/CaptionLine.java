@@ -0,0 +1,107 @@
+package com.livecaption.translator;
+
+/**
+ * 오버레이 자막 한 줄의 표시 상태 (Android 비의존, CaptionRenderer의 메인 스레드에서만 사용).
+ * 표시하려는 텍스트(target), 화면에 있는 텍스트(shown), 백그라운드 계산이 끝난 텍스트(ready)를
+ * 나눠 두고, 프레임마다 계산이 끝난 줄만 반영하며 늦게 끝난 이전 계산은 버린다.
+ *
+ * @param <T> 미리 계산된 텍스트 (앱에서는 PrecomputedText)
+ */
+final class CaptionLine<T> {
+
+    /**
+     * 이번 프레임에 화면에 반영할 변화
+     */
+    enum Change {
+        NONE,
+        HIDE,
+        SHOW,
+        UPDATE
+    }
+
+    // 표시하려는 텍스트 (null이면 숨김), 화면에 있는 텍스트
+    private String target;
+    private String shown;
+    // 미리 계산된 텍스트와 그 원본
+    private T ready;
+    private String readyFor;
+    // 요청 세대 (늦게 끝난 이전 계산은 버림)
+    private int generation;
+
+    /**
+     * 표시할 텍스트 요청 (null이면 숨김)
+     *
+     * @return 새로 계산해야 하면 그 요청의 세대, 아니면 -1
+     */
+    int request(String text) {
+        target = text;
+        if (text == null || text.equals(shown) || text.equals(readyFor)) {
+            // 진행 중인 이전 계산은 결과가 와도 버림
+            generation++;
+            return -1;
+        }
+        return ++generation;
+    }
+
+    /**
+     * 백그라운드 계산 완료
+     *
+     * @return 그 사이 새 요청이 없어 결과를 받았으면 true
+     */
+    boolean onPrecomputed(int generation, String text, T result) {
+        if (generation != this.generation) {
+            return false;
+        }
+        ready = result;
+        readyFor = text;
+        return true;
+    }
+
+    /**
+     * 계산이 끝나지 않아 아직 반영할 수 없는 요청이 있음
+     */
+    boolean isPending() {
+        return target != null && !target.equals(shown) && !target.equals(readyFor);
+    }
+
+    Change nextChange() {
+        if (target == null) {
+            return shown == null ? Change.NONE : Change.HIDE;
+        }
+        if (isPending() || target.equals(shown)) {
+            return Change.NONE;
+        }
+        return shown == null ? Change.SHOW : Change.UPDATE;
+    }
+
+    /**
+     * nextChange를 화면에 반영한 뒤 호출
+     */
+    void applied() {
+        if (target != null) {
+            ready = null;
+            readyFor = null;
+        }
+        shown = target;
+    }
+
+    /**
+     * 계산 없이 바로 반영한 텍스트 기록 (direct 모드)
+     */
+    void appliedDirect(String text) {
+        target = text;
+        shown = text;
+    }
+
+    String getTarget() {
+        return target;
+    }
+
+    String getShown() {
+        return shown;
+    }
+
+    T getReady() {
+        return ready;
+    }
+}
@@ -0,0 +1,95 @@
+package com.livecaption.translator;
+
+import java.util.Locale;
+
+/**
+ * 번역 전에 신뢰도가 낮은 인식 결과를 거르는 정책 (메인 스레드 전용).
+ * <ul>
+ *   <li>발화 양 끝의 신뢰도 낮은 단어(숨소리, 효과음이 단어로 잡힌 것)는 잘라낸다.</li>
+ *   <li>남은 단어의 평균 신뢰도가 낮으면 발화 전체를 버린다 (음악, 잡음, 다른 언어).</li>
+ * </ul>
+ * 버린 만큼 번역 요청이 줄어든다. 단어 정보가 없는 결과는 그대로 통과시킨다.
+ */
+public class CaptionQualityFilter {
+
+    public static final float DEFAULT_EDGE_WORD_CONFIDENCE = 0.4f;
+    public static final float DEFAULT_MIN_MEAN_CONFIDENCE = 0.55f;
+
+    private final float edgeWordConfidence;
+    private final float minMeanConfidence;
+
+    private long utterances;
+    private long droppedUtterances;
+    private long trimmedWords;
+    // 번역하지 않게 된 원문 글자 수
+    private long savedChars;
+
+    public CaptionQualityFilter() {
+        this(DEFAULT_EDGE_WORD_CONFIDENCE, DEFAULT_MIN_MEAN_CONFIDENCE);
+    }
+
+    /**
+     * @param edgeWordConfidence 양 끝 단어를 남기는 최소 신뢰도
+     * @param minMeanConfidence  발화를 남기는 최소 평균 신뢰도
+     */
+    public CaptionQualityFilter(float edgeWordConfidence, float minMeanConfidence) {
+        this.edgeWordConfidence = edgeWordConfidence;
+        this.minMeanConfidence = minMeanConfidence;
+    }
+
+    /**
+     * @return 번역할 발화 (양 끝을 잘랐으면 새 객체), 버릴 발화면 null
+     */
+    public Utterance filter(Utterance utterance) {
+        utterances++;
+        if (!utterance.hasWords()) {
+            return utterance;
+        }
+
+        int from = 0;
+        int to = utterance.getWordCount();
+        while (from < to && utterance.getConfidence(from) < edgeWordConfidence) {
+            from++;
+        }
+        while (to > from && utterance.getConfidence(to - 1) < edgeWordConfidence) {
+            to--;
+        }
+
+        Utterance kept = utterance.subRange(from, to);
+        if (kept.getWordCount() == 0 || kept.getMeanConfidence() < minMeanConfidence) {
+            droppedUtterances++;
+            savedChars += utterance.getText().length();
+            return null;
+        }
+
+        trimmedWords += utterance.getWordCount() - kept.getWordCount();
+        savedChars += utterance.getText().length() - kept.getText().length();
+        return kept;
+    }
+
+    public long getUtterances() {
+        return utterances;
+    }
+
+    public long getDroppedUtterances() {
+        return droppedUtterances;
+    }
+
+    public long getTrimmedWords() {
+        return trimmedWords;
+    }
+
+    public long getSavedChars() {
+        return savedChars;
+    }
+
+    @Override
+    public String toString() {
+        return "CaptionQualityFilter{thresholds=" + String.format(Locale.US, "%.2f/%.2f",
+                edgeWordConfidence, minMeanConfidence)
+                + ", utterances=" + utterances
+                + ", dropped=" + droppedUtterances
+                + ", trimmedWords=" + trimmedWords
+                + ", savedChars=" + savedChars + "}";
+    }
+}
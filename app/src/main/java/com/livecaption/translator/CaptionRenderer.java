@@ -0,0 +1,374 @@
+package com.livecaption.translator;
+
+import android.text.PrecomputedText;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.TextView;
+
+import java.io.PrintWriter;
+import java.util.concurrent.Executor;
+
+/**
+ * 오버레이 자막 렌더러 (메인 스레드 전용).
+ * <ul>
+ *   <li>자막 갱신은 Choreographer 프레임마다 최대 한 번 반영하고, 바뀐 줄만 setText한다.</li>
+ *   <li>줄바꿈과 글자 측정(PrecomputedText)은 layoutExecutor에서 미리 해 두고,
+ *       메인 스레드에서는 완성된 결과만 넣는다. 줄 수를 넘는 긴 텍스트는 마지막 줄들만 남긴다.</li>
+ *   <li>각 줄은 높이가 고정(lines)이고 숨길 때도 INVISIBLE을 써서 자막이 바뀌어도 오버레이 창 크기가 변하지 않는다.</li>
+ *   <li>두 줄이 모두 비면 root를 INVISIBLE로 바꾼다. 창의 최상위 뷰가 보이지 않으면 창 자체가 숨겨져
+ *       합성(SurfaceFlinger) 대상에서 빠진다.</li>
+ * </ul>
+ * 반영 비용은 apply(setText/visibility)와 apply 시작 → 같은 프레임의 draw 시작(measure/layout 포함)으로 측정한다.
+ * direct 모드는 이전 방식(이벤트마다 바로 setText, GONE 전환)으로, 전후 비교용이다.
+ */
+public class CaptionRenderer {
+
+    private static final String TAG = "CaptionRenderer";
+
+    // 줄별 최대 줄 수 (overlay_subtitle.xml의 android:lines와 같게)
+    static final int MAX_LINES = 2;
+
+    private final View root;
+    private final Line original;
+    private final Line translated;
+    private final Executor layoutExecutor;
+    private final Choreographer choreographer = Choreographer.getInstance();
+
+    private boolean directMode;
+    private boolean frameScheduled;
+    private boolean released;
+
+    // apply 시작 시각 (다음 draw에서 기록, 0이면 측정 대기 없음)
+    private long applyStartNanos;
+    // 화면에 반영되면 기록할 발화 지연 추적
+    private UtteranceTrace pendingTrace;
+
+    private final LatencyHistogram applyCost = new LatencyHistogram("overlay_apply");
+    private final LatencyHistogram frameCost = new LatencyHistogram("overlay_apply_to_draw");
+    private final LatencyHistogram precomputeCost = new LatencyHistogram("text_precompute");
+    private long requests;
+    private long unchanged;
+    private long applies;
+    private long stalePrecomputes;
+
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            frameScheduled = false;
+            applyPending();
+        }
+    };
+
+    private final ViewTreeObserver.OnDrawListener drawListener = new ViewTreeObserver.OnDrawListener() {
+        @Override
+        public void onDraw() {
+            if (applyStartNanos > 0) {
+                frameCost.recordNanos(System.nanoTime() - applyStartNanos);
+                applyStartNanos = 0;
+            }
+        }
+    };
+
+    // 오버레이 창을 떼었다 다시 붙이면 ViewTreeObserver가 새로 생기므로 붙을 때마다 등록
+    private final View.OnAttachStateChangeListener attachListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View view) {
+            view.getViewTreeObserver().addOnDrawListener(drawListener);
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View view) {
+            view.getViewTreeObserver().removeOnDrawListener(drawListener);
+            applyStartNanos = 0;
+        }
+    };
+
+    /**
+     * 자막 한 줄 (원문 또는 번역)
+     */
+    private final class Line {
+        final TextView view;
+        final CaptionLine<PrecomputedText> state = new CaptionLine<>();
+
+        Line(TextView view) {
+            this.view = view;
+        }
+
+        void request(String text) {
+            int generation = state.request(text);
+            if (generation >= 0) {
+                precompute(this, text, generation);
+            }
+        }
+
+        boolean isPending() {
+            return state.isPending();
+        }
+    }
+
+    public CaptionRenderer(View root, TextView originalView, TextView translatedView, Executor layoutExecutor) {
+        this.root = root;
+        this.original = new Line(originalView);
+        this.translated = new Line(translatedView);
+        this.layoutExecutor = layoutExecutor;
+        root.addOnAttachStateChangeListener(attachListener);
+        if (root.isAttachedToWindow()) {
+            root.getViewTreeObserver().addOnDrawListener(drawListener);
+        }
+    }
+
+    /**
+     * 이전 방식으로 바로 반영 (전후 프레임 비용 비교용)
+     */
+    public void setDirectMode(boolean directMode) {
+        this.directMode = directMode;
+        Log.d(TAG, "Render mode: " + (directMode ? "direct" : "vsync"));
+    }
+
+    public boolean isDirectMode() {
+        return directMode;
+    }
+
+    /**
+     * 표시할 자막 (null 또는 빈 문자열인 줄은 숨김). 같은 내용이면 아무것도 하지 않는다.
+     */
+    public void show(String originalText, String translatedText) {
+        show(originalText, translatedText, null);
+    }
+
+    /**
+     * 최종 자막 표시. trace는 실제로 화면에 반영된 프레임에서 렌더링 완료로 기록한다.
+     */
+    public void show(String originalText, String translatedText, UtteranceTrace trace) {
+        if (pendingTrace != null) {
+            // 반영되기 전에 다음 자막으로 바뀜: 렌더링된 것으로 기록하지 않고 따로 셈
+            LatencyTracker.getInstance().recordSuperseded();
+        }
+        pendingTrace = trace;
+
+        String o = emptyToNull(originalText);
+        String t = emptyToNull(translatedText);
+        if (equals(o, original.state.getTarget()) && equals(t, translated.state.getTarget())) {
+            unchanged++;
+            if (!original.isPending() && !translated.isPending()) {
+                flushTrace();
+            }
+            return;
+        }
+        requests++;
+
+        if (directMode) {
+            applyDirect(o, t);
+            return;
+        }
+        original.request(o);
+        translated.request(t);
+        scheduleFrame();
+    }
+
+    public void clear() {
+        show(null, null);
+    }
+
+    /**
+     * 표시하려는 원문 (반영 대기 중인 것 포함)
+     */
+    public String getOriginalText() {
+        return original.state.getTarget();
+    }
+
+    public String getTranslatedText() {
+        return translated.state.getTarget();
+    }
+
+    private void scheduleFrame() {
+        if (!frameScheduled && !released) {
+            frameScheduled = true;
+            choreographer.postFrameCallback(frameCallback);
+        }
+    }
+
+    /**
+     * 백그라운드에서 줄바꿈 계산 후 PrecomputedText 생성. 폭과 글꼴 설정은 여기서(메인 스레드) 가져간다.
+     */
+    private void precompute(final Line line, final String text, final int generation) {
+        final PrecomputedText.Params params = line.view.getTextMetricsParams();
+        final int width = line.view.getWidth() - line.view.getPaddingLeft() - line.view.getPaddingRight();
+        layoutExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                CharSequence visible = lastLines(text, params, width);
+                final PrecomputedText precomputed = PrecomputedText.create(visible, params);
+                precomputeCost.recordNanos(System.nanoTime() - start);
+
+                root.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (released || !line.state.onPrecomputed(generation, text, precomputed)) {
+                            stalePrecomputes++;
+                            return;
+                        }
+                        scheduleFrame();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 줄 수를 넘으면 마지막 MAX_LINES 줄만 남김 (실시간 자막은 최근 말이 중요)
+     */
+    private static CharSequence lastLines(String text, PrecomputedText.Params params, int width) {
+        if (width <= 0) {
+            return text;
+        }
+        TextPaint paint = params.getTextPaint();
+        StaticLayout layout = StaticLayout.Builder.obtain(text, 0, text.length(), paint, width)
+                .setBreakStrategy(params.getBreakStrategy())
+                .setHyphenationFrequency(params.getHyphenationFrequency())
+                .setIncludePad(false)
+                .build();
+        int lines = layout.getLineCount();
+        if (lines <= MAX_LINES) {
+            return text;
+        }
+        return text.substring(layout.getLineStart(lines - MAX_LINES));
+    }
+
+    /**
+     * 프레임마다 한 번: 계산이 끝난 줄만 반영 (아직인 줄은 이전 텍스트 유지)
+     */
+    private void applyPending() {
+        long start = System.nanoTime();
+        boolean changed = applyLine(original) | applyLine(translated);
+
+        boolean empty = original.state.getShown() == null && translated.state.getShown() == null;
+        int rootVisibility = empty ? View.INVISIBLE : View.VISIBLE;
+        if (root.getVisibility() != rootVisibility) {
+            root.setVisibility(rootVisibility);
+            changed = true;
+        }
+
+        if (changed) {
+            recordApply(start);
+        }
+        if (!original.isPending() && !translated.isPending()) {
+            flushTrace();
+        }
+    }
+
+    private boolean applyLine(Line line) {
+        CaptionLine.Change change = line.state.nextChange();
+        if (change == CaptionLine.Change.NONE) {
+            return false;
+        }
+
+        if (change == CaptionLine.Change.HIDE) {
+            line.view.setVisibility(View.INVISIBLE);
+        } else {
+            try {
+                line.view.setText(line.state.getReady());
+            } catch (IllegalArgumentException e) {
+                // 계산 후 글꼴 설정이 바뀜: 메인 스레드에서 그대로 측정
+                line.view.setText(line.state.getTarget());
+            }
+            if (change == CaptionLine.Change.SHOW) {
+                line.view.setVisibility(View.VISIBLE);
+            }
+        }
+        line.state.applied();
+        return true;
+    }
+
+    /**
+     * 이전 방식: 이벤트마다 바로 setText하고 빈 줄은 GONE (창 크기가 바뀔 수 있음)
+     */
+    private void applyDirect(String originalText, String translatedText) {
+        long start = System.nanoTime();
+        applyDirectLine(original, originalText);
+        applyDirectLine(translated, translatedText);
+        root.setVisibility(View.VISIBLE);
+        recordApply(start);
+        flushTrace();
+    }
+
+    private void applyDirectLine(Line line, String text) {
+        if (text != null) {
+            line.view.setText(text);
+            line.view.setVisibility(View.VISIBLE);
+        } else {
+            line.view.setVisibility(View.GONE);
+        }
+        line.state.appliedDirect(text);
+    }
+
+    private void recordApply(long startNanos) {
+        applies++;
+        applyCost.recordNanos(System.nanoTime() - startNanos);
+        if (applyStartNanos == 0) {
+            applyStartNanos = startNanos;
+        }
+    }
+
+    private void flushTrace() {
+        if (pendingTrace != null) {
+            recordRendered(pendingTrace);
+            pendingTrace = null;
+        }
+    }
+
+    private static void recordRendered(UtteranceTrace trace) {
+        trace.markRendered();
+        LatencyTracker.getInstance().record(trace);
+    }
+
+    public void resetStats() {
+        applyCost.reset();
+        frameCost.reset();
+        precomputeCost.reset();
+        requests = 0;
+        unchanged = 0;
+        applies = 0;
+        stalePrecomputes = 0;
+    }
+
+    public void release() {
+        released = true;
+        choreographer.removeFrameCallback(frameCallback);
+        root.removeOnAttachStateChangeListener(attachListener);
+        ViewTreeObserver observer = root.getViewTreeObserver();
+        if (observer.isAlive()) {
+            observer.removeOnDrawListener(drawListener);
+        }
+    }
+
+    public void dump(PrintWriter writer) {
+        writer.println(this);
+        writer.println("  " + applyCost.summary());
+        writer.println("  " + frameCost.summary());
+        writer.println("  " + precomputeCost.summary());
+    }
+
+    private static String emptyToNull(String text) {
+        return text == null || text.isEmpty() ? null : text;
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    @Override
+    public String toString() {
+        return "CaptionRenderer{" + (directMode ? "direct" : "vsync")
+                + ", requests=" + requests
+                + ", unchanged=" + unchanged
+                + ", applied=" + applies
+                + ", coalesced=" + Math.max(0, requests - applies)
+                + ", stalePrecomputes=" + stalePrecomputes + "}";
+    }
+}
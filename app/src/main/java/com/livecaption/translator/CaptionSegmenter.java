@@ -0,0 +1,408 @@
+package com.livecaption.translator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 인식과 번역 사이의 분할 단계. 긴 발화를 최종 결과까지 기다리지 않고, 중간 결과에서
+ * 안정된 앞부분(연속된 중간 결과에서 바뀌지 않은 단어)을 구간으로 잘라 먼저 번역하고,
+ * 번역된 구간을 이어 붙여 자막으로 보여 준다.
+ *
+ * <p>구간을 보내는 시점 (안정된 단어 기준, Vosk 결과에는 문장 부호가 없어 절 경계는 쓰지 않음):
+ * <ul>
+ *   <li>MAX_SEGMENT_WORDS 이상 쌓임</li>
+ *   <li>아직 보내지 않은 가장 오래된 단어가 MAX_SEGMENT_DELAY_MS 이상 기다림 (길이와 관계없는 지연 상한)</li>
+ *   <li>PAUSE_MS 동안 중간 결과가 바뀌지 않음 (쉼): 마지막 단어까지 모두</li>
+ * </ul>
+ * 구간은 모두 도착해야 이어 붙일 수 있으므로 스케줄러의 구간 요청(submitSegment)으로 번역한다: 동시 진행
+ * 제한과 합치기는 자막과 함께 적용되지만 구간은 버려지지 않는다. 대신 발화가 끝날 때 스케줄러에서 순번을
+ * 받아 두고, 완성된 자막을 발행하기 전에 그보다 새로운 자막이 이미 전달됐는지 확인한다
+ * (늦게 완성된 이전 발화가 새 자막을 덮지 않도록).
+ * 한 번도 분할되지 않은 짧은 발화는 기존처럼 스케줄러(최신 우선)로 한 번에 번역한다.
+ *
+ * <p>중간 결과 이벤트도 이 클래스가 발행한다 (원문 중간 결과 + 지금까지 번역된 구간).
+ * 스레드 안전 (번역 콜백은 임의 스레드에서 올 수 있음).
+ */
+public class CaptionSegmenter {
+
+    static final int MAX_SEGMENT_WORDS = 10;
+    static final long MAX_SEGMENT_DELAY_MS = 2000;
+    public static final long PAUSE_MS = 700;
+
+    private static final String[] NO_WORDS = new String[0];
+
+    private final TranslationScheduler scheduler;
+    private final CaptionEventBus bus;
+    private final LatencyTracker latencyTracker;
+
+    private String sourceLanguage;
+    private String targetLanguage;
+    private boolean enabled = true;
+
+    // 진행 중인 발화
+    private String[] previousWords = NO_WORDS;
+    private String previousText = "";
+    private long[] firstHeardNanos = new long[64];
+    private int heardWords;
+    private int committedWords;
+    private long lastPartialNanos;
+    // 분할을 시작한 발화의 번역 조각 (분할 전이면 null)
+    private SegmentedCaption current;
+
+    private long utterances;
+    private long segmentedUtterances;
+    private long segments;
+    private long translatedSegments;
+    private long revisions;
+    private long staleCaptions;
+
+    public CaptionSegmenter(TranslationScheduler scheduler, CaptionEventBus bus, LatencyTracker latencyTracker) {
+        this.scheduler = scheduler;
+        this.bus = bus;
+        this.latencyTracker = latencyTracker;
+    }
+
+    public synchronized void setLanguages(String sourceLanguage, String targetLanguage) {
+        this.sourceLanguage = sourceLanguage;
+        this.targetLanguage = targetLanguage;
+    }
+
+    /**
+     * false면 분할하지 않고 발화 단위로만 번역 (비교 측정용)
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 중간 결과 (발화 시작부터의 전체 텍스트)
+     */
+    public synchronized void onPartial(String text, long nowNanos) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        String[] words = text.split(" ");
+        ensureCapacity(words.length);
+        for (int i = heardWords; i < words.length; i++) {
+            firstHeardNanos[i] = nowNanos;
+        }
+        heardWords = Math.max(heardWords, words.length);
+
+        // 직전 중간 결과와 같은 앞부분 중 마지막 단어는 아직 디코딩 중일 수 있어 제외
+        int stable = Math.min(commonPrefix(previousWords, words), words.length - 1);
+        previousWords = words;
+        previousText = text;
+        lastPartialNanos = nowNanos;
+
+        maybeEmit(stable, nowNanos, false);
+        bus.publish(CaptionEvent.partial(text, current != null ? current.translatedPrefix() : null));
+    }
+
+    /**
+     * 쉼 확인 (마지막 중간 결과 후 PAUSE_MS 뒤에 호출). 중간 결과가 그대로면 남은 단어를 모두 보낸다.
+     */
+    public synchronized void onIdle(long nowNanos) {
+        if (previousWords.length == 0 || nowNanos - lastPartialNanos < PAUSE_MS * 1_000_000L) {
+            return;
+        }
+        maybeEmit(previousWords.length, nowNanos, true);
+    }
+
+    /**
+     * 발화 종료. 분할한 발화면 아직 보내지 않은 꼬리만 번역한다.
+     *
+     * @param text              최종 텍스트 (신뢰도 필터로 버려졌으면 빈 문자열)
+     * @param displayDurationMs 자막 표시 시간 ({@link CaptionEvent#displayDurationMs})
+     */
+    public synchronized void onFinal(String text, long displayDurationMs, UtteranceTrace trace,
+                                     long nowNanos) {
+        if (text == null) {
+            text = "";
+        }
+        String[] words = text.isEmpty() ? NO_WORDS : text.split(" ");
+        SegmentedCaption caption = current;
+        if (!text.isEmpty()) {
+            utterances++;
+        }
+
+        if (caption == null) {
+            // 분할하지 않은 발화: 한 번에 번역 (최신 우선)
+            if (!text.isEmpty()) {
+                translateUtterance(text, displayDurationMs, trace,
+                        heardWords > 0 ? firstHeardNanos[0] : nowNanos);
+            }
+            resetUtterance();
+            return;
+        }
+
+        // 보낸 구간이 최종 결과와 다르면 (인식기가 앞부분을 고침) 기록만 하고 꼬리는 개수로 자름
+        if (!startsWith(words, previousWordsCommitted(caption))) {
+            revisions++;
+        }
+        int from = Math.min(committedWords, words.length);
+        if (from < words.length) {
+            ensureCapacity(words.length);
+            long heard = from < heardWords ? firstHeardNanos[from] : nowNanos;
+            addSegment(caption, join(words, from, words.length), heard);
+        }
+        caption.finish(text, displayDurationMs, trace, scheduler.reserveSequence());
+        resetUtterance();
+        publishIfProgressed(caption, System.nanoTime());
+    }
+
+    private void maybeEmit(int stable, long nowNanos, boolean pause) {
+        if (!enabled) {
+            return;
+        }
+        int end;
+        while ((end = segmentEnd(stable, nowNanos, pause)) > committedWords) {
+            if (current == null) {
+                current = new SegmentedCaption();
+                segmentedUtterances++;
+            }
+            current.committedWords = previousWords;
+            addSegment(current, join(previousWords, committedWords, end), firstHeardNanos[committedWords]);
+            committedWords = end;
+        }
+    }
+
+    /**
+     * 다음 구간의 끝 (보낼 구간이 없으면 committedWords)
+     */
+    private int segmentEnd(int stable, long nowNanos, boolean pause) {
+        int pending = stable - committedWords;
+        if (pending <= 0) {
+            return committedWords;
+        }
+        if (pause || nowNanos - firstHeardNanos[committedWords] >= MAX_SEGMENT_DELAY_MS * 1_000_000L) {
+            return stable;
+        }
+        return pending >= MAX_SEGMENT_WORDS ? committedWords + MAX_SEGMENT_WORDS : committedWords;
+    }
+
+    private void addSegment(final SegmentedCaption caption, String text, long heardNanos) {
+        final int index = caption.add(text, heardNanos);
+        segments++;
+        scheduler.submitSegment(text, sourceLanguage, targetLanguage, new TranslationCallback() {
+            @Override
+            public void onTranslationSuccess(String translatedText) {
+                onSegmentTranslated(caption, index, translatedText);
+            }
+
+            @Override
+            public void onTranslationError(String error) {
+                // 빠진 구간이 있어도 나머지는 이어서 표시
+                onSegmentTranslated(caption, index, "");
+            }
+        });
+    }
+
+    private synchronized void onSegmentTranslated(SegmentedCaption caption, int index, String translatedText) {
+        caption.translations.set(index, translatedText);
+        translatedSegments++;
+        publishIfProgressed(caption, System.nanoTime());
+    }
+
+    /**
+     * 앞에서부터 이어진 번역 구간이 늘었으면 발행 (발화가 끝나 모두 번역됐으면 최종 자막)
+     */
+    private void publishIfProgressed(SegmentedCaption caption, long nowNanos) {
+        int shown = caption.shownSegments;
+        while (caption.shownSegments < caption.translations.size()
+                && caption.translations.get(caption.shownSegments) != null) {
+            latencyTracker.recordWordToCaption(nowNanos - caption.heardNanos.get(caption.shownSegments));
+            caption.shownSegments++;
+        }
+
+        if (caption.isComplete()) {
+            if (!caption.published) {
+                caption.published = true;
+                if (!scheduler.claimDelivery(caption.sequence)) {
+                    // 늦게 완성되는 사이 더 새로운 자막이 이미 표시됨
+                    staleCaptions++;
+                    return;
+                }
+                UtteranceTrace trace = caption.trace;
+                if (trace != null) {
+                    trace.markTranslated();
+                }
+                bus.publish(CaptionEvent.translated(caption.finalText, caption.translatedPrefix(),
+                        caption.displayDurationMs, trace));
+            }
+        } else if (caption.shownSegments > shown && caption == current) {
+            bus.publish(CaptionEvent.partial(previousText, caption.translatedPrefix()));
+        }
+    }
+
+    private void translateUtterance(final String text, final long displayDurationMs,
+                                    final UtteranceTrace trace, final long heardNanos) {
+        if (trace != null) {
+            trace.markTranslateStart();
+        }
+        scheduler.submit(text, sourceLanguage, targetLanguage, new TranslationCallback() {
+            @Override
+            public void onTranslationSuccess(String translatedText) {
+                if (trace != null) {
+                    trace.markTranslated();
+                }
+                latencyTracker.recordWordToCaption(System.nanoTime() - heardNanos);
+                bus.publish(CaptionEvent.translated(text, translatedText, displayDurationMs, trace));
+            }
+
+            @Override
+            public void onTranslationError(String error) {
+            }
+        });
+    }
+
+    private void resetUtterance() {
+        previousWords = NO_WORDS;
+        previousText = "";
+        heardWords = 0;
+        committedWords = 0;
+        lastPartialNanos = 0;
+        current = null;
+    }
+
+    private void ensureCapacity(int words) {
+        if (firstHeardNanos.length < words) {
+            long[] grown = new long[Math.max(words, firstHeardNanos.length * 2)];
+            System.arraycopy(firstHeardNanos, 0, grown, 0, heardWords);
+            firstHeardNanos = grown;
+        }
+    }
+
+    private String[] previousWordsCommitted(SegmentedCaption caption) {
+        String[] committed = new String[Math.min(committedWords, caption.committedWords.length)];
+        System.arraycopy(caption.committedWords, 0, committed, 0, committed.length);
+        return committed;
+    }
+
+    private static int commonPrefix(String[] a, String[] b) {
+        int n = Math.min(a.length, b.length);
+        int i = 0;
+        while (i < n && a[i].equals(b[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean startsWith(String[] words, String[] prefix) {
+        return prefix.length <= words.length && commonPrefix(words, prefix) == prefix.length;
+    }
+
+    private static String join(String[] words, int from, int to) {
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                text.append(' ');
+            }
+            text.append(words[i]);
+        }
+        return text.toString();
+    }
+
+    private String separatorFor(String language) {
+        String code = Languages.toCode(language);
+        // 띄어쓰기를 하지 않는 언어는 그대로 이어 붙임
+        return "ja".equals(code) || "zh".equals(code) ? "" : " ";
+    }
+
+    public synchronized long getSegments() {
+        return segments;
+    }
+
+    /**
+     * 번역 결과를 기다리는 구간 수
+     */
+    public synchronized long getPendingSegments() {
+        return segments - translatedSegments;
+    }
+
+    public synchronized long getSegmentedUtterances() {
+        return segmentedUtterances;
+    }
+
+    /**
+     * 분할해서 보낸 앞부분을 최종 결과가 고친 횟수
+     */
+    public synchronized long getRevisions() {
+        return revisions;
+    }
+
+    /**
+     * 완성됐지만 더 새로운 자막이 먼저 표시돼 버린 분할 자막 수
+     */
+    public synchronized long getStaleCaptions() {
+        return staleCaptions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CaptionSegmenter{" + (enabled ? "on" : "off")
+                + ", utterances=" + utterances
+                + ", segmented=" + segmentedUtterances
+                + ", segments=" + segments
+                + ", revisions=" + revisions
+                + ", stale=" + staleCaptions + "}";
+    }
+
+    /**
+     * 분할된 발화 하나의 구간과 번역 (번역 전이면 null)
+     */
+    private final class SegmentedCaption {
+        final List<String> originals = new ArrayList<>();
+        final List<String> translations = new ArrayList<>();
+        final List<Long> heardNanos = new ArrayList<>();
+        final String separator = separatorFor(targetLanguage);
+        String[] committedWords = NO_WORDS;
+        int shownSegments;
+        boolean finished;
+        boolean published;
+        // 발화가 끝날 때 스케줄러에서 받은 순번
+        long sequence;
+        String finalText;
+        long displayDurationMs;
+        UtteranceTrace trace;
+
+        int add(String original, long heard) {
+            originals.add(original);
+            translations.add(null);
+            heardNanos.add(heard);
+            return originals.size() - 1;
+        }
+
+        void finish(String finalText, long displayDurationMs, UtteranceTrace trace, long sequence) {
+            this.finished = true;
+            this.sequence = sequence;
+            // 원문 줄은 최종 결과 그대로 (버려진 발화면 보낸 구간만)
+            this.finalText = finalText.isEmpty() ? join(originals.toArray(NO_WORDS), 0, originals.size())
+                    : finalText;
+            this.displayDurationMs = displayDurationMs;
+            this.trace = trace;
+            if (trace != null) {
+                trace.markTranslateStart();
+            }
+        }
+
+        boolean isComplete() {
+            return finished && shownSegments == translations.size();
+        }
+
+        String translatedPrefix() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < shownSegments; i++) {
+                String translated = translations.get(i);
+                if (translated.isEmpty()) {
+                    continue;
+                }
+                if (text.length() > 0) {
+                    text.append(separator);
+                }
+                text.append(translated);
+            }
+            return text.toString();
+        }
+    }
+}
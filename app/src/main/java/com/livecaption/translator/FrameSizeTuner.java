@@ -0,0 +1,193 @@
+package com.livecaption.translator;
+
+import java.util.Locale;
+
+/**
+ * 캡처 프레임 길이 결정과 인식기 실시간 계수(RTF = 디코딩 시간 / 오디오 길이) 측정.
+ * 프레임이 너무 짧으면 acceptWaveForm 호출(JNI) 오버헤드가 커지고, 너무 길면 지연이 늘어난다.
+ *
+ * <p>자동 모드에서는 현재 길이로 디코딩한 오디오가 WINDOW_AUDIO_MS만큼 쌓일 때마다 RTF를 보고,
+ * TARGET_RTF를 넘으면 다음 후보 길이로 늘린다. 여유가 크면 한 단계 짧은 길이를 시험해 보고,
+ * 그 길이가 실시간을 못 따라가면 다시 늘린 뒤 그보다 짧은 길이는 세션 동안 시도하지 않는다.
+ * 결과적으로 실시간 이내를 유지하는 가장 짧은 후보에 머문다.
+ *
+ * <p>onChunkDecoded는 인식 스레드, getFrameBytes는 캡처 스레드에서 호출한다.
+ */
+public class FrameSizeTuner {
+
+    public static final int MIN_FRAME_MS = 20;
+    public static final int MAX_FRAME_MS = 200;
+    public static final int DEFAULT_FRAME_MS = 40;
+
+    // 자동 모드 후보 (ms)
+    private static final int[] CANDIDATE_FRAME_MS = {20, 40, 60, 80, 100, 140, 200};
+
+    // 한 번 판정하는 데 쓰는 디코딩 오디오 길이와 최소 청크 수
+    private static final long WINDOW_AUDIO_MS = 1000;
+    private static final int WINDOW_MIN_CHUNKS = 5;
+
+    // 실시간(1.0)보다 약간 여유를 둔 목표, 이보다 한참 낮으면 더 짧은 프레임 시도
+    private static final double TARGET_RTF = 0.9;
+    private static final double SHRINK_RTF = 0.45;
+
+    private final int sampleRate;
+    private final boolean autoTune;
+
+    private volatile int frameMs;
+    // 자동 모드: 현재 후보 위치와, 실시간을 못 따라간 것이 확인된 길이 바로 위 (그 아래로는 내려가지 않음)
+    private int candidateIndex;
+    private int floorIndex;
+
+    // 현재 판정 구간 (인식 스레드 전용)
+    private long windowDecodeNanos;
+    private long windowAudioNanos;
+    private int windowChunks;
+
+    // 세션 누적 (인식 스레드만 씀)
+    private volatile long totalDecodeNanos;
+    private volatile long totalAudioNanos;
+    private volatile double lastWindowRtf = -1;
+    private volatile boolean settled;
+    private volatile int adjustments;
+
+    /**
+     * @param frameMs  고정 모드의 프레임 길이, 자동 모드에서는 시작 길이 (지난 세션 결과 등)
+     * @param autoTune true면 측정한 RTF로 프레임 길이를 조정
+     */
+    public FrameSizeTuner(int sampleRate, int frameMs, boolean autoTune) {
+        this.sampleRate = sampleRate;
+        this.autoTune = autoTune;
+        if (autoTune) {
+            candidateIndex = nearestCandidate(frameMs);
+            this.frameMs = CANDIDATE_FRAME_MS[candidateIndex];
+        } else {
+            this.frameMs = clampFrameMs(frameMs);
+            this.settled = true;
+        }
+    }
+
+    public static int clampFrameMs(int frameMs) {
+        return Math.max(MIN_FRAME_MS, Math.min(MAX_FRAME_MS, frameMs));
+    }
+
+    private static int nearestCandidate(int frameMs) {
+        int index = 0;
+        while (index < CANDIDATE_FRAME_MS.length - 1 && CANDIDATE_FRAME_MS[index] < frameMs) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * 청크 하나를 디코딩한 뒤 호출 (인식 스레드). 할당하지 않는다.
+     */
+    public void onChunkDecoded(int bytes, long decodeNanos) {
+        long audioNanos = bytes / 2 * 1_000_000_000L / sampleRate;
+        totalDecodeNanos += decodeNanos;
+        totalAudioNanos += audioNanos;
+
+        // 이전 길이로 큐에 들어와 있던 청크나 pre-roll 자투리는 판정에서 제외
+        if (!autoTune || bytes != getFrameBytes()) {
+            return;
+        }
+
+        windowDecodeNanos += decodeNanos;
+        windowAudioNanos += audioNanos;
+        windowChunks++;
+        if (windowAudioNanos < WINDOW_AUDIO_MS * 1_000_000L || windowChunks < WINDOW_MIN_CHUNKS) {
+            return;
+        }
+
+        double rtf = (double) windowDecodeNanos / windowAudioNanos;
+        lastWindowRtf = rtf;
+        windowDecodeNanos = 0;
+        windowAudioNanos = 0;
+        windowChunks = 0;
+
+        if (rtf > TARGET_RTF) {
+            // 실시간을 못 따라감: 이 길이 이하로는 다시 내려가지 않음
+            floorIndex = Math.max(floorIndex, candidateIndex + 1);
+            if (candidateIndex < CANDIDATE_FRAME_MS.length - 1) {
+                moveTo(candidateIndex + 1);
+            } else {
+                settled = true; // 가장 긴 프레임으로도 부족하면 그대로 유지
+            }
+        } else if (rtf < SHRINK_RTF && candidateIndex > floorIndex) {
+            moveTo(candidateIndex - 1);
+        } else {
+            settled = true;
+        }
+    }
+
+    private void moveTo(int index) {
+        candidateIndex = index;
+        frameMs = CANDIDATE_FRAME_MS[index];
+        settled = false;
+        adjustments++;
+    }
+
+    public boolean isAutoTune() {
+        return autoTune;
+    }
+
+    /**
+     * 현재 프레임 길이 (ms)
+     */
+    public int getFrameMs() {
+        return frameMs;
+    }
+
+    /**
+     * 현재 프레임 길이 (바이트, 16bit mono). 캡처 스레드가 read마다 조회한다.
+     */
+    public int getFrameBytes() {
+        return msToBytes(frameMs);
+    }
+
+    /**
+     * 캡처 버퍼에 필요한 최대 크기 (자동 모드는 가장 긴 후보 기준)
+     */
+    public int getMaxFrameBytes() {
+        return msToBytes(autoTune ? CANDIDATE_FRAME_MS[CANDIDATE_FRAME_MS.length - 1] : frameMs);
+    }
+
+    private int msToBytes(int ms) {
+        return sampleRate * ms / 1000 * 2;
+    }
+
+    /**
+     * 세션 전체 RTF (디코딩 시간 / 오디오 길이), 측정 전이면 -1
+     */
+    public double getRealTimeFactor() {
+        long audio = totalAudioNanos;
+        return audio == 0 ? -1 : (double) totalDecodeNanos / audio;
+    }
+
+    /**
+     * 마지막 판정 구간의 RTF (자동 모드), 측정 전이면 -1
+     */
+    public double getLastWindowRtf() {
+        return lastWindowRtf;
+    }
+
+    /**
+     * 현재 길이가 목표 RTF를 만족하는 것으로 확인되었는지 (고정 모드는 항상 true)
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public int getAdjustments() {
+        return adjustments;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameSizeTuner{" + (autoTune ? "auto" : "fixed")
+                + ", frameMs=" + frameMs
+                + ", rtf=" + String.format(Locale.US, "%.3f", getRealTimeFactor())
+                + ", windowRtf=" + String.format(Locale.US, "%.3f", lastWindowRtf)
+                + ", settled=" + settled
+                + ", adjustments=" + adjustments + "}";
+    }
+}
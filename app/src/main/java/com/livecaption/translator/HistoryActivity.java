@@ -0,0 +1,170 @@
+package com.livecaption.translator;
+
+import android.os.Bundle;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 가장 최근 세션의 자막 기록 (스크롤백).
+ * 목록은 화면에 보이는 줄만 {@link CaptionHistory#get(int)}로 읽으므로 줄 수와 관계없이 힙을 거의 쓰지 않는다.
+ * 화면에 들어올 때마다 세션 파일을 다시 열어 그 사이 추가된 자막까지 보여 준다.
+ * 파일을 열고 색인을 만드는 일은 줄 수에 비례하므로 백그라운드 스레드에서 하고 결과만 메인 스레드로 넘긴다.
+ */
+public class HistoryActivity extends AppCompatActivity {
+
+    private static final String TAG = "HistoryActivity";
+
+    private ListView listHistory;
+    private TextView tvEmpty;
+    private CaptionHistory history;
+    private final HistoryAdapter adapter = new HistoryAdapter();
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss", Locale.getDefault());
+    // 세션 파일 열기 전용 스레드
+    private final ExecutorService loader = Executors.newSingleThreadExecutor();
+    // 열기 요청 세대 (그 사이 onPause/onResume이 지나간 결과는 버림, 메인 스레드에서만 사용)
+    private int openGeneration;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_history);
+
+        listHistory = findViewById(R.id.list_history);
+        tvEmpty = findViewById(R.id.tv_history_empty);
+        listHistory.setEmptyView(tvEmpty);
+        listHistory.setAdapter(adapter);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        openLatestSession();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        closeSession();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        loader.shutdown();
+    }
+
+    private void openLatestSession() {
+        final int generation = ++openGeneration;
+        final File dir = new File(getFilesDir(), AudioCaptureService.HISTORY_DIR);
+        loader.execute(() -> {
+            CaptionHistory opened = null;
+            File session = CaptionHistory.latestSession(dir);
+            if (session != null) {
+                try {
+                    opened = CaptionHistory.openForReading(session);
+                    Log.d(TAG, "Opened " + opened);
+                } catch (IOException e) {
+                    Log.e(TAG, "Error opening caption history", e);
+                }
+            }
+            final CaptionHistory result = opened;
+            runOnUiThread(() -> onSessionOpened(generation, result));
+        });
+    }
+
+    private void onSessionOpened(int generation, CaptionHistory opened) {
+        if (generation != openGeneration) {
+            // 그 사이 화면을 떠났거나 다시 열기를 요청함
+            close(opened);
+            return;
+        }
+        history = opened;
+        adapter.notifyDataSetChanged();
+        if (adapter.getCount() > 0) {
+            // 최근 자막부터 보이도록 맨 아래로
+            listHistory.setSelection(adapter.getCount() - 1);
+        }
+    }
+
+    private void closeSession() {
+        // 아직 열고 있는 세션은 도착하면 닫음
+        openGeneration++;
+        if (history == null) {
+            return;
+        }
+        close(history);
+        history = null;
+        adapter.notifyDataSetChanged();
+    }
+
+    private static void close(CaptionHistory history) {
+        if (history == null) {
+            return;
+        }
+        try {
+            history.close();
+        } catch (IOException e) {
+            Log.e(TAG, "Error closing caption history", e);
+        }
+    }
+
+    private class HistoryAdapter extends BaseAdapter {
+
+        @Override
+        public int getCount() {
+            return history == null ? 0 : history.size();
+        }
+
+        @Override
+        public CaptionHistory.Entry getItem(int position) {
+            try {
+                return history.get(position);
+            } catch (IOException e) {
+                Log.e(TAG, "Error reading caption " + position, e);
+                return null;
+            }
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return position;
+        }
+
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+            View view = convertView;
+            if (view == null) {
+                view = LayoutInflater.from(HistoryActivity.this)
+                        .inflate(android.R.layout.simple_list_item_2, parent, false);
+            }
+            TextView tvTranslated = view.findViewById(android.R.id.text1);
+            TextView tvOriginal = view.findViewById(android.R.id.text2);
+
+            CaptionHistory.Entry entry = getItem(position);
+            if (entry == null) {
+                tvTranslated.setText("");
+                tvOriginal.setText("");
+                return view;
+            }
+            tvTranslated.setText(entry.translatedText != null ? entry.translatedText : entry.originalText);
+            String time = timeFormat.format(new Date(entry.timeMs));
+            tvOriginal.setText(entry.originalText != null ? time + "  " + entry.originalText : time);
+            return view;
+        }
+    }
+}
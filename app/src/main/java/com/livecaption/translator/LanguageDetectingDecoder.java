@@ -0,0 +1,744 @@
+package com.livecaption.translator;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 자동 언어 감지 디코더 (Android 비의존, RecognitionEngine의 디코더 자리에 들어감).
+ * 여러 언어의 인식기에 같은 PCM을 잠깐 넣어 보고(probe) 단어 신뢰도가 가장 높은 언어만 남긴다.
+ * <ul>
+ *   <li>probe 중: 현재 언어(leader)는 인식 스레드에서 평소처럼 디코딩해 결과를 내고,
+ *       나머지 후보는 각자의 스레드에서 같은 프레임을 디코딩한다 (코어를 나눠 씀).</li>
+ *   <li>probe 종료: probe 오디오가 최소 길이를 넘긴 뒤 leader의 발화가 끝나면(최대 길이에서는 강제로)
+ *       후보에 더 이상 프레임을 넣지 않고, 그 발화는 leader의 결과로 반환한다. 후보 스레드가 남은
+ *       프레임을 마무리하면 이후 프레임에서 점수를 비교해 승자만 남기고 나머지 인식기는 닫는다.
+ *       인식 스레드는 후보 스레드를 기다리지 않는다.</li>
+ *   <li>교체: 승자가 다른 언어면 다음 발화 경계에서 leader를 바꾼다 (발화 중이면 이전 언어의 발화를 끊음).</li>
+ *   <li>재검사: probe 후 오디오가 일정 길이만큼 지나거나, 발화 신뢰도 평균이 떨어지면
+ *       loaderExecutor에서 후보 인식기를 다시 만들고 다음 발화 경계에서 probe를 시작한다.</li>
+ * </ul>
+ * 점수는 단어 신뢰도(conf) 평균이며, 단어가 MIN_WORDS보다 적으면 그 비율만큼 깎는다.
+ * 후보 인식기는 setWords(true)로 만들어야 한다 (conf가 없으면 모든 단어가 1.0으로 보임).
+ *
+ * <p>SpeechDecoder 메서드는 인식 스레드에서만 호출한다.
+ */
+public class LanguageDetectingDecoder implements SpeechDecoder {
+
+    private static final String TAG = "LanguageDetector";
+
+    public static final String REASON_INITIAL = "initial";
+    public static final String REASON_PERIODIC = "periodic";
+    public static final String REASON_LOW_CONFIDENCE = "low_confidence";
+
+    private static final int DEFAULT_MIN_PROBE_MS = 2000;
+    private static final int DEFAULT_MAX_PROBE_MS = 8000;
+    private static final long DEFAULT_REPROBE_INTERVAL_MS = 5 * 60 * 1000L;
+
+    // 점수: 단어가 이보다 적으면 신뢰도 평균을 비율만큼 깎음
+    private static final int MIN_WORDS = 3;
+    // 다른 언어로 바꾸려면 현재 언어보다 이만큼 높아야 함 (비슷하면 유지)
+    private static final double SWITCH_MARGIN = 0.05;
+
+    // probe 후 발화 신뢰도 추적: 평균이 LOW_CONFIDENCE 아래로 내려가면 재검사
+    private static final double LOW_CONFIDENCE = 0.6;
+    private static final double CONFIDENCE_RATE = 0.3;
+    private static final int MIN_TRACKED_UTTERANCES = 3;
+
+    // 후보 스레드 큐와 종료 대기
+    private static final int CANDIDATE_QUEUE_SLOTS = 128;
+    private static final int MAX_FRAME_BYTES = 8192;
+    private static final long IDLE_PARK_NANOS = 5_000_000L;
+    // probe 종료 후 이 시간 안에 마무리하지 못한 후보는 판정에서 뺌 (인식 스레드는 기다리지 않음)
+    private static final long FINISH_TIMEOUT_MS = 2000;
+
+    /**
+     * 언어별 인식기 생성/반납 (앱에서는 ModelCache + Vosk Recognizer)
+     */
+    public interface DecoderFactory {
+        /**
+         * language(코드)의 인식기 생성. 모델 로드가 있을 수 있어 느리다 (인식 스레드에서 부르지 않음)
+         */
+        SpeechDecoder create(String language) throws IOException;
+
+        /**
+         * create로 만든 인식기를 닫고 반납
+         */
+        void release(String language, SpeechDecoder decoder);
+    }
+
+    public interface Listener {
+        /**
+         * probe 판정이 날 때마다 호출 (인식 스레드, 후보 스레드가 마무리된 뒤의 프레임에서).
+         * 다른 언어로 바뀌는 판정은 실제로 leader가 바뀌는 발화 경계에서 호출되므로,
+         * 그 전에 반환된 결과는 모두 이전 언어, 그 후의 결과는 모두 새 언어의 것이다.
+         */
+        void onProbeFinished(ProbeReport report);
+    }
+
+    private final int sampleRate;
+    private final DecoderFactory factory;
+    private final Executor loaderExecutor;
+    private final List<String> languages;
+    private volatile Listener listener;
+
+    private int minProbeMs = DEFAULT_MIN_PROBE_MS;
+    private int maxProbeMs = DEFAULT_MAX_PROBE_MS;
+    private long reprobeIntervalMs = DEFAULT_REPROBE_INTERVAL_MS;
+
+    // 결과를 내는 인식기와, probe 중인 나머지 후보 (인식 스레드 전용)
+    private volatile Candidate leader;
+    private final List<Candidate> challengers = new ArrayList<>();
+    // loaderExecutor가 만들어 둔 후보 (다음 발화 경계에서 probe 시작).
+    // loadCandidates와 close가 다른 스레드에서 겹쳐도 후보가 새지 않도록 pendingLock으로 보호
+    private final Object pendingLock = new Object();
+    private volatile List<Candidate> pendingCandidates;
+    private String pendingReason;
+    private boolean probeRequested;
+    private volatile boolean closed;
+
+    private boolean probing;
+    // probe는 끝났고 후보 스레드가 마무리되기를 기다리는 중
+    private boolean deciding;
+    private long decideDeadlineNanos;
+    // 판정에서 이긴 다른 언어 후보 (다음 발화 경계에서 leader가 됨)와 교체할 때 알릴 판정 결과
+    private Candidate nextLeader;
+    private ProbeReport switchReport;
+    private String probeReason;
+    private long probeStartNanos;
+    private long probeAudioBytes;
+    private boolean forceFinish;
+    private boolean atUtteranceBoundary = true;
+
+    // probe 이후 (재검사 판단용)
+    private long audioSinceProbeBytes;
+    private double confidenceAverage;
+    private int trackedUtterances;
+
+    private final VoskResultParser parser = new VoskResultParser();
+    private final VoskResult parsed = new VoskResult();
+
+    // 누적 통계
+    private volatile int probes;
+    private volatile int switches;
+    private volatile long totalProbeAudioMs;
+    private volatile long totalProbeCpuNanos;
+    private volatile ProbeReport lastReport;
+
+    /**
+     * @param language       처음 결과를 낼 언어 (코드)
+     * @param decoder        그 언어의 인식기 (factory.create로 만든 것)
+     * @param languages      감지 후보 언어 (language 포함)
+     * @param loaderExecutor 재검사용 후보 인식기를 만들 스레드
+     */
+    public LanguageDetectingDecoder(int sampleRate, String language, SpeechDecoder decoder,
+                                    List<String> languages, DecoderFactory factory,
+                                    Executor loaderExecutor) {
+        this.sampleRate = sampleRate;
+        this.factory = factory;
+        this.loaderExecutor = loaderExecutor;
+        this.languages = new ArrayList<>(languages);
+        this.leader = new Candidate(language, decoder, false);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * probe 길이 설정 (ms). 최소 길이가 지난 뒤 발화가 끝나면 종료, 최대 길이에서는 발화를 끊고 종료.
+     */
+    public void setProbeWindowMs(int minMs, int maxMs) {
+        this.minProbeMs = Math.max(0, minMs);
+        this.maxProbeMs = Math.max(minProbeMs, maxMs);
+    }
+
+    /**
+     * 주기적 재검사 간격 (probe 후 인식기에 들어간 오디오 길이 기준, 0 이하면 주기 검사 안 함)
+     */
+    public void setReprobeIntervalMs(long intervalMs) {
+        this.reprobeIntervalMs = intervalMs;
+    }
+
+    /**
+     * 현재 언어 외 후보 인식기를 만들어 두고, 다음 발화 경계에서 probe를 시작하게 함.
+     * 모델 로드 때문에 느리므로 인식 스레드가 아닌 곳에서 호출한다 (세션 시작 시 초기화 스레드 등).
+     */
+    public void loadCandidates(String reason) {
+        String current = leader.language;
+        List<Candidate> loaded = new ArrayList<>();
+        for (String language : languages) {
+            if (language.equals(current)) {
+                continue;
+            }
+            try {
+                loaded.add(new Candidate(language, factory.create(language), true));
+            } catch (IOException e) {
+                Log.e(TAG, "Error creating recognizer for " + language, e);
+            }
+        }
+
+        List<Candidate> unused = loaded;
+        synchronized (pendingLock) {
+            if (!closed) {
+                // 아직 probe를 시작하지 않은 이전 후보는 새 후보로 교체
+                unused = pendingCandidates;
+                pendingReason = reason;
+                pendingCandidates = loaded;
+            }
+        }
+        releaseAll(unused);
+    }
+
+    private void releaseAll(List<Candidate> candidates) {
+        if (candidates == null) {
+            return;
+        }
+        for (Candidate candidate : candidates) {
+            factory.release(candidate.language, candidate.decoder);
+        }
+    }
+
+    private void requestProbe(final String reason) {
+        if (probeRequested || closed) {
+            return;
+        }
+        probeRequested = true;
+        Log.d(TAG, "Re-probe requested (" + reason + "), language=" + leader.language
+                + ", confidence=" + String.format(Locale.US, "%.2f", confidenceAverage));
+        loaderExecutor.execute(() -> loadCandidates(reason));
+    }
+
+    @Override
+    public boolean acceptWaveForm(byte[] data, int size) {
+        if (deciding) {
+            tryDecide();
+        }
+        if (atUtteranceBoundary && nextLeader != null) {
+            switchLeader();
+        } else if (atUtteranceBoundary && !probing && !deciding && pendingCandidates != null) {
+            List<Candidate> ready;
+            String reason;
+            synchronized (pendingLock) {
+                ready = pendingCandidates;
+                reason = pendingReason;
+                pendingCandidates = null;
+            }
+            if (ready != null) {
+                startProbe(ready, reason);
+            }
+        }
+
+        Candidate current = leader;
+        long decodeStart = System.nanoTime();
+        boolean isFinal = current.decoder.acceptWaveForm(data, size);
+        current.decodeNanos += System.nanoTime() - decodeStart;
+        current.audioBytes += size;
+
+        if (probing) {
+            for (int i = 0; i < challengers.size(); i++) {
+                challengers.get(i).offer(data, size);
+            }
+            probeAudioBytes += size;
+            if (!isFinal && bytesToMs(probeAudioBytes) >= maxProbeMs) {
+                // 최대 길이: 발화를 끊고 getResult에서 판정
+                forceFinish = true;
+                isFinal = true;
+            }
+        } else if (nextLeader != null) {
+            if (!isFinal) {
+                // 승자로 바꾸기 위해 이전 언어의 발화를 여기서 끊음
+                forceFinish = true;
+                isFinal = true;
+            }
+        } else {
+            audioSinceProbeBytes += size;
+            if (reprobeIntervalMs > 0 && bytesToMs(audioSinceProbeBytes) >= reprobeIntervalMs) {
+                requestProbe(REASON_PERIODIC);
+            }
+        }
+
+        atUtteranceBoundary = isFinal;
+        return isFinal;
+    }
+
+    @Override
+    public String getResult() {
+        Candidate current = leader;
+        boolean forced = forceFinish;
+        forceFinish = false;
+        String json = forced ? current.decoder.getFinalResult() : current.decoder.getResult();
+        return onLeaderResult(json, forced || bytesToMs(probeAudioBytes) >= minProbeMs);
+    }
+
+    @Override
+    public String getPartialResult() {
+        return leader.decoder.getPartialResult();
+    }
+
+    /**
+     * 강제 마무리 (부하 대응, 세션 종료). probe 중이면 그때까지의 점수로 판정한다.
+     */
+    @Override
+    public String getFinalResult() {
+        atUtteranceBoundary = true;
+        forceFinish = false;
+        return onLeaderResult(leader.decoder.getFinalResult(), true);
+    }
+
+    private String onLeaderResult(String json, boolean canFinishProbe) {
+        if (!probing) {
+            // 판정 중이거나 교체를 앞둔 언어의 결과는 신뢰도 추적에 넣지 않음
+            if (!deciding && nextLeader == null) {
+                trackConfidence(json);
+            }
+            return json;
+        }
+        leader.score(json);
+        if (!canFinishProbe) {
+            return json;
+        }
+        endProbe();
+        return json;
+    }
+
+    @Override
+    public void reset() {
+        leader.decoder.reset();
+    }
+
+    @Override
+    public void close() {
+        List<Candidate> ready;
+        synchronized (pendingLock) {
+            closed = true;
+            ready = pendingCandidates;
+            pendingCandidates = null;
+        }
+        releaseAll(ready);
+
+        // 아직 디코딩 중인 후보는 기다리지 않고, 스레드가 끝날 때 스스로 반납하게 함
+        for (Candidate candidate : challengers) {
+            candidate.stop();
+            if (candidate.abandonIfRunning()) {
+                factory.release(candidate.language, candidate.decoder);
+            }
+        }
+        challengers.clear();
+        probing = false;
+        deciding = false;
+        if (nextLeader != null) {
+            factory.release(nextLeader.language, nextLeader.decoder);
+            nextLeader = null;
+            switchReport = null;
+        }
+
+        Candidate current = leader;
+        factory.release(current.language, current.decoder);
+        Log.d(TAG, "Closed: " + this);
+    }
+
+    private void startProbe(List<Candidate> candidates, String reason) {
+        if (candidates.isEmpty()) {
+            probeRequested = false;
+            audioSinceProbeBytes = 0;
+            return;
+        }
+
+        probing = true;
+        probeReason = reason;
+        probeStartNanos = System.nanoTime();
+        probeAudioBytes = 0;
+        forceFinish = false;
+        leader.resetScore();
+        for (Candidate candidate : candidates) {
+            candidate.start();
+            challengers.add(candidate);
+        }
+        Log.d(TAG, "Probe started (" + reason + "): " + leader.language + " + " + challengers.size()
+                + " candidates");
+    }
+
+    /**
+     * 후보에 프레임 넣기를 멈추고 판정 대기로 넘어감. 후보 스레드는 남은 프레임을 디코딩한 뒤
+     * 스스로 발화를 마무리하므로 여기서 기다리지 않는다.
+     */
+    private void endProbe() {
+        for (Candidate candidate : challengers) {
+            candidate.stop();
+        }
+        probing = false;
+        forceFinish = false;
+        deciding = true;
+        decideDeadlineNanos = System.nanoTime() + FINISH_TIMEOUT_MS * 1_000_000L;
+        tryDecide();
+    }
+
+    /**
+     * 모든 후보 스레드가 끝났거나 제한 시간이 지났으면 점수를 비교해 승자만 남김 (블로킹 없음)
+     */
+    private void tryDecide() {
+        if (System.nanoTime() - decideDeadlineNanos < 0) {
+            for (int i = 0; i < challengers.size(); i++) {
+                if (!challengers.get(i).isExited()) {
+                    return;
+                }
+            }
+        }
+
+        Candidate previous = leader;
+        Candidate winner = previous;
+        double winnerScore = previous.getScore();
+
+        List<Candidate> finished = new ArrayList<>();
+        for (Candidate candidate : challengers) {
+            if (!candidate.abandonIfRunning()) {
+                // 제한 시간 안에 못 따라온 후보는 판정에서 제외 (스레드가 끝날 때 스스로 반납)
+                Log.w(TAG, "Candidate " + candidate.language + " did not finish in time");
+                continue;
+            }
+            finished.add(candidate);
+            if (candidate.getScore() > winnerScore + SWITCH_MARGIN) {
+                winner = candidate;
+                winnerScore = candidate.getScore();
+            }
+        }
+
+        long detectionNanos = System.nanoTime() - probeStartNanos;
+        long probeCpuNanos = 0;
+        StringBuilder scores = new StringBuilder(previous.describeScore());
+        for (Candidate candidate : challengers) {
+            probeCpuNanos += candidate.decodeNanos;
+            scores.append(' ').append(candidate.describeScore());
+        }
+        boolean decided = winnerScore > 0;
+
+        for (Candidate candidate : finished) {
+            if (candidate != winner) {
+                factory.release(candidate.language, candidate.decoder);
+            }
+        }
+        if (winner != previous) {
+            nextLeader = winner;
+            switches++;
+        }
+        challengers.clear();
+        winner.resetScore();
+
+        deciding = false;
+        probeRequested = false;
+        audioSinceProbeBytes = 0;
+        confidenceAverage = 0;
+        trackedUtterances = 0;
+
+        int probeAudioMs = bytesToMs(probeAudioBytes);
+        ProbeReport report = new ProbeReport(probeReason, winner.language, previous.language, decided,
+                probeAudioMs, detectionNanos / 1_000_000L, probeCpuNanos / 1_000_000L, scores.toString());
+        probes++;
+        totalProbeAudioMs += probeAudioMs;
+        totalProbeCpuNanos += probeCpuNanos;
+        lastReport = report;
+        Log.d(TAG, "Probe finished: " + report);
+
+        if (winner != previous) {
+            // 이전 언어의 발화가 아직 끝나지 않았으므로 교체할 때 알림
+            switchReport = report;
+        } else {
+            notifyListener(report);
+        }
+    }
+
+    /**
+     * 발화 경계에서 판정된 승자로 leader 교체 (승자의 스레드는 이미 끝났으므로 인식 스레드에서 써도 됨)
+     */
+    private void switchLeader() {
+        Candidate previous = leader;
+        leader = nextLeader;
+        nextLeader = null;
+        factory.release(previous.language, previous.decoder);
+
+        ProbeReport report = switchReport;
+        switchReport = null;
+        notifyListener(report);
+    }
+
+    private void notifyListener(ProbeReport report) {
+        Listener l = listener;
+        if (l != null && report != null) {
+            l.onProbeFinished(report);
+        }
+    }
+
+    /**
+     * probe 후 발화별 신뢰도 평균 추적 (단어가 없는 결과는 건너뜀)
+     */
+    private void trackConfidence(String json) {
+        parser.parse(json, parsed);
+        int words = parsed.getWordCount();
+        if (words == 0) {
+            return;
+        }
+        double sum = 0;
+        for (int i = 0; i < words; i++) {
+            sum += parsed.getConfidence(i);
+        }
+        double mean = sum / words;
+        confidenceAverage = trackedUtterances == 0
+                ? mean : confidenceAverage + CONFIDENCE_RATE * (mean - confidenceAverage);
+        trackedUtterances++;
+        if (trackedUtterances >= MIN_TRACKED_UTTERANCES && confidenceAverage < LOW_CONFIDENCE) {
+            requestProbe(REASON_LOW_CONFIDENCE);
+        }
+    }
+
+    private int bytesToMs(long bytes) {
+        return (int) (bytes / 2 * 1000 / sampleRate);
+    }
+
+    /**
+     * 현재 결과를 내는 언어 (코드)
+     */
+    public String getLanguage() {
+        return leader.language;
+    }
+
+    public boolean isProbing() {
+        return probing;
+    }
+
+    public int getProbes() {
+        return probes;
+    }
+
+    public int getSwitches() {
+        return switches;
+    }
+
+    /**
+     * 마지막 probe 결과, 아직 없으면 null
+     */
+    public ProbeReport getLastReport() {
+        return lastReport;
+    }
+
+    @Override
+    public String toString() {
+        return "LanguageDetector{language=" + leader.language
+                + ", candidates=" + languages
+                + ", probing=" + probing
+                + ", probes=" + probes
+                + ", switches=" + switches
+                + ", probeAudio=" + totalProbeAudioMs + "ms"
+                + ", probeCpu=" + totalProbeCpuNanos / 1_000_000L + "ms"
+                + ", last=" + lastReport + "}";
+    }
+
+    /**
+     * probe 한 번의 결과. probeCpuMs는 현재 언어 외 후보들이 디코딩에 쓴 시간의 합
+     * (디코딩은 CPU 바운드라 probe가 더 쓴 CPU 시간에 가깝다).
+     */
+    public static class ProbeReport {
+        private final String reason;
+        private final String language;
+        private final String previousLanguage;
+        private final boolean decided;
+        private final int probeAudioMs;
+        private final long detectionMs;
+        private final long probeCpuMs;
+        private final String scores;
+
+        ProbeReport(String reason, String language, String previousLanguage, boolean decided,
+                    int probeAudioMs, long detectionMs, long probeCpuMs, String scores) {
+            this.reason = reason;
+            this.language = language;
+            this.previousLanguage = previousLanguage;
+            this.decided = decided;
+            this.probeAudioMs = probeAudioMs;
+            this.detectionMs = detectionMs;
+            this.probeCpuMs = probeCpuMs;
+            this.scores = scores;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * 선택된 언어 (코드)
+         */
+        public String getLanguage() {
+            return language;
+        }
+
+        public String getPreviousLanguage() {
+            return previousLanguage;
+        }
+
+        public boolean isSwitched() {
+            return !language.equals(previousLanguage);
+        }
+
+        /**
+         * 어느 후보도 단어를 내지 못했으면 false (현재 언어 유지)
+         */
+        public boolean isDecided() {
+            return decided;
+        }
+
+        public int getProbeAudioMs() {
+            return probeAudioMs;
+        }
+
+        /**
+         * probe 시작부터 판정까지 걸린 시간 (ms)
+         */
+        public long getDetectionMs() {
+            return detectionMs;
+        }
+
+        public long getProbeCpuMs() {
+            return probeCpuMs;
+        }
+
+        @Override
+        public String toString() {
+            return "Probe{" + reason + ", " + previousLanguage + "->" + language
+                    + (decided ? "" : " (undecided)")
+                    + ", audio=" + probeAudioMs + "ms"
+                    + ", detection=" + detectionMs + "ms"
+                    + ", probeCpu=" + probeCpuMs + "ms"
+                    + ", scores=[" + scores + "]}";
+        }
+    }
+
+    /**
+     * 후보 언어 하나의 인식기와 probe 점수. 현재 언어가 아니면 자신의 스레드와 큐를 가진다.
+     */
+    private final class Candidate implements Runnable {
+        final String language;
+        final SpeechDecoder decoder;
+        final PcmRingBuffer queue;
+        private final VoskResultParser candidateParser = new VoskResultParser();
+        private final VoskResult candidateResult = new VoskResult();
+
+        private Thread thread;
+        private volatile boolean running;
+        // 판정 제한 시간이 지났거나 닫혔으면 스레드가 끝날 때 스스로 반납
+        private boolean exited;
+        private boolean abandoned;
+
+        int words;
+        double confidenceSum;
+        long decodeNanos;
+        long audioBytes;
+
+        Candidate(String language, SpeechDecoder decoder, boolean threaded) {
+            this.language = language;
+            this.decoder = decoder;
+            this.queue = threaded ? new PcmRingBuffer(CANDIDATE_QUEUE_SLOTS, MAX_FRAME_BYTES) : null;
+        }
+
+        void start() {
+            running = true;
+            thread = new Thread(this, "LanguageProbe-" + language);
+            thread.start();
+        }
+
+        void offer(byte[] data, int size) {
+            // 가득 차면 버려짐 (probe 점수에만 영향)
+            queue.offer(data, size);
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            byte[] frame = new byte[queue.getFrameCapacity()];
+            while (true) {
+                int size = queue.poll(frame);
+                if (size < 0) {
+                    if (!running) {
+                        break;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+
+                long decodeStart = System.nanoTime();
+                if (decoder.acceptWaveForm(frame, size)) {
+                    score(decoder.getResult());
+                }
+                decodeNanos += System.nanoTime() - decodeStart;
+                audioBytes += size;
+            }
+
+            // probe 중에 끝나지 않은 발화까지 점수에 넣음
+            score(decoder.getFinalResult());
+
+            synchronized (this) {
+                exited = true;
+                if (abandoned) {
+                    factory.release(language, decoder);
+                }
+            }
+        }
+
+        /**
+         * 큐에 남은 프레임까지 디코딩하고 스레드를 끝내라고 알림 (기다리지 않음)
+         */
+        void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+        }
+
+        /**
+         * @return 스레드가 끝났으면 true (이후 점수와 인식기를 호출한 스레드에서 써도 됨)
+         */
+        synchronized boolean isExited() {
+            return exited;
+        }
+
+        /**
+         * 스레드가 아직 끝나지 않았으면 끝날 때 스스로 반납하게 함
+         *
+         * @return 이미 끝났으면 true (반납은 호출한 쪽이 함)
+         */
+        synchronized boolean abandonIfRunning() {
+            if (!exited) {
+                abandoned = true;
+            }
+            return exited;
+        }
+
+        void score(String json) {
+            candidateParser.parse(json, candidateResult);
+            int count = candidateResult.getWordCount();
+            for (int i = 0; i < count; i++) {
+                confidenceSum += candidateResult.getConfidence(i);
+            }
+            words += count;
+        }
+
+        void resetScore() {
+            words = 0;
+            confidenceSum = 0;
+            decodeNanos = 0;
+            audioBytes = 0;
+        }
+
+        double getScore() {
+            if (words == 0) {
+                return 0;
+            }
+            return confidenceSum / words * Math.min(1.0, (double) words / MIN_WORDS);
+        }
+
+        String describeScore() {
+            return language + "=" + String.format(Locale.US, "%.2f", getScore()) + "/" + words + "w";
+        }
+    }
+}
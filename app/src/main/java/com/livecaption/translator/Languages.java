@@ -0,0 +1,59 @@
+package com.livecaption.translator;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 화면에 표시하는 언어 이름과 언어 코드(ISO 639-1, ML Kit 번역 코드와 동일) 변환
+ */
+public final class Languages {
+
+    private static final String[] LABELS = {"한국어", "English", "日本語", "中文", "Español", "Français", "Deutsch"};
+    private static final String[] CODES = {"ko", "en", "ja", "zh", "es", "fr", "de"};
+
+    private static final Map<String, String> codeByLabel = new HashMap<>();
+    private static final Map<String, String> labelByCode = new HashMap<>();
+
+    static {
+        for (int i = 0; i < LABELS.length; i++) {
+            codeByLabel.put(LABELS[i], CODES[i]);
+            labelByCode.put(CODES[i], LABELS[i]);
+        }
+    }
+
+    private Languages() {
+    }
+
+    /**
+     * 지원 언어 이름 목록 (화면 표시 순서)
+     */
+    public static String[] getLabels() {
+        return LABELS.clone();
+    }
+
+    /**
+     * 언어 이름("한국어") 또는 언어 태그("ko-KR", "ko")를 언어 코드로 변환. 모르는 값이면 null
+     */
+    public static String toCode(String language) {
+        if (language == null) {
+            return null;
+        }
+
+        String code = codeByLabel.get(language);
+        if (code != null) {
+            return code;
+        }
+
+        int dash = language.indexOf('-');
+        String primary = (dash > 0 ? language.substring(0, dash) : language).toLowerCase(Locale.ROOT);
+        return labelByCode.containsKey(primary) ? primary : null;
+    }
+
+    /**
+     * 언어 코드를 화면 표시 이름으로 변환. 모르는 코드면 null
+     */
+    public static String toLabel(String code) {
+        return labelByCode.get(code);
+    }
+}
@@ -0,0 +1,101 @@
+package com.livecaption.translator;
+
+import java.util.Locale;
+
+/**
+ * 지연 시간 히스토그램 (로그 스케일 버킷, 미리 할당).
+ * 0.1ms ~ 약 100초 범위를 약 5% 간격의 버킷으로 나눠 p50/p95/p99를 근사한다.
+ */
+public class LatencyHistogram {
+
+    private static final double MIN_MICROS = 100.0;
+    private static final double BUCKET_RATIO = 1.05;
+    private static final int BUCKET_COUNT = 285; // 100us * 1.05^284 ≈ 100s
+
+    private static final double LOG_RATIO = Math.log(BUCKET_RATIO);
+
+    private final String name;
+    private final long[] counts = new long[BUCKET_COUNT + 1]; // 마지막 칸은 범위 초과
+    private long count;
+    private long sumMicros;
+    private long maxMicros;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public synchronized void recordNanos(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        long micros = nanos / 1000;
+        counts[bucketFor(micros)]++;
+        count++;
+        sumMicros += micros;
+        if (micros > maxMicros) {
+            maxMicros = micros;
+        }
+    }
+
+    private static int bucketFor(long micros) {
+        if (micros <= MIN_MICROS) {
+            return 0;
+        }
+        int index = (int) Math.ceil(Math.log(micros / MIN_MICROS) / LOG_RATIO);
+        return Math.min(index, BUCKET_COUNT);
+    }
+
+    private static double bucketUpperMicros(int index) {
+        return MIN_MICROS * Math.pow(BUCKET_RATIO, index);
+    }
+
+    /**
+     * 백분위 값 (ms, 버킷 상한 기준 근사치)
+     */
+    public synchronized double percentileMs(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                double upper = i == BUCKET_COUNT ? maxMicros : bucketUpperMicros(i);
+                return Math.min(upper, maxMicros) / 1000.0;
+            }
+        }
+        return maxMicros / 1000.0;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getMeanMs() {
+        return count == 0 ? 0 : sumMicros / 1000.0 / count;
+    }
+
+    public synchronized double getMaxMs() {
+        return maxMicros / 1000.0;
+    }
+
+    public synchronized void reset() {
+        java.util.Arrays.fill(counts, 0);
+        count = 0;
+        sumMicros = 0;
+        maxMicros = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 한 줄 요약: 이름, 개수, 평균, p50/p95/p99, 최대
+     */
+    public synchronized String summary() {
+        return String.format(Locale.US, "%-18s n=%-6d mean=%8.1fms p50=%8.1fms p95=%8.1fms p99=%8.1fms max=%8.1fms",
+                name, count, getMeanMs(), percentileMs(50), percentileMs(95), percentileMs(99), getMaxMs());
+    }
+}
@@ -0,0 +1,159 @@
+package com.livecaption.translator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 발화 단위 지연 시간 집계 (프로세스 전역).
+ * 완료된 UtteranceTrace를 단계별 히스토그램에 반영하고, dumpsys 또는 파일로 내보낸다.
+ */
+public class LatencyTracker {
+
+    private static final LatencyTracker instance = new LatencyTracker();
+
+    // 단계별 히스토그램
+    private final LatencyHistogram queueWait = new LatencyHistogram("queue_wait");
+    private final LatencyHistogram decodeTotal = new LatencyHistogram("asr_decode_total");
+    private final LatencyHistogram decodeFinal = new LatencyHistogram("asr_decode_final");
+    private final LatencyHistogram endpoint = new LatencyHistogram("asr_endpoint");
+    private final LatencyHistogram dispatch = new LatencyHistogram("main_dispatch");
+    private final LatencyHistogram translation = new LatencyHistogram("translation");
+    private final LatencyHistogram render = new LatencyHistogram("render");
+    private final LatencyHistogram endToEnd = new LatencyHistogram("end_to_end");
+    private final LatencyHistogram utteranceSpan = new LatencyHistogram("first_audio_to_render");
+    // 단어가 중간 결과에 처음 나온 시각 → 그 단어의 번역 발행 (CaptionSegmenter)
+    private final LatencyHistogram wordToCaption = new LatencyHistogram("word_to_caption");
+
+    // 시작 버튼 탭 기준 (세션당 1회)
+    private final LatencyHistogram tapToModelReady = new LatencyHistogram("tap_to_model_ready");
+    private final LatencyHistogram tapToFirstCaption = new LatencyHistogram("tap_to_first_caption");
+
+    private final LatencyHistogram[] histograms = {
+            queueWait, decodeTotal, decodeFinal, endpoint, dispatch,
+            translation, render, endToEnd, utteranceSpan, wordToCaption,
+            tapToModelReady, tapToFirstCaption
+    };
+
+    private final AtomicLong utterances = new AtomicLong();
+    // 화면에 반영되기 전에 다음 자막으로 바뀌어 렌더링 지연을 알 수 없는 발화
+    private final AtomicLong superseded = new AtomicLong();
+
+    // 시작 탭 시각 (System.nanoTime), 첫 자막이 기록되면 0으로 초기화
+    private volatile long startTapNanos;
+    private volatile boolean modelReadyRecorded;
+
+    public static LatencyTracker getInstance() {
+        return instance;
+    }
+
+    /**
+     * 사용자가 자막 시작을 누른 시각 기록 (권한 대화상자 전)
+     */
+    public void markStartTap() {
+        modelReadyRecorded = false;
+        startTapNanos = System.nanoTime();
+    }
+
+    /**
+     * 음성 인식 모델 준비 완료 (시작 탭 이후 첫 번째만 기록)
+     */
+    public void markModelReady() {
+        long tap = startTapNanos;
+        if (tap > 0 && !modelReadyRecorded) {
+            modelReadyRecorded = true;
+            tapToModelReady.recordNanos(System.nanoTime() - tap);
+        }
+    }
+
+    /**
+     * 렌더링까지 끝난 발화 기록
+     */
+    public void record(UtteranceTrace trace) {
+        utterances.incrementAndGet();
+
+        long tap = startTapNanos;
+        if (tap > 0) {
+            // 시작 탭 이후 첫 번역 자막
+            startTapNanos = 0;
+            tapToFirstCaption.recordNanos(trace.renderedNanos - tap);
+        }
+
+        queueWait.recordNanos(trace.lastDequeueNanos - trace.lastFrameNanos);
+        decodeTotal.recordNanos(trace.decodeNanos);
+        decodeFinal.recordNanos(trace.finalDecodeNanos);
+        endpoint.recordNanos(trace.recognizedNanos - trace.lastDequeueNanos);
+        if (trace.dispatchedNanos > 0) {
+            dispatch.recordNanos(trace.dispatchedNanos - trace.recognizedNanos);
+        }
+        if (trace.translatedNanos > 0) {
+            translation.recordNanos(trace.translatedNanos - trace.translateStartNanos);
+        }
+        if (trace.publishedNanos > 0) {
+            render.recordNanos(trace.renderedNanos - trace.publishedNanos);
+        }
+        endToEnd.recordNanos(trace.getEndToEndNanos());
+        utteranceSpan.recordNanos(trace.renderedNanos - trace.firstFrameNanos);
+    }
+
+    /**
+     * 화면에 반영되기 전에 더 새로운 자막으로 바뀐 발화 (히스토그램에는 넣지 않고 개수만 셈)
+     */
+    public void recordSuperseded() {
+        superseded.incrementAndGet();
+    }
+
+    /**
+     * 단어가 들린 뒤 번역 자막으로 나가기까지 (구간 또는 발화 단위)
+     */
+    public void recordWordToCaption(long nanos) {
+        wordToCaption.recordNanos(nanos);
+    }
+
+    public LatencyHistogram[] getHistograms() {
+        return histograms;
+    }
+
+    public long getUtteranceCount() {
+        return utterances.get();
+    }
+
+    public long getSupersededCount() {
+        return superseded.get();
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        utterances.set(0);
+        superseded.set(0);
+        startTapNanos = 0;
+    }
+
+    public void dump(PrintWriter writer) {
+        writer.println("Utterance latency (" + utterances.get() + " utterances, "
+                + superseded.get() + " superseded before render)");
+        for (LatencyHistogram histogram : histograms) {
+            writer.println("  " + histogram.summary());
+        }
+        writer.flush();
+    }
+
+    /**
+     * 요약을 텍스트 파일로 저장 (테스트 기기에서 회귀 추적용)
+     */
+    public void writeDumpFile(File file) throws IOException {
+        PrintWriter writer = new PrintWriter(
+                new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            writer.println("# " + new java.util.Date());
+            dump(writer);
+        } finally {
+            writer.close();
+        }
+    }
+}
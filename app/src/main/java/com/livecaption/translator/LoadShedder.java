@@ -0,0 +1,194 @@
+package com.livecaption.translator;
+
+/**
+ * 인식기가 실시간을 따라가지 못할 때의 오디오 버리기 정책 (인식 스레드 전용).
+ * 오디오 큐에 쌓인 양을 오디오 길이(ms)로 보고 두 단계로 대응한다.
+ * <ul>
+ *   <li>shedWatermarkMs 이상: 발화 평균보다 에너지가 낮은 프레임(숨, 단어 사이 공백, hangover)부터 버림.
+ *       큐가 resumeWatermarkMs 아래로 내려갈 때까지 유지한다. 버린 무음은 인식기의 끝점 검출에도
+ *       쓰이지 못하므로, 연속으로 버린 길이가 ENDPOINT_GAP_MS에 이르면 그 자리에서 발화를 마무리한다.</li>
+ *   <li>skipWatermarkMs 이상 (또는 링 버퍼가 거의 가득 참): 진행 중인 발화를 강제로 마무리하고
+ *       큐를 비워 현재 오디오로 건너뛴다.</li>
+ * </ul>
+ * 자막이 몇 분씩 밀리지 않고 실시간 오디오 근처에 머물도록 하는 것이 목적이다.
+ */
+public class LoadShedder {
+
+    /** 프레임을 그대로 디코딩 */
+    public static final int KEEP = 0;
+    /** 에너지가 낮은 프레임이라 버림 */
+    public static final int DROP_LOW_ENERGY = 1;
+    /** 발화를 마무리하고 큐를 비워야 함 ({@link #onSkipped(long)}로 결과 보고) */
+    public static final int SKIP_TO_LIVE = 2;
+    /** 낮은 에너지 프레임을 버리고, 공백이 충분히 길어졌으니 발화를 마무리 */
+    public static final int DROP_AND_FINALIZE = 3;
+
+    private static final int DEFAULT_RESUME_WATERMARK_MS = 300;
+    private static final int DEFAULT_SHED_WATERMARK_MS = 600;
+    private static final int DEFAULT_SKIP_WATERMARK_MS = 2000;
+
+    // 링 버퍼가 이 비율 이상 차면 ms와 관계없이 건너뛰기 (생산자 쪽 오버런 전에)
+    private static final double SKIP_FILL_RATIO = 0.9;
+
+    // 발화 에너지 대비 이 비율 미만인 프레임을 "낮은 에너지"로 봄
+    private static final double LOW_ENERGY_RATIO = 0.5;
+    private static final double SPEECH_LEVEL_RATE = 0.05;
+
+    // 버린 공백이 이만큼 이어지면 발화 끝으로 봄 (Vosk 끝점 검출의 무음 길이 정도)
+    private static final int ENDPOINT_GAP_MS = 300;
+
+    private final int sampleRate;
+    private int resumeWatermarkMs = DEFAULT_RESUME_WATERMARK_MS;
+    private int shedWatermarkMs = DEFAULT_SHED_WATERMARK_MS;
+    private int skipWatermarkMs = DEFAULT_SKIP_WATERMARK_MS;
+
+    private boolean shedding;
+    // 최근 발화 프레임의 RMS 평균 (0이면 아직 모름)
+    private double speechLevel;
+    // 연속으로 버린 낮은 에너지 오디오 (발화를 마무리했으면 -1)
+    private long droppedRunBytes;
+
+    private volatile long lowEnergyFrames;
+    private volatile long lowEnergyBytes;
+    private volatile long skips;
+    private volatile long skippedBytes;
+    private volatile long gapFinalizations;
+    private volatile long sheddingEpisodes;
+    private volatile int maxDepthMs;
+
+    public LoadShedder(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * 기준 설정 (ms). resume ≤ shed ≤ skip 순서로 맞춘다.
+     */
+    public void setWatermarksMs(int resumeMs, int shedMs, int skipMs) {
+        this.skipWatermarkMs = Math.max(1, skipMs);
+        this.shedWatermarkMs = Math.max(1, Math.min(shedMs, skipWatermarkMs));
+        this.resumeWatermarkMs = Math.max(0, Math.min(resumeMs, shedWatermarkMs));
+    }
+
+    /**
+     * 큐에서 꺼낸 프레임 하나에 대한 결정. 할당하지 않는다.
+     *
+     * @param queuedBytes    이 프레임 뒤에 아직 큐에 남은 바이트 수
+     * @param queuedFrames   이 프레임 뒤에 아직 큐에 남은 프레임 수
+     * @param capacityFrames 큐 슬롯 수
+     * @return {@link #KEEP}, {@link #DROP_LOW_ENERGY}, {@link #DROP_AND_FINALIZE}, {@link #SKIP_TO_LIVE}
+     */
+    public int onFrame(byte[] frame, int size, long queuedBytes, int queuedFrames, int capacityFrames) {
+        int depthMs = bytesToMs(queuedBytes);
+        if (depthMs > maxDepthMs) {
+            maxDepthMs = depthMs;
+        }
+
+        if (depthMs >= skipWatermarkMs || queuedFrames >= capacityFrames * SKIP_FILL_RATIO) {
+            if (!shedding) {
+                shedding = true;
+                sheddingEpisodes++;
+            }
+            return SKIP_TO_LIVE;
+        }
+
+        if (shedding) {
+            if (depthMs < resumeWatermarkMs) {
+                shedding = false;
+            }
+        } else if (depthMs >= shedWatermarkMs) {
+            shedding = true;
+            sheddingEpisodes++;
+        }
+
+        double rms = VoiceActivityDetector.computeRms(frame, size / 2);
+        boolean lowEnergy = speechLevel > 0 && rms < speechLevel * LOW_ENERGY_RATIO;
+        if (!lowEnergy) {
+            // 발화 수준 추적 (낮은 에너지 프레임은 반영하지 않음)
+            speechLevel = speechLevel == 0 ? rms : speechLevel + SPEECH_LEVEL_RATE * (rms - speechLevel);
+        }
+
+        if (shedding && lowEnergy) {
+            lowEnergyFrames++;
+            lowEnergyBytes += size;
+            if (droppedRunBytes >= 0) {
+                droppedRunBytes += size;
+                if (bytesToMs(droppedRunBytes) >= ENDPOINT_GAP_MS) {
+                    droppedRunBytes = -1; // 이 공백에서는 한 번만
+                    gapFinalizations++;
+                    return DROP_AND_FINALIZE;
+                }
+            }
+            return DROP_LOW_ENERGY;
+        }
+        droppedRunBytes = 0;
+        return KEEP;
+    }
+
+    /**
+     * SKIP_TO_LIVE 처리 결과 보고 (현재 프레임 포함, 큐에서 버린 바이트 수)
+     */
+    public void onSkipped(long bytes) {
+        skips++;
+        skippedBytes += bytes;
+        shedding = false;
+        droppedRunBytes = 0;
+    }
+
+    public boolean isShedding() {
+        return shedding;
+    }
+
+    private int bytesToMs(long bytes) {
+        return (int) (bytes / 2 * 1000 / sampleRate);
+    }
+
+    public long getLowEnergyFrames() {
+        return lowEnergyFrames;
+    }
+
+    /**
+     * 낮은 에너지라서 버린 오디오 길이 (ms)
+     */
+    public long getLowEnergyShedMs() {
+        return bytesToMs(lowEnergyBytes);
+    }
+
+    /**
+     * 현재 오디오로 건너뛴 횟수 (= 강제로 마무리한 발화 수)
+     */
+    public long getSkips() {
+        return skips;
+    }
+
+    /**
+     * 건너뛰면서 버린 오디오 길이 (ms)
+     */
+    public long getSkippedMs() {
+        return bytesToMs(skippedBytes);
+    }
+
+    /**
+     * 버린 공백에서 강제로 마무리한 발화 수
+     */
+    public long getGapFinalizations() {
+        return gapFinalizations;
+    }
+
+    public long getSheddingEpisodes() {
+        return sheddingEpisodes;
+    }
+
+    public int getMaxDepthMs() {
+        return maxDepthMs;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadShedder{watermarks=" + resumeWatermarkMs + "/" + shedWatermarkMs + "/" + skipWatermarkMs + "ms"
+                + ", episodes=" + sheddingEpisodes
+                + ", lowEnergy=" + lowEnergyFrames + " frames/" + getLowEnergyShedMs() + "ms"
+                + ", gapFinalized=" + gapFinalizations
+                + ", skips=" + skips + "/" + getSkippedMs() + "ms"
+                + ", maxDepth=" + maxDepthMs + "ms}";
+    }
+}
@@ -8,6 +8,8 @@ import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
 import android.provider.Settings;
+import android.view.View;
+import android.widget.AdapterView;
 import android.widget.Button;
 import android.widget.Spinner;
 import android.widget.Switch;
@@ -19,6 +21,10 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class MainActivity extends AppCompatActivity {
 
     private static final int REQUEST_CODE_PERMISSIONS = 1001;
@@ -27,12 +33,14 @@ public class MainActivity extends AppCompatActivity {
 
     private Switch switchService;
     private Button btnSettings;
+    private Button btnHistory;
     private Spinner spinnerSourceLanguage;
     private Spinner spinnerTargetLanguage;
     private Button btnStartService;
     private Button btnStopService;
 
     private MediaProjectionManager mediaProjectionManager;
+    private ModelPreloader modelPreloader;
     private boolean isServiceRunning = false;
 
     @Override
@@ -40,6 +48,8 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        modelPreloader = new ModelPreloader(this);
+
         initializeViews();
         setupLanguageSpinners();
         setupListeners();
@@ -51,6 +61,7 @@ public class MainActivity extends AppCompatActivity {
     private void initializeViews() {
         switchService = findViewById(R.id.switch_service);
         btnSettings = findViewById(R.id.btn_settings);
+        btnHistory = findViewById(R.id.btn_history);
         spinnerSourceLanguage = findViewById(R.id.spinner_source_language);
         spinnerTargetLanguage = findViewById(R.id.spinner_target_language);
         btnStartService = findViewById(R.id.btn_start_service);
@@ -58,22 +69,55 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void setupLanguageSpinners() {
-        String[] languages = {"한국어", "English", "日本語", "中文", "Español", "Français", "Deutsch"};
-        
-        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, 
+        String[] languages = Languages.getLabels();
+
+        // 음성 인식 언어는 APK에 모델이 포함된 언어만 표시
+        ModelIndex modelIndex = ModelIndex.getInstance(this);
+        List<String> sourceLanguages = new ArrayList<>();
+        for (String language : languages) {
+            if (modelIndex.hasModelFor(language)) {
+                sourceLanguages.add(language);
+            }
+        }
+        if (sourceLanguages.isEmpty()) {
+            sourceLanguages.addAll(Arrays.asList(languages));
+        }
+
+        ArrayAdapter<String> sourceAdapter = new ArrayAdapter<>(this,
+            android.R.layout.simple_spinner_item, sourceLanguages);
+        sourceAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+
+        ArrayAdapter<String> targetAdapter = new ArrayAdapter<>(this, 
             android.R.layout.simple_spinner_item, languages);
-        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        targetAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         
-        spinnerSourceLanguage.setAdapter(adapter);
-        spinnerTargetLanguage.setAdapter(adapter);
+        spinnerSourceLanguage.setAdapter(sourceAdapter);
+        spinnerTargetLanguage.setAdapter(targetAdapter);
         
         spinnerTargetLanguage.setSelection(1); // 기본값: 영어
+
+        // 선택이 정해지면 권한 대화상자 전에 모델/번역기 미리 로드
+        AdapterView.OnItemSelectedListener preloadListener = new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                modelPreloader.onSelectionChanged(
+                        spinnerSourceLanguage.getSelectedItem().toString(),
+                        spinnerTargetLanguage.getSelectedItem().toString());
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+            }
+        };
+        spinnerSourceLanguage.setOnItemSelectedListener(preloadListener);
+        spinnerTargetLanguage.setOnItemSelectedListener(preloadListener);
     }
 
     private void setupListeners() {
         btnStartService.setOnClickListener(v -> startCaptionService());
         btnStopService.setOnClickListener(v -> stopCaptionService());
         btnSettings.setOnClickListener(v -> openSettings());
+        btnHistory.setOnClickListener(v -> openHistory());
         
         switchService.setOnCheckedChangeListener((buttonView, isChecked) -> {
             if (isChecked) {
@@ -105,6 +149,11 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void startCaptionService() {
+        if (!isServiceRunning) {
+            // 첫 자막까지 걸린 시간 측정 시작
+            LatencyTracker.getInstance().markStartTap();
+        }
+
         if (!Settings.canDrawOverlays(this)) {
             Toast.makeText(this, "오버레이 권한이 필요합니다", Toast.LENGTH_SHORT).show();
             checkPermissions();
@@ -137,6 +186,11 @@ public class MainActivity extends AppCompatActivity {
         startActivity(intent);
     }
 
+    private void openHistory() {
+        Intent intent = new Intent(this, HistoryActivity.class);
+        startActivity(intent);
+    }
+
     @Override
     protected void onActivityResult(int requestCode, int resultCode, Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
@@ -191,6 +245,7 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        modelPreloader.shutdown();
         if (isServiceRunning) {
             stopCaptionService();
         }
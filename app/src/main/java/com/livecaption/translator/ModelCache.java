@@ -0,0 +1,326 @@
+package com.livecaption.translator;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import org.vosk.Model;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로세스 전역 Vosk 모델 캐시 (모델 이름별 참조 카운트).
+ * 캡처 세션이 끝나도 마지막으로 쓴 모델은 keepAliveMs 동안 메모리에 남겨 두어,
+ * 자막을 껐다 켜도 모델을 다시 로드하지 않는다. 메모리가 부족하면 사용 중이 아닌 모델부터 해제한다.
+ */
+public class ModelCache implements ComponentCallbacks2 {
+
+    private static final String TAG = "ModelCache";
+
+    // 설정의 "음성 모델 유지 시간" (SettingsActivity에서 변경)
+    static final String PREF_KEEP_ALIVE_MS = "model_keep_alive_ms";
+    static final int DEFAULT_KEEP_ALIVE_MS = 3 * 60 * 1000;
+
+    private static ModelCache instance;
+
+    private static class Entry {
+        final String name;
+        Model model;
+        boolean loading = true;
+        IOException loadError;
+        int refCount;
+
+        long extractMs;
+        long loadMs;
+        long loadedAt;      // System.currentTimeMillis, 메모리에 올라온 시각
+        long acquireCount;
+        ScheduledFuture<?> eviction;
+
+        Entry(String name) {
+            this.name = name;
+        }
+    }
+
+    private final ModelExtractor modelExtractor;
+    private final ScheduledExecutorService evictionExecutor;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private long keepAliveMs = DEFAULT_KEEP_ALIVE_MS;
+
+    // 통계
+    private long hits;
+    private long loads;
+    private long loadFailures;
+    private long totalLoadMs;
+    private long idleEvictions;
+    private long memoryEvictions;
+    private long residentMsTotal;
+
+    private ModelCache(Context context) {
+        this.modelExtractor = new ModelExtractor(context);
+        this.evictionExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ModelCacheEvictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.keepAliveMs = context.getSharedPreferences(SettingsActivity.PREFS_NAME, Context.MODE_PRIVATE)
+                .getInt(PREF_KEEP_ALIVE_MS, DEFAULT_KEEP_ALIVE_MS);
+        context.registerComponentCallbacks(this);
+    }
+
+    public static synchronized ModelCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ModelCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * 사용하지 않는 모델을 메모리에 남겨 둘 시간 (0이면 바로 해제)
+     */
+    public synchronized void setKeepAliveMs(long keepAliveMs) {
+        this.keepAliveMs = Math.max(0, keepAliveMs);
+    }
+
+    public synchronized long getKeepAliveMs() {
+        return keepAliveMs;
+    }
+
+    /**
+     * 모델 참조 획득 (백그라운드 스레드에서 호출). 메모리에 없으면 압축 해제 후 로드하며,
+     * 같은 모델을 동시에 요청하면 한 번만 로드하고 나머지는 기다린다.
+     * 다 쓰면 반드시 {@link #release(String)}를 호출해야 한다.
+     */
+    public Model acquire(String modelName) throws IOException {
+        Entry entry;
+        boolean loadHere = false;
+
+        synchronized (this) {
+            entry = entries.get(modelName);
+            if (entry == null) {
+                entry = new Entry(modelName);
+                entries.put(modelName, entry);
+                loadHere = true;
+            }
+            entry.refCount++;
+            entry.acquireCount++;
+            cancelEviction(entry);
+        }
+
+        if (loadHere) {
+            load(entry);
+        }
+
+        synchronized (this) {
+            while (entry.loading) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    // 로드가 이미 끝났고 마지막 참조였으면 반납과 같이 해제를 예약
+                    Thread.currentThread().interrupt();
+                    releaseReference(entry);
+                    throw new IOException("Interrupted while loading " + modelName, e);
+                }
+            }
+
+            if (entry.model == null) {
+                releaseReference(entry);
+                throw entry.loadError != null ? entry.loadError
+                        : new IOException("Model load failed: " + modelName);
+            }
+
+            if (!loadHere) {
+                hits++;
+                Log.d(TAG, "Reusing resident model " + modelName + " (refs=" + entry.refCount + ")");
+            }
+            return entry.model;
+        }
+    }
+
+    private void load(Entry entry) {
+        Model model = null;
+        IOException error = null;
+        long extractMs = 0;
+        long loadMs = 0;
+
+        try {
+            ModelExtractor.Result extraction = modelExtractor.extract(entry.name);
+            extractMs = extraction.durationMs;
+
+            long start = System.nanoTime();
+            model = new Model(extraction.modelDir.getAbsolutePath());
+            loadMs = (System.nanoTime() - start) / 1_000_000L;
+            Log.d(TAG, "Loaded model " + entry.name + " in " + loadMs + "ms (extract " + extractMs + "ms)");
+        } catch (IOException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = new IOException("Model load failed: " + entry.name, e);
+        }
+
+        synchronized (this) {
+            entry.loading = false;
+            if (model != null) {
+                entry.model = model;
+                entry.extractMs = extractMs;
+                entry.loadMs = loadMs;
+                entry.loadedAt = System.currentTimeMillis();
+                loads++;
+                totalLoadMs += loadMs;
+            } else {
+                Log.e(TAG, "Error loading model " + entry.name, error);
+                entry.loadError = error;
+                entries.remove(entry.name);
+                loadFailures++;
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * 모델 참조 반납. 마지막 참조이면 keepAliveMs 뒤에 해제한다.
+     */
+    public synchronized void release(String modelName) {
+        Entry entry = entries.get(modelName);
+        if (entry == null || entry.refCount <= 0) {
+            Log.w(TAG, "Release without acquire: " + modelName);
+            return;
+        }
+
+        releaseReference(entry);
+    }
+
+    /**
+     * 참조 하나를 줄이고, 로드된 모델의 마지막 참조였으면 해제를 예약 (잠금을 잡고 호출)
+     */
+    private void releaseReference(Entry entry) {
+        entry.refCount--;
+        if (entry.refCount > 0 || entry.loading || entry.model == null) {
+            return;
+        }
+        scheduleEviction(entry);
+    }
+
+    private void scheduleEviction(Entry entry) {
+        if (keepAliveMs == 0) {
+            evict(entry, false);
+            return;
+        }
+
+        final Entry idle = entry;
+        idle.eviction = evictionExecutor.schedule(() -> {
+            synchronized (ModelCache.this) {
+                if (idle.refCount == 0 && entries.get(idle.name) == idle) {
+                    Log.d(TAG, "Keep-alive expired for " + idle.name);
+                    evict(idle, false);
+                }
+            }
+        }, keepAliveMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 사용 중이 아닌 모델을 모두 해제
+     *
+     * @return 해제한 모델 수
+     */
+    public synchronized int evictIdle() {
+        int count = 0;
+        List<Entry> idle = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.refCount == 0 && !entry.loading) {
+                idle.add(entry);
+            }
+        }
+        for (Entry entry : idle) {
+            evict(entry, true);
+            count++;
+        }
+        return count;
+    }
+
+    private void evict(Entry entry, boolean memoryPressure) {
+        cancelEviction(entry);
+        entries.remove(entry.name);
+        if (memoryPressure) {
+            memoryEvictions++;
+        } else {
+            idleEvictions++;
+        }
+
+        long residentMs = System.currentTimeMillis() - entry.loadedAt;
+        residentMsTotal += residentMs;
+        Log.d(TAG, "Releasing model " + entry.name + " after " + residentMs + "ms resident, "
+                + entry.acquireCount + " acquires");
+
+        entry.model.close();
+        entry.model = null;
+    }
+
+    private void cancelEviction(Entry entry) {
+        if (entry.eviction != null) {
+            entry.eviction.cancel(false);
+            entry.eviction = null;
+        }
+    }
+
+    public synchronized boolean isResident(String modelName) {
+        Entry entry = entries.get(modelName);
+        return entry != null && entry.model != null;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        // UI_HIDDEN은 화면만 가려진 것이므로 유지, 그 외 메모리 부족 신호에는 사용 중이 아닌 모델 해제
+        if (level >= TRIM_MEMORY_RUNNING_LOW && level != TRIM_MEMORY_UI_HIDDEN) {
+            int evicted = evictIdle();
+            if (evicted > 0) {
+                Log.d(TAG, "onTrimMemory(" + level + "): released " + evicted + " idle models");
+            }
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        int evicted = evictIdle();
+        Log.d(TAG, "onLowMemory: released " + evicted + " idle models");
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    public synchronized void dump(PrintWriter writer) {
+        writer.println("Model cache: " + this);
+        long now = System.currentTimeMillis();
+        for (Entry entry : entries.values()) {
+            writer.println("  " + entry.name
+                    + (entry.loading ? " loading" : " resident " + (now - entry.loadedAt) / 1000 + "s")
+                    + ", refs=" + entry.refCount
+                    + ", acquires=" + entry.acquireCount
+                    + ", loadMs=" + entry.loadMs
+                    + ", extractMs=" + entry.extractMs);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ModelCache{resident=" + entries.size()
+                + ", hits=" + hits
+                + ", loads=" + loads
+                + ", loadFailures=" + loadFailures
+                + ", avgLoadMs=" + (loads > 0 ? totalLoadMs / loads : 0)
+                + ", idleEvictions=" + idleEvictions
+                + ", memoryEvictions=" + memoryEvictions
+                + ", avgResidentMs=" + (idleEvictions + memoryEvictions > 0
+                        ? residentMsTotal / (idleEvictions + memoryEvictions) : 0)
+                + ", keepAliveMs=" + keepAliveMs + "}";
+    }
+}
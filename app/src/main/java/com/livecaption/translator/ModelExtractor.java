@@ -0,0 +1,386 @@
+package com.livecaption.translator;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * assets/models의 음성 인식 모델을 내부 저장소로 압축 해제.
+ * 모델 인덱스({@link ModelIndex})의 매니페스트 기준으로 여러 스레드에서 병렬 복사하고, 임시 디렉토리에 모두 쓴 뒤
+ * 이름 변경으로 한 번에 공개하므로 복사 도중 프로세스가 죽어도 손상된 모델이 남지 않는다.
+ * 설치된 버전이 매니페스트 버전과 같고 파일 크기가 맞으면 다시 복사하지 않는다.
+ */
+public class ModelExtractor {
+
+    private static final String TAG = "ModelExtractor";
+
+    static final String ASSET_ROOT = "models";
+    // 압축 해제가 끝난 모델 디렉토리에 마지막으로 기록하는 설치 매니페스트
+    static final String INSTALLED_MANIFEST = ".installed";
+
+    private static final String TEMP_INFIX = ".tmp-";
+    private static final String OLD_INFIX = ".old-";
+
+    private static final int BUFFER_SIZE = 128 * 1024;
+    private static final int MAX_THREADS = 4;
+
+    public static class Result {
+        public final File modelDir;
+        public final String version;
+        public final boolean extracted;
+        public final int files;
+        public final long bytes;
+        public final long durationMs;
+
+        Result(File modelDir, String version, boolean extracted, int files, long bytes, long durationMs) {
+            this.modelDir = modelDir;
+            this.version = version;
+            this.extracted = extracted;
+            this.files = files;
+            this.bytes = bytes;
+            this.durationMs = durationMs;
+        }
+
+        @Override
+        public String toString() {
+            return "ModelExtractor.Result{dir=" + modelDir.getName()
+                    + ", version=" + version
+                    + ", extracted=" + extracted
+                    + ", files=" + files
+                    + ", bytes=" + bytes
+                    + ", durationMs=" + durationMs + "}";
+        }
+    }
+
+    private final Context context;
+    private final AssetManager assets;
+    private final File filesDir;
+
+    public ModelExtractor(Context context) {
+        this.context = context.getApplicationContext();
+        this.assets = this.context.getAssets();
+        this.filesDir = this.context.getFilesDir();
+    }
+
+    /**
+     * 모델이 최신 버전으로 압축 해제되어 있도록 보장하고 모델 디렉토리를 반환 (백그라운드 스레드에서 호출)
+     */
+    public Result extract(String modelName) throws IOException {
+        long start = System.nanoTime();
+        ModelManifest manifest = loadManifest(modelName);
+        File modelDir = new File(filesDir, modelName);
+
+        ModelManifest installed = ModelManifest.readFrom(new File(modelDir, INSTALLED_MANIFEST));
+        if (installed != null && installed.getVersion().equals(manifest.getVersion())
+                && isComplete(modelDir, installed)) {
+            long durationMs = (System.nanoTime() - start) / 1_000_000L;
+            Result result = new Result(modelDir, installed.getVersion(), false,
+                    installed.getEntries().size(), installed.getTotalBytes(), durationMs);
+            Log.d(TAG, "Model up to date: " + result);
+            return result;
+        }
+
+        if (installed == null && modelDir.exists()) {
+            Log.w(TAG, "Model directory without install marker, re-extracting: " + modelName);
+        }
+
+        deleteStaleDirectories(modelName);
+
+        File tempDir = new File(filesDir, modelName + TEMP_INFIX + System.nanoTime());
+        try {
+            ModelManifest written = copyAll(modelName, manifest, tempDir);
+            // 설치 매니페스트는 모든 파일을 쓴 뒤 마지막에 기록
+            written.writeTo(new File(tempDir, INSTALLED_MANIFEST));
+            publish(modelName, tempDir, modelDir);
+
+            long durationMs = (System.nanoTime() - start) / 1_000_000L;
+            Result result = new Result(modelDir, written.getVersion(), true,
+                    written.getEntries().size(), written.getTotalBytes(), durationMs);
+            Log.d(TAG, "Model extracted: " + result);
+            return result;
+        } finally {
+            if (tempDir.exists()) {
+                deleteRecursively(tempDir);
+            }
+        }
+    }
+
+    /**
+     * 빌드 시 생성된 모델 인덱스에서 매니페스트 조회
+     */
+    private ModelManifest loadManifest(String modelName) throws IOException {
+        ModelManifest manifest = ModelIndex.getInstance(context).getManifest(modelName);
+        if (manifest == null) {
+            throw new FileNotFoundException("Model not in index: " + modelName);
+        }
+        return manifest;
+    }
+
+    /**
+     * 설치 매니페스트의 모든 파일이 같은 크기로 존재하는지 확인 (해시는 압축 해제 시에만 검증)
+     */
+    private boolean isComplete(File modelDir, ModelManifest installed) {
+        for (ModelManifest.Entry entry : installed.getEntries()) {
+            File file = new File(modelDir, entry.path);
+            if (!file.isFile() || (entry.size >= 0 && file.length() != entry.size)) {
+                Log.w(TAG, "Installed model is incomplete: " + entry.path);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 모든 파일을 tempDir로 병렬 복사하고, 실제로 쓴 크기/해시로 설치 매니페스트를 만든다.
+     */
+    private ModelManifest copyAll(final String modelName, ModelManifest manifest, final File tempDir)
+            throws IOException {
+        List<ModelManifest.Entry> entries = new ArrayList<>(manifest.getEntries());
+
+        // 디렉토리는 미리 만들어 두고, 큰 파일부터 시작해 스레드 간 작업량을 고르게 한다
+        for (ModelManifest.Entry entry : entries) {
+            File parent = new File(tempDir, entry.path).getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Cannot create " + parent);
+            }
+        }
+        Collections.sort(entries, (a, b) -> Long.compare(b.size, a.size));
+
+        int threads = Math.max(1, Math.min(MAX_THREADS,
+                Math.min(entries.size(), Runtime.getRuntime().availableProcessors())));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<ModelManifest.Entry>> futures = new ArrayList<>(entries.size());
+            for (final ModelManifest.Entry entry : entries) {
+                futures.add(pool.submit(() -> copyEntry(modelName, entry, new File(tempDir, entry.path))));
+            }
+
+            List<ModelManifest.Entry> written = new ArrayList<>(entries.size());
+            for (Future<ModelManifest.Entry> future : futures) {
+                written.add(future.get());
+            }
+            return new ModelManifest(manifest.getVersion(), written);
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Model extraction failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Model extraction interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 파일 하나 복사. 압축되지 않은 asset은 채널 전송으로 복사한 뒤 쓴 파일을 해시하고,
+     * 압축된 asset은 읽으면서 해시한다. 매니페스트에 해시가 있으면 검증한다.
+     */
+    private ModelManifest.Entry copyEntry(String modelName, ModelManifest.Entry entry, File target)
+            throws IOException {
+        String assetPath = ASSET_ROOT + "/" + modelName + "/" + entry.path;
+        FileOutputStream out = new FileOutputStream(target);
+
+        try {
+            FileChannel outChannel = out.getChannel();
+            long size;
+            String hash = null;
+
+            size = transferUncompressed(assetPath, outChannel);
+            if (size >= 0) {
+                if (entry.sha256 != null) {
+                    hash = hashFile(target);
+                }
+            } else {
+                MessageDigest digest = entry.sha256 != null ? newSha256() : null;
+                size = copyStream(assetPath, outChannel, digest);
+                if (digest != null) {
+                    hash = toHex(digest.digest());
+                }
+            }
+            if (hash != null && !hash.equals(entry.sha256)) {
+                throw new IOException("Checksum mismatch: " + entry.path);
+            }
+
+            if (entry.size >= 0 && size != entry.size) {
+                throw new IOException("Size mismatch: " + entry.path
+                        + " (expected " + entry.size + ", got " + size + ")");
+            }
+
+            outChannel.force(true);
+            return new ModelManifest.Entry(entry.path, size, hash);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * 압축되지 않은 asset은 APK에서 바로 채널 전송. 압축된 asset이면 -1
+     */
+    private long transferUncompressed(String assetPath, FileChannel outChannel) throws IOException {
+        AssetFileDescriptor fd;
+        try {
+            fd = assets.openFd(assetPath);
+        } catch (FileNotFoundException e) {
+            // 압축된 asset은 openFd를 지원하지 않음
+            return -1;
+        }
+
+        try {
+            FileInputStream in = fd.createInputStream();
+            try {
+                FileChannel inChannel = in.getChannel();
+                long offset = fd.getStartOffset();
+                long length = fd.getLength();
+                long position = 0;
+                while (position < length) {
+                    long transferred = inChannel.transferTo(offset + position, length - position, outChannel);
+                    if (transferred <= 0) {
+                        throw new IOException("Short transfer: " + assetPath);
+                    }
+                    position += transferred;
+                }
+                return length;
+            } finally {
+                in.close();
+            }
+        } finally {
+            fd.close();
+        }
+    }
+
+    /**
+     * 채널 전송으로 쓴 파일을 다시 읽어 해시 (디스크에 실제로 쓴 내용을 검증)
+     */
+    private static String hashFile(File file) throws IOException {
+        MessageDigest digest = newSha256();
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return toHex(digest.digest());
+        } finally {
+            in.close();
+        }
+    }
+
+    private long copyStream(String assetPath, FileChannel outChannel, MessageDigest digest)
+            throws IOException {
+        InputStream in = assets.open(assetPath, AssetManager.ACCESS_STREAMING);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (digest != null) {
+                    digest.update(buffer, 0, read);
+                }
+                wrapped.clear();
+                wrapped.limit(read);
+                while (wrapped.hasRemaining()) {
+                    outChannel.write(wrapped);
+                }
+                total += read;
+            }
+            return total;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * 임시 디렉토리를 모델 디렉토리 이름으로 변경해 공개. 기존 디렉토리는 먼저 옆으로 옮겨 둔다.
+     */
+    private void publish(String modelName, File tempDir, File modelDir) throws IOException {
+        File oldDir = null;
+        if (modelDir.exists()) {
+            oldDir = new File(filesDir, modelName + OLD_INFIX + System.nanoTime());
+            if (!modelDir.renameTo(oldDir)) {
+                throw new IOException("Cannot move old model aside: " + modelDir);
+            }
+        }
+
+        if (!tempDir.renameTo(modelDir)) {
+            throw new IOException("Cannot publish model: " + modelDir);
+        }
+
+        if (oldDir != null) {
+            deleteRecursively(oldDir);
+        }
+    }
+
+    /**
+     * 이전 실행에서 중단된 임시/이전 디렉토리 정리
+     */
+    private void deleteStaleDirectories(String modelName) {
+        File[] files = filesDir.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(modelName + TEMP_INFIX) || name.startsWith(modelName + OLD_INFIX)) {
+                Log.d(TAG, "Deleting stale directory: " + name);
+                deleteRecursively(file);
+            }
+        }
+    }
+
+    static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static MessageDigest newSha256() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] digits = "0123456789abcdef".toCharArray();
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[i * 2] = digits[(bytes[i] >> 4) & 0xf];
+            out[i * 2 + 1] = digits[bytes[i] & 0xf];
+        }
+        return new String(out);
+    }
+}
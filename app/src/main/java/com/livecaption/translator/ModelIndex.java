@@ -0,0 +1,163 @@
+package com.livecaption.translator;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * APK에 포함된 음성 인식 모델 목록 (빌드 시 generateModelIndex가 만든 assets/models/index).
+ * 프로세스당 한 번만 읽고, 모델 이름/언어 코드로 바로 찾는다. assets 디렉토리는 나열하지 않는다.
+ */
+public class ModelIndex {
+
+    private static final String TAG = "ModelIndex";
+
+    static final String INDEX_ASSET = ModelExtractor.ASSET_ROOT + "/index";
+
+    private static final String KEY_MODEL = "model";
+    private static final String KEY_LANGUAGE = "language";
+
+    private static volatile ModelIndex instance;
+
+    // 모델 이름 → 매니페스트 (인덱스 순서 유지)
+    private final Map<String, ModelManifest> manifests;
+    // 언어 코드 → 모델 이름 (같은 언어가 여러 개면 인덱스에서 먼저 나온 모델)
+    private final Map<String, String> modelByLanguage;
+
+    ModelIndex(Map<String, ModelManifest> manifests, Map<String, String> modelByLanguage) {
+        this.manifests = Collections.unmodifiableMap(manifests);
+        this.modelByLanguage = Collections.unmodifiableMap(modelByLanguage);
+    }
+
+    public static ModelIndex getInstance(Context context) {
+        ModelIndex index = instance;
+        if (index == null) {
+            synchronized (ModelIndex.class) {
+                index = instance;
+                if (index == null) {
+                    index = load(context.getApplicationContext());
+                    instance = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private static ModelIndex load(Context context) {
+        long start = System.nanoTime();
+        InputStream in = null;
+        try {
+            in = context.getAssets().open(INDEX_ASSET);
+            ModelIndex index = parse(in);
+            Log.d(TAG, "Loaded " + index.manifests.size() + " models in "
+                    + (System.nanoTime() - start) / 1000 + "us, languages=" + index.modelByLanguage.keySet());
+            return index;
+        } catch (FileNotFoundException e) {
+            Log.w(TAG, "No model index in assets");
+        } catch (IOException e) {
+            Log.e(TAG, "Error reading model index", e);
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        return new ModelIndex(new HashMap<String, ModelManifest>(), new HashMap<String, String>());
+    }
+
+    static ModelIndex parse(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        Map<String, ModelManifest> manifests = new LinkedHashMap<>();
+        Map<String, String> modelByLanguage = new HashMap<>();
+
+        String name = null;
+        String language = null;
+        String version = null;
+        List<ModelManifest.Entry> entries = new ArrayList<>();
+
+        String line;
+        while (true) {
+            line = reader.readLine();
+            boolean nextModel = line == null || line.startsWith(KEY_MODEL + " ");
+
+            if (nextModel && name != null) {
+                // 이전 모델 블록 마무리
+                if (version == null) {
+                    throw new IOException("Model without version: " + name);
+                }
+                manifests.put(name, new ModelManifest(version, entries));
+                if (language != null && !modelByLanguage.containsKey(language)) {
+                    modelByLanguage.put(language, name);
+                }
+                language = null;
+                version = null;
+                entries = new ArrayList<>();
+            }
+
+            if (line == null) {
+                break;
+            }
+            line = line.trim();
+
+            if (nextModel) {
+                name = line.substring(KEY_MODEL.length() + 1).trim();
+            } else if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            } else if (name == null) {
+                throw new IOException("Entry before model: " + line);
+            } else if (line.startsWith(KEY_LANGUAGE + " ")) {
+                language = line.substring(KEY_LANGUAGE.length() + 1).trim();
+            } else if (line.startsWith(ModelManifest.KEY_VERSION + " ")) {
+                version = line.substring(ModelManifest.KEY_VERSION.length() + 1).trim();
+            } else if (line.startsWith(ModelManifest.KEY_FILE + " ")) {
+                entries.add(ModelManifest.parseEntry(line));
+            }
+        }
+
+        return new ModelIndex(manifests, modelByLanguage);
+    }
+
+    /**
+     * 모델 매니페스트. APK에 없는 모델이면 null
+     */
+    public ModelManifest getManifest(String modelName) {
+        return manifests.get(modelName);
+    }
+
+    /**
+     * 언어(이름 또는 코드)에 해당하는 모델 이름. 포함된 모델이 없으면 null
+     */
+    public String getModelForLanguage(String language) {
+        String code = Languages.toCode(language);
+        return code != null ? modelByLanguage.get(code) : null;
+    }
+
+    public boolean hasModelFor(String language) {
+        return getModelForLanguage(language) != null;
+    }
+
+    /**
+     * 모델이 포함된 언어 코드 목록
+     */
+    public Set<String> getLanguageCodes() {
+        return modelByLanguage.keySet();
+    }
+
+    public Set<String> getModelNames() {
+        return manifests.keySet();
+    }
+}
@@ -0,0 +1,171 @@
+package com.livecaption.translator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 음성 인식 모델 매니페스트 (파일 목록, 크기, SHA-256, 모델 버전).
+ * 빌드 시 생성되는 models/index({@link ModelIndex})에 모델별로 들어 있으며,
+ * 압축 해제가 끝난 모델 디렉토리에도 같은 형식으로 기록해 설치 버전을 확인한다.
+ *
+ * <pre>
+ * version vosk-model-small-ko-0.22-3f9a0c1d2e4b5a6c
+ * file 1048576 9f86d081...  am/final.mdl
+ * </pre>
+ * 크기를 모르면 -1, 해시가 없으면 "-"로 기록한다.
+ */
+public class ModelManifest {
+
+    static final String KEY_VERSION = "version";
+    static final String KEY_FILE = "file";
+    private static final String NO_HASH = "-";
+
+    public static class Entry {
+        public final String path;
+        public final long size;
+        public final String sha256;
+
+        public Entry(String path, long size, String sha256) {
+            this.path = path;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+    }
+
+    private final String version;
+    private final List<Entry> entries;
+    private final long totalBytes;
+
+    public ModelManifest(String version, List<Entry> entries) {
+        this.version = version;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+
+        long total = 0;
+        for (Entry entry : entries) {
+            if (entry.size > 0) {
+                total += entry.size;
+            }
+        }
+        this.totalBytes = total;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 모든 파일에 해시가 있는지 (없으면 검증 없이 복사)
+     */
+    public boolean hasChecksums() {
+        for (Entry entry : entries) {
+            if (entry.sha256 == null) {
+                return false;
+            }
+        }
+        return !entries.isEmpty();
+    }
+
+    public static ModelManifest parse(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        String version = null;
+        List<Entry> entries = new ArrayList<>();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            if (line.startsWith(KEY_VERSION + " ")) {
+                version = line.substring(KEY_VERSION.length() + 1).trim();
+            } else if (line.startsWith(KEY_FILE + " ")) {
+                entries.add(parseEntry(line));
+            }
+        }
+
+        if (version == null || version.isEmpty()) {
+            throw new IOException("Manifest has no version");
+        }
+        return new ModelManifest(version, entries);
+    }
+
+    /**
+     * "file &lt;size&gt; &lt;sha256&gt; &lt;path&gt;" 한 줄 (경로는 마지막이라 공백을 포함해도 됨)
+     */
+    static Entry parseEntry(String line) throws IOException {
+        String[] parts = line.split(" +", 4);
+        if (parts.length != 4) {
+            throw new IOException("Malformed manifest line: " + line);
+        }
+        try {
+            long size = Long.parseLong(parts[1]);
+            String hash = NO_HASH.equals(parts[2]) ? null : parts[2];
+            return new Entry(parts[3], size, hash);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed manifest line: " + line);
+        }
+    }
+
+    /**
+     * 설치된 모델의 매니페스트 읽기. 없거나 손상되었으면 null
+     */
+    public static ModelManifest readFrom(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            return parse(in);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * 파일로 기록하고 디스크에 동기화
+     */
+    public void writeTo(File file) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            Writer writer = new OutputStreamWriter(out, "UTF-8");
+            writer.write(KEY_VERSION + " " + version + "\n");
+            for (Entry entry : entries) {
+                writer.write(KEY_FILE + " " + entry.size + " "
+                        + (entry.sha256 != null ? entry.sha256 : NO_HASH) + " "
+                        + entry.path + "\n");
+            }
+            writer.flush();
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+    }
+}
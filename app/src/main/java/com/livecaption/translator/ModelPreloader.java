@@ -0,0 +1,120 @@
+package com.livecaption.translator;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 언어 선택이 정해지면 캡처 시작 전에 음성 인식 모델과 번역기를 미리 준비한다.
+ * 선택이 바뀐 뒤 SETTLE_DELAY_MS 동안 더 바뀌지 않으면 로드를 시작하고, 그 사이 선택이 다시
+ * 바뀌면 이전 요청은 취소된다. 이미 로드 중인 모델은 끝난 뒤 바로 반납해 ModelCache의
+ * keep-alive 규칙을 따른다. 메서드는 메인 스레드에서 호출한다.
+ */
+public class ModelPreloader {
+
+    private static final String TAG = "ModelPreloader";
+
+    // 스피너 선택이 안정됐다고 보는 시간
+    private static final long SETTLE_DELAY_MS = 400;
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Runnable settleRunnable = this::startPreload;
+
+    private String sourceLanguage;
+    private String targetLanguage;
+
+    // 요청 세대: 선택이 바뀌거나 취소되면 증가하고, 끝난 로드가 이전 세대면 바로 반납
+    private volatile int generation;
+    // 현재 미리 잡아 둔 모델 (ModelCache 참조 1개)
+    private String heldModel;
+
+    public ModelPreloader(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * 스피너 선택 변경 알림
+     */
+    public void onSelectionChanged(String sourceLanguage, String targetLanguage) {
+        this.sourceLanguage = sourceLanguage;
+        this.targetLanguage = targetLanguage;
+        generation++;
+        mainHandler.removeCallbacks(settleRunnable);
+        mainHandler.postDelayed(settleRunnable, SETTLE_DELAY_MS);
+    }
+
+    private void startPreload() {
+        final int requestGeneration = generation;
+        final String modelName = ModelIndex.getInstance(context).getModelForLanguage(sourceLanguage);
+
+        // 번역기는 TranslatorPool이 언어 쌍별로 관리 (선택이 바뀌면 LRU로 정리됨)
+        TranslationManager.getInstance(context).prewarm(sourceLanguage, targetLanguage);
+
+        if (modelName != null && modelName.equals(heldModel)) {
+            return;
+        }
+        // 이전 언어 모델은 반납 (ModelCache keep-alive 동안은 남아 있음)
+        releaseHeldModel();
+        if (modelName == null) {
+            return;
+        }
+
+        Log.d(TAG, "Preloading " + modelName + " for " + sourceLanguage);
+        final long startTime = System.currentTimeMillis();
+
+        executor.execute(() -> {
+            if (!isCurrent(requestGeneration)) {
+                return; // 시작 전에 선택이 바뀜
+            }
+
+            try {
+                ModelCache.getInstance(context).acquire(modelName);
+            } catch (IOException e) {
+                Log.w(TAG, "Preload failed: " + modelName, e);
+                return;
+            }
+
+            Log.d(TAG, "Preloaded " + modelName + " in " + (System.currentTimeMillis() - startTime) + "ms");
+            mainHandler.post(() -> {
+                if (!isCurrent(requestGeneration)) {
+                    // 로드 중에 선택이 바뀌었거나 취소됨
+                    ModelCache.getInstance(context).release(modelName);
+                    return;
+                }
+                heldModel = modelName;
+            });
+        });
+    }
+
+    private boolean isCurrent(int requestGeneration) {
+        return requestGeneration == generation;
+    }
+
+    private void releaseHeldModel() {
+        if (heldModel != null) {
+            ModelCache.getInstance(context).release(heldModel);
+            heldModel = null;
+        }
+    }
+
+    /**
+     * 예정된 로드를 취소하고 잡아 둔 모델을 반납 (Activity 종료 시)
+     */
+    public void cancel() {
+        generation++;
+        mainHandler.removeCallbacks(settleRunnable);
+        releaseHeldModel();
+    }
+
+    public void shutdown() {
+        cancel();
+        executor.shutdown();
+    }
+}
@@ -1,13 +1,12 @@
 package com.livecaption.translator;
 
 import android.app.Service;
-import android.content.BroadcastReceiver;
-import android.content.Context;
 import android.content.Intent;
-import android.content.IntentFilter;
 import android.graphics.PixelFormat;
 import android.os.Build;
+import android.os.Handler;
 import android.os.IBinder;
+import android.os.Looper;
 import android.util.Log;
 import android.view.Gravity;
 import android.view.LayoutInflater;
@@ -15,6 +14,11 @@ import android.view.View;
 import android.view.WindowManager;
 import android.widget.TextView;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class OverlayService extends Service {
 
     private static final String TAG = "OverlayService";
@@ -23,14 +27,33 @@ public class OverlayService extends Service {
     private View overlayView;
     private TextView tvOriginalText;
     private TextView tvTranslatedText;
-
-    private BroadcastReceiver subtitleReceiver;
+    private CaptionRenderer captionRenderer;
+    // 자막 줄바꿈/글자 측정 전용 스레드
+    private ExecutorService layoutExecutor;
+
+    // 창을 떼었다 다시 붙일 때 그대로 쓰는 설정
+    private WindowManager.LayoutParams overlayParams;
+    private boolean overlayAttached;
+    private long overlayAttaches;
+    private long overlayDetaches;
+
+    private Handler mainHandler;
+    private final CaptionEventBus.Subscriber captionSubscriber = this::onCaption;
+    private final CaptionExpiry expiry = new CaptionExpiry();
+    private long expiredCaptions;
+    // 표시 시간이 지난 자막 지우기 (새 자막이 오면 취소 후 다시 예약)
+    private final Runnable captionExpiry = this::expireSubtitle;
+    // 자막 없이 조용한 시간이 길어지면 창을 떼어냄 (다음 자막에 다시 붙임)
+    private final Runnable overlayDetach = this::detachOverlay;
 
     @Override
     public void onCreate() {
         super.onCreate();
+        mainHandler = new Handler(Looper.getMainLooper());
+        expiry.setCharsPerSecond(getSharedPreferences(SettingsActivity.PREFS_NAME, MODE_PRIVATE)
+                .getInt("caption_reading_cps", CaptionExpiry.DEFAULT_CHARS_PER_SECOND));
         createOverlayView();
-        registerSubtitleReceiver();
+        subscribeCaptions();
     }
 
     private void createOverlayView() {
@@ -41,6 +64,8 @@ public class OverlayService extends Service {
 
         tvOriginalText = overlayView.findViewById(R.id.tv_original_text);
         tvTranslatedText = overlayView.findViewById(R.id.tv_translated_text);
+        layoutExecutor = Executors.newSingleThreadExecutor();
+        captionRenderer = new CaptionRenderer(overlayView, tvOriginalText, tvTranslatedText, layoutExecutor);
 
         int layoutType;
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
@@ -49,7 +74,7 @@ public class OverlayService extends Service {
             layoutType = WindowManager.LayoutParams.TYPE_PHONE;
         }
 
-        WindowManager.LayoutParams params = new WindowManager.LayoutParams(
+        overlayParams = new WindowManager.LayoutParams(
                 WindowManager.LayoutParams.MATCH_PARENT,
                 WindowManager.LayoutParams.WRAP_CONTENT,
                 layoutType,
@@ -59,58 +84,99 @@ public class OverlayService extends Service {
                 PixelFormat.TRANSLUCENT
         );
 
-        params.gravity = Gravity.BOTTOM | Gravity.CENTER_HORIZONTAL;
-        params.y = 100; // 하단에서 100px 위
+        overlayParams.gravity = Gravity.BOTTOM | Gravity.CENTER_HORIZONTAL;
+        overlayParams.y = 100; // 하단에서 100px 위
+
+        // 처음에는 자막이 없어 숨겨진 상태로 붙임 (폭을 미리 알아 두기 위해)
+        attachOverlay();
+    }
 
+    private void attachOverlay() {
+        if (overlayAttached) {
+            return;
+        }
         try {
-            windowManager.addView(overlayView, params);
-            Log.d(TAG, "Overlay view created successfully");
+            windowManager.addView(overlayView, overlayParams);
+            overlayAttached = true;
+            overlayAttaches++;
+            Log.d(TAG, "Overlay view attached");
         } catch (Exception e) {
             Log.e(TAG, "Error creating overlay view", e);
         }
     }
 
-    private void registerSubtitleReceiver() {
-        subtitleReceiver = new BroadcastReceiver() {
-            @Override
-            public void onReceive(Context context, Intent intent) {
-                String originalText = intent.getStringExtra("originalText");
-                String translatedText = intent.getStringExtra("translatedText");
-
-                updateSubtitle(originalText, translatedText);
-            }
-        };
+    /**
+     * 창을 떼어 Surface까지 반납. 숨겨진 창도 WindowManager에는 남아 있으므로 오래 조용하면 떼어낸다.
+     */
+    private void detachOverlay() {
+        if (!overlayAttached) {
+            return;
+        }
+        try {
+            windowManager.removeView(overlayView);
+            Log.d(TAG, "Overlay view detached");
+        } catch (Exception e) {
+            Log.e(TAG, "Error removing overlay view", e);
+        }
+        overlayAttached = false;
+        overlayDetaches++;
+    }
 
-        IntentFilter filter = new IntentFilter("com.livecaption.translator.UPDATE_SUBTITLE");
+    private void subscribeCaptions() {
+        // 같은 프로세스의 AudioCaptureService에서 메인 스레드로 직접 전달
+        CaptionEventBus.getInstance().subscribe(captionSubscriber, mainHandler::post);
+    }
 
-        // Android 13(API 33) 이상
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
-            registerReceiver(subtitleReceiver, filter, RECEIVER_NOT_EXPORTED);
+    /**
+     * 자막 이벤트 처리 (메인 스레드). 실제 화면 반영은 CaptionRenderer가 다음 프레임에 한다.
+     */
+    private void onCaption(CaptionEvent event) {
+        mainHandler.removeCallbacks(captionExpiry);
+        mainHandler.removeCallbacks(overlayDetach);
+        attachOverlay();
+
+        long displayMs;
+        if (event.isPartial) {
+            updatePartialSubtitle(event.originalText, event.translatedText);
+            // 최종 결과 없이 말이 끝나도 중간 결과가 남지 않도록
+            displayMs = expiry.displayDurationMs(captionRenderer.getOriginalText(),
+                    captionRenderer.getTranslatedText(), 0);
         } else {
-            registerReceiver(subtitleReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
+            captionRenderer.show(event.originalText, event.translatedText, event.trace);
+            Log.d(TAG, "Subtitle updated: " + event.translatedText);
+            displayMs = expiry.displayDurationMs(event.originalText, event.translatedText,
+                    event.displayDurationMs);
+        }
+        if (displayMs > 0) {
+            // 글자 수와 발화 길이에 맞춘 표시 시간 (0이면 다음 자막까지 유지)
+            mainHandler.postDelayed(captionExpiry, displayMs);
         }
     }
 
-    private void updateSubtitle(final String originalText, final String translatedText) {
-        if (overlayView != null) {
-            overlayView.post(() -> {
-                if (originalText != null && !originalText.isEmpty()) {
-                    tvOriginalText.setText(originalText);
-                    tvOriginalText.setVisibility(View.VISIBLE);
-                } else {
-                    tvOriginalText.setVisibility(View.GONE);
-                }
-
-                if (translatedText != null && !translatedText.isEmpty()) {
-                    tvTranslatedText.setText(translatedText);
-                    tvTranslatedText.setVisibility(View.VISIBLE);
-                } else {
-                    tvTranslatedText.setVisibility(View.GONE);
-                }
-
-                Log.d(TAG, "Subtitle updated: " + translatedText);
-            });
-        }
+    private void expireSubtitle() {
+        expiredCaptions++;
+        clearSubtitle();
+    }
+
+    /**
+     * 자막 지우기. 빈 자막은 렌더러가 창을 숨기고, 이후 자막 없이 DETACH_DELAY_MS가 지나면 창을 떼어낸다.
+     */
+    private void clearSubtitle() {
+        captionRenderer.clear();
+        mainHandler.removeCallbacks(overlayDetach);
+        mainHandler.postDelayed(overlayDetach, CaptionExpiry.DETACH_DELAY_MS);
+    }
+
+    /**
+     * 중간 인식 결과 표시: 원문 줄을 갱신하고, 먼저 번역된 앞부분이 있으면 번역 줄도 갱신.
+     * 없으면 이전 번역은 최종 결과가 올 때까지 유지
+     */
+    private void updatePartialSubtitle(String partialText, String translatedPrefix) {
+        String original = partialText != null && !partialText.isEmpty()
+                ? partialText : captionRenderer.getOriginalText();
+        String translated = translatedPrefix != null && !translatedPrefix.isEmpty()
+                ? translatedPrefix : captionRenderer.getTranslatedText();
+        captionRenderer.show(original, translated);
     }
 
     @Override
@@ -121,23 +187,43 @@ public class OverlayService extends Service {
     @Override
     public void onDestroy() {
         super.onDestroy();
+        mainHandler.removeCallbacks(captionExpiry);
+        mainHandler.removeCallbacks(overlayDetach);
+        CaptionEventBus.getInstance().unsubscribe(captionSubscriber);
+        captionRenderer.release();
+        layoutExecutor.shutdownNow();
+        detachOverlay();
+
+        Log.d(TAG, "Caption delivery stats: " + CaptionEventBus.getInstance());
+        Log.d(TAG, "Render stats: " + captionRenderer);
+        Log.d(TAG, "Overlay window stats: " + overlayStats());
+    }
 
-        if (overlayView != null && windowManager != null) {
-            try {
-                windowManager.removeView(overlayView);
-                Log.d(TAG, "Overlay view removed");
-            } catch (Exception e) {
-                Log.e(TAG, "Error removing overlay view", e);
-            }
-        }
+    private String overlayStats() {
+        return "attached=" + overlayAttached
+                + ", attaches=" + overlayAttaches
+                + ", detaches=" + overlayDetaches
+                + ", expired=" + expiredCaptions
+                + ", readingSpeed=" + expiry.getCharsPerSecond() + " chars/s";
+    }
 
-        if (subtitleReceiver != null) {
-            try {
-                unregisterReceiver(subtitleReceiver);
-            } catch (Exception e) {
-                Log.e(TAG, "Error unregistering receiver", e);
+    /**
+     * adb shell dumpsys activity service com.livecaption.translator/.OverlayService [direct|vsync|reset]
+     * <p>
+     * 자막 반영 비용 출력. direct/vsync로 렌더링 방식을 바꾸고 reset으로 통계를 비워 전후를 비교한다.
+     */
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter writer, String[] args) {
+        // 서비스 dump는 메인 스레드에서 불리므로 렌더러를 바로 다룰 수 있음
+        for (String arg : args) {
+            if ("direct".equals(arg) || "vsync".equals(arg)) {
+                captionRenderer.setDirectMode("direct".equals(arg));
+            } else if ("reset".equals(arg)) {
+                captionRenderer.resetStats();
             }
         }
+        captionRenderer.dump(writer);
+        writer.println("Overlay window: " + overlayStats());
     }
 
     @Override
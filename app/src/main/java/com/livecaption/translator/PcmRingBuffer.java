@@ -0,0 +1,209 @@
+package com.livecaption.translator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 캡처 스레드(생산자 1개)와 인식 스레드(소비자 1개) 사이의 PCM 프레임 링 버퍼.
+ * 모든 슬롯을 미리 할당해 두므로 프레임당 할당이 없고, 가득 차면 생산자는
+ * 기다리지 않고 새 프레임을 버린 뒤 오버런으로 기록한다.
+ */
+public class PcmRingBuffer {
+
+    private final byte[][] slots;
+    private final int[] lengths;
+    private final long[] timestamps;
+    private final int mask;
+    private final int frameCapacity;
+
+    // head: 다음에 읽을 위치 (소비자만 증가), tail: 다음에 쓸 위치 (생산자만 증가)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    // 큐에 들어 있는 오디오 바이트 수 (프레임 길이가 바뀌어도 대기 시간을 계산할 수 있도록)
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    // 생산자 전용 캐시 (소비자 head를 매번 읽지 않기 위함)
+    private long cachedHead;
+    // 소비자 전용: 마지막으로 꺼낸 프레임이 들어온 시각
+    private long lastPolledTimestamp;
+
+    private final AtomicLong framesWritten = new AtomicLong();
+    private final AtomicLong framesRead = new AtomicLong();
+    private final AtomicLong overrunFrames = new AtomicLong();
+    private final AtomicLong overrunBytes = new AtomicLong();
+    private final AtomicLong truncatedFrames = new AtomicLong();
+    private volatile int highWaterMark;
+
+    /**
+     * @param slotCount     슬롯 개수 (2의 거듭제곱으로 올림)
+     * @param frameCapacity 슬롯 하나에 담을 수 있는 최대 바이트 수
+     */
+    public PcmRingBuffer(int slotCount, int frameCapacity) {
+        if (slotCount <= 0 || frameCapacity <= 0) {
+            throw new IllegalArgumentException("slotCount and frameCapacity must be positive");
+        }
+        int size = Integer.highestOneBit(slotCount);
+        if (size < slotCount) {
+            size <<= 1;
+        }
+        this.slots = new byte[size][frameCapacity];
+        this.lengths = new int[size];
+        this.timestamps = new long[size];
+        this.mask = size - 1;
+        this.frameCapacity = frameCapacity;
+    }
+
+    /**
+     * 프레임 쓰기 (생산자 스레드 전용). 버퍼가 가득 차 있으면 블로킹하지 않고
+     * 프레임을 버린 뒤 false를 반환한다.
+     */
+    public boolean offer(byte[] data, int size) {
+        if (data == null || size <= 0) {
+            return false;
+        }
+
+        long t = tail.get();
+        if (t - cachedHead >= slots.length) {
+            cachedHead = head.get();
+            if (t - cachedHead >= slots.length) {
+                overrunFrames.incrementAndGet();
+                overrunBytes.addAndGet(size);
+                return false;
+            }
+        }
+
+        int length = size;
+        if (length > frameCapacity) {
+            // 슬롯보다 큰 프레임은 잘라서 저장
+            length = frameCapacity;
+            truncatedFrames.incrementAndGet();
+        }
+
+        int index = (int) (t & mask);
+        System.arraycopy(data, 0, slots[index], 0, length);
+        lengths[index] = length;
+        timestamps[index] = System.nanoTime();
+        // tail보다 먼저 더해 소비자가 음수를 보지 않게 함
+        queuedBytes.addAndGet(length);
+        // 슬롯 내용을 먼저 쓴 뒤 tail을 공개 (release 순서 보장)
+        tail.lazySet(t + 1);
+        framesWritten.incrementAndGet();
+
+        // cachedHead는 오래된 값이라 실제보다 깊게 계산될 수 있으므로,
+        // 최고 수위를 넘을 때만 head를 새로 읽어 다시 계산
+        if (t + 1 - cachedHead > highWaterMark) {
+            cachedHead = head.get();
+            int depth = (int) (t + 1 - cachedHead);
+            if (depth > highWaterMark) {
+                highWaterMark = depth;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 프레임 읽기 (소비자 스레드 전용). 비어 있으면 -1을 반환한다.
+     *
+     * @param target 최소 {@link #getFrameCapacity()} 바이트 크기의 버퍼
+     * @return 복사된 바이트 수
+     */
+    public int poll(byte[] target) {
+        long h = head.get();
+        if (h >= tail.get()) {
+            return -1;
+        }
+
+        int index = (int) (h & mask);
+        int length = lengths[index];
+        System.arraycopy(slots[index], 0, target, 0, length);
+        lastPolledTimestamp = timestamps[index];
+        queuedBytes.addAndGet(-length);
+        // 복사가 끝난 뒤에야 슬롯을 생산자에게 돌려준다
+        head.lazySet(h + 1);
+        framesRead.incrementAndGet();
+        return length;
+    }
+
+    /**
+     * 대기 중인 프레임을 모두 버림 (소비자 스레드 전용)
+     *
+     * @return 버린 바이트 수
+     */
+    public long clear() {
+        long h = head.get();
+        long t = tail.get();
+        long bytes = 0;
+        for (long i = h; i < t; i++) {
+            bytes += lengths[(int) (i & mask)];
+        }
+        queuedBytes.addAndGet(-bytes);
+        head.lazySet(t);
+        return bytes;
+    }
+
+    /**
+     * 마지막으로 poll한 프레임이 큐에 들어간 시각 (System.nanoTime, 소비자 스레드 전용)
+     */
+    public long getLastPolledTimestamp() {
+        return lastPolledTimestamp;
+    }
+
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * 큐에 대기 중인 오디오 바이트 수
+     */
+    public long getQueuedBytes() {
+        return queuedBytes.get();
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public int getFrameCapacity() {
+        return frameCapacity;
+    }
+
+    public long getFramesWritten() {
+        return framesWritten.get();
+    }
+
+    public long getFramesRead() {
+        return framesRead.get();
+    }
+
+    public long getOverrunFrames() {
+        return overrunFrames.get();
+    }
+
+    public long getOverrunBytes() {
+        return overrunBytes.get();
+    }
+
+    public long getTruncatedFrames() {
+        return truncatedFrames.get();
+    }
+
+    /**
+     * offer 직후 큐에 쌓여 있던 최대 프레임 수
+     */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    @Override
+    public String toString() {
+        return "PcmRingBuffer{capacity=" + slots.length
+                + ", size=" + size()
+                + ", written=" + framesWritten.get()
+                + ", read=" + framesRead.get()
+                + ", overruns=" + overrunFrames.get()
+                + ", highWater=" + highWaterMark + "}";
+    }
+}
@@ -0,0 +1,12 @@
+package com.livecaption.translator;
+
+/**
+ * 음성 인식 결과 콜백
+ */
+public interface RecognitionCallback {
+    /** 발화가 끝났을 때의 최종 인식 결과 (trace: 단계별 지연 기록) */
+    void onUtteranceRecognized(Utterance utterance, UtteranceTrace trace);
+    /** 발화 진행 중의 중간 결과 (최종 결과가 오면 대체됨) */
+    void onPartialTextRecognized(String text);
+    void onError(String error);
+}
@@ -0,0 +1,388 @@
+package com.livecaption.translator;
+
+import android.util.Log;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 캡처 → 인식 핫패스 (Android 비의존).
+ * 캡처 스레드가 넣은 PCM 프레임을 링 버퍼에서 꺼내 전용 스레드에서 디코더에 전달하고,
+ * 결과를 callbackExecutor(앱에서는 메인 스레드)로 넘긴다.
+ */
+public class RecognitionEngine {
+
+    private static final String TAG = "RecognitionEngine";
+
+    // 링 버퍼 설정: 슬롯 128개 x 최대 8KB (16kHz 16bit mono 기준 약 256ms/슬롯)
+    // 20ms 프레임이어도 LoadShedder의 건너뛰기 기준(2초)보다 길게 담을 수 있는 크기
+    private static final int AUDIO_QUEUE_SLOTS = 128;
+    private static final int MAX_FRAME_BYTES = 8192;
+    private static final long IDLE_PARK_NANOS = 10_000_000L;
+    private static final int DEFAULT_SAMPLE_RATE = 16000;
+
+    // 중간 결과 전달 최소 간격
+    private static final long PARTIAL_INTERVAL_NANOS = 250_000_000L;
+
+    private final SpeechDecoder decoder;
+    private final Executor callbackExecutor;
+    // 단어 시각(초)을 샘플 위치로 바꿀 때 사용
+    private final int sampleRate;
+    private final PcmRingBuffer audioQueue;
+    private volatile RecognitionCallback callback;
+
+    private Thread recognitionThread;
+    private volatile boolean isRecognizing = false;
+    private volatile boolean isIdle = true;
+
+    // 인식 루프 종료 처리 (stop의 join과 엇갈리지 않도록 this와 다른 잠금 사용)
+    private final Object exitLock = new Object();
+    // 루프가 시작되어 아직 끝나지 않음: 그동안 디코더는 인식 스레드만 만진다
+    private boolean loopRunning;
+    // 루프가 끝날 때 인식 스레드에서 실행할 디코더 해제
+    private Runnable releaseOnExit;
+    // 루프가 끝날 때 끝나지 않은 발화를 최종 결과로 내보냄 (drainAndStop)
+    private volatile boolean finalizeOnExit;
+
+    // 스트리밍 모드: 중간 결과(partial)도 전달
+    private volatile boolean partialResultsEnabled = true;
+    private long lastPartialTime;
+    private String lastPartialText = "";
+
+    // 결과 JSON 파서와 재사용 결과 객체 (인식 스레드 전용)
+    private final VoskResultParser resultParser = new VoskResultParser();
+    private final VoskResult parsedResult = new VoskResult();
+
+    // 현재 발화의 지연 추적 (인식 스레드 전용)
+    private UtteranceTrace currentTrace;
+
+    // 청크별 디코딩 시간 보고 대상 (start 전에 설정)
+    private FrameSizeTuner frameSizeTuner;
+    // 실시간을 못 따라갈 때 오디오를 버리는 정책 (start 전에 설정, null이면 버리지 않음)
+    private LoadShedder loadShedder;
+    // 끝나지 않는 발화를 강제로 마무리하는 정책 (start 전에 설정, null이면 인식기 끝점만 사용)
+    private UtteranceLimiter utteranceLimiter;
+
+    public RecognitionEngine(SpeechDecoder decoder, Executor callbackExecutor) {
+        this(decoder, callbackExecutor, DEFAULT_SAMPLE_RATE);
+    }
+
+    public RecognitionEngine(SpeechDecoder decoder, Executor callbackExecutor, int sampleRate) {
+        this.decoder = decoder;
+        this.callbackExecutor = callbackExecutor;
+        this.sampleRate = sampleRate;
+        this.audioQueue = new PcmRingBuffer(AUDIO_QUEUE_SLOTS, MAX_FRAME_BYTES);
+    }
+
+    public void setCallback(RecognitionCallback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * 프레임 길이 조정기 설정 (start 전에 호출). 청크마다 디코딩 시간을 보고한다.
+     */
+    public void setFrameSizeTuner(FrameSizeTuner frameSizeTuner) {
+        this.frameSizeTuner = frameSizeTuner;
+    }
+
+    /**
+     * 부하 대응 정책 설정 (start 전에 호출)
+     */
+    public void setLoadShedder(LoadShedder loadShedder) {
+        this.loadShedder = loadShedder;
+    }
+
+    /**
+     * 발화 길이 제한 설정 (start 전에 호출)
+     */
+    public void setUtteranceLimiter(UtteranceLimiter utteranceLimiter) {
+        this.utteranceLimiter = utteranceLimiter;
+    }
+
+    /**
+     * 스트리밍(중간 결과) 모드 설정
+     */
+    public void setPartialResultsEnabled(boolean enabled) {
+        this.partialResultsEnabled = enabled;
+    }
+
+    /**
+     * 오디오 프레임 입력 (캡처 스레드에서 호출). 링 버퍼에 복사만 하고 바로 반환한다.
+     *
+     * @return 큐가 가득 차서 프레임이 버려졌으면 false
+     */
+    public boolean processAudio(byte[] audioData, int size) {
+        // 가득 찬 경우 프레임은 버려지고 오버런 카운터만 증가
+        boolean accepted = audioQueue.offer(audioData, size);
+        LockSupport.unpark(recognitionThread);
+        return accepted;
+    }
+
+    /**
+     * 인식 스레드 시작: 링 버퍼의 프레임을 순서대로 디코더에 전달
+     */
+    public synchronized void start() {
+        if (recognitionThread != null) {
+            return;
+        }
+
+        isRecognizing = true;
+        synchronized (exitLock) {
+            loopRunning = true;
+        }
+        recognitionThread = new Thread(this::runRecognitionLoop, "VoskRecognition");
+        recognitionThread.start();
+    }
+
+    private void runRecognitionLoop() {
+        try {
+            recognize();
+        } finally {
+            onLoopExit();
+        }
+    }
+
+    private void recognize() {
+        byte[] frame = new byte[audioQueue.getFrameCapacity()];
+        Log.d(TAG, "Recognition thread started");
+
+        while (isRecognizing) {
+            int size = audioQueue.poll(frame);
+            if (size < 0) {
+                isIdle = true;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            isIdle = false;
+
+            long enqueueTime = audioQueue.getLastPolledTimestamp();
+            long dequeueTime = System.nanoTime();
+
+            try {
+                if (loadShedder != null) {
+                    int action = loadShedder.onFrame(frame, size, audioQueue.getQueuedBytes(),
+                            audioQueue.size(), audioQueue.getCapacity());
+                    if (action == LoadShedder.DROP_LOW_ENERGY) {
+                        continue;
+                    }
+                    if (action == LoadShedder.DROP_AND_FINALIZE) {
+                        // 버린 무음 대신 여기서 발화를 끝냄
+                        if (currentTrace != null) {
+                            finalizeUtterance(UtteranceLimiter.END_LOAD_SHED);
+                        }
+                        continue;
+                    }
+                    if (action == LoadShedder.SKIP_TO_LIVE) {
+                        skipToLive(size);
+                        continue;
+                    }
+                }
+
+                if (currentTrace == null) {
+                    currentTrace = new UtteranceTrace(enqueueTime);
+                }
+                long decodeStart = System.nanoTime();
+                boolean isFinal = decoder.acceptWaveForm(frame, size);
+                long decodedTime = System.nanoTime();
+                currentTrace.onFrameDecoded(enqueueTime, dequeueTime, decodedTime - decodeStart);
+                if (frameSizeTuner != null) {
+                    frameSizeTuner.onChunkDecoded(size, decodedTime - decodeStart);
+                }
+
+                int limit;
+                if (isFinal) {
+                    // 최종 인식 결과
+                    String result = decoder.getResult();
+                    currentTrace.markRecognized();
+                    if (utteranceLimiter != null) {
+                        utteranceLimiter.onUtteranceEnded(UtteranceLimiter.END_NATURAL);
+                    }
+                    processResult(result, true);
+                } else if (utteranceLimiter != null
+                        && (limit = utteranceLimiter.onFrameDecoded(frame, size)) != UtteranceLimiter.KEEP) {
+                    // 끝점이 오지 않는 발화: 여기까지 디코딩한 오디오로 마무리
+                    finalizeUtterance(limit);
+                } else if (partialResultsEnabled
+                        && decodedTime - lastPartialTime >= PARTIAL_INTERVAL_NANOS) {
+                    // 중간 인식 결과 (전달 간격 제한)
+                    lastPartialTime = decodedTime;
+                    processResult(decoder.getPartialResult(), false);
+                    if (utteranceLimiter != null) {
+                        utteranceLimiter.onWordsChecked(parsedResult.getTextLength());
+                    }
+                } else if (utteranceLimiter != null && utteranceLimiter.isWordCheckDue()) {
+                    // 중간 결과를 전달하지 않을 때도 단어가 늘고 있는지는 오디오 기준 간격으로 확인
+                    resultParser.parse(decoder.getPartialResult(), parsedResult);
+                    utteranceLimiter.onWordsChecked(parsedResult.getTextLength());
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error processing audio", e);
+                final RecognitionCallback cb = callback;
+                if (cb != null) {
+                    callbackExecutor.execute(() -> cb.onError("오디오 처리 실패: " + e.getMessage()));
+                }
+            }
+        }
+
+        isIdle = true;
+        Log.d(TAG, "Recognition thread ended: " + audioQueue
+                + (loadShedder != null ? ", " + loadShedder : "")
+                + (utteranceLimiter != null ? ", " + utteranceLimiter : ""));
+    }
+
+    /**
+     * 인식 루프가 끝날 때 인식 스레드에서 호출: 요청된 마무리와 디코더 해제를 여기서 한다
+     */
+    private void onLoopExit() {
+        if (finalizeOnExit) {
+            try {
+                finalizeUtterance(UtteranceLimiter.END_FLUSH);
+            } catch (Exception e) {
+                Log.e(TAG, "Error flushing final result", e);
+            }
+        }
+
+        Runnable release;
+        synchronized (exitLock) {
+            loopRunning = false;
+            release = releaseOnExit;
+            releaseOnExit = null;
+        }
+        if (release != null) {
+            release.run();
+        }
+    }
+
+    /**
+     * 인식 스레드 정지 (큐에 남은 프레임은 처리하지 않음).
+     * 디코딩 중인 호출이 길어 1초 안에 끝나지 않을 수 있으므로, 디코더를 닫으려면 release를 쓴다.
+     */
+    public synchronized void stop() {
+        isRecognizing = false;
+
+        if (recognitionThread != null) {
+            LockSupport.unpark(recognitionThread);
+            try {
+                recognitionThread.join(1000);
+            } catch (InterruptedException e) {
+                Log.e(TAG, "Error stopping recognition thread", e);
+            }
+            if (recognitionThread.isAlive()) {
+                // 참조를 남겨 두어 같은 디코더로 두 번째 스레드가 시작되지 않게 함
+                Log.w(TAG, "Recognition thread still decoding after stop");
+            } else {
+                recognitionThread = null;
+            }
+        }
+    }
+
+    /**
+     * 인식 스레드를 정지하고 디코더를 해제한다. 스레드가 아직 디코딩 중이면 해제는 루프가
+     * 실제로 끝난 뒤 인식 스레드에서 실행되므로, 디코딩 중인 네이티브 인식기가 닫히지 않는다.
+     *
+     * @param releaseDecoder 디코더(와 모델)를 닫는 작업
+     */
+    public void release(Runnable releaseDecoder) {
+        stop();
+        synchronized (exitLock) {
+            if (loopRunning) {
+                releaseOnExit = releaseDecoder;
+                return;
+            }
+        }
+        releaseDecoder.run();
+    }
+
+    /**
+     * 큐에 남은 프레임을 모두 처리한 뒤 정지하고, 끝나지 않은 발화는 최종 결과로 내보낸다.
+     * 마무리는 인식 스레드가 루프를 빠져나오며 하므로 디코더를 다른 스레드에서 만지지 않는다.
+     */
+    public void drainAndStop(long timeoutMs) {
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        while ((!audioQueue.isEmpty() || !isIdle) && System.nanoTime() < deadline) {
+            LockSupport.unpark(recognitionThread);
+            LockSupport.parkNanos(1_000_000L);
+        }
+        finalizeOnExit = true;
+        stop();
+    }
+
+    /**
+     * 인식이 밀렸을 때: 진행 중인 발화를 마무리하고 큐에 쌓인 오디오를 버려 현재 오디오로 건너뜀
+     */
+    private void skipToLive(int currentFrameBytes) {
+        long skipped = currentFrameBytes + audioQueue.clear();
+        loadShedder.onSkipped(skipped);
+        Log.w(TAG, "Recognition fell behind, skipped " + skipped + " bytes: " + loadShedder);
+        finalizeUtterance(UtteranceLimiter.END_LOAD_SHED);
+    }
+
+    /**
+     * 남은 오디오로 현재 발화를 강제로 마무리해 최종 결과로 내보냄.
+     * getFinalResult는 인식기 상태도 초기화하므로 다음 프레임부터 새 발화가 된다.
+     *
+     * @param reason 끝점 통계에 넘길 이유 ({@link UtteranceLimiter#onUtteranceEnded})
+     */
+    private void finalizeUtterance(int reason) {
+        if (currentTrace != null) {
+            currentTrace.markRecognized();
+        }
+        if (utteranceLimiter != null) {
+            utteranceLimiter.onUtteranceEnded(reason);
+        }
+        processResult(decoder.getFinalResult(), true);
+    }
+
+    private void processResult(String result, boolean isFinal) {
+        if (!resultParser.parse(result, parsedResult)) {
+            Log.e(TAG, "Error parsing result: " + result);
+        }
+
+        final RecognitionCallback cb = callback;
+
+        if (isFinal) {
+            // 다음 발화의 중간 결과가 같은 텍스트여도 다시 전달되도록 초기화
+            lastPartialText = "";
+
+            final UtteranceTrace trace = currentTrace;
+            currentTrace = null;
+
+            if (!parsedResult.isTextEmpty()) {
+                // 발화마다 한 번: 단어 출력이 켜져 있으면 단어별 시각과 신뢰도 포함
+                final Utterance utterance = Utterance.fromResult(parsedResult, sampleRate);
+                Log.d(TAG, "Final recognized text: " + utterance);
+
+                if (cb != null) {
+                    callbackExecutor.execute(() -> cb.onUtteranceRecognized(utterance, trace));
+                }
+            }
+        } else if (!parsedResult.isTextEmpty() && !parsedResult.textEquals(lastPartialText)) {
+            // 이전과 같은 중간 결과는 String을 만들지 않고 버림
+            final String partialText = parsedResult.getText();
+            lastPartialText = partialText;
+
+            if (cb != null) {
+                callbackExecutor.execute(() -> cb.onPartialTextRecognized(partialText));
+            }
+        }
+    }
+
+    /**
+     * 오디오 큐 상태 (오버런 카운터 등)
+     */
+    public PcmRingBuffer getAudioQueue() {
+        return audioQueue;
+    }
+
+    public LoadShedder getLoadShedder() {
+        return loadShedder;
+    }
+
+    public UtteranceLimiter getUtteranceLimiter() {
+        return utteranceLimiter;
+    }
+
+    public SpeechDecoder getDecoder() {
+        return decoder;
+    }
+}
@@ -13,13 +13,38 @@ import androidx.appcompat.app.AppCompatActivity;
 
 public class SettingsActivity extends AppCompatActivity {
 
-    private static final String PREFS_NAME = "CaptionSettings";
+    static final String PREFS_NAME = "CaptionSettings";
+
+    // 캡처 프레임 길이 선택지 (0: 인식 속도를 재서 자동 조정)
+    private static final int[] FRAME_DURATIONS_MS = {0, 20, 40, 60, 100, 200};
+    private static final String[] FRAME_DURATION_LABELS = {"자동", "20ms", "40ms", "60ms", "100ms", "200ms"};
+
+    // 발화 강제 마무리 기준 선택지 (0: 제한 없음)
+    private static final int[] MAX_UTTERANCE_MS = {0, 10000, 15000, 20000, 30000};
+    private static final String[] MAX_UTTERANCE_LABELS = {"제한 없음", "10초", "15초", "20초", "30초"};
+    private static final int[] MAX_TRAILING_SILENCE_MS = {0, 2000, 3000, 5000};
+    private static final String[] MAX_TRAILING_SILENCE_LABELS = {"제한 없음", "2초", "3초", "5초"};
+
+    // 사용하지 않는 음성 모델을 메모리에 남겨 둘 시간 (0: 바로 해제)
+    private static final int[] MODEL_KEEP_ALIVE_MS = {0, 60000, 180000, 600000, 1800000};
+    private static final String[] MODEL_KEEP_ALIVE_LABELS = {"바로 해제", "1분", "3분", "10분", "30분"};
+
+    // 자막 읽기 속도 선택지 (초당 글자, 0: 다음 자막이 올 때까지 유지)
+    private static final int[] READING_SPEEDS_CPS = {0, 10, 15, 20};
+    private static final String[] READING_SPEED_LABELS = {"다음 자막까지", "길게", "보통", "짧게"};
 
     private Spinner spinnerSubtitlePosition;
     private SeekBar seekBarFontSize;
     private TextView tvFontSizeValue;
     private Switch switchShowOriginal;
     private Switch switchAutoDetect;
+    private Spinner spinnerReadingSpeed;
+    private Switch switchWordTiming;
+    private Spinner spinnerFrameDuration;
+    private Spinner spinnerMaxUtterance;
+    private Spinner spinnerMaxTrailingSilence;
+    private Spinner spinnerModelKeepAlive;
+    private TextView tvFrameTuning;
     private Button btnSave;
 
     private SharedPreferences sharedPreferences;
@@ -42,6 +67,13 @@ public class SettingsActivity extends AppCompatActivity {
         tvFontSizeValue = findViewById(R.id.tv_font_size_value);
         switchShowOriginal = findViewById(R.id.switch_show_original);
         switchAutoDetect = findViewById(R.id.switch_auto_detect);
+        spinnerReadingSpeed = findViewById(R.id.spinner_caption_reading_speed);
+        switchWordTiming = findViewById(R.id.switch_word_timing);
+        spinnerFrameDuration = findViewById(R.id.spinner_frame_duration);
+        tvFrameTuning = findViewById(R.id.tv_frame_tuning);
+        spinnerMaxUtterance = findViewById(R.id.spinner_max_utterance);
+        spinnerMaxTrailingSilence = findViewById(R.id.spinner_max_trailing_silence);
+        spinnerModelKeepAlive = findViewById(R.id.spinner_model_keep_alive);
         btnSave = findViewById(R.id.btn_save);
 
         // 자막 위치 스피너 설정
@@ -50,6 +82,35 @@ public class SettingsActivity extends AppCompatActivity {
             android.R.layout.simple_spinner_item, positions);
         adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         spinnerSubtitlePosition.setAdapter(adapter);
+
+        // 자막 표시 시간 스피너 설정
+        ArrayAdapter<String> readingSpeedAdapter = new ArrayAdapter<>(this,
+            android.R.layout.simple_spinner_item, READING_SPEED_LABELS);
+        readingSpeedAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinnerReadingSpeed.setAdapter(readingSpeedAdapter);
+
+        // 프레임 길이 스피너 설정
+        ArrayAdapter<String> frameAdapter = new ArrayAdapter<>(this,
+            android.R.layout.simple_spinner_item, FRAME_DURATION_LABELS);
+        frameAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinnerFrameDuration.setAdapter(frameAdapter);
+
+        // 발화 길이 제한 스피너 설정
+        ArrayAdapter<String> maxUtteranceAdapter = new ArrayAdapter<>(this,
+            android.R.layout.simple_spinner_item, MAX_UTTERANCE_LABELS);
+        maxUtteranceAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinnerMaxUtterance.setAdapter(maxUtteranceAdapter);
+
+        ArrayAdapter<String> trailingSilenceAdapter = new ArrayAdapter<>(this,
+            android.R.layout.simple_spinner_item, MAX_TRAILING_SILENCE_LABELS);
+        trailingSilenceAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinnerMaxTrailingSilence.setAdapter(trailingSilenceAdapter);
+
+        // 음성 모델 유지 시간 스피너 설정
+        ArrayAdapter<String> keepAliveAdapter = new ArrayAdapter<>(this,
+            android.R.layout.simple_spinner_item, MODEL_KEEP_ALIVE_LABELS);
+        keepAliveAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinnerModelKeepAlive.setAdapter(keepAliveAdapter);
     }
 
     private void loadSettings() {
@@ -58,12 +119,52 @@ public class SettingsActivity extends AppCompatActivity {
         int fontSize = sharedPreferences.getInt("font_size", 18); // 기본값: 18sp
         boolean showOriginal = sharedPreferences.getBoolean("show_original", true);
         boolean autoDetect = sharedPreferences.getBoolean("auto_detect", false);
+        boolean wordTiming = sharedPreferences.getBoolean("word_timing", false);
+        int readingSpeed = sharedPreferences.getInt("caption_reading_cps", CaptionExpiry.DEFAULT_CHARS_PER_SECOND);
+        int frameDuration = sharedPreferences.getInt("frame_duration_ms", FrameSizeTuner.DEFAULT_FRAME_MS);
+        int maxUtterance = sharedPreferences.getInt("max_utterance_ms",
+            UtteranceLimiter.DEFAULT_MAX_UTTERANCE_MS);
+        int maxTrailingSilence = sharedPreferences.getInt("max_trailing_silence_ms",
+            UtteranceLimiter.DEFAULT_MAX_TRAILING_SILENCE_MS);
+        int modelKeepAlive = sharedPreferences.getInt(ModelCache.PREF_KEEP_ALIVE_MS,
+            ModelCache.DEFAULT_KEEP_ALIVE_MS);
 
         spinnerSubtitlePosition.setSelection(position);
         seekBarFontSize.setProgress(fontSize);
         tvFontSizeValue.setText(fontSize + "sp");
         switchShowOriginal.setChecked(showOriginal);
         switchAutoDetect.setChecked(autoDetect);
+        switchWordTiming.setChecked(wordTiming);
+        spinnerReadingSpeed.setSelection(indexOf(READING_SPEEDS_CPS, readingSpeed, 2));
+        spinnerFrameDuration.setSelection(indexOfFrameDuration(frameDuration));
+        spinnerMaxUtterance.setSelection(indexOf(MAX_UTTERANCE_MS, maxUtterance, 2));
+        spinnerMaxTrailingSilence.setSelection(indexOf(MAX_TRAILING_SILENCE_MS, maxTrailingSilence, 2));
+        spinnerModelKeepAlive.setSelection(indexOf(MODEL_KEEP_ALIVE_MS, modelKeepAlive, 2));
+
+        // 마지막 자동 조정 결과 (RTF: 디코딩 시간 / 오디오 길이, 1 이하면 실시간 처리)
+        if (sharedPreferences.contains("tuned_frame_ms")) {
+            tvFrameTuning.setText(String.format(java.util.Locale.US, "마지막 자동 조정: %dms (RTF %.2f)",
+                sharedPreferences.getInt("tuned_frame_ms", 0),
+                sharedPreferences.getFloat("tuned_rtf", 0f)));
+        }
+    }
+
+    private static int indexOfFrameDuration(int frameMs) {
+        for (int i = 0; i < FRAME_DURATIONS_MS.length; i++) {
+            if (FRAME_DURATIONS_MS[i] == frameMs) {
+                return i;
+            }
+        }
+        return 2; // 40ms
+    }
+
+    private static int indexOf(int[] values, int value, int defaultIndex) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return defaultIndex;
     }
 
     private void setupListeners() {
@@ -91,9 +192,20 @@ public class SettingsActivity extends AppCompatActivity {
         editor.putInt("font_size", seekBarFontSize.getProgress());
         editor.putBoolean("show_original", switchShowOriginal.isChecked());
         editor.putBoolean("auto_detect", switchAutoDetect.isChecked());
+        editor.putBoolean("word_timing", switchWordTiming.isChecked());
+        editor.putInt("caption_reading_cps", READING_SPEEDS_CPS[spinnerReadingSpeed.getSelectedItemPosition()]);
+        editor.putInt("frame_duration_ms", FRAME_DURATIONS_MS[spinnerFrameDuration.getSelectedItemPosition()]);
+        editor.putInt("max_utterance_ms", MAX_UTTERANCE_MS[spinnerMaxUtterance.getSelectedItemPosition()]);
+        editor.putInt("max_trailing_silence_ms",
+            MAX_TRAILING_SILENCE_MS[spinnerMaxTrailingSilence.getSelectedItemPosition()]);
+        int modelKeepAlive = MODEL_KEEP_ALIVE_MS[spinnerModelKeepAlive.getSelectedItemPosition()];
+        editor.putInt(ModelCache.PREF_KEEP_ALIVE_MS, modelKeepAlive);
 
         editor.apply();
 
+        // 이미 메모리에 남아 있는 모델의 해제 예약에도 바로 적용
+        ModelCache.getInstance(this).setKeepAliveMs(modelKeepAlive);
+
         // 설정 저장 완료 메시지
         android.widget.Toast.makeText(this, "설정이 저장되었습니다", 
             android.widget.Toast.LENGTH_SHORT).show();
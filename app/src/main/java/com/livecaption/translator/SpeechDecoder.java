@@ -0,0 +1,26 @@
+package com.livecaption.translator;
+
+/**
+ * 음성 인식 디코더 추상화 (Vosk Recognizer와 같은 호출 규약).
+ * 결과는 Vosk 형식 JSON 문자열로 반환한다.
+ */
+public interface SpeechDecoder {
+
+    /**
+     * PCM16 오디오 입력. 발화가 끝났으면 true
+     */
+    boolean acceptWaveForm(byte[] data, int size);
+
+    String getResult();
+
+    String getPartialResult();
+
+    /**
+     * 남은 오디오를 강제로 마무리한 최종 결과
+     */
+    String getFinalResult();
+
+    void reset();
+
+    void close();
+}
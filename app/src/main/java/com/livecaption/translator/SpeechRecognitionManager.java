@@ -7,12 +7,10 @@ import android.util.Log;
 
 import org.vosk.Model;
 import org.vosk.Recognizer;
-import org.json.JSONObject;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -20,25 +18,71 @@ public class SpeechRecognitionManager {
 
     private static final String TAG = "SpeechRecognitionMgr";
     private static final int SAMPLE_RATE = 16000;
+    // 자동 언어 감지 때 동시에 디코딩하는 언어 수 (코어 수와 모델 메모리 고려)
+    private static final int MAX_DETECTION_LANGUAGES = 3;
 
     private Context context;
-    private Model model;
     private Recognizer recognizer;
-    private RecognitionCallback callback;
+    private String modelName;
+    private volatile RecognitionEngine recognitionEngine;
     private ExecutorService executorService;
     private Handler mainHandler;
-    private boolean isInitialized = false;
-
-    public interface RecognitionCallback {
-        void onTextRecognized(String text);
-        void onError(String error);
-    }
+    private volatile boolean isInitialized = false;
+    private boolean partialResultsEnabled = true;
+    // 세션 동안 고정된 결과 콜백 (프레임마다 넘기지 않음)
+    private volatile RecognitionCallback recognitionCallback;
+    private FrameSizeTuner frameSizeTuner;
+    private boolean autoDetectEnabled;
+    private boolean wordTimingEnabled;
+    private int maxUtteranceMs = UtteranceLimiter.DEFAULT_MAX_UTTERANCE_MS;
+    private int maxTrailingSilenceMs = UtteranceLimiter.DEFAULT_MAX_TRAILING_SILENCE_MS;
+    private volatile LanguageDetectingDecoder languageDetector;
+    private volatile LanguageDetectionCallback languageDetectionCallback;
+    // 초기화 작업과 destroy가 겹칠 때 인식기/모델 참조를 누가 정리할지 정함
+    private final Object lifecycleLock = new Object();
+    private boolean destroyed;
 
     public interface ModelInitCallback {
         void onInitialized();
         void onError(String error);
     }
 
+    public interface LanguageDetectionCallback {
+        /**
+         * 언어 probe가 끝날 때마다 호출 (메인 스레드)
+         */
+        void onLanguageDetected(LanguageDetectingDecoder.ProbeReport report);
+    }
+
+    // 자동 감지 후보 인식기: 모델은 캐시에서 빌리고, 언어 비교에 쓸 단어 신뢰도(conf)를 켬.
+    // setMaxAlternatives를 쓰면 단어별 conf가 빠지므로 기본값(0)으로 둔다.
+    private final LanguageDetectingDecoder.DecoderFactory decoderFactory =
+            new LanguageDetectingDecoder.DecoderFactory() {
+                @Override
+                public SpeechDecoder create(String language) throws IOException {
+                    String name = ModelIndex.getInstance(context).getModelForLanguage(language);
+                    if (name == null) {
+                        throw new IOException("No bundled model for " + language);
+                    }
+                    Model languageModel = ModelCache.getInstance(context).acquire(name);
+                    try {
+                        Recognizer languageRecognizer = new Recognizer(languageModel, SAMPLE_RATE);
+                        languageRecognizer.setWords(true);
+                        return new VoskSpeechDecoder(languageRecognizer);
+                    } catch (IOException e) {
+                        ModelCache.getInstance(context).release(name);
+                        throw e;
+                    }
+                }
+
+                @Override
+                public void release(String language, SpeechDecoder decoder) {
+                    decoder.close();
+                    ModelCache.getInstance(context).release(
+                            ModelIndex.getInstance(context).getModelForLanguage(language));
+                }
+            };
+
     public SpeechRecognitionManager(Context context) {
         this.context = context.getApplicationContext();
         this.executorService = Executors.newSingleThreadExecutor();
@@ -50,43 +94,105 @@ public class SpeechRecognitionManager {
      */
     public void initializeModel(String language, final ModelInitCallback callback) {
         executorService.execute(() -> {
+            // 만든 인식기와 빌린 모델: destroy와 겹치거나 실패하면 여기서 반납
+            LanguageDetectingDecoder detector = null;
+            Recognizer newRecognizer = null;
+            String acquiredModel = null;
+            boolean published = false;
             try {
                 Log.d(TAG, "Starting model initialization for language: " + language);
 
-                // 모델 이름 가져오기
-                String modelName = getModelName(language);
-                Log.d(TAG, "Model name: " + modelName);
-
-                // assets에서 내부 저장소로 모델 복사
-                File modelDir = new File(context.getFilesDir(), modelName);
+                SpeechDecoder decoder;
+                List<String> detectionLanguages = autoDetectEnabled ? getDetectionLanguages(language) : null;
+                if (detectionLanguages != null && detectionLanguages.size() > 1) {
+                    // 자동 감지: 선택한 언어로 시작하고, 다른 후보와 비교해 언어를 고름
+                    String code = detectionLanguages.get(0);
+                    detector = new LanguageDetectingDecoder(SAMPLE_RATE, code,
+                            decoderFactory.create(code), detectionLanguages, decoderFactory, executorService);
+                    detector.setListener(report -> {
+                        LanguageDetectionCallback cb = languageDetectionCallback;
+                        if (cb != null) {
+                            mainHandler.post(() -> cb.onLanguageDetected(report));
+                        }
+                    });
+                    decoder = detector;
+                    Log.d(TAG, "Language auto-detection among " + detectionLanguages);
+                } else {
+                    if (autoDetectEnabled) {
+                        Log.w(TAG, "Auto-detection needs two bundled models, using " + language);
+                    }
 
-                if (!modelDir.exists()) {
-                    Log.d(TAG, "Copying model from assets...");
-                    if (!copyModelFromAssets(modelName, modelDir)) {
-                        String error = "모델 복사 실패: " + modelName;
+                    // 모델 이름 가져오기 (APK에 포함된 모델 인덱스 기준)
+                    String modelName = ModelIndex.getInstance(context).getModelForLanguage(language);
+                    if (modelName == null) {
+                        String error = "지원하지 않는 음성 인식 언어: " + language;
                         Log.e(TAG, error);
                         mainHandler.post(() -> callback.onError(error));
                         return;
                     }
-                    Log.d(TAG, "Model copied successfully");
+                    Log.d(TAG, "Model name: " + modelName);
+
+                    // 모델 로드 (최근에 쓴 모델이면 캐시에 남아 있는 것을 재사용)
+                    Model model = ModelCache.getInstance(context).acquire(modelName);
+                    acquiredModel = modelName;
+
+                    // Recognizer 생성
+                    newRecognizer = new Recognizer(model, SAMPLE_RATE);
+                    if (wordTimingEnabled) {
+                        // 단어별 시각과 신뢰도 (대안을 켜면 conf가 빠지므로 기본값 유지)
+                        newRecognizer.setWords(true);
+                    } else {
+                        newRecognizer.setMaxAlternatives(1);
+                        newRecognizer.setWords(false);
+                    }
+                    decoder = new VoskSpeechDecoder(newRecognizer);
                 }
 
-                // 모델 로드
-                Log.d(TAG, "Loading model from: " + modelDir.getAbsolutePath());
-                model = new Model(modelDir.getAbsolutePath());
-
-                // Recognizer 생성
-                recognizer = new Recognizer(model, SAMPLE_RATE);
-                recognizer.setMaxAlternatives(1);
-                recognizer.setWords(false);
+                // 결과는 메인 스레드로 전달
+                RecognitionEngine engine = new RecognitionEngine(decoder, mainHandler::post, SAMPLE_RATE);
+                engine.setPartialResultsEnabled(partialResultsEnabled);
+                engine.setCallback(recognitionCallback);
+                engine.setFrameSizeTuner(frameSizeTuner);
+                // 인식이 실시간보다 밀리면 오디오를 버려 자막이 현재 오디오 근처에 머물게 함
+                engine.setLoadShedder(new LoadShedder(SAMPLE_RATE));
+                // 음악이나 쉬지 않는 말에서도 자막이 나오도록 발화 길이 제한
+                UtteranceLimiter limiter = new UtteranceLimiter(SAMPLE_RATE);
+                limiter.setLimitsMs(maxUtteranceMs, maxTrailingSilenceMs);
+                if (limiter.isEnabled()) {
+                    engine.setUtteranceLimiter(limiter);
+                }
 
-                isInitialized = true;
+                // 로드하는 동안 destroy가 불렸으면 아무것도 시작하지 않고 반납
+                synchronized (lifecycleLock) {
+                    if (!destroyed) {
+                        languageDetector = detector;
+                        recognizer = newRecognizer;
+                        this.modelName = acquiredModel;
+                        recognitionEngine = engine;
+                        engine.start();
+                        isInitialized = true;
+                        published = true;
+                    }
+                }
+                if (!published) {
+                    Log.d(TAG, "Destroyed during model initialization");
+                    releaseDecoder(detector, newRecognizer, acquiredModel);
+                    return;
+                }
                 Log.d(TAG, "Model initialized successfully");
 
                 mainHandler.post(() -> callback.onInitialized());
 
+                // 인식을 먼저 시작한 뒤 나머지 후보 모델을 로드 (첫 발화 경계에서 probe 시작)
+                if (detector != null) {
+                    detector.loadCandidates(LanguageDetectingDecoder.REASON_INITIAL);
+                }
+
             } catch (Exception e) {
                 Log.e(TAG, "Error initializing model", e);
+                if (!published) {
+                    releaseDecoder(detector, newRecognizer, acquiredModel);
+                }
                 String error = "모델 초기화 실패: " + e.getMessage();
                 mainHandler.post(() -> callback.onError(error));
             }
@@ -94,148 +200,144 @@ public class SpeechRecognitionManager {
     }
 
     /**
-     * assets에서 모델 복사
+     * 인식기를 닫고 모델을 캐시에 반납 (자동 감지 인식기들은 모델과 함께 detector가 반납)
      */
-    private boolean copyModelFromAssets(String modelName, File targetDir) {
-        try {
-            String assetPath = "models/" + modelName;
-
-            // 대상 디렉토리 생성
-            if (!targetDir.exists()) {
-                targetDir.mkdirs();
-            }
-
-            // assets 폴더의 모든 파일 복사
-            copyAssetFolder(assetPath, targetDir);
-
-            return true;
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error copying model from assets", e);
-            return false;
+    private void releaseDecoder(LanguageDetectingDecoder detector, Recognizer recognizer, String modelName) {
+        if (detector != null) {
+            detector.close();
+        }
+        if (recognizer != null) {
+            recognizer.close();
+        }
+        // 모델은 닫지 않고 캐시에 반납 (keep-alive 동안 재사용)
+        if (modelName != null) {
+            ModelCache.getInstance(context).release(modelName);
         }
     }
 
     /**
-     * assets 폴더 재귀적으로 복사
+     * 인식 결과 콜백 등록 (세션 시작 시 한 번). 콜백은 메인 스레드에서 호출된다.
      */
-    private void copyAssetFolder(String assetPath, File targetDir) throws IOException {
-        String[] files = context.getAssets().list(assetPath);
-
-        if (files == null || files.length == 0) {
-            // 파일인 경우
-            copyAssetFile(assetPath, new File(targetDir.getParent(), targetDir.getName()));
-        } else {
-            // 폴더인 경우
-            targetDir.mkdirs();
+    public void setRecognitionCallback(RecognitionCallback callback) {
+        this.recognitionCallback = callback;
+        RecognitionEngine engine = recognitionEngine;
+        if (engine != null) {
+            engine.setCallback(callback);
+        }
+    }
 
-            for (String filename : files) {
-                String assetFilePath = assetPath + "/" + filename;
-                File targetFile = new File(targetDir, filename);
+    /**
+     * 자동 언어 감지 사용 여부 (initializeModel 전에 호출). 모델이 두 개 이상 포함된 경우에만 동작한다.
+     */
+    public void setAutoDetectEnabled(boolean enabled) {
+        this.autoDetectEnabled = enabled;
+    }
 
-                String[] subFiles = context.getAssets().list(assetFilePath);
-                if (subFiles != null && subFiles.length > 0) {
-                    // 하위 폴더
-                    copyAssetFolder(assetFilePath, targetFile);
-                } else {
-                    // 파일
-                    copyAssetFile(assetFilePath, targetFile);
-                }
-            }
-        }
+    /**
+     * 단어별 시각/신뢰도 출력 사용 여부 (initializeModel 전에 호출). 자동 언어 감지 중에는 항상 켜진다.
+     */
+    public void setWordTimingEnabled(boolean enabled) {
+        this.wordTimingEnabled = enabled;
     }
 
     /**
-     * assets 파일 복사
+     * 발화 길이 제한 (initializeModel 전에 호출, ms, 0이면 해당 제한 없음)
+     *
+     * @param maxUtteranceMs       발화 최대 길이
+     * @param maxTrailingSilenceMs 인식된 단어가 늘지 않는 최대 시간
      */
-    private void copyAssetFile(String assetPath, File targetFile) throws IOException {
-        InputStream in = context.getAssets().open(assetPath);
-        FileOutputStream out = new FileOutputStream(targetFile);
-
-        byte[] buffer = new byte[1024];
-        int read;
-        while ((read = in.read(buffer)) != -1) {
-            out.write(buffer, 0, read);
-        }
+    public void setUtteranceLimitsMs(int maxUtteranceMs, int maxTrailingSilenceMs) {
+        this.maxUtteranceMs = maxUtteranceMs;
+        this.maxTrailingSilenceMs = maxTrailingSilenceMs;
+    }
 
-        in.close();
-        out.close();
+    /**
+     * 언어 감지 결과 콜백 등록 (메인 스레드에서 호출됨)
+     */
+    public void setLanguageDetectionCallback(LanguageDetectionCallback callback) {
+        this.languageDetectionCallback = callback;
     }
 
     /**
-     * 오디오 데이터 처리
+     * 감지 후보 언어 코드: 선택한 언어를 먼저, 나머지는 모델이 포함된 언어를 화면 표시 순서로
      */
-    public void processAudio(byte[] audioData, int size, RecognitionCallback callback) {
-        if (!isInitialized || recognizer == null) {
-            if (callback != null) {
-                callback.onError("음성 인식이 초기화되지 않았습니다");
+    private List<String> getDetectionLanguages(String language) {
+        ModelIndex index = ModelIndex.getInstance(context);
+        List<String> languages = new ArrayList<>();
+        String preferred = Languages.toCode(language);
+        if (preferred != null && index.hasModelFor(preferred)) {
+            languages.add(preferred);
+        }
+        for (String label : Languages.getLabels()) {
+            String code = Languages.toCode(label);
+            if (languages.size() >= MAX_DETECTION_LANGUAGES) {
+                break;
+            }
+            if (!languages.contains(code) && index.hasModelFor(code)) {
+                languages.add(code);
             }
-            return;
         }
+        return languages;
+    }
 
-        this.callback = callback;
+    /**
+     * 프레임 길이 조정기 등록 (initializeModel 전에 호출)
+     */
+    public void setFrameSizeTuner(FrameSizeTuner frameSizeTuner) {
+        this.frameSizeTuner = frameSizeTuner;
+    }
 
-        if (audioData == null || size <= 0) {
-            return;
+    /**
+     * 오디오 데이터 처리 (캡처 스레드에서 호출)
+     * 프레임을 링 버퍼에 복사만 하고 바로 반환하므로 캡처 루프가 막히지 않으며, 할당도 없다.
+     *
+     * @return 인식기로 전달되었으면 true (초기화 전이거나 큐가 가득 차면 false)
+     */
+    public boolean processAudio(byte[] audioData, int size) {
+        RecognitionEngine engine = recognitionEngine;
+        if (!isInitialized || engine == null || audioData == null || size <= 0) {
+            return false;
         }
-
-        executorService.execute(() -> {
-            try {
-                if (recognizer.acceptWaveForm(audioData, size)) {
-                    // 최종 인식 결과
-                    String result = recognizer.getResult();
-                    processResult(result, true);
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "Error processing audio", e);
-                if (callback != null) {
-                    mainHandler.post(() -> callback.onError("오디오 처리 실패: " + e.getMessage()));
-                }
-            }
-        });
+        return engine.processAudio(audioData, size);
     }
 
-    private void processResult(String result, boolean isFinal) {
-        try {
-            JSONObject jsonResult = new JSONObject(result);
-            String text = "";
+    /**
+     * 오디오 큐 상태 (오버런 카운터 등), 초기화 전이면 null
+     */
+    public PcmRingBuffer getAudioQueue() {
+        return recognitionEngine != null ? recognitionEngine.getAudioQueue() : null;
+    }
 
-            if (isFinal && jsonResult.has("text")) {
-                text = jsonResult.getString("text");
-            }
+    /**
+     * 부하 대응 통계 (버린 오디오 양과 이유), 초기화 전이면 null
+     */
+    public LoadShedder getLoadShedder() {
+        RecognitionEngine engine = recognitionEngine;
+        return engine != null ? engine.getLoadShedder() : null;
+    }
 
-            if (!text.isEmpty() && isFinal) {
-                final String finalText = text;
-                Log.d(TAG, "Final recognized text: " + finalText);
+    /**
+     * 끝점 통계 (자연 종료 / 강제 마무리), 초기화 전이거나 제한이 없으면 null
+     */
+    public UtteranceLimiter getUtteranceLimiter() {
+        RecognitionEngine engine = recognitionEngine;
+        return engine != null ? engine.getUtteranceLimiter() : null;
+    }
 
-                if (callback != null) {
-                    mainHandler.post(() -> callback.onTextRecognized(finalText));
-                }
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing result", e);
-        }
+    /**
+     * 자동 언어 감지 상태 (감지 시간, probe CPU 비용), 사용하지 않으면 null
+     */
+    public LanguageDetectingDecoder getLanguageDetector() {
+        return languageDetector;
     }
 
     /**
-     * 언어 코드에 따른 모델 이름 반환
+     * 스트리밍(중간 결과) 모드 설정
      */
-    private String getModelName(String language) {
-        switch (language) {
-            case "ko-KR":
-            case "한국어":
-                return "vosk-model-small-ko-0.22";
-            case "en-US":
-            case "English":
-                return "vosk-model-small-en-us-0.15";
-            case "ja-JP":
-            case "日本語":
-                return "vosk-model-small-ja-0.22";
-            case "zh-CN":
-            case "中文":
-                return "vosk-model-small-cn-0.22";
-            default:
-                return "vosk-model-small-ko-0.22";
+    public void setPartialResultsEnabled(boolean enabled) {
+        this.partialResultsEnabled = enabled;
+        if (recognitionEngine != null) {
+            recognitionEngine.setPartialResultsEnabled(enabled);
         }
     }
 
@@ -243,16 +345,29 @@ public class SpeechRecognitionManager {
      * 리소스 해제
      */
     public void destroy() {
-        isInitialized = false;
-
-        if (recognizer != null) {
-            recognizer.close();
+        LanguageDetectingDecoder detector;
+        Recognizer closingRecognizer;
+        String releasedModel;
+        RecognitionEngine engine;
+        synchronized (lifecycleLock) {
+            destroyed = true;
+            isInitialized = false;
+            detector = languageDetector;
+            closingRecognizer = recognizer;
+            releasedModel = modelName;
+            engine = recognitionEngine;
+            languageDetector = null;
             recognizer = null;
+            modelName = null;
+            recognitionEngine = null;
         }
 
-        if (model != null) {
-            model.close();
-            model = null;
+        // 인식 스레드가 아직 디코딩 중이면 recognizer는 그 스레드가 루프를 빠져나올 때 닫음
+        Runnable release = () -> releaseDecoder(detector, closingRecognizer, releasedModel);
+        if (engine != null) {
+            engine.release(release);
+        } else {
+            release.run();
         }
 
         if (executorService != null) {
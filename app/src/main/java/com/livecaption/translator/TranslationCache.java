@@ -0,0 +1,518 @@
+package com.livecaption.translator;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 번역 결과 2단계 캐시: 메모리 LRU + 디스크 저장소.
+ * 키는 (원본 언어, 대상 언어, 정규화된 텍스트)이며, 디스크 읽기/쓰기는 모두
+ * 백그라운드 스레드에서 처리하므로 조회/저장 호출은 블로킹되지 않는다.
+ */
+public class TranslationCache {
+
+    private static final String TAG = "TranslationCache";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int FILE_MAGIC = 0x4C435443; // "LCTC"
+    private static final int FILE_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024;
+    private static final char KEY_SEPARATOR = '\u0001';
+
+    private final File file;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+
+    // 메모리 계층 (접근 순서 LRU)
+    private final LinkedHashMap<String, String> memory =
+            new LinkedHashMap<String, String>(64, 0.75f, true);
+    private long memoryBytes;
+
+    // 디스크 계층: 키 → 레코드 위치 (값은 파일에만 보관)
+    private final LinkedHashMap<String, Long> diskIndex =
+            new LinkedHashMap<String, Long>(64, 0.75f, true);
+    private final Object diskLock = new Object();
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private RandomAccessFile diskFile;
+
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+    private long evictions;
+
+    public TranslationCache(File file, long maxMemoryBytes, long maxDiskBytes) {
+        this.file = file;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        diskExecutor.execute(this::openDiskStore);
+    }
+
+    /**
+     * 캐시 조회 결과 (없으면 null)
+     */
+    public interface LookupCallback {
+        void onLookup(String translation);
+    }
+
+    /**
+     * 메모리 계층만 조회. 파일 I/O나 디스크 잠금 대기가 없어 메인 스레드에서 호출해도 된다.
+     *
+     * @return 캐시된 번역 결과, 없으면 null
+     */
+    public String getFromMemory(String sourceCode, String targetCode, String text) {
+        return getFromMemory(buildKey(sourceCode, targetCode, text));
+    }
+
+    /**
+     * 캐시 조회. 메모리에 있으면 호출 스레드에서 바로 콜백하고, 없으면 디스크 스레드에서
+     * 디스크를 확인한 뒤 (찾으면 메모리로 올리고) callbackExecutor로 콜백한다.
+     * 호출 스레드의 executor(메인 Handler::post 등)를 넘기면 결과가 항상 그 스레드에서 온다.
+     */
+    public void get(String sourceCode, String targetCode, String text, final Executor callbackExecutor,
+                    final LookupCallback callback) {
+        final String key = buildKey(sourceCode, targetCode, text);
+        String cached = getFromMemory(key);
+        if (cached != null) {
+            callback.onLookup(cached);
+            return;
+        }
+
+        try {
+            diskExecutor.execute(() -> {
+                final String translation = getFromDisk(key);
+                callbackExecutor.execute(() -> callback.onLookup(translation));
+            });
+        } catch (RejectedExecutionException e) {
+            // 닫힌 캐시: 미스로 처리
+            synchronized (this) {
+                misses++;
+            }
+            callback.onLookup(null);
+        }
+    }
+
+    private synchronized String getFromMemory(String key) {
+        String cached = memory.get(key);
+        if (cached != null) {
+            memoryHits++;
+        }
+        return cached;
+    }
+
+    /**
+     * 디스크 계층 조회 (디스크 스레드 전용)
+     */
+    private String getFromDisk(String key) {
+        String stored = readFromDisk(key);
+
+        synchronized (this) {
+            if (stored != null) {
+                diskHits++;
+                putMemory(key, stored);
+            } else {
+                misses++;
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * 번역 결과 저장 (디스크 기록은 비동기)
+     */
+    public void put(String sourceCode, String targetCode, String text, String translation) {
+        if (translation == null) {
+            return;
+        }
+
+        final String key = buildKey(sourceCode, targetCode, text);
+        synchronized (this) {
+            putMemory(key, translation);
+        }
+        diskExecutor.execute(() -> writeToDisk(key, translation));
+    }
+
+    /**
+     * 특정 언어 쌍의 캐시 항목 전체 삭제
+     */
+    public void invalidate(String sourceCode, String targetCode) {
+        final String prefix = sourceCode + KEY_SEPARATOR + targetCode + KEY_SEPARATOR;
+
+        synchronized (this) {
+            Iterator<Map.Entry<String, String>> it = memory.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, String> entry = it.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    memoryBytes -= entrySize(entry.getKey(), entry.getValue());
+                    it.remove();
+                }
+            }
+        }
+
+        diskExecutor.execute(() -> {
+            synchronized (diskLock) {
+                Iterator<String> it = diskIndex.keySet().iterator();
+                while (it.hasNext()) {
+                    if (it.next().startsWith(prefix)) {
+                        it.remove();
+                    }
+                }
+                compactDisk(0);
+            }
+        });
+        Log.d(TAG, "Cache invalidated: " + sourceCode + " -> " + targetCode);
+    }
+
+    public void close() {
+        diskExecutor.shutdown();
+        try {
+            diskExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Log.e(TAG, "Interrupted while closing cache", e);
+        }
+
+        synchronized (diskLock) {
+            closeDiskFile();
+        }
+    }
+
+    /**
+     * 공백 정리 + 소문자 변환 (Vosk 출력은 대부분 소문자)
+     */
+    public static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    sb.append(' ');
+                    pendingSpace = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static String buildKey(String sourceCode, String targetCode, String text) {
+        return sourceCode + KEY_SEPARATOR + targetCode + KEY_SEPARATOR + normalize(text);
+    }
+
+    private static long entrySize(String key, String value) {
+        // char 당 2바이트 + 엔트리 오버헤드 대략치
+        return 2L * (key.length() + value.length()) + 64;
+    }
+
+    private void putMemory(String key, String value) {
+        String previous = memory.put(key, value);
+        if (previous != null) {
+            memoryBytes -= entrySize(key, previous);
+        }
+        memoryBytes += entrySize(key, value);
+
+        Iterator<Map.Entry<String, String>> it = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && it.hasNext()) {
+            Map.Entry<String, String> eldest = it.next();
+            memoryBytes -= entrySize(eldest.getKey(), eldest.getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    // ---- 디스크 계층 ----
+
+    private void openDiskStore() {
+        synchronized (diskLock) {
+            try {
+                loadIndex();
+                diskFile = new RandomAccessFile(file, "rw");
+                if (diskFile.length() < HEADER_SIZE) {
+                    diskFile.setLength(0);
+                    diskFile.writeInt(FILE_MAGIC);
+                    diskFile.writeInt(FILE_VERSION);
+                }
+                Log.d(TAG, "Disk cache opened: " + diskIndex.size() + " entries, "
+                        + diskFile.length() + " bytes");
+            } catch (IOException e) {
+                Log.e(TAG, "Error opening disk cache", e);
+                closeDiskFile();
+            }
+        }
+    }
+
+    /**
+     * 파일을 순차적으로 읽어 인덱스 구성. 중간에 끊긴 레코드(기록 도중 종료)는 잘라낸다.
+     */
+    private void loadIndex() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+
+        long validLength = 0;
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                throw new IOException("Unknown cache format");
+            }
+            long offset = HEADER_SIZE;
+            validLength = offset;
+
+            while (true) {
+                int keyLength = in.readInt();
+                int valueLength = in.readInt();
+                if (keyLength <= 0 || valueLength < 0
+                        || keyLength + valueLength > MAX_RECORD_BYTES) {
+                    break;
+                }
+                byte[] keyBytes = new byte[keyLength];
+                in.readFully(keyBytes);
+                skipFully(in, valueLength);
+
+                diskIndex.put(new String(keyBytes, UTF_8), offset);
+                offset += RECORD_HEADER_SIZE + keyLength + valueLength;
+                validLength = offset;
+            }
+        } catch (EOFException e) {
+            // 파일 끝 (또는 잘린 레코드)
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable disk cache", e);
+            diskIndex.clear();
+            validLength = 0;
+        } finally {
+            in.close();
+        }
+
+        if (validLength < file.length()) {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(validLength);
+            } finally {
+                raf.close();
+            }
+        }
+    }
+
+    private String readFromDisk(String key) {
+        synchronized (diskLock) {
+            Long offset = diskIndex.get(key);
+            if (offset == null || diskFile == null) {
+                return null;
+            }
+
+            try {
+                diskFile.seek(offset);
+                int keyLength = diskFile.readInt();
+                int valueLength = diskFile.readInt();
+                diskFile.seek(offset + RECORD_HEADER_SIZE + keyLength);
+                byte[] valueBytes = new byte[valueLength];
+                diskFile.readFully(valueBytes);
+                return new String(valueBytes, UTF_8);
+            } catch (IOException e) {
+                Log.e(TAG, "Error reading disk cache", e);
+                diskIndex.remove(key);
+                return null;
+            }
+        }
+    }
+
+    private void writeToDisk(String key, String value) {
+        byte[] keyBytes = key.getBytes(UTF_8);
+        byte[] valueBytes = value.getBytes(UTF_8);
+        if (keyBytes.length + valueBytes.length > MAX_RECORD_BYTES) {
+            return;
+        }
+
+        synchronized (diskLock) {
+            if (diskFile == null) {
+                return;
+            }
+
+            try {
+                long offset = diskFile.length();
+                byte[] record = new byte[RECORD_HEADER_SIZE + keyBytes.length + valueBytes.length];
+                writeInt(record, 0, keyBytes.length);
+                writeInt(record, 4, valueBytes.length);
+                System.arraycopy(keyBytes, 0, record, RECORD_HEADER_SIZE, keyBytes.length);
+                System.arraycopy(valueBytes, 0, record,
+                        RECORD_HEADER_SIZE + keyBytes.length, valueBytes.length);
+
+                diskFile.seek(offset);
+                diskFile.write(record);
+                diskIndex.put(key, offset);
+
+                if (diskFile.length() > maxDiskBytes) {
+                    compactDisk(maxDiskBytes / 2);
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "Error writing disk cache", e);
+            }
+        }
+    }
+
+    /**
+     * 인덱스에 남은 항목만 새 파일로 다시 기록. targetBytes > 0이면 최근에 사용된
+     * 항목부터 그 크기까지만 유지한다. diskLock을 잡은 상태에서 호출.
+     */
+    private void compactDisk(long targetBytes) {
+        if (diskFile == null) {
+            return;
+        }
+
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try {
+            // 최근 사용 순서로 유지할 항목 선택
+            List<Map.Entry<String, Long>> entries =
+                    new ArrayList<Map.Entry<String, Long>>(diskIndex.entrySet());
+            LinkedHashMap<String, Long> newIndex = new LinkedHashMap<String, Long>(64, 0.75f, true);
+
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmpFile)));
+            long offset = HEADER_SIZE;
+            try {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+
+                long kept = HEADER_SIZE;
+                List<Map.Entry<String, Long>> keptEntries = new ArrayList<Map.Entry<String, Long>>();
+                for (int i = entries.size() - 1; i >= 0; i--) {
+                    Map.Entry<String, Long> entry = entries.get(i);
+                    diskFile.seek(entry.getValue());
+                    int recordSize = RECORD_HEADER_SIZE + diskFile.readInt() + diskFile.readInt();
+                    if (targetBytes > 0 && kept + recordSize > targetBytes) {
+                        synchronized (this) {
+                            evictions += i + 1;
+                        }
+                        break;
+                    }
+                    kept += recordSize;
+                    keptEntries.add(0, entry);
+                }
+
+                for (Map.Entry<String, Long> entry : keptEntries) {
+                    diskFile.seek(entry.getValue());
+                    int keyLength = diskFile.readInt();
+                    int valueLength = diskFile.readInt();
+                    byte[] record = new byte[RECORD_HEADER_SIZE + keyLength + valueLength];
+                    diskFile.seek(entry.getValue());
+                    diskFile.readFully(record);
+                    out.write(record);
+                    newIndex.put(entry.getKey(), offset);
+                    offset += record.length;
+                }
+            } finally {
+                out.close();
+            }
+
+            closeDiskFile();
+            if (!tmpFile.renameTo(file)) {
+                throw new IOException("Failed to replace cache file");
+            }
+            diskFile = new RandomAccessFile(file, "rw");
+            diskIndex.clear();
+            diskIndex.putAll(newIndex);
+            Log.d(TAG, "Disk cache compacted: " + diskIndex.size() + " entries, " + offset + " bytes");
+
+        } catch (IOException e) {
+            Log.e(TAG, "Error compacting disk cache", e);
+            tmpFile.delete();
+            if (diskFile == null) {
+                // 기존 파일로 복구 시도
+                diskIndex.clear();
+                openDiskStore();
+            }
+        }
+    }
+
+    private void closeDiskFile() {
+        if (diskFile != null) {
+            try {
+                diskFile.close();
+            } catch (IOException e) {
+                Log.e(TAG, "Error closing disk cache", e);
+            }
+            diskFile = null;
+        }
+    }
+
+    private static void skipFully(DataInputStream in, int count) throws IOException {
+        int remaining = count;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    // ---- 통계 ----
+
+    public synchronized long getMemoryHits() {
+        return memoryHits;
+    }
+
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int getMemoryEntryCount() {
+        return memory.size();
+    }
+
+    public int getDiskEntryCount() {
+        synchronized (diskLock) {
+            return diskIndex.size();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TranslationCache{memoryHits=" + memoryHits
+                + ", diskHits=" + diskHits
+                + ", misses=" + misses
+                + ", evictions=" + evictions
+                + ", memoryEntries=" + memory.size()
+                + ", memoryBytes=" + memoryBytes + "}";
+    }
+}
@@ -0,0 +1,9 @@
+package com.livecaption.translator;
+
+/**
+ * 번역 결과 콜백
+ */
+public interface TranslationCallback {
+    void onTranslationSuccess(String translatedText);
+    void onTranslationError(String error);
+}
@@ -1,34 +1,45 @@
 package com.livecaption.translator;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
-import com.google.mlkit.common.model.DownloadConditions;
-import com.google.mlkit.nl.translate.TranslateLanguage;
-import com.google.mlkit.nl.translate.Translation;
 import com.google.mlkit.nl.translate.Translator;
-import com.google.mlkit.nl.translate.TranslatorOptions;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.File;
+import java.util.concurrent.Executor;
 
 public class TranslationManager {
 
     private static final String TAG = "TranslationManager";
     private static TranslationManager instance;
 
-    private Context context;
-    private Translator currentTranslator;
-    private Map<String, String> languageCodeMap;
+    // 번역 캐시 크기 제한
+    private static final String CACHE_FILE_NAME = "translation_cache.bin";
+    private static final long CACHE_MEMORY_BYTES = 512 * 1024;
+    private static final long CACHE_DISK_BYTES = 4 * 1024 * 1024;
 
-    public interface TranslationCallback {
-        void onTranslationSuccess(String translatedText);
-        void onTranslationError(String error);
-    }
+    // 동시에 열어 둘 번역기 최대 개수
+    private static final int MAX_OPEN_TRANSLATORS = 3;
+
+    // 동시에 진행할 번역 요청 기본값
+    private static final int DEFAULT_MAX_IN_FLIGHT = 2;
+
+    private Context context;
+    private TranslatorPool translatorPool;
+    private TranslationCache translationCache;
+    private TranslationScheduler translationScheduler;
+    // 디스크 캐시 조회 결과도 ML Kit 결과와 같은 메인 스레드에서 이어 간다
+    private final Executor mainExecutor = new Handler(Looper.getMainLooper())::post;
 
     private TranslationManager(Context context) {
         this.context = context.getApplicationContext();
-        initializeLanguageMap();
+        translatorPool = new TranslatorPool(MAX_OPEN_TRANSLATORS);
+        translationScheduler = new TranslationScheduler(this::translate, DEFAULT_MAX_IN_FLIGHT);
+        translationCache = new TranslationCache(
+                new File(this.context.getCacheDir(), CACHE_FILE_NAME),
+                CACHE_MEMORY_BYTES, CACHE_DISK_BYTES);
     }
 
     public static synchronized TranslationManager getInstance(Context context) {
@@ -38,15 +49,20 @@ public class TranslationManager {
         return instance;
     }
 
-    private void initializeLanguageMap() {
-        languageCodeMap = new HashMap<>();
-        languageCodeMap.put("한국어", TranslateLanguage.KOREAN);
-        languageCodeMap.put("English", TranslateLanguage.ENGLISH);
-        languageCodeMap.put("日本語", TranslateLanguage.JAPANESE);
-        languageCodeMap.put("中文", TranslateLanguage.CHINESE);
-        languageCodeMap.put("Español", TranslateLanguage.SPANISH);
-        languageCodeMap.put("Français", TranslateLanguage.FRENCH);
-        languageCodeMap.put("Deutsch", TranslateLanguage.GERMAN);
+    /**
+     * 실시간 자막용 번역 요청: 순서가 보장되고, 새 자막보다 늦게 끝난 번역은 버려진다.
+     */
+    public void submitTranslation(String text, String sourceLanguage, String targetLanguage,
+                                  TranslationCallback callback) {
+        translationScheduler.submit(text, sourceLanguage, targetLanguage, callback);
+    }
+
+    public void setMaxTranslationsInFlight(int maxInFlight) {
+        translationScheduler.setMaxInFlight(maxInFlight);
+    }
+
+    public TranslationScheduler getTranslationScheduler() {
+        return translationScheduler;
     }
 
     public void translate(String text, String sourceLanguage, String targetLanguage, 
@@ -70,80 +86,81 @@ public class TranslationManager {
             return;
         }
 
-        setupTranslator(sourceCode, targetCode, new TranslatorSetupCallback() {
-            @Override
-            public void onSetupComplete() {
-                performTranslation(text, callback);
+        // 캐시에 있으면 ML Kit 호출 없이 반환 (디스크 확인은 캐시의 디스크 스레드에서 하고
+        // 결과는 메인 스레드로 돌아와서 처리: 스케줄러 완료 순서가 섞이지 않도록)
+        translationCache.get(sourceCode, targetCode, text, mainExecutor, cached -> {
+            if (cached != null) {
+                callback.onTranslationSuccess(cached);
+                return;
             }
 
-            @Override
-            public void onSetupError(String error) {
-                callback.onTranslationError(error);
-            }
-        });
-    }
-
-    private void setupTranslator(String sourceCode, String targetCode, 
-                                 TranslatorSetupCallback callback) {
-        // 이미 설정된 번역기가 있으면 재사용
-        if (currentTranslator != null) {
-            callback.onSetupComplete();
-            return;
-        }
-
-        TranslatorOptions options = new TranslatorOptions.Builder()
-            .setSourceLanguage(sourceCode)
-            .setTargetLanguage(targetCode)
-            .build();
-
-        currentTranslator = Translation.getClient(options);
-
-        DownloadConditions conditions = new DownloadConditions.Builder()
-            .requireWifi()
-            .build();
+            translatorPool.acquire(sourceCode, targetCode, new TranslatorPool.Callback() {
+                @Override
+                public void onReady(Translator translator) {
+                    performTranslation(translator, text, sourceCode, targetCode, callback);
+                }
 
-        currentTranslator.downloadModelIfNeeded(conditions)
-            .addOnSuccessListener(unused -> {
-                Log.d(TAG, "Translation model downloaded successfully");
-                callback.onSetupComplete();
-            })
-            .addOnFailureListener(e -> {
-                Log.e(TAG, "Error downloading translation model", e);
-                callback.onSetupError("번역 모델 다운로드 실패: " + e.getMessage());
+                @Override
+                public void onError(String error) {
+                    callback.onTranslationError(error);
+                }
             });
+        });
     }
 
-    private void performTranslation(String text, TranslationCallback callback) {
-        if (currentTranslator == null) {
-            callback.onTranslationError("번역기가 초기화되지 않음");
+    /**
+     * 언어 쌍의 번역 모델을 미리 로드 (언어 변경 직후 첫 자막의 지연 방지)
+     */
+    public void prewarm(String sourceLanguage, String targetLanguage) {
+        String sourceCode = getLanguageCode(sourceLanguage);
+        String targetCode = getLanguageCode(targetLanguage);
+
+        if (sourceCode == null || targetCode == null || sourceCode.equals(targetCode)) {
             return;
         }
+        translatorPool.prewarm(sourceCode, targetCode);
+    }
 
-        currentTranslator.translate(text)
+    private void performTranslation(Translator translator, String text, String sourceCode,
+                                    String targetCode, TranslationCallback callback) {
+        translator.translate(text)
             .addOnSuccessListener(translatedText -> {
                 Log.d(TAG, "Translation successful: " + text + " -> " + translatedText);
+                translationCache.put(sourceCode, targetCode, text, translatedText);
                 callback.onTranslationSuccess(translatedText);
             })
             .addOnFailureListener(e -> {
                 Log.e(TAG, "Translation error", e);
                 callback.onTranslationError("번역 실패: " + e.getMessage());
-            });
+            })
+            .addOnCompleteListener(task -> translatorPool.release(translator));
     }
 
     private String getLanguageCode(String language) {
-        return languageCodeMap.get(language);
+        return Languages.toCode(language);
     }
 
-    public void closeTranslator() {
-        if (currentTranslator != null) {
-            currentTranslator.close();
-            currentTranslator = null;
-            Log.d(TAG, "Translator closed");
+    /**
+     * 특정 언어 쌍의 번역 캐시 삭제
+     */
+    public void invalidateCache(String sourceLanguage, String targetLanguage) {
+        String sourceCode = getLanguageCode(sourceLanguage);
+        String targetCode = getLanguageCode(targetLanguage);
+        if (sourceCode != null && targetCode != null) {
+            translationCache.invalidate(sourceCode, targetCode);
         }
     }
 
-    private interface TranslatorSetupCallback {
-        void onSetupComplete();
-        void onSetupError(String error);
+    public TranslationCache getTranslationCache() {
+        return translationCache;
+    }
+
+    public TranslatorPool getTranslatorPool() {
+        return translatorPool;
+    }
+
+    public void closeTranslator() {
+        translatorPool.closeAll();
+        Log.d(TAG, "Translator closed");
     }
 }
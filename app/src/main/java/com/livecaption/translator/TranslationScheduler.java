@@ -0,0 +1,327 @@
+package com.livecaption.translator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 최신 자막 우선 번역 스케줄러.
+ * 요청마다 순번을 매기고 동시에 진행되는 번역 수를 제한한다. 같은 텍스트가 이미
+ * 번역 중이면 그 요청에 합치고, 이미 더 새로운 자막이 전달된 뒤에 끝난 번역은 버린다.
+ * 분할 번역의 구간은 {@link #submitSegment}로 같은 동시 진행 제한과 합치기를 거치되 버려지지 않고,
+ * 구간을 이어 붙인 자막은 {@link #reserveSequence}와 {@link #claimDelivery}로 같은 순번에 맞춰 순서를 지킨다.
+ */
+public class TranslationScheduler {
+
+    private static final char KEY_SEPARATOR = '\u0001';
+
+    /**
+     * 실제 번역을 수행하는 대상 (TranslationManager.translate 등)
+     */
+    public interface Backend {
+        void translate(String text, String sourceLanguage, String targetLanguage,
+                       TranslationCallback callback);
+    }
+
+    private static class Request {
+        final String key;
+        final String text;
+        final String sourceLanguage;
+        final String targetLanguage;
+        // 최신 우선 자막 (오래되면 버림)과 분할 구간 (항상 전달)
+        final List<TranslationCallback> callbacks = new ArrayList<>(1);
+        final List<TranslationCallback> segmentCallbacks = new ArrayList<>(0);
+        long sequence;
+
+        Request(String key, long sequence, String text, String sourceLanguage, String targetLanguage) {
+            this.key = key;
+            this.sequence = sequence;
+            this.text = text;
+            this.sourceLanguage = sourceLanguage;
+            this.targetLanguage = targetLanguage;
+        }
+    }
+
+    private final Backend backend;
+    private int maxInFlight;
+
+    private final Map<String, Request> inFlight = new HashMap<>();
+    private Request pending; // 대기 중인 최신 요청 1개 (새 요청이 오면 교체)
+    private final ArrayDeque<Request> pendingSegments = new ArrayDeque<>(); // 대기 중인 구간 (순서대로 모두)
+
+    private long nextSequence;
+    private long lastDeliveredSequence;
+
+    private long submitted;
+    private long merged;
+    private long superseded;
+    private long staleDropped;
+    private long delivered;
+    private long failed;
+    private long segments;
+    private long mergedSegments;
+    private long externalDelivered;
+    private long externalStaleDropped;
+
+    public TranslationScheduler(Backend backend, int maxInFlight) {
+        this.backend = backend;
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    public synchronized void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /**
+     * 번역 요청 등록
+     */
+    public void submit(String text, String sourceLanguage, String targetLanguage,
+                       TranslationCallback callback) {
+        Request toStart = null;
+
+        synchronized (this) {
+            long sequence = ++nextSequence;
+            submitted++;
+            String key = keyOf(text, sourceLanguage, targetLanguage);
+
+            Request existing = findLocked(key);
+            if (existing != null) {
+                // 같은 텍스트가 이미 진행/대기 중이면 합치고 최신 순번으로 갱신
+                existing.sequence = sequence;
+                existing.callbacks.add(callback);
+                merged++;
+                return;
+            }
+
+            Request request = new Request(key, sequence, text, sourceLanguage, targetLanguage);
+            request.callbacks.add(callback);
+            if (inFlight.size() < maxInFlight) {
+                inFlight.put(key, request);
+                toStart = request;
+            } else {
+                if (pending != null) {
+                    // 시작도 못 한 이전 요청은 새 자막으로 대체 (합쳐진 구간은 구간 대기열로)
+                    superseded++;
+                    if (!pending.segmentCallbacks.isEmpty()) {
+                        pending.callbacks.clear();
+                        pendingSegments.add(pending);
+                    }
+                }
+                pending = request;
+            }
+        }
+
+        if (toStart != null) {
+            start(toStart);
+        }
+    }
+
+    /**
+     * 분할 번역의 구간 요청. 자막 요청과 같은 동시 진행 제한과 합치기를 거치지만, 구간은 모두 모여야
+     * 자막이 되므로 새 요청으로 대체되거나 오래됐다고 버려지지 않고 순서대로 모두 전달된다.
+     */
+    public void submitSegment(String text, String sourceLanguage, String targetLanguage,
+                              TranslationCallback callback) {
+        Request toStart = null;
+
+        synchronized (this) {
+            segments++;
+            String key = keyOf(text, sourceLanguage, targetLanguage);
+
+            Request existing = findLocked(key);
+            if (existing != null) {
+                existing.segmentCallbacks.add(callback);
+                mergedSegments++;
+                return;
+            }
+
+            Request request = new Request(key, 0, text, sourceLanguage, targetLanguage);
+            request.segmentCallbacks.add(callback);
+            if (inFlight.size() < maxInFlight) {
+                inFlight.put(key, request);
+                toStart = request;
+            } else {
+                pendingSegments.add(request);
+            }
+        }
+
+        if (toStart != null) {
+            start(toStart);
+        }
+    }
+
+    private static String keyOf(String text, String sourceLanguage, String targetLanguage) {
+        return sourceLanguage + KEY_SEPARATOR + targetLanguage + KEY_SEPARATOR + text;
+    }
+
+    /**
+     * 진행 중이거나 대기 중인 같은 요청
+     */
+    private Request findLocked(String key) {
+        Request existing = inFlight.get(key);
+        if (existing == null && pending != null && pending.key.equals(key)) {
+            existing = pending;
+        }
+        if (existing == null) {
+            for (Request waiting : pendingSegments) {
+                if (waiting.key.equals(key)) {
+                    return waiting;
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * 스케줄러 밖에서 번역할 자막의 순번 예약. 자막이 정해진 시점(발화 종료)에 받는다.
+     */
+    public synchronized long reserveSequence() {
+        return ++nextSequence;
+    }
+
+    /**
+     * 예약한 순번의 자막을 지금 표시해도 되는지 확인. 되면 전달한 것으로 기록하고 true,
+     * 이미 더 새로운 자막이 전달됐으면 false (버려야 함).
+     */
+    public synchronized boolean claimDelivery(long sequence) {
+        if (sequence < lastDeliveredSequence) {
+            externalStaleDropped++;
+            return false;
+        }
+        lastDeliveredSequence = sequence;
+        externalDelivered++;
+        return true;
+    }
+
+    private void start(final Request request) {
+        backend.translate(request.text, request.sourceLanguage, request.targetLanguage,
+                new TranslationCallback() {
+                    @Override
+                    public void onTranslationSuccess(String translatedText) {
+                        complete(request, translatedText, null);
+                    }
+
+                    @Override
+                    public void onTranslationError(String error) {
+                        complete(request, null, error);
+                    }
+                });
+    }
+
+    private void complete(Request request, String translatedText, String error) {
+        boolean stale;
+        Request next = null;
+
+        synchronized (this) {
+            inFlight.remove(request.key);
+
+            if (request.callbacks.isEmpty()) {
+                // 구간만 기다리는 요청: 순번과 관계없이 전달
+                stale = false;
+            } else if (request.sequence < lastDeliveredSequence) {
+                stale = true;
+                staleDropped++;
+            } else if (error != null) {
+                // 실패는 표시할 자막이 아니므로 순번을 올리지 않음 (늦게 끝난 이전 번역은 그대로 표시)
+                stale = false;
+                failed++;
+            } else {
+                stale = false;
+                lastDeliveredSequence = request.sequence;
+                delivered++;
+            }
+
+            // 먼저 온 구간부터 (이어 붙일 자막이 기다리고 있음), 그다음 최신 자막
+            if (inFlight.size() < maxInFlight) {
+                next = pendingSegments.poll();
+                if (next == null) {
+                    next = pending;
+                    pending = null;
+                }
+                if (next != null) {
+                    inFlight.put(next.key, next);
+                }
+            }
+        }
+
+        if (!stale) {
+            deliver(request.callbacks, translatedText, error);
+        }
+        deliver(request.segmentCallbacks, translatedText, error);
+
+        if (next != null) {
+            start(next);
+        }
+    }
+
+    private static void deliver(List<TranslationCallback> callbacks, String translatedText, String error) {
+        for (TranslationCallback callback : callbacks) {
+            if (error == null) {
+                callback.onTranslationSuccess(translatedText);
+            } else {
+                callback.onTranslationError(error);
+            }
+        }
+    }
+
+    public synchronized long getSubmitted() {
+        return submitted;
+    }
+
+    public synchronized long getMerged() {
+        return merged;
+    }
+
+    public synchronized long getSuperseded() {
+        return superseded;
+    }
+
+    public synchronized long getStaleDropped() {
+        return staleDropped;
+    }
+
+    public synchronized long getDelivered() {
+        return delivered;
+    }
+
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    /**
+     * submitSegment로 받은 구간 수
+     */
+    public synchronized long getSegments() {
+        return segments;
+    }
+
+    /**
+     * 같은 텍스트가 진행/대기 중이라 합쳐진 구간 수
+     */
+    public synchronized long getMergedSegments() {
+        return mergedSegments;
+    }
+
+    /**
+     * reserveSequence로 순번을 받은 자막 중 오래돼서 버려진 수
+     */
+    public synchronized long getExternalStaleDropped() {
+        return externalStaleDropped;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TranslationScheduler{submitted=" + submitted
+                + ", delivered=" + delivered
+                + ", failed=" + failed
+                + ", merged=" + merged
+                + ", superseded=" + superseded
+                + ", staleDropped=" + staleDropped
+                + ", segments=" + segments + " (merged " + mergedSegments + ")"
+                + ", external=" + externalDelivered + "/" + (externalDelivered + externalStaleDropped)
+                + ", inFlight=" + inFlight.size()
+                + ", waitingSegments=" + pendingSegments.size() + "}";
+    }
+}
@@ -0,0 +1,281 @@
+package com.livecaption.translator;
+
+import android.util.Log;
+
+import com.google.mlkit.common.model.DownloadConditions;
+import com.google.mlkit.nl.translate.Translation;
+import com.google.mlkit.nl.translate.Translator;
+import com.google.mlkit.nl.translate.TranslatorOptions;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 언어 쌍별 ML Kit Translator 풀.
+ * 모델 다운로드/로드가 끝난 번역기를 보관하고, 최대 개수를 넘으면
+ * 가장 오래 사용하지 않은 번역기를 풀에서 뺀다. 빌려 간 번역기는 {@link #release}로
+ * 돌려받고, 풀에서 빠진 번역기는 진행 중인 번역이 모두 끝난 뒤에 닫는다.
+ * 콜백은 풀의 잠금 밖에서 호출한다.
+ */
+public class TranslatorPool {
+
+    private static final String TAG = "TranslatorPool";
+
+    // 프리워밍용 더미 텍스트 (모델을 메모리에 올리기 위한 용도)
+    private static final String WARMUP_TEXT = "hello";
+
+    /**
+     * onReady로 받은 번역기는 사용이 끝나면 {@link #release}로 돌려준다.
+     */
+    public interface Callback {
+        void onReady(Translator translator);
+        void onError(String error);
+    }
+
+    private static class Entry {
+        final String key;
+        final Translator translator;
+        boolean ready;
+        // 빌려 간 뒤 아직 돌려받지 않은 수
+        int inUse;
+        // 풀에서 빠짐 (inUse가 0이 되면 닫음)
+        boolean retired;
+        boolean closed;
+        List<Callback> waiters = new ArrayList<>();
+
+        Entry(String key, Translator translator) {
+            this.key = key;
+            this.translator = translator;
+        }
+    }
+
+    private final int maxTranslators;
+    private final LinkedHashMap<String, Entry> entries =
+            new LinkedHashMap<String, Entry>(8, 0.75f, true);
+    // 풀에서 빠졌지만 아직 사용 중인 번역기
+    private final List<Entry> retired = new ArrayList<>();
+
+    private int created;
+    private int evicted;
+    private int deferredCloses;
+
+    public TranslatorPool(int maxTranslators) {
+        this.maxTranslators = maxTranslators;
+    }
+
+    /**
+     * 언어 쌍에 맞는 번역기 요청. 준비된 번역기가 있으면 즉시 콜백하고,
+     * 준비 중이면 완료 시점에 함께 콜백한다.
+     */
+    public void acquire(String sourceCode, String targetCode, Callback callback) {
+        String key = sourceCode + "->" + targetCode;
+        Entry ready = null;
+        Entry fresh = null;
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                TranslatorOptions options = new TranslatorOptions.Builder()
+                    .setSourceLanguage(sourceCode)
+                    .setTargetLanguage(targetCode)
+                    .build();
+
+                fresh = new Entry(key, Translation.getClient(options));
+                fresh.waiters.add(callback);
+                entries.put(key, fresh);
+                created++;
+                evictIfNeeded();
+            } else if (entry.ready) {
+                entry.inUse++;
+                ready = entry;
+            } else {
+                entry.waiters.add(callback);
+            }
+        }
+
+        if (ready != null) {
+            callback.onReady(ready.translator);
+            return;
+        }
+        if (fresh == null) {
+            return;
+        }
+
+        final Entry newEntry = fresh;
+        DownloadConditions conditions = new DownloadConditions.Builder()
+            .requireWifi()
+            .build();
+
+        newEntry.translator.downloadModelIfNeeded(conditions)
+            .addOnSuccessListener(unused -> {
+                Log.d(TAG, "Translation model ready: " + key);
+                onSetupFinished(newEntry, null);
+            })
+            .addOnFailureListener(e -> {
+                Log.e(TAG, "Error downloading translation model: " + key, e);
+                onSetupFinished(newEntry, "번역 모델 다운로드 실패: " + e.getMessage());
+            });
+    }
+
+    /**
+     * acquire로 받은 번역기 반납 (번역 성공/실패 후 한 번)
+     */
+    public void release(Translator translator) {
+        synchronized (this) {
+            Entry entry = find(translator);
+            if (entry == null || entry.inUse == 0) {
+                Log.w(TAG, "Released a translator that is not in use");
+                return;
+            }
+            entry.inUse--;
+            if (entry.retired && entry.inUse == 0) {
+                retired.remove(entry);
+                closeEntry(entry);
+                deferredCloses++;
+            }
+        }
+    }
+
+    /**
+     * 모델 로드 + 더미 번역으로 번역기를 미리 준비
+     */
+    public void prewarm(String sourceCode, String targetCode) {
+        final long startTime = System.currentTimeMillis();
+        acquire(sourceCode, targetCode, new Callback() {
+            @Override
+            public void onReady(Translator translator) {
+                translator.translate(WARMUP_TEXT)
+                    .addOnSuccessListener(unused -> Log.d(TAG, "Prewarmed " + sourceCode
+                            + "->" + targetCode + " in " + (System.currentTimeMillis() - startTime) + "ms"))
+                    .addOnFailureListener(e -> Log.w(TAG, "Prewarm translation failed", e))
+                    .addOnCompleteListener(task -> release(translator));
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "Prewarm failed: " + error);
+            }
+        });
+    }
+
+    private void onSetupFinished(Entry entry, String error) {
+        List<Callback> waiters;
+        synchronized (this) {
+            waiters = entry.waiters;
+            entry.waiters = new ArrayList<>();
+
+            if (entry.retired) {
+                // 준비 중에 closeAll로 닫힘 (대기자는 그때 실패 처리됨)
+                return;
+            }
+            if (error == null) {
+                entry.ready = true;
+                entry.inUse += waiters.size();
+                evictIfNeeded();
+            } else {
+                // 실패한 번역기는 다음 요청 때 다시 만들도록 제거
+                entries.remove(entry.key);
+                closeEntry(entry);
+            }
+        }
+
+        for (Callback waiter : waiters) {
+            if (error == null) {
+                waiter.onReady(entry.translator);
+            } else {
+                waiter.onError(error);
+            }
+        }
+    }
+
+    /**
+     * 최대 개수를 넘으면 준비가 끝난 번역기 중 가장 오래된 것부터 풀에서 뺌.
+     * 사용 중이면 닫기는 마지막 release까지 미룬다. 잠금을 잡은 상태에서 호출.
+     */
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxTranslators && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            if (!eldest.ready) {
+                continue;
+            }
+            it.remove();
+            retire(eldest);
+            evicted++;
+            Log.d(TAG, "Translator evicted: " + eldest.key + " (in use " + eldest.inUse + ")");
+        }
+    }
+
+    private void retire(Entry entry) {
+        entry.retired = true;
+        if (entry.inUse > 0) {
+            retired.add(entry);
+        } else {
+            closeEntry(entry);
+        }
+    }
+
+    private void closeEntry(Entry entry) {
+        if (!entry.closed) {
+            entry.closed = true;
+            entry.translator.close();
+        }
+    }
+
+    private Entry find(Translator translator) {
+        for (Entry entry : entries.values()) {
+            if (entry.translator == translator) {
+                return entry;
+            }
+        }
+        for (Entry entry : retired) {
+            if (entry.translator == translator) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    public synchronized boolean isReady(String sourceCode, String targetCode) {
+        Entry entry = entries.get(sourceCode + "->" + targetCode);
+        return entry != null && entry.ready;
+    }
+
+    /**
+     * 모든 번역기를 풀에서 뺌. 준비 중인 번역기를 기다리던 요청은 실패로 끝내고,
+     * 사용 중인 번역기는 마지막 release에서 닫는다.
+     */
+    public void closeAll() {
+        List<Callback> waiters = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                waiters.addAll(entry.waiters);
+                entry.waiters = new ArrayList<>();
+                retire(entry);
+            }
+            entries.clear();
+        }
+
+        for (Callback waiter : waiters) {
+            waiter.onError("번역기가 닫혔습니다");
+        }
+        Log.d(TAG, "All translators closed");
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TranslatorPool{open=" + entries.size()
+                + ", max=" + maxTranslators
+                + ", created=" + created
+                + ", evicted=" + evicted
+                + ", closingInUse=" + retired.size()
+                + ", deferredCloses=" + deferredCloses + "}";
+    }
+}
@@ -0,0 +1,184 @@
+package com.livecaption.translator;
+
+/**
+ * 최종 인식 결과 한 발화 (불변).
+ * 인식기의 단어 출력(setWords)을 켠 경우 단어별 시작/끝 샘플 위치와 신뢰도(0~1)를 가지며,
+ * 꺼져 있으면 텍스트만 있다. 샘플 위치는 인식기에 들어간 오디오(VAD를 통과한 PCM) 기준이다.
+ */
+public final class Utterance {
+
+    // 자막 표시 시간: 말한 길이 + 읽을 여유, 범위 제한
+    static final long MIN_DISPLAY_MS = 1500;
+    static final long MAX_DISPLAY_MS = 7000;
+    static final long READING_MARGIN_MS = 1000;
+
+    private static final String[] NO_WORDS = new String[0];
+    private static final long[] NO_SAMPLES = new long[0];
+    private static final float[] NO_CONFIDENCES = new float[0];
+
+    private final String text;
+    private final int sampleRate;
+    private final String[] words;
+    private final long[] startSamples;
+    private final long[] endSamples;
+    private final float[] confidences;
+
+    private Utterance(String text, int sampleRate, String[] words, long[] startSamples,
+                      long[] endSamples, float[] confidences) {
+        this.text = text;
+        this.sampleRate = sampleRate;
+        this.words = words;
+        this.startSamples = startSamples;
+        this.endSamples = endSamples;
+        this.confidences = confidences;
+    }
+
+    /**
+     * 단어 정보 없이 텍스트만 있는 발화
+     */
+    public static Utterance ofText(String text, int sampleRate) {
+        return new Utterance(text, sampleRate, NO_WORDS, NO_SAMPLES, NO_SAMPLES, NO_CONFIDENCES);
+    }
+
+    /**
+     * 파싱한 최종 결과에서 생성 (단어의 초 단위 시각을 샘플 위치로 변환)
+     */
+    public static Utterance fromResult(VoskResult result, int sampleRate) {
+        int count = result.getWordCount();
+        if (count == 0) {
+            return ofText(result.getText(), sampleRate);
+        }
+
+        String[] words = new String[count];
+        long[] startSamples = new long[count];
+        long[] endSamples = new long[count];
+        float[] confidences = new float[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = result.getWord(i);
+            startSamples[i] = Math.round((double) result.getStart(i) * sampleRate);
+            endSamples[i] = Math.round((double) result.getEnd(i) * sampleRate);
+            confidences[i] = result.getConfidence(i);
+        }
+        return new Utterance(result.getText(), sampleRate, words, startSamples, endSamples, confidences);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isEmpty() {
+        return text.isEmpty();
+    }
+
+    /**
+     * 단어별 시각과 신뢰도가 있는지
+     */
+    public boolean hasWords() {
+        return words.length > 0;
+    }
+
+    public int getWordCount() {
+        return words.length;
+    }
+
+    public String getWord(int index) {
+        return words[index];
+    }
+
+    public long getStartSample(int index) {
+        return startSamples[index];
+    }
+
+    public long getEndSample(int index) {
+        return endSamples[index];
+    }
+
+    public float getConfidence(int index) {
+        return confidences[index];
+    }
+
+    /**
+     * 첫 단어 시작 위치 (단어 정보가 없으면 -1)
+     */
+    public long getStartSample() {
+        return hasWords() ? startSamples[0] : -1;
+    }
+
+    /**
+     * 마지막 단어 끝 위치 (단어 정보가 없으면 -1)
+     */
+    public long getEndSample() {
+        return hasWords() ? endSamples[endSamples.length - 1] : -1;
+    }
+
+    /**
+     * 말한 길이 (ms, 단어 정보가 없으면 -1)
+     */
+    public long getDurationMs() {
+        return hasWords() ? (getEndSample() - getStartSample()) * 1000 / sampleRate : -1;
+    }
+
+    /**
+     * 단어 신뢰도 평균 (단어 정보가 없으면 -1)
+     */
+    public float getMeanConfidence() {
+        if (!hasWords()) {
+            return -1;
+        }
+        float sum = 0;
+        for (float confidence : confidences) {
+            sum += confidence;
+        }
+        return sum / confidences.length;
+    }
+
+    /**
+     * 자막 표시 시간 (ms): 말한 길이에 읽을 여유를 더해 범위로 제한.
+     * 단어 정보가 없으면 0 (다음 자막이 올 때까지 유지)
+     */
+    public long getDisplayDurationMs() {
+        if (!hasWords()) {
+            return 0;
+        }
+        long duration = getDurationMs() + READING_MARGIN_MS;
+        return Math.max(MIN_DISPLAY_MS, Math.min(MAX_DISPLAY_MS, duration));
+    }
+
+    /**
+     * [from, to) 범위의 단어만 남긴 발화. 텍스트는 단어를 공백으로 이어 다시 만든다 (Vosk text와 같은 형식).
+     */
+    public Utterance subRange(int from, int to) {
+        if (from == 0 && to == words.length) {
+            return this;
+        }
+        int count = Math.max(0, to - from);
+        String[] subWords = new String[count];
+        long[] subStarts = new long[count];
+        long[] subEnds = new long[count];
+        float[] subConfidences = new float[count];
+        System.arraycopy(words, from, subWords, 0, count);
+        System.arraycopy(startSamples, from, subStarts, 0, count);
+        System.arraycopy(endSamples, from, subEnds, 0, count);
+        System.arraycopy(confidences, from, subConfidences, 0, count);
+
+        StringBuilder subText = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                subText.append(' ');
+            }
+            subText.append(subWords[i]);
+        }
+        return new Utterance(subText.toString(), sampleRate, subWords, subStarts, subEnds, subConfidences);
+    }
+
+    @Override
+    public String toString() {
+        if (!hasWords()) {
+            return "Utterance{" + text + "}";
+        }
+        return "Utterance{" + text
+                + ", samples=" + getStartSample() + "-" + getEndSample()
+                + ", words=" + words.length
+                + ", confidence=" + String.format(java.util.Locale.US, "%.2f", getMeanConfidence()) + "}";
+    }
+}
@@ -0,0 +1,218 @@
+package com.livecaption.translator;
+
+/**
+ * 인식기의 끝점 검출이 발화를 끝내지 않을 때 강제로 마무리하는 정책 (인식 스레드 전용).
+ * 배경 음악이나 쉬지 않는 내레이션에서는 무음이 오지 않아 발화가 끝없이 이어지고,
+ * 그동안 자막도 나오지 않으며 인식기 내부 격자(lattice)도 계속 커진다.
+ * <ul>
+ *   <li>maxUtteranceMs: 발화에 디코딩한 오디오가 이 길이를 넘으면 마무리</li>
+ *   <li>maxTrailingSilenceMs: 인식된 단어가 이 길이 동안 늘지 않으면 (음악, 잡음) 마무리</li>
+ * </ul>
+ * 단어가 늘었는지는 중간 결과의 텍스트 길이로 보고, 디코딩한 오디오 WORD_CHECK_MS마다 확인을 요청한다
+ * (벽시계 기준이 아니라서 밀린 오디오를 빠르게 처리할 때도 기준이 같다).
+ * 길이 제한은 단어 중간에서 자르지 않도록 발화 평균보다 에너지가 낮은 프레임(단어 사이 공백)을
+ * 기다렸다가 마무리하고, BOUNDARY_WAIT_MS 안에 공백이 없으면 그대로 자른다.
+ * 0으로 설정한 제한은 쓰지 않는다.
+ */
+public class UtteranceLimiter {
+
+    /** 계속 디코딩 */
+    public static final int KEEP = 0;
+    /** 길이 제한: 이 프레임까지 디코딩한 뒤 발화를 마무리 */
+    public static final int FINALIZE_MAX_LENGTH = 1;
+    /** 단어가 늘지 않음: 이 프레임까지 디코딩한 뒤 발화를 마무리 */
+    public static final int FINALIZE_TRAILING_SILENCE = 2;
+
+    // onUtteranceEnded의 이유 (위의 FINALIZE_* 도 그대로 넘김)
+    /** 인식기가 스스로 끝점을 찾음 */
+    public static final int END_NATURAL = 3;
+    /** 부하 대응(LoadShedder)이 오디오를 버리며 마무리 */
+    public static final int END_LOAD_SHED = 4;
+    /** 세션 종료 때 남은 발화를 마무리 */
+    public static final int END_FLUSH = 5;
+
+    public static final int DEFAULT_MAX_UTTERANCE_MS = 15000;
+    public static final int DEFAULT_MAX_TRAILING_SILENCE_MS = 3000;
+
+    // 길이 제한에 걸린 뒤 단어 사이 공백을 기다리는 최대 시간
+    static final int BOUNDARY_WAIT_MS = 1000;
+    // 중간 결과로 단어를 확인하는 간격 (디코딩한 오디오 기준)
+    static final int WORD_CHECK_MS = 250;
+
+    // LoadShedder와 같은 기준: 발화 에너지 대비 이 비율 미만이면 공백
+    private static final double LOW_ENERGY_RATIO = 0.5;
+    private static final double SPEECH_LEVEL_RATE = 0.05;
+
+    private final int sampleRate;
+    private int maxUtteranceMs = DEFAULT_MAX_UTTERANCE_MS;
+    private int maxTrailingSilenceMs = DEFAULT_MAX_TRAILING_SILENCE_MS;
+
+    // 현재 발화에 디코딩한 오디오, 마지막으로 단어가 바뀐 뒤의 오디오, 마지막 확인 뒤의 오디오
+    private long utteranceBytes;
+    private long trailingBytes;
+    private long uncheckedBytes;
+    private int lastTextLength;
+    private double speechLevel;
+
+    private volatile long naturalEndpoints;
+    private volatile long maxLengthEndpoints;
+    private volatile long trailingSilenceEndpoints;
+    private volatile long loadShedEndpoints;
+    private volatile long flushEndpoints;
+    private volatile long boundaryTimeouts;
+    private volatile int longestUtteranceMs;
+
+    public UtteranceLimiter(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * 제한 설정 (ms, 0이면 해당 제한 없음)
+     */
+    public void setLimitsMs(int maxUtteranceMs, int maxTrailingSilenceMs) {
+        this.maxUtteranceMs = Math.max(0, maxUtteranceMs);
+        this.maxTrailingSilenceMs = Math.max(0, maxTrailingSilenceMs);
+    }
+
+    public boolean isEnabled() {
+        return maxUtteranceMs > 0 || maxTrailingSilenceMs > 0;
+    }
+
+    /**
+     * 디코더에 넣은 프레임 하나에 대한 결정 (인식기가 스스로 발화를 끝내지 않은 경우에만 호출). 할당하지 않는다.
+     *
+     * @return {@link #KEEP}, {@link #FINALIZE_MAX_LENGTH}, {@link #FINALIZE_TRAILING_SILENCE}
+     */
+    public int onFrameDecoded(byte[] frame, int size) {
+        utteranceBytes += size;
+        trailingBytes += size;
+        uncheckedBytes += size;
+
+        double rms = VoiceActivityDetector.computeRms(frame, size / 2);
+        boolean gap = speechLevel > 0 && rms < speechLevel * LOW_ENERGY_RATIO;
+        if (!gap) {
+            speechLevel = speechLevel == 0 ? rms : speechLevel + SPEECH_LEVEL_RATE * (rms - speechLevel);
+        }
+
+        // 확인까지 끝난 구간만 센다 (확인 전 오디오에서 단어가 나왔을 수 있음)
+        if (maxTrailingSilenceMs > 0 && bytesToMs(trailingBytes - uncheckedBytes) >= maxTrailingSilenceMs) {
+            trailingSilenceEndpoints++;
+            return FINALIZE_TRAILING_SILENCE;
+        }
+
+        if (maxUtteranceMs > 0) {
+            int overMs = bytesToMs(utteranceBytes) - maxUtteranceMs;
+            if (overMs >= 0 && (gap || overMs >= BOUNDARY_WAIT_MS)) {
+                if (!gap) {
+                    boundaryTimeouts++;
+                }
+                maxLengthEndpoints++;
+                return FINALIZE_MAX_LENGTH;
+            }
+        }
+        return KEEP;
+    }
+
+    /**
+     * 중간 결과로 단어를 확인할 때가 됐는지
+     */
+    public boolean isWordCheckDue() {
+        return maxTrailingSilenceMs > 0 && bytesToMs(uncheckedBytes) >= WORD_CHECK_MS;
+    }
+
+    /**
+     * 중간 결과 확인 결과. 텍스트 길이가 바뀌었으면 말이 이어지고 있는 것으로 본다.
+     */
+    public void onWordsChecked(int textLength) {
+        if (textLength != lastTextLength) {
+            lastTextLength = textLength;
+            trailingBytes = 0;
+        }
+        uncheckedBytes = 0;
+    }
+
+    /**
+     * 발화가 끝남 (강제 마무리 포함). 길이 제한으로 끝난 경우는 onFrameDecoded에서 이미 셌다.
+     *
+     * @param reason {@link #END_NATURAL}, {@link #END_LOAD_SHED}, {@link #END_FLUSH},
+     *               또는 onFrameDecoded가 반환한 FINALIZE_* 값
+     */
+    public void onUtteranceEnded(int reason) {
+        if (reason == END_NATURAL) {
+            naturalEndpoints++;
+        } else if (reason == END_LOAD_SHED) {
+            loadShedEndpoints++;
+        } else if (reason == END_FLUSH) {
+            flushEndpoints++;
+        }
+        int utteranceMs = bytesToMs(utteranceBytes);
+        if (utteranceMs > longestUtteranceMs) {
+            longestUtteranceMs = utteranceMs;
+        }
+        utteranceBytes = 0;
+        trailingBytes = 0;
+        uncheckedBytes = 0;
+        lastTextLength = 0;
+    }
+
+    private int bytesToMs(long bytes) {
+        return (int) (bytes / 2 * 1000 / sampleRate);
+    }
+
+    public long getNaturalEndpoints() {
+        return naturalEndpoints;
+    }
+
+    public long getMaxLengthEndpoints() {
+        return maxLengthEndpoints;
+    }
+
+    public long getTrailingSilenceEndpoints() {
+        return trailingSilenceEndpoints;
+    }
+
+    /**
+     * 부하 대응으로 마무리한 발화 수
+     */
+    public long getLoadShedEndpoints() {
+        return loadShedEndpoints;
+    }
+
+    /**
+     * 세션 종료 때 마무리한 발화 수
+     */
+    public long getFlushEndpoints() {
+        return flushEndpoints;
+    }
+
+    /**
+     * 강제로 마무리한 발화 수 (길이 + 단어 없음 + 부하 대응)
+     */
+    public long getForcedEndpoints() {
+        return maxLengthEndpoints + trailingSilenceEndpoints + loadShedEndpoints;
+    }
+
+    /**
+     * 길이 제한에서 공백을 찾지 못하고 자른 횟수
+     */
+    public long getBoundaryTimeouts() {
+        return boundaryTimeouts;
+    }
+
+    public int getLongestUtteranceMs() {
+        return longestUtteranceMs;
+    }
+
+    @Override
+    public String toString() {
+        return "UtteranceLimiter{limits=" + maxUtteranceMs + "/" + maxTrailingSilenceMs + "ms"
+                + ", natural=" + naturalEndpoints
+                + ", forced=" + getForcedEndpoints()
+                + " (maxLength=" + maxLengthEndpoints
+                + ", trailingSilence=" + trailingSilenceEndpoints
+                + ", loadShed=" + loadShedEndpoints
+                + ", boundaryTimeouts=" + boundaryTimeouts + ")"
+                + ", flushed=" + flushEndpoints
+                + ", longest=" + longestUtteranceMs + "ms}";
+    }
+}
@@ -0,0 +1,84 @@
+package com.livecaption.translator;
+
+/**
+ * 발화 하나의 단계별 타임스탬프 (System.nanoTime 기준, 단조 증가).
+ * 캡처 → 큐 → Vosk 디코딩 → 메인 스레드 전달 → 번역 → 렌더링 순서로 기록된다.
+ */
+public class UtteranceTrace {
+
+    // 첫 프레임이 게이트(VAD)를 통과해 큐에 들어간 시각
+    final long firstFrameNanos;
+    // 마지막 프레임이 큐에 들어간 시각 / 인식 스레드가 꺼낸 시각
+    long lastFrameNanos;
+    long lastDequeueNanos;
+    // acceptWaveForm 누적 시간 / 최종 결과를 낸 마지막 호출 시간
+    long decodeNanos;
+    long finalDecodeNanos;
+    int frameCount;
+
+    long recognizedNanos;
+    long dispatchedNanos;
+    long translateStartNanos;
+    long translatedNanos;
+    long publishedNanos;
+    long renderedNanos;
+
+    public UtteranceTrace(long firstFrameNanos) {
+        this.firstFrameNanos = firstFrameNanos;
+    }
+
+    /**
+     * 인식 스레드에서 프레임 하나를 디코딩한 뒤 호출
+     */
+    void onFrameDecoded(long enqueueNanos, long dequeueNanos, long decodeDurationNanos) {
+        lastFrameNanos = enqueueNanos;
+        lastDequeueNanos = dequeueNanos;
+        decodeNanos += decodeDurationNanos;
+        finalDecodeNanos = decodeDurationNanos;
+        frameCount++;
+    }
+
+    void markRecognized() {
+        recognizedNanos = System.nanoTime();
+    }
+
+    public void markDispatched() {
+        dispatchedNanos = System.nanoTime();
+    }
+
+    public void markTranslateStart() {
+        translateStartNanos = System.nanoTime();
+    }
+
+    public void markTranslated() {
+        translatedNanos = System.nanoTime();
+    }
+
+    public void markPublished() {
+        publishedNanos = System.nanoTime();
+    }
+
+    public void markRendered() {
+        renderedNanos = System.nanoTime();
+    }
+
+    /**
+     * 마지막 오디오 → 화면 표시까지 (사용자가 체감하는 지연)
+     */
+    public long getEndToEndNanos() {
+        return renderedNanos - lastFrameNanos;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public String toString() {
+        return "UtteranceTrace{frames=" + frameCount
+                + ", queue=" + (lastDequeueNanos - lastFrameNanos) / 1000000 + "ms"
+                + ", decode=" + decodeNanos / 1000000 + "ms"
+                + ", translate=" + (translatedNanos - translateStartNanos) / 1000000 + "ms"
+                + ", endToEnd=" + getEndToEndNanos() / 1000000 + "ms}";
+    }
+}
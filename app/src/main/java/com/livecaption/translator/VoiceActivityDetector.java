@@ -0,0 +1,247 @@
+package com.livecaption.translator;
+
+/**
+ * 16bit little-endian PCM 기반 음성 구간 검출기 (VAD).
+ * 프레임 RMS를 적응형 노이즈 플로어와 비교하고, attack/hangover 타이머와
+ * pre-roll 버퍼로 단어 시작 부분이 잘리지 않도록 음성 프레임만 통과시킨다.
+ */
+public class VoiceActivityDetector {
+
+    /**
+     * 게이트를 통과한 프레임을 받는 대상
+     */
+    public interface FrameSink {
+        void onFrame(byte[] data, int size);
+    }
+
+    // 기본 설정값
+    private static final int DEFAULT_ATTACK_MS = 60;
+    private static final int DEFAULT_HANGOVER_MS = 800; // Vosk 끝점 검출에 필요한 무음 포함
+    private static final int DEFAULT_PRE_ROLL_MS = 300;
+    private static final double DEFAULT_THRESHOLD_RATIO = 3.0; // 노이즈 대비 약 +9.5dB
+    private static final double DEFAULT_MIN_THRESHOLD = 200.0; // 약 -44dBFS
+    private static final double INITIAL_NOISE_FLOOR = 100.0;
+
+    // 노이즈 플로어 추적 계수 (내려갈 때는 빠르게, 올라갈 때는 천천히)
+    private static final double NOISE_FALL_RATE = 0.2;
+    private static final double NOISE_RISE_RATE = 0.02;
+
+    private final int sampleRate;
+    private int attackMs = DEFAULT_ATTACK_MS;
+    private int hangoverMs = DEFAULT_HANGOVER_MS;
+    private double thresholdRatio = DEFAULT_THRESHOLD_RATIO;
+    private double minThreshold = DEFAULT_MIN_THRESHOLD;
+
+    // pre-roll 원형 버퍼 (미리 할당)
+    private final byte[] preRoll;
+    private final byte[] preRollScratch;
+    private int preRollStart;
+    private int preRollLength;
+
+    private double noiseFloor = INITIAL_NOISE_FLOOR;
+    private double lastRms;
+    private boolean isSpeech;
+    private int attackSamples;
+    private int hangoverSamples;
+
+    private long framesIn;
+    private long framesPassed;
+    private long speechSegments;
+
+    public VoiceActivityDetector(int sampleRate) {
+        this(sampleRate, DEFAULT_PRE_ROLL_MS);
+    }
+
+    public VoiceActivityDetector(int sampleRate, int preRollMs) {
+        this.sampleRate = sampleRate;
+        this.preRoll = new byte[msToSamples(preRollMs) * 2];
+        this.preRollScratch = new byte[preRoll.length];
+    }
+
+    public void setAttackMs(int attackMs) {
+        this.attackMs = attackMs;
+    }
+
+    public void setHangoverMs(int hangoverMs) {
+        this.hangoverMs = hangoverMs;
+    }
+
+    public void setThresholdRatio(double thresholdRatio) {
+        this.thresholdRatio = thresholdRatio;
+    }
+
+    public void setMinThreshold(double minThreshold) {
+        this.minThreshold = minThreshold;
+    }
+
+    /**
+     * 프레임 한 개 처리. 음성 구간이면 (시작 시 pre-roll 포함) sink로 전달한다.
+     *
+     * @return 현재 프레임이 음성 구간(hangover 포함)으로 판정되었는지 여부
+     */
+    public boolean process(byte[] data, int size, FrameSink sink) {
+        int samples = size / 2;
+        if (samples <= 0) {
+            return isSpeech;
+        }
+        framesIn++;
+
+        double rms = computeRms(data, samples);
+        lastRms = rms;
+        boolean active = rms > getThreshold();
+
+        if (isSpeech) {
+            if (active) {
+                hangoverSamples = 0;
+            } else {
+                hangoverSamples += samples;
+                if (hangoverSamples > msToSamples(hangoverMs)) {
+                    // hangover 종료 → 무음 구간으로 전환
+                    isSpeech = false;
+                    attackSamples = 0;
+                    updateNoiseFloor(rms);
+                    appendPreRoll(data, size);
+                    return false;
+                }
+            }
+            framesPassed++;
+            sink.onFrame(data, size);
+            return true;
+        }
+
+        if (active) {
+            attackSamples += samples;
+        } else {
+            attackSamples = 0;
+            updateNoiseFloor(rms);
+        }
+
+        if (attackSamples >= msToSamples(attackMs)) {
+            // 음성 시작 확정: 단어 앞부분이 잘리지 않도록 pre-roll부터 전달
+            isSpeech = true;
+            hangoverSamples = 0;
+            speechSegments++;
+            flushPreRoll(sink, size);
+            framesPassed++;
+            sink.onFrame(data, size);
+            return true;
+        }
+
+        appendPreRoll(data, size);
+        return false;
+    }
+
+    /**
+     * 상태 초기화 (노이즈 플로어는 유지)
+     */
+    public void reset() {
+        isSpeech = false;
+        attackSamples = 0;
+        hangoverSamples = 0;
+        preRollStart = 0;
+        preRollLength = 0;
+    }
+
+    static double computeRms(byte[] data, int samples) {
+        long sumSquares = 0;
+        for (int i = 0; i < samples; i++) {
+            int sample = (short) ((data[2 * i] & 0xFF) | (data[2 * i + 1] << 8));
+            sumSquares += (long) sample * sample;
+        }
+        return Math.sqrt((double) sumSquares / samples);
+    }
+
+    private void updateNoiseFloor(double rms) {
+        double rate = rms < noiseFloor ? NOISE_FALL_RATE : NOISE_RISE_RATE;
+        noiseFloor += rate * (rms - noiseFloor);
+    }
+
+    private double getThreshold() {
+        return Math.max(noiseFloor * thresholdRatio, minThreshold);
+    }
+
+    private int msToSamples(int ms) {
+        return (int) ((long) sampleRate * ms / 1000);
+    }
+
+    private void appendPreRoll(byte[] data, int size) {
+        int capacity = preRoll.length;
+        if (capacity == 0) {
+            return;
+        }
+
+        int offset = 0;
+        if (size >= capacity) {
+            // 프레임이 pre-roll보다 크면 마지막 부분만 보관
+            offset = size - capacity;
+            size = capacity;
+            preRollStart = 0;
+            preRollLength = 0;
+        }
+
+        int end = (preRollStart + preRollLength) % capacity;
+        int first = Math.min(size, capacity - end);
+        System.arraycopy(data, offset, preRoll, end, first);
+        System.arraycopy(data, offset + first, preRoll, 0, size - first);
+
+        preRollLength += size;
+        if (preRollLength > capacity) {
+            preRollStart = (preRollStart + preRollLength - capacity) % capacity;
+            preRollLength = capacity;
+        }
+    }
+
+    private void flushPreRoll(FrameSink sink, int chunkSize) {
+        // 원형 버퍼를 선형으로 펼친 뒤 평소 프레임 크기 단위로 전달
+        int length = preRollLength & ~1; // 샘플 경계 유지
+        int start = (preRollStart + preRollLength - length) % Math.max(preRoll.length, 1);
+        int first = Math.min(length, preRoll.length - start);
+        System.arraycopy(preRoll, start, preRollScratch, 0, first);
+        System.arraycopy(preRoll, 0, preRollScratch, first, length - first);
+
+        chunkSize = Math.max(2, chunkSize & ~1);
+        for (int offset = 0; offset < length; offset += chunkSize) {
+            int n = Math.min(chunkSize, length - offset);
+            if (offset > 0) {
+                // sink는 배열 앞부분만 읽으므로 남은 구간을 앞으로 당겨서 전달
+                System.arraycopy(preRollScratch, offset, preRollScratch, 0, n);
+            }
+            sink.onFrame(preRollScratch, n);
+        }
+
+        preRollStart = 0;
+        preRollLength = 0;
+    }
+
+    public boolean isSpeech() {
+        return isSpeech;
+    }
+
+    public double getNoiseFloor() {
+        return noiseFloor;
+    }
+
+    public double getLastRms() {
+        return lastRms;
+    }
+
+    public long getFramesIn() {
+        return framesIn;
+    }
+
+    public long getFramesPassed() {
+        return framesPassed;
+    }
+
+    public long getSpeechSegments() {
+        return speechSegments;
+    }
+
+    @Override
+    public String toString() {
+        return "VoiceActivityDetector{framesIn=" + framesIn
+                + ", framesPassed=" + framesPassed
+                + ", segments=" + speechSegments
+                + ", noiseFloor=" + Math.round(noiseFloor) + "}";
+    }
+}
@@ -0,0 +1,168 @@
+package com.livecaption.translator;
+
+/**
+ * 재사용 가능한 Vosk 인식 결과 ({@link VoskResultParser}가 채움).
+ * 텍스트와 단어를 내부 버퍼에 보관하므로 결과마다 객체를 만들지 않는다.
+ * String이 필요할 때만 {@link #getText()}로 꺼낸다.
+ */
+public class VoskResult {
+
+    private char[] text = new char[256];
+    private int textLength;
+    private boolean hasText;
+    private boolean partial;
+
+    // 단어: 문자는 wordChars 하나에 이어 붙이고 위치/길이만 기록
+    private char[] wordChars = new char[512];
+    private int wordCharsLength;
+    private int[] wordOffsets = new int[32];
+    private int[] wordLengths = new int[32];
+    private float[] confidences = new float[32];
+    private float[] starts = new float[32];
+    private float[] ends = new float[32];
+    private int wordCount;
+
+    /**
+     * "text" 또는 "partial" 필드가 있었는지
+     */
+    public boolean hasText() {
+        return hasText;
+    }
+
+    /**
+     * 중간 결과("partial")이면 true
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public int getTextLength() {
+        return textLength;
+    }
+
+    public boolean isTextEmpty() {
+        return textLength == 0;
+    }
+
+    public String getText() {
+        return textLength == 0 ? "" : new String(text, 0, textLength);
+    }
+
+    /**
+     * 텍스트 비교 (String을 만들지 않음)
+     */
+    public boolean textEquals(CharSequence other) {
+        if (other == null || other.length() != textLength) {
+            return false;
+        }
+        for (int i = 0; i < textLength; i++) {
+            if (text[i] != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public String getWord(int index) {
+        return new String(wordChars, wordOffsets[index], wordLengths[index]);
+    }
+
+    public float getConfidence(int index) {
+        return confidences[index];
+    }
+
+    /**
+     * 단어 시작 시각 (초, 인식기 리셋 이후 기준)
+     */
+    public float getStart(int index) {
+        return starts[index];
+    }
+
+    public float getEnd(int index) {
+        return ends[index];
+    }
+
+    void reset() {
+        textLength = 0;
+        hasText = false;
+        partial = false;
+        wordCharsLength = 0;
+        wordCount = 0;
+    }
+
+    void setText(char[] source, int length, boolean isPartial) {
+        if (text.length < length) {
+            text = new char[Math.max(length, text.length * 2)];
+        }
+        System.arraycopy(source, 0, text, 0, length);
+        textLength = length;
+        hasText = true;
+        partial = isPartial;
+    }
+
+    /**
+     * 새 단어 시작 (필드는 setWord* 로 채움)
+     */
+    void beginWord() {
+        if (wordCount == wordOffsets.length) {
+            int capacity = wordCount * 2;
+            wordOffsets = grow(wordOffsets, capacity);
+            wordLengths = grow(wordLengths, capacity);
+            confidences = grow(confidences, capacity);
+            starts = grow(starts, capacity);
+            ends = grow(ends, capacity);
+        }
+        wordOffsets[wordCount] = wordCharsLength;
+        wordLengths[wordCount] = 0;
+        confidences[wordCount] = 1f;
+        starts[wordCount] = 0f;
+        ends[wordCount] = 0f;
+        wordCount++;
+    }
+
+    void setWordText(char[] source, int length) {
+        int index = wordCount - 1;
+        if (wordCharsLength + length > wordChars.length) {
+            char[] grown = new char[Math.max(wordCharsLength + length, wordChars.length * 2)];
+            System.arraycopy(wordChars, 0, grown, 0, wordCharsLength);
+            wordChars = grown;
+        }
+        System.arraycopy(source, 0, wordChars, wordCharsLength, length);
+        wordOffsets[index] = wordCharsLength;
+        wordLengths[index] = length;
+        wordCharsLength += length;
+    }
+
+    void setWordConfidence(float value) {
+        confidences[wordCount - 1] = value;
+    }
+
+    void setWordStart(float value) {
+        starts[wordCount - 1] = value;
+    }
+
+    void setWordEnd(float value) {
+        ends[wordCount - 1] = value;
+    }
+
+    private static int[] grow(int[] array, int capacity) {
+        int[] grown = new int[capacity];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static float[] grow(float[] array, int capacity) {
+        float[] grown = new float[capacity];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    @Override
+    public String toString() {
+        return "VoskResult{" + (partial ? "partial" : "text") + "='" + getText() + "', words=" + wordCount + "}";
+    }
+}
@@ -0,0 +1,436 @@
+package com.livecaption.translator;
+
+/**
+ * Vosk 결과 JSON 전용 스트리밍 파서.
+ * JSONObject 트리를 만들지 않고 필요한 필드만 {@link VoskResult}에 복사하며,
+ * 버퍼가 충분히 커진 뒤에는 결과마다 할당이 없다. 스레드마다 인스턴스 하나씩 사용한다.
+ *
+ * <p>인식하는 필드: text, partial, result[] / partial_result[] (word, conf, start, end),
+ * alternatives[0] (setMaxAlternatives 사용 시). 나머지 필드는 건너뛴다.
+ */
+public class VoskResultParser {
+
+    private static final String KEY_TEXT = "text";
+    private static final String KEY_PARTIAL = "partial";
+    private static final String KEY_RESULT = "result";
+    private static final String KEY_PARTIAL_RESULT = "partial_result";
+    private static final String KEY_ALTERNATIVES = "alternatives";
+    private static final String KEY_WORD = "word";
+    private static final String KEY_CONF = "conf";
+    private static final String KEY_START = "start";
+    private static final String KEY_END = "end";
+
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    // 정확히 표현되는 10의 거듭제곱 (Vosk는 소수점 6자리로 출력)
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private String json;
+    private int pos;
+    private int length;
+    private boolean failed;
+
+    // 문자열 값/키를 읽어 두는 버퍼
+    private char[] buffer = new char[256];
+    private int bufferLength;
+
+    /**
+     * json을 파싱해 out에 채운다.
+     *
+     * @return 형식이 올바르면 true (false여도 그때까지 읽은 필드는 out에 남음)
+     */
+    public boolean parse(String json, VoskResult out) {
+        out.reset();
+        if (json == null) {
+            return false;
+        }
+
+        this.json = json;
+        this.pos = 0;
+        this.length = json.length();
+        this.failed = false;
+
+        skipWhitespace();
+        if (expect('{')) {
+            parseResultObject(out, true);
+        }
+
+        this.json = null;
+        return !failed;
+    }
+
+    /**
+     * 결과 객체 ('{' 다음부터). alternatives 항목도 같은 형식이다.
+     */
+    private void parseResultObject(VoskResult out, boolean topLevel) {
+        skipWhitespace();
+        if (consumeIf('}')) {
+            return;
+        }
+
+        while (!failed) {
+            skipWhitespace();
+            if (!readString()) {
+                return;
+            }
+            skipWhitespace();
+            if (!expect(':')) {
+                return;
+            }
+            skipWhitespace();
+
+            if (bufferEquals(KEY_TEXT) || bufferEquals(KEY_PARTIAL)) {
+                boolean isPartial = bufferEquals(KEY_PARTIAL);
+                if (readString()) {
+                    out.setText(buffer, bufferLength, isPartial);
+                }
+            } else if (bufferEquals(KEY_RESULT) || bufferEquals(KEY_PARTIAL_RESULT)) {
+                parseWords(out);
+            } else if (topLevel && bufferEquals(KEY_ALTERNATIVES)) {
+                parseAlternatives(out);
+            } else {
+                skipValue();
+            }
+
+            if (!endOfMember('}')) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * alternatives 배열: 첫 번째(가장 확률이 높은) 항목만 사용
+     */
+    private void parseAlternatives(VoskResult out) {
+        if (!expect('[')) {
+            return;
+        }
+        skipWhitespace();
+        if (consumeIf(']')) {
+            return;
+        }
+
+        boolean first = true;
+        while (!failed) {
+            skipWhitespace();
+            if (first) {
+                if (expect('{')) {
+                    parseResultObject(out, false);
+                }
+                first = false;
+            } else {
+                skipValue();
+            }
+            if (!endOfMember(']')) {
+                return;
+            }
+        }
+    }
+
+    private void parseWords(VoskResult out) {
+        if (!expect('[')) {
+            return;
+        }
+        skipWhitespace();
+        if (consumeIf(']')) {
+            return;
+        }
+
+        while (!failed) {
+            skipWhitespace();
+            if (!expect('{')) {
+                return;
+            }
+            out.beginWord();
+            parseWord(out);
+            if (!endOfMember(']')) {
+                return;
+            }
+        }
+    }
+
+    private void parseWord(VoskResult out) {
+        skipWhitespace();
+        if (consumeIf('}')) {
+            return;
+        }
+
+        while (!failed) {
+            skipWhitespace();
+            if (!readString()) {
+                return;
+            }
+            skipWhitespace();
+            if (!expect(':')) {
+                return;
+            }
+            skipWhitespace();
+
+            if (bufferEquals(KEY_WORD)) {
+                if (readString()) {
+                    out.setWordText(buffer, bufferLength);
+                }
+            } else if (bufferEquals(KEY_CONF)) {
+                out.setWordConfidence((float) readNumber());
+            } else if (bufferEquals(KEY_START)) {
+                out.setWordStart((float) readNumber());
+            } else if (bufferEquals(KEY_END)) {
+                out.setWordEnd((float) readNumber());
+            } else {
+                skipValue();
+            }
+
+            if (!endOfMember('}')) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 멤버 뒤의 ',' 또는 닫는 괄호 처리. 계속 읽을 멤버가 있으면 true
+     */
+    private boolean endOfMember(char close) {
+        skipWhitespace();
+        if (consumeIf(',')) {
+            return true;
+        }
+        expect(close);
+        return false;
+    }
+
+    /**
+     * 문자열 값을 buffer로 읽기 (이스케이프 해제)
+     */
+    private boolean readString() {
+        if (!expect('"')) {
+            return false;
+        }
+
+        bufferLength = 0;
+        while (pos < length) {
+            char c = json.charAt(pos++);
+            if (c == '"') {
+                return true;
+            }
+            if (c == '\\') {
+                if (pos >= length) {
+                    break;
+                }
+                c = json.charAt(pos++);
+                switch (c) {
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    case 'u':
+                        c = readHexChar();
+                        break;
+                    default:
+                        // \" \\ \/ 는 그대로
+                        break;
+                }
+            }
+            append(c);
+        }
+
+        failed = true;
+        return false;
+    }
+
+    private char readHexChar() {
+        if (pos + 4 > length) {
+            failed = true;
+            pos = length;
+            return 0;
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(json.charAt(pos++), 16);
+            if (digit < 0) {
+                failed = true;
+                return 0;
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    private void append(char c) {
+        if (bufferLength == buffer.length) {
+            char[] grown = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, bufferLength);
+            buffer = grown;
+        }
+        buffer[bufferLength++] = c;
+    }
+
+    private boolean bufferEquals(String key) {
+        if (key.length() != bufferLength) {
+            return false;
+        }
+        for (int i = 0; i < bufferLength; i++) {
+            if (buffer[i] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * JSON 숫자 읽기 (Double.parseDouble처럼 부분 문자열을 만들지 않음)
+     */
+    private double readNumber() {
+        boolean negative = consumeIf('-');
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean any = false;
+
+        while (pos < length && isDigit(json.charAt(pos))) {
+            any = true;
+            if (digits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + (json.charAt(pos) - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                scale++;
+            }
+            pos++;
+        }
+
+        if (consumeIf('.')) {
+            while (pos < length && isDigit(json.charAt(pos))) {
+                any = true;
+                if (digits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (json.charAt(pos) - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    scale--;
+                }
+                pos++;
+            }
+        }
+
+        if (!any) {
+            failed = true;
+            return 0;
+        }
+
+        if (pos < length && (json.charAt(pos) == 'e' || json.charAt(pos) == 'E')) {
+            pos++;
+            boolean negativeExponent = false;
+            if (consumeIf('-')) {
+                negativeExponent = true;
+            } else {
+                consumeIf('+');
+            }
+            int exponent = 0;
+            while (pos < length && isDigit(json.charAt(pos))) {
+                exponent = Math.min(exponent * 10 + (json.charAt(pos) - '0'), 1000);
+                pos++;
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+
+        double value = mantissa;
+        if (scale > 0) {
+            value *= scale < POWERS_OF_TEN.length ? POWERS_OF_TEN[scale] : Math.pow(10, scale);
+        } else if (scale < 0) {
+            value /= -scale < POWERS_OF_TEN.length ? POWERS_OF_TEN[-scale] : Math.pow(10, -scale);
+        }
+        return negative ? -value : value;
+    }
+
+    private void skipValue() {
+        if (pos >= length) {
+            failed = true;
+            return;
+        }
+
+        char c = json.charAt(pos);
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            skipContainer();
+        } else if (c == '-' || isDigit(c)) {
+            readNumber();
+        } else {
+            // true / false / null
+            while (pos < length && Character.isLetter(json.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * 중첩된 객체/배열 건너뛰기 (문자열 안의 괄호는 무시)
+     */
+    private void skipContainer() {
+        int depth = 0;
+        while (pos < length) {
+            char c = json.charAt(pos);
+            if (c == '"') {
+                if (!readString()) {
+                    return;
+                }
+                continue;
+            }
+            pos++;
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return;
+                }
+            }
+        }
+        failed = true;
+    }
+
+    private void skipWhitespace() {
+        while (pos < length) {
+            char c = json.charAt(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private boolean consumeIf(char c) {
+        if (pos < length && json.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean expect(char c) {
+        if (consumeIf(c)) {
+            return true;
+        }
+        failed = true;
+        return false;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
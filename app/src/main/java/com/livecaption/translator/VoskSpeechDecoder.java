@@ -0,0 +1,45 @@
+package com.livecaption.translator;
+
+import org.vosk.Recognizer;
+
+/**
+ * Vosk Recognizer를 SpeechDecoder로 감싼 구현
+ */
+public class VoskSpeechDecoder implements SpeechDecoder {
+
+    private final Recognizer recognizer;
+
+    public VoskSpeechDecoder(Recognizer recognizer) {
+        this.recognizer = recognizer;
+    }
+
+    @Override
+    public boolean acceptWaveForm(byte[] data, int size) {
+        return recognizer.acceptWaveForm(data, size);
+    }
+
+    @Override
+    public String getResult() {
+        return recognizer.getResult();
+    }
+
+    @Override
+    public String getPartialResult() {
+        return recognizer.getPartialResult();
+    }
+
+    @Override
+    public String getFinalResult() {
+        return recognizer.getFinalResult();
+    }
+
+    @Override
+    public void reset() {
+        recognizer.reset();
+    }
+
+    @Override
+    public void close() {
+        recognizer.close();
+    }
+}
@@ -0,0 +1,103 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CaptionEventBus의 구독별 전달 방식. 구독자 스레드는 직접 돌리는 큐로 흉내 내서
+ * 밀린 동안 발행된 이벤트가 어떻게 전달되는지 확인한다.
+ */
+public class CaptionEventBusTest {
+
+    /**
+     * run()을 부를 때까지 작업을 쌓아 두는 executor (바쁜 구독자 스레드)
+     */
+    private static class QueuedExecutor implements Executor {
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void run() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    private final CaptionEventBus bus = new CaptionEventBus();
+    private final QueuedExecutor executor = new QueuedExecutor();
+    private final List<String> received = new ArrayList<>();
+
+    private void receive(CaptionEvent event) {
+        received.add((event.isPartial ? "~" : "") + event.originalText);
+    }
+
+    @Test
+    public void subscriberGetsLatestFinalAndNewerPartial() {
+        bus.subscribe(this::receive, executor);
+        bus.publish(CaptionEvent.translated("one", "1", null));
+        bus.publish(CaptionEvent.partial("tw"));
+        bus.publish(CaptionEvent.translated("two", "2", null));
+        bus.publish(CaptionEvent.partial("thr"));
+
+        executor.run();
+        assertEquals(2, bus.getCoalescedCount());
+        assertEquals(Arrays.asList("two", "~thr"), received);
+    }
+
+    @Test
+    public void coalescedFinalTraceIsCountedAsSuperseded() {
+        bus.subscribe(this::receive, executor);
+        long before = LatencyTracker.getInstance().getSupersededCount();
+        bus.publish(CaptionEvent.translated("one", "1", new UtteranceTrace(System.nanoTime())));
+        bus.publish(CaptionEvent.translated("two", "2", new UtteranceTrace(System.nanoTime())));
+
+        executor.run();
+        assertEquals(Collections.singletonList("two"), received);
+        assertEquals(before + 1, LatencyTracker.getInstance().getSupersededCount());
+    }
+
+    @Test
+    public void finalsSubscriberGetsEveryFinalInOrder() {
+        bus.subscribeFinals(this::receive, executor);
+        bus.publish(CaptionEvent.translated("one", "1", null));
+        bus.publish(CaptionEvent.partial("tw"));
+        bus.publish(CaptionEvent.translated("two", "2", null));
+        bus.publish(CaptionEvent.translated("three", "3", null));
+
+        executor.run();
+        assertEquals(0, bus.getCoalescedCount());
+        assertEquals(Arrays.asList("one", "two", "three"), received);
+        assertEquals(3, bus.getDispatchedCount());
+    }
+
+    @Test
+    public void finalsSubscriberIgnoresShutDownExecutor() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        CaptionEventBus.Subscriber subscriber = this::receive;
+        bus.subscribeFinals(subscriber, single);
+        bus.publish(CaptionEvent.translated("one", "1", null));
+        single.shutdown();
+        single.awaitTermination(1, TimeUnit.SECONDS);
+
+        // 구독 해지 전에 executor가 먼저 닫혀도 발행 스레드로 예외가 나가지 않음
+        bus.publish(CaptionEvent.translated("two", "2", null));
+        bus.unsubscribe(subscriber);
+        assertEquals(Collections.singletonList("one"), received);
+    }
+}
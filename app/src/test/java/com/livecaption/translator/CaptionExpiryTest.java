@@ -0,0 +1,53 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * CaptionExpiry의 글자 수 기반 표시 시간 (초당 10글자)
+ */
+public class CaptionExpiryTest {
+
+    private CaptionExpiry expiry;
+
+    @Before
+    public void setUp() {
+        expiry = new CaptionExpiry();
+        expiry.setCharsPerSecond(10);
+    }
+
+    @Test
+    public void longerLineSetsReadingTime() {
+        // 번역 30글자: 1초 + 3초
+        assertEquals(4000, expiry.displayDurationMs("hello", repeat('가', 30), 0));
+        assertEquals(4000, expiry.displayDurationMs(repeat('a', 30), "안녕", 0));
+    }
+
+    @Test
+    public void spokenDurationWinsWhenLonger() {
+        assertEquals(6000, expiry.displayDurationMs("hi", "안녕", 6000));
+    }
+
+    @Test
+    public void clampedToRange() {
+        assertEquals(CaptionExpiry.MIN_DISPLAY_MS, expiry.displayDurationMs("ok", null, 0));
+        assertEquals(CaptionExpiry.MAX_DISPLAY_MS, expiry.displayDurationMs(repeat('a', 500), null, 0));
+    }
+
+    @Test
+    public void zeroSpeedKeepsSpokenDurationOnly() {
+        expiry.setCharsPerSecond(0);
+        assertEquals(0, expiry.displayDurationMs(repeat('a', 100), "안녕", 0));
+        assertEquals(3000, expiry.displayDurationMs("hi", "안녕", 3000));
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
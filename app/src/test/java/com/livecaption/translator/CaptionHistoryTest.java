@@ -0,0 +1,166 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+/**
+ * CaptionHistory의 파일 기록, 위치 색인, 링 (세그먼트 4KB, 링 8줄로 작게)
+ */
+public class CaptionHistoryTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+    private static final int RING = 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private CaptionHistory history;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(folder.getRoot(), "session-test.log");
+        history = new CaptionHistory(file, true, SEGMENT_BYTES, RING);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        history.close();
+    }
+
+    private void appendLines(int lines) throws IOException {
+        for (int i = 0; i < lines; i++) {
+            assertEquals(i, history.append(1000L + i, "line " + i, "줄 " + i));
+        }
+    }
+
+    @Test
+    public void linesSpanSegmentsAndReadBackInOrder() throws IOException {
+        appendLines(3000);
+
+        assertEquals(3000, history.size());
+        assertTrue(file.length() > SEGMENT_BYTES * 10);
+        for (int i = 0; i < 3000; i += 37) {
+            CaptionHistory.Entry entry = history.get(i);
+            assertEquals(1000L + i, entry.timeMs);
+            assertEquals("line " + i, entry.originalText);
+            assertEquals("줄 " + i, entry.translatedText);
+        }
+        assertEquals("line 2999", history.get(2999).originalText);
+    }
+
+    @Test
+    public void pageClipsToRange() throws IOException {
+        appendLines(30);
+
+        List<CaptionHistory.Entry> page = history.page(25, 10);
+        assertEquals(5, page.size());
+        assertEquals("line 25", page.get(0).originalText);
+        assertEquals(0, history.page(-10, 5).size());
+    }
+
+    @Test
+    public void reopenedSessionRebuildsIndex() throws IOException {
+        appendLines(1000);
+        history.append(5000, null, "번역만");
+        history.close();
+
+        history = new CaptionHistory(file, false, SEGMENT_BYTES, RING);
+        assertEquals(1001, history.size());
+        assertEquals("line 500", history.get(500).originalText);
+        assertNull(history.get(1000).originalText);
+        assertEquals("번역만", history.get(1000).translatedText);
+    }
+
+    @Test
+    public void emptyTextStaysEmptyAndNullStaysNull() throws IOException {
+        history.append(1000, "", null);
+        assertEquals("", history.get(0).originalText);
+        assertNull(history.get(0).translatedText);
+        history.close();
+
+        history = new CaptionHistory(file, false, SEGMENT_BYTES, RING);
+        assertEquals("", history.get(0).originalText);
+        assertNull(history.get(0).translatedText);
+    }
+
+    @Test
+    public void longTextIsTrimmedOnCodePointBoundary() throws IOException {
+        StringBuilder text = new StringBuilder("a");
+        for (int i = 0; i < CaptionHistory.MAX_TEXT_CHARS / 2; i++) {
+            text.append("\uD83D\uDE00");
+        }
+        // 앞뒤의 "a", "b" 때문에 잘리는 자리가 서로게이트 쌍의 가운데
+        text.append('b');
+        assertTrue(Character.isLowSurrogate(
+                text.charAt(text.length() - CaptionHistory.MAX_TEXT_CHARS)));
+
+        history.close();
+        File large = new File(folder.getRoot(), "session-large.log");
+        history = new CaptionHistory(large, true, SEGMENT_BYTES * 4, RING);
+        history.append(1000, text.toString(), null);
+        String trimmed = history.get(0).originalText;
+        assertEquals(CaptionHistory.MAX_TEXT_CHARS - 1, trimmed.length());
+        assertTrue(Character.isHighSurrogate(trimmed.charAt(0)));
+        history.close();
+
+        history = new CaptionHistory(large, false, SEGMENT_BYTES * 4, RING);
+        assertEquals(trimmed, history.get(0).originalText);
+    }
+
+    @Test
+    public void readerSeesOnlyCompletedRecords() throws IOException {
+        appendLines(10);
+        history.close();
+
+        // 길이를 쓰기 전에 멈춘 레코드: 본문만 있고 길이 칸은 0
+        long end = file.length();
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            long offset = 0;
+            for (int i = 0; i < 10; i++) {
+                raw.seek(offset);
+                offset += 4 + raw.readInt();
+            }
+            raw.seek(offset + 4);
+            raw.writeLong(1234);
+        }
+        assertEquals(end, file.length());
+
+        history = new CaptionHistory(file, false, SEGMENT_BYTES, RING);
+        assertEquals(10, history.size());
+    }
+
+    @Test
+    public void onlyFinalCaptionsAreRecorded() throws IOException {
+        history.onCaption(CaptionEvent.partial("hel", null));
+        history.onCaption(CaptionEvent.translated("hello", "안녕", null));
+
+        assertEquals(1, history.size());
+        assertEquals("안녕", history.get(0).translatedText);
+    }
+
+    @Test
+    public void createSessionKeepsRecentFiles() throws IOException {
+        File dir = folder.newFolder("history");
+        for (int i = 0; i < CaptionHistory.MAX_SESSIONS + 2; i++) {
+            assertTrue(new File(dir, "session-2026010" + i + "-000000.log").createNewFile());
+        }
+
+        CaptionHistory session = CaptionHistory.createSession(dir);
+        session.close();
+        assertEquals(CaptionHistory.MAX_SESSIONS, dir.listFiles().length);
+        assertEquals(session.getFile(), CaptionHistory.latestSession(dir));
+    }
+}
@@ -0,0 +1,107 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * CaptionLine의 프레임 반영 판단. 미리 계산된 텍스트는 원문에 "*"를 붙인 문자열로 흉내 낸다.
+ */
+public class CaptionLineTest {
+
+    private final CaptionLine<String> line = new CaptionLine<>();
+
+    private void precompute(int generation, String text) {
+        assertTrue(line.onPrecomputed(generation, text, text + "*"));
+    }
+
+    private void apply(CaptionLine.Change expected) {
+        assertEquals(expected, line.nextChange());
+        line.applied();
+    }
+
+    @Test
+    public void newTextIsShownOnlyAfterPrecompute() {
+        int generation = line.request("hello");
+        assertTrue(generation >= 0);
+        assertTrue(line.isPending());
+        // 계산이 끝나기 전 프레임에서는 아무것도 하지 않음
+        assertEquals(CaptionLine.Change.NONE, line.nextChange());
+
+        precompute(generation, "hello");
+        assertFalse(line.isPending());
+        assertEquals("hello*", line.getReady());
+        apply(CaptionLine.Change.SHOW);
+        assertEquals("hello", line.getShown());
+        assertNull(line.getReady());
+        assertEquals(CaptionLine.Change.NONE, line.nextChange());
+
+        precompute(line.request("hello world"), "hello world");
+        apply(CaptionLine.Change.UPDATE);
+        assertEquals("hello world", line.getShown());
+    }
+
+    @Test
+    public void requestsBetweenFramesAreCoalescedToTheLatest() {
+        int first = line.request("a");
+        int second = line.request("a b");
+        int third = line.request("a b c");
+
+        // 늦게 끝난 이전 계산은 버림
+        assertFalse(line.onPrecomputed(second, "a b", "a b*"));
+        assertFalse(line.onPrecomputed(first, "a", "a*"));
+        assertEquals(CaptionLine.Change.NONE, line.nextChange());
+
+        precompute(third, "a b c");
+        assertEquals("a b c*", line.getReady());
+        apply(CaptionLine.Change.SHOW);
+        assertEquals("a b c", line.getShown());
+    }
+
+    @Test
+    public void returningToShownTextDropsInFlightPrecompute() {
+        precompute(line.request("same"), "same");
+        apply(CaptionLine.Change.SHOW);
+
+        int changed = line.request("other");
+        // 화면에 있는 텍스트로 돌아오면 다시 계산하지 않고, 진행 중인 계산은 버림
+        assertEquals(-1, line.request("same"));
+        assertFalse(line.onPrecomputed(changed, "other", "other*"));
+        assertFalse(line.isPending());
+        assertEquals(CaptionLine.Change.NONE, line.nextChange());
+    }
+
+    @Test
+    public void hideAndReshowReusesFinishedPrecompute() {
+        precompute(line.request("first"), "first");
+        apply(CaptionLine.Change.SHOW);
+
+        precompute(line.request("second"), "second");
+        assertEquals(-1, line.request(null));
+        apply(CaptionLine.Change.HIDE);
+        assertNull(line.getShown());
+        assertEquals(CaptionLine.Change.NONE, line.nextChange());
+
+        // 계산이 끝나 있던 텍스트는 다시 계산하지 않음
+        assertEquals(-1, line.request("second"));
+        assertEquals("second*", line.getReady());
+        apply(CaptionLine.Change.SHOW);
+        assertEquals("second", line.getShown());
+    }
+
+    @Test
+    public void directModeRecordsShownTextWithoutPrecompute() {
+        line.appliedDirect("direct");
+        assertEquals("direct", line.getTarget());
+        assertEquals("direct", line.getShown());
+        assertEquals(CaptionLine.Change.NONE, line.nextChange());
+        assertEquals(-1, line.request("direct"));
+
+        line.appliedDirect(null);
+        assertNull(line.getShown());
+        assertEquals(CaptionLine.Change.NONE, line.nextChange());
+    }
+}
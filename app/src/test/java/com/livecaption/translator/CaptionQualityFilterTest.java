@@ -0,0 +1,67 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * 번역 전 신뢰도 필터: 양 끝 잘라내기와 발화 버리기
+ */
+public class CaptionQualityFilterTest {
+
+    private final CaptionQualityFilter filter = new CaptionQualityFilter();
+    private final VoskResultParser parser = new VoskResultParser();
+    private final VoskResult result = new VoskResult();
+
+    /**
+     * 단어 하나당 0.3초씩인 발화
+     */
+    private Utterance utterance(String text, float... confidences) {
+        String[] words = text.split(" ");
+        StringBuilder json = new StringBuilder("{\"result\" : [");
+        for (int i = 0; i < words.length; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"conf\" : ").append(confidences[i])
+                    .append(", \"end\" : ").append(0.3 * (i + 1))
+                    .append(", \"start\" : ").append(0.3 * i)
+                    .append(", \"word\" : \"").append(words[i]).append("\"}");
+        }
+        json.append("], \"text\" : \"").append(text).append("\"}");
+        parser.parse(json.toString(), result);
+        return Utterance.fromResult(result, 16000);
+    }
+
+    @Test
+    public void keepsConfidentUtteranceUnchanged() {
+        Utterance utterance = utterance("the quick brown fox", 1f, 0.98f, 0.43f, 1f);
+        // 가운데의 낮은 단어는 문장을 깨뜨리지 않도록 남김
+        assertSame(utterance, filter.filter(utterance));
+        assertEquals(0, filter.getTrimmedWords());
+    }
+
+    @Test
+    public void trimsLowConfidenceEdges() {
+        Utterance kept = filter.filter(utterance("uh good morning hmm", 0.2f, 0.9f, 0.95f, 0.1f));
+        assertEquals("good morning", kept.getText());
+        assertEquals(2, filter.getTrimmedWords());
+        assertEquals(7, filter.getSavedChars());
+    }
+
+    @Test
+    public void dropsLowConfidenceUtterance() {
+        assertNull(filter.filter(utterance("la la la", 0.5f, 0.45f, 0.5f)));
+        assertNull(filter.filter(utterance("mm", 0.1f)));
+        assertEquals(2, filter.getDroppedUtterances());
+        assertEquals(10, filter.getSavedChars());
+    }
+
+    @Test
+    public void passesResultsWithoutWords() {
+        Utterance textOnly = Utterance.ofText("hello", 16000);
+        assertSame(textOnly, filter.filter(textOnly));
+        assertEquals(1, filter.getUtterances());
+        assertEquals(0, filter.getDroppedUtterances());
+    }
+}
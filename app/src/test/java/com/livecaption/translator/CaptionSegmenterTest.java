@@ -0,0 +1,280 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CaptionSegmenter의 구간 분할과 이어 붙이기를 응답 순서를 직접 정하는 가짜 번역기로 검증.
+ * 구간과 발화 번역은 모두 스케줄러를 거쳐 같은 번역기로 가며, 결과는 원문을 대문자로 바꾼 것.
+ */
+public class CaptionSegmenterTest {
+
+    private static final long MS = 1_000_000L;
+
+    private static class PendingBackend implements TranslationScheduler.Backend {
+        final List<String> texts = new ArrayList<>();
+        final List<TranslationCallback> callbacks = new ArrayList<>();
+
+        @Override
+        public void translate(String text, String sourceLanguage, String targetLanguage,
+                              TranslationCallback callback) {
+            texts.add(text);
+            callbacks.add(callback);
+        }
+
+        void answer(int index) {
+            callbacks.get(index).onTranslationSuccess(texts.get(index).toUpperCase());
+        }
+    }
+
+    private final PendingBackend backend = new PendingBackend();
+    private final TranslationScheduler scheduler = new TranslationScheduler(backend, 4);
+    private final LatencyTracker latencyTracker = new LatencyTracker();
+    private final List<CaptionEvent> events = new ArrayList<>();
+    private final CaptionEventBus.Subscriber subscriber = events::add;
+    private CaptionSegmenter segmenter;
+
+    @Before
+    public void setUp() {
+        CaptionEventBus.getInstance().subscribe(subscriber, Runnable::run);
+        segmenter = new CaptionSegmenter(scheduler, CaptionEventBus.getInstance(), latencyTracker);
+        segmenter.setLanguages("English", "Korean");
+    }
+
+    @After
+    public void tearDown() {
+        CaptionEventBus.getInstance().unsubscribe(subscriber);
+    }
+
+    @Test
+    public void shortUtteranceIsTranslatedWhole() {
+        segmenter.onPartial("hello", 0);
+        segmenter.onPartial("hello world", 100 * MS);
+        segmenter.onFinal("hello world", 1500, null, 400 * MS);
+
+        assertEquals(0, segmenter.getSegments());
+        assertEquals(1, backend.texts.size());
+        backend.answer(0);
+
+        CaptionEvent last = lastEvent();
+        assertFalse(last.isPartial);
+        assertEquals("hello world", last.originalText);
+        assertEquals("HELLO WORLD", last.translatedText);
+        assertEquals(1500, last.displayDurationMs);
+        assertEquals(0, segmenter.getSegmentedUtterances());
+    }
+
+    @Test
+    public void delayBoundTranslatesStablePrefixAndStitchesTail() {
+        long cut = CaptionSegmenter.MAX_SEGMENT_DELAY_MS * MS;
+        segmenter.onPartial("so the plan", 0);
+        // 지연 상한 전이고, 마지막 단어는 아직 바뀔 수 있어 보내지 않음
+        segmenter.onPartial("so the plan", 500 * MS);
+        assertTrue(backend.texts.isEmpty());
+
+        segmenter.onPartial("so the plan is", cut);
+        assertEquals("so the plan", backend.texts.get(0));
+        backend.answer(0);
+        CaptionEvent partial = lastEvent();
+        assertTrue(partial.isPartial);
+        assertEquals("so the plan is", partial.originalText);
+        assertEquals("SO THE PLAN", partial.translatedText);
+
+        // 이후 중간 결과도 번역된 앞부분을 함께 보냄
+        segmenter.onPartial("so the plan is simple", cut + 100 * MS);
+        assertEquals(1, backend.texts.size());
+        assertEquals("SO THE PLAN", lastEvent().translatedText);
+
+        segmenter.onFinal("so the plan is simple", 2000, null, cut + 200 * MS);
+        assertEquals("is simple", backend.texts.get(1));
+        assertEquals(0, scheduler.getSubmitted());
+        backend.answer(1);
+
+        CaptionEvent caption = lastEvent();
+        assertFalse(caption.isPartial);
+        assertEquals("so the plan is simple", caption.originalText);
+        assertEquals("SO THE PLAN IS SIMPLE", caption.translatedText);
+        assertEquals(2000, caption.displayDurationMs);
+        assertEquals(2, segmenter.getSegments());
+        assertEquals(0, segmenter.getPendingSegments());
+    }
+
+    @Test
+    public void longRunWithoutPunctuationIsCutAtMaxWords() {
+        StringBuilder text = new StringBuilder("w0");
+        for (int i = 1; i <= CaptionSegmenter.MAX_SEGMENT_WORDS; i++) {
+            text.append(" w").append(i);
+            segmenter.onPartial(text.toString(), i * 10 * MS);
+        }
+
+        assertEquals(1, backend.texts.size());
+        assertEquals(CaptionSegmenter.MAX_SEGMENT_WORDS, backend.texts.get(0).split(" ").length);
+    }
+
+    @Test
+    public void oldestWordIsSentWithinDelayBound() {
+        segmenter.onPartial("a b", 0);
+        segmenter.onPartial("a b c", 500 * MS);
+        assertTrue(backend.texts.isEmpty());
+
+        segmenter.onPartial("a b c d", CaptionSegmenter.MAX_SEGMENT_DELAY_MS * MS);
+        assertEquals("a b c", backend.texts.get(0));
+    }
+
+    @Test
+    public void pauseSendsEveryWordIncludingTheLast() {
+        segmenter.onPartial("wait for it", 0);
+        segmenter.onIdle(100 * MS);
+        assertTrue(backend.texts.isEmpty());
+
+        segmenter.onIdle(CaptionSegmenter.PAUSE_MS * MS);
+        assertEquals("wait for it", backend.texts.get(0));
+
+        // 최종 결과가 같으면 남은 꼬리가 없어 바로 자막 완성
+        backend.answer(0);
+        segmenter.onFinal("wait for it", 0, null, 800 * MS);
+        assertEquals(1, backend.texts.size());
+        assertEquals("WAIT FOR IT", lastEvent().translatedText);
+        assertFalse(lastEvent().isPartial);
+    }
+
+    @Test
+    public void segmentsAreShownInOrderWhenTranslationsArriveOutOfOrder() {
+        long cut = CaptionSegmenter.MAX_SEGMENT_DELAY_MS * MS;
+        segmenter.onPartial("one two three", 0);
+        segmenter.onPartial("one two three four", cut);
+        assertEquals("one two three", backend.texts.get(0));
+        segmenter.onFinal("one two three four five", 0, null, cut + 100 * MS);
+        assertEquals("four five", backend.texts.get(1));
+
+        int published = events.size();
+        backend.answer(1);
+        // 앞 구간이 아직이라 아무것도 발행하지 않음
+        assertEquals(published, events.size());
+
+        backend.answer(0);
+        CaptionEvent caption = lastEvent();
+        assertFalse(caption.isPartial);
+        assertEquals("ONE TWO THREE FOUR FIVE", caption.translatedText);
+        assertEquals(2, wordToCaption().getCount());
+    }
+
+    @Test
+    public void revisedPrefixIsCountedAndTailCutByWordCount() {
+        segmenter.onPartial("i scream for", 0);
+        segmenter.onPartial("i scream for you", CaptionSegmenter.MAX_SEGMENT_DELAY_MS * MS);
+        assertEquals("i scream for", backend.texts.get(0));
+
+        segmenter.onFinal("ice cream for you", 0, null, 2100 * MS);
+        assertEquals(1, segmenter.getRevisions());
+        assertEquals("you", backend.texts.get(1));
+    }
+
+    @Test
+    public void droppedFinalClosesCaptionWithSentSegments() {
+        long cut = CaptionSegmenter.MAX_SEGMENT_DELAY_MS * MS;
+        segmenter.onPartial("a b c d", 0);
+        segmenter.onPartial("a b c d e", cut);
+        segmenter.onFinal("", 0, null, cut + 100 * MS);
+        backend.answer(0);
+
+        assertEquals(1, backend.texts.size());
+        assertEquals("a b c d", lastEvent().originalText);
+        assertEquals("A B C D", lastEvent().translatedText);
+        assertFalse(lastEvent().isPartial);
+    }
+
+    @Test
+    public void disabledSegmenterTranslatesWholeUtterance() {
+        segmenter.setEnabled(false);
+        long cut = CaptionSegmenter.MAX_SEGMENT_DELAY_MS * MS;
+        segmenter.onPartial("a b c d", 0);
+        segmenter.onPartial("a b c d e", cut);
+        assertNull(lastEvent().translatedText);
+
+        segmenter.onFinal("a b c d e", 0, null, cut + 100 * MS);
+        assertEquals(0, segmenter.getSegments());
+        assertEquals("a b c d e", backend.texts.get(0));
+    }
+
+    @Test
+    public void segmentedCaptionCompletedAfterNewerCaptionIsDropped() {
+        long cut = CaptionSegmenter.MAX_SEGMENT_DELAY_MS * MS;
+        segmenter.onPartial("first long caption", 0);
+        segmenter.onPartial("first long caption here", cut);
+        segmenter.onFinal("first long caption here", 0, null, cut + 100 * MS);
+
+        // 다음 짧은 발화의 번역이 먼저 표시됨
+        segmenter.onPartial("next", cut + 200 * MS);
+        segmenter.onFinal("next", 0, null, cut + 300 * MS);
+        backend.answer(2);
+        assertEquals("NEXT", lastEvent().translatedText);
+
+        // 늦게 완성된 이전 발화는 새 자막을 덮지 않음
+        backend.answer(0);
+        backend.answer(1);
+        assertEquals("NEXT", lastEvent().translatedText);
+        assertFalse(lastEvent().isPartial);
+        assertEquals(1, segmenter.getStaleCaptions());
+        assertEquals(1, scheduler.getExternalStaleDropped());
+    }
+
+    @Test
+    public void olderUtteranceTranslationIsDroppedAfterSegmentedCaption() {
+        segmenter.onPartial("earlier", 0);
+        segmenter.onFinal("earlier", 0, null, 100 * MS);
+
+        long pause = CaptionSegmenter.PAUSE_MS * MS;
+        segmenter.onPartial("a newer caption", 200 * MS);
+        segmenter.onIdle(200 * MS + pause);
+        segmenter.onFinal("a newer caption", 0, null, 300 * MS + pause);
+        backend.answer(1);
+        assertEquals("A NEWER CAPTION", lastEvent().translatedText);
+
+        // 분할 자막보다 먼저 끝난 발화의 번역이 늦게 와도 버려짐
+        int published = events.size();
+        backend.answer(0);
+        assertEquals(published, events.size());
+        assertEquals(1, scheduler.getStaleDropped());
+        assertEquals(0, segmenter.getStaleCaptions());
+    }
+
+    @Test
+    public void segmentsShareTheSchedulersInFlightLimit() {
+        scheduler.setMaxInFlight(1);
+        long cut = CaptionSegmenter.MAX_SEGMENT_DELAY_MS * MS;
+        segmenter.onPartial("one two three", 0);
+        segmenter.onPartial("one two three four", cut);
+        segmenter.onFinal("one two three four five", 0, null, cut + 100 * MS);
+
+        // 앞 구간이 끝나야 다음 구간을 번역기로 보냄
+        assertEquals(1, backend.texts.size());
+        backend.answer(0);
+        assertEquals("four five", backend.texts.get(1));
+        backend.answer(1);
+        assertEquals("ONE TWO THREE FOUR FIVE", lastEvent().translatedText);
+        assertEquals(2, scheduler.getSegments());
+    }
+
+    private LatencyHistogram wordToCaption() {
+        for (LatencyHistogram histogram : latencyTracker.getHistograms()) {
+            if ("word_to_caption".equals(histogram.getName())) {
+                return histogram;
+            }
+        }
+        throw new AssertionError("word_to_caption");
+    }
+
+    private CaptionEvent lastEvent() {
+        return events.get(events.size() - 1);
+    }
+}
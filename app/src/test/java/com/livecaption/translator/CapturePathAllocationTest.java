@@ -0,0 +1,176 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 캡처 → VAD → 링 버퍼 → 인식 스레드 → acceptWaveForm 경로가 정상 상태에서 할당하지 않는지 확인.
+ * 캡처 스레드(테스트 스레드)와 인식 스레드 각각의 할당량을 ThreadMXBean으로 잰다.
+ */
+public class CapturePathAllocationTest {
+
+    private static final int SAMPLE_RATE = 16000;
+    private static final int FRAME_BYTES = SAMPLE_RATE / 1000 * 40 * 2; // 40ms
+
+    // 인식 스레드 측정 구간 (디코더에 들어간 프레임 기준)
+    private static final int WARMUP_FRAMES = 2000;
+    private static final int MEASURED_FRAMES = 5000;
+    // 캡처 스레드 측정 구간 (VAD에 넣은 프레임 기준, 무음 프레임 포함)
+    private static final int CAPTURE_WARMUP_FRAMES = 4000;
+    private static final int CAPTURE_MEASURED_FRAMES = 10000;
+    private static final int CAPTURE_TOTAL_FRAMES = 20000;
+
+    // 측정 오차 허용치 (JIT 상태에 따라 측정 호출 비용이 조금씩 다름).
+    // 프레임당 객체 하나만 할당해도 측정 구간 전체로는 80KB 이상이 된다.
+    private static final long MEASUREMENT_SLACK_BYTES = 1024;
+
+    private static final String PARTIAL_JSON = "{\n  \"partial\" : \"hello world\"\n}";
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    private static long allocatedBytes() {
+        return threadBean().getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * 현재 스레드의 할당량 측정. 측정 호출 자체도 할당하므로(JDK/인터프리터에 따라 수백 바이트)
+     * 시작할 때 연속 호출로 그 비용을 재서 뺀다.
+     */
+    private static class AllocationMeter {
+        private long overhead;
+        private long startBytes;
+        private long allocated = -1;
+
+        void start() {
+            long first = allocatedBytes();
+            long second = allocatedBytes();
+            overhead = second - first;
+            startBytes = allocatedBytes();
+        }
+
+        void stop() {
+            allocated = allocatedBytes() - startBytes - overhead;
+        }
+
+        long getAllocated() {
+            return allocated;
+        }
+    }
+
+    /**
+     * 결과를 내지 않는 디코더. 인식 스레드에서 측정 구간의 할당량을 기록한다.
+     */
+    private static class MeasuringDecoder implements SpeechDecoder {
+        final CountDownLatch measured = new CountDownLatch(1);
+        final AllocationMeter meter = new AllocationMeter();
+        int frames;
+
+        @Override
+        public boolean acceptWaveForm(byte[] data, int size) {
+            frames++;
+            if (frames == WARMUP_FRAMES) {
+                meter.start();
+            } else if (frames == WARMUP_FRAMES + MEASURED_FRAMES) {
+                meter.stop();
+                measured.countDown();
+            }
+            return false;
+        }
+
+        @Override
+        public String getResult() {
+            return "{\"text\" : \"\"}";
+        }
+
+        @Override
+        public String getPartialResult() {
+            // 같은 중간 결과가 반복되면 String을 만들지 않고 버려야 함
+            return PARTIAL_JSON;
+        }
+
+        @Override
+        public String getFinalResult() {
+            return "{\"text\" : \"\"}";
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private MeasuringDecoder decoder;
+    private RecognitionEngine engine;
+
+    @Before
+    public void setUp() {
+        assumeTrue(threadBean().isThreadAllocatedMemorySupported());
+        threadBean().setThreadAllocatedMemoryEnabled(true);
+
+        decoder = new MeasuringDecoder();
+        engine = new RecognitionEngine(decoder, Runnable::run);
+        engine.setPartialResultsEnabled(true);
+        engine.setFrameSizeTuner(new FrameSizeTuner(SAMPLE_RATE, 40, true));
+        engine.start();
+    }
+
+    @After
+    public void tearDown() {
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    @Test
+    public void steadyStateCapturePathDoesNotAllocate() throws Exception {
+        byte[] tone = PcmFrames.tone(FRAME_BYTES, 440, 8000);
+        byte[] silence = new byte[FRAME_BYTES];
+        VoiceActivityDetector vad = new VoiceActivityDetector(SAMPLE_RATE);
+
+        // 큐가 가득 차면 다시 넣기 (측정 중 프레임이 버려지지 않도록)
+        VoiceActivityDetector.FrameSink sink = (data, size) -> {
+            while (!engine.processAudio(data, size)) {
+                Thread.yield();
+            }
+        };
+
+        // 1초 음성 / 1초 무음 반복: attack, hangover, pre-roll 경로를 모두 지남
+        int framesPerSecond = 1000 / 40;
+        AllocationMeter captureMeter = new AllocationMeter();
+        for (int frame = 0; frame < CAPTURE_TOTAL_FRAMES; frame++) {
+            if (frame == CAPTURE_WARMUP_FRAMES) {
+                captureMeter.start();
+            } else if (frame == CAPTURE_WARMUP_FRAMES + CAPTURE_MEASURED_FRAMES) {
+                captureMeter.stop();
+            }
+            boolean speech = (frame / framesPerSecond) % 2 == 0;
+            vad.process(speech ? tone : silence, FRAME_BYTES, sink);
+        }
+
+        assertTrue("recognizer did not receive enough frames",
+                decoder.measured.await(10, TimeUnit.SECONDS));
+
+        long recognitionBytes = decoder.meter.getAllocated();
+        assertTrue("recognition thread allocated " + recognitionBytes + " bytes over "
+                        + MEASURED_FRAMES + " frames",
+                recognitionBytes <= MEASUREMENT_SLACK_BYTES);
+
+        long captureBytes = captureMeter.getAllocated();
+        assertTrue("capture thread allocated " + captureBytes + " bytes over "
+                        + CAPTURE_MEASURED_FRAMES + " frames",
+                captureBytes <= MEASUREMENT_SLACK_BYTES);
+    }
+}
@@ -0,0 +1,103 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * FrameSizeTuner를 "호출당 고정 비용 + 오디오 길이 비례 비용" 디코더 모델로 검증
+ */
+public class FrameSizeTunerTest {
+
+    private static final int SAMPLE_RATE = 16000;
+
+    /**
+     * 현재 프레임 길이로 audioMs만큼 디코딩한 것처럼 보고
+     */
+    private static void decode(FrameSizeTuner tuner, long audioMs, double callOverheadMs, double rtf) {
+        long decodedMs = 0;
+        while (decodedMs < audioMs) {
+            int frameMs = tuner.getFrameMs();
+            long costNanos = (long) ((callOverheadMs + frameMs * rtf) * 1_000_000L);
+            tuner.onChunkDecoded(tuner.getFrameBytes(), costNanos);
+            decodedMs += frameMs;
+        }
+    }
+
+    @Test
+    public void fixedModeKeepsConfiguredFrame() {
+        FrameSizeTuner tuner = new FrameSizeTuner(SAMPLE_RATE, 60, false);
+        decode(tuner, 10_000, 50, 0.5); // 실시간보다 느려도 고정
+        assertEquals(60, tuner.getFrameMs());
+        assertEquals(1920, tuner.getFrameBytes());
+        assertEquals(1920, tuner.getMaxFrameBytes());
+        assertEquals(0, tuner.getAdjustments());
+        assertEquals(50.0 / 60 + 0.5, tuner.getRealTimeFactor(), 1e-3);
+
+        assertEquals(FrameSizeTuner.MIN_FRAME_MS, new FrameSizeTuner(SAMPLE_RATE, 5, false).getFrameMs());
+        assertEquals(FrameSizeTuner.MAX_FRAME_MS, new FrameSizeTuner(SAMPLE_RATE, 500, false).getFrameMs());
+    }
+
+    @Test
+    public void cheapDecoderStaysAtSmallestFrame() {
+        FrameSizeTuner tuner = new FrameSizeTuner(SAMPLE_RATE, FrameSizeTuner.MIN_FRAME_MS, true);
+        assertEquals(-1, tuner.getRealTimeFactor(), 0);
+        assertFalse(tuner.isSettled());
+
+        decode(tuner, 5_000, 1, 0.2);
+        assertEquals(20, tuner.getFrameMs());
+        assertTrue(tuner.isSettled());
+        assertEquals(0.25, tuner.getLastWindowRtf(), 1e-3);
+        assertEquals(6400, tuner.getMaxFrameBytes());
+    }
+
+    @Test
+    public void callOverheadGrowsFrameToSmallestRealTimeSize() {
+        // 20ms: 15/20 + 0.3 = 1.05, 40ms: 0.675 → 40ms에서 멈춤
+        FrameSizeTuner tuner = new FrameSizeTuner(SAMPLE_RATE, FrameSizeTuner.MIN_FRAME_MS, true);
+        decode(tuner, 10_000, 15, 0.3);
+        assertEquals(40, tuner.getFrameMs());
+        assertTrue(tuner.isSettled());
+        assertEquals(1, tuner.getAdjustments());
+
+        // 60ms: 30/60 + 0.5 = 1.0, 80ms: 0.875 → 80ms
+        tuner = new FrameSizeTuner(SAMPLE_RATE, FrameSizeTuner.MIN_FRAME_MS, true);
+        decode(tuner, 20_000, 30, 0.5);
+        assertEquals(80, tuner.getFrameMs());
+    }
+
+    @Test
+    public void startsFromPreviousResultAndShrinksWhenThereIsHeadroom() {
+        FrameSizeTuner tuner = new FrameSizeTuner(SAMPLE_RATE, 200, true);
+        assertEquals(200, tuner.getFrameMs());
+        decode(tuner, 30_000, 1, 0.1);
+        assertEquals(20, tuner.getFrameMs());
+        assertTrue(tuner.isSettled());
+    }
+
+    @Test
+    public void doesNotRetryFrameThatFellBehind() {
+        FrameSizeTuner tuner = new FrameSizeTuner(SAMPLE_RATE, FrameSizeTuner.MIN_FRAME_MS, true);
+        decode(tuner, 5_000, 15, 0.3);
+        assertEquals(40, tuner.getFrameMs());
+
+        // 부하가 줄어도 20ms로 되돌아가 흔들리지 않음
+        decode(tuner, 10_000, 1, 0.1);
+        assertEquals(40, tuner.getFrameMs());
+        assertEquals(1, tuner.getAdjustments());
+    }
+
+    @Test
+    public void otherChunkSizesOnlyCountTowardsTotalRtf() {
+        FrameSizeTuner tuner = new FrameSizeTuner(SAMPLE_RATE, FrameSizeTuner.MIN_FRAME_MS, true);
+        // pre-roll 자투리처럼 현재 길이와 다른 청크는 판정에 쓰지 않음
+        for (int i = 0; i < 200; i++) {
+            tuner.onChunkDecoded(100, 10_000_000L);
+        }
+        assertEquals(20, tuner.getFrameMs());
+        assertEquals(-1, tuner.getLastWindowRtf(), 0);
+        assertTrue(tuner.getRealTimeFactor() > 1);
+    }
+}
@@ -0,0 +1,425 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+/**
+ * LanguageDetectingDecoder의 probe/판정/재검사를 언어별 신뢰도가 정해진 가짜 인식기로 검증.
+ * 프레임은 40ms, 인식기는 25프레임(1초)마다 단어 3개짜리 발화를 끝낸다.
+ */
+public class LanguageDetectingDecoderTest {
+
+    private static final int SAMPLE_RATE = 16000;
+    private static final int FRAME_BYTES = 1280; // 40ms
+    private static final int FRAMES_PER_UTTERANCE = 25;
+
+    /**
+     * 정해진 단어와 신뢰도로 결과를 내는 인식기. 디코딩 비용을 흉내 내려고 프레임마다 조금 바쁘게 돈다.
+     */
+    private static class ScriptedDecoder implements SpeechDecoder {
+        final String word;
+        final int framesPerUtterance;
+        volatile float confidence;
+        volatile String lastThread;
+        volatile int totalFrames;
+        volatile boolean closed;
+        // 설정되면 열릴 때까지 디코딩이 멈춤 (따라오지 못하는 후보)
+        volatile CountDownLatch stall;
+        private int utteranceFrames;
+
+        ScriptedDecoder(String word, float confidence, int framesPerUtterance) {
+            this.word = word;
+            this.confidence = confidence;
+            this.framesPerUtterance = framesPerUtterance;
+        }
+
+        @Override
+        public boolean acceptWaveForm(byte[] data, int size) {
+            CountDownLatch latch = stall;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            long until = System.nanoTime() + 100_000L;
+            while (System.nanoTime() < until) {
+                // 디코딩 비용
+            }
+            lastThread = Thread.currentThread().getName();
+            totalFrames++;
+            return ++utteranceFrames >= framesPerUtterance;
+        }
+
+        @Override
+        public String getResult() {
+            utteranceFrames = 0;
+            return utterance();
+        }
+
+        @Override
+        public String getPartialResult() {
+            return "{\"partial\" : \"" + word + "\"}";
+        }
+
+        @Override
+        public String getFinalResult() {
+            if (utteranceFrames == 0) {
+                return "{\"text\" : \"\"}";
+            }
+            utteranceFrames = 0;
+            return utterance();
+        }
+
+        private String utterance() {
+            StringBuilder json = new StringBuilder("{\"result\" : [");
+            for (int i = 0; i < 3; i++) {
+                json.append(i == 0 ? "" : ", ")
+                        .append("{\"conf\" : ").append(confidence)
+                        .append(", \"end\" : ").append(i + 0.5)
+                        .append(", \"start\" : ").append(i)
+                        .append(", \"word\" : \"").append(word).append("\"}");
+            }
+            return json.append("], \"text\" : \"").append(word).append(' ').append(word).append(' ')
+                    .append(word).append("\"}").toString();
+        }
+
+        @Override
+        public void reset() {
+            utteranceFrames = 0;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private class Factory implements LanguageDetectingDecoder.DecoderFactory {
+        final Map<String, Float> confidences = new HashMap<>();
+        final Map<String, CountDownLatch> stalls = new HashMap<>();
+        final List<ScriptedDecoder> created = new ArrayList<>();
+        final List<String> released = new ArrayList<>();
+
+        @Override
+        public synchronized SpeechDecoder create(String language) {
+            ScriptedDecoder decoder = new ScriptedDecoder(language + "-word", confidences.get(language),
+                    framesPerUtterance);
+            decoder.stall = stalls.get(language);
+            created.add(decoder);
+            return decoder;
+        }
+
+        @Override
+        public synchronized void release(String language, SpeechDecoder decoder) {
+            decoder.close();
+            released.add(language);
+        }
+
+        synchronized List<String> released() {
+            return sorted(released);
+        }
+
+        synchronized ScriptedDecoder lastCreated(String word) {
+            for (int i = created.size() - 1; i >= 0; i--) {
+                if (created.get(i).word.equals(word)) {
+                    return created.get(i);
+                }
+            }
+            return null;
+        }
+    }
+
+    private final byte[] frame = new byte[FRAME_BYTES];
+    private final List<LanguageDetectingDecoder.ProbeReport> reports = new ArrayList<>();
+    private int framesPerUtterance = FRAMES_PER_UTTERANCE;
+    private Factory factory;
+    private LanguageDetectingDecoder detector;
+
+    @Before
+    public void setUp() {
+        factory = new Factory();
+        factory.confidences.put("ko", 0.4f);
+        factory.confidences.put("en", 0.95f);
+        factory.confidences.put("ja", 0.5f);
+    }
+
+    @After
+    public void tearDown() {
+        if (detector != null) {
+            detector.close();
+        }
+    }
+
+    private void createDetector(String language) throws Exception {
+        // 재검사 후보도 호출한 스레드에서 바로 생성
+        detector = new LanguageDetectingDecoder(SAMPLE_RATE, language, factory.create(language),
+                Arrays.asList("ko", "en", "ja"), factory, Runnable::run);
+        detector.setListener(reports::add);
+        detector.setProbeWindowMs(2000, 8000);
+        detector.loadCandidates(LanguageDetectingDecoder.REASON_INITIAL);
+    }
+
+    /**
+     * RecognitionEngine처럼 프레임을 넣고, 발화가 끝나면 결과를 가져옴. 마지막 최종 결과를 반환.
+     */
+    private String feed(int frames) {
+        String last = null;
+        for (int i = 0; i < frames; i++) {
+            if (detector.acceptWaveForm(frame, FRAME_BYTES)) {
+                last = detector.getResult();
+            }
+        }
+        return last;
+    }
+
+    @Test
+    public void switchesToMostConfidentLanguageAndClosesTheRest() throws Exception {
+        createDetector("ko");
+
+        // 1초: 아직 최소 probe 길이 전이라 현재 언어 결과를 그대로 냄
+        assertTrue(feed(FRAMES_PER_UTTERANCE).contains("ko-word"));
+        assertTrue(detector.isProbing());
+        assertEquals("LanguageProbe-en", awaitDecodingThread(factory.lastCreated("en-word")));
+
+        // 2초: probe 종료. 후보 스레드를 기다리지 않으므로 이 발화는 현재 언어의 결과로 반환
+        assertTrue(feed(FRAMES_PER_UTTERANCE).contains("ko-word"));
+        assertFalse(detector.isProbing());
+
+        // 후보가 남은 프레임을 마무리하면 이후 프레임에서 판정하고 승자로 교체
+        feedUntil(() -> "en".equals(detector.getLanguage()));
+        assertEquals("en", detector.getLanguage());
+        assertEquals(1, reports.size());
+
+        LanguageDetectingDecoder.ProbeReport report = reports.get(0);
+        assertTrue(report.isSwitched());
+        assertTrue(report.isDecided());
+        assertEquals("ko", report.getPreviousLanguage());
+        assertEquals(2000, report.getProbeAudioMs());
+        assertTrue(report.getProbeCpuMs() > 0);
+        assertTrue(report.toString().contains("en=0.95/6w"));
+
+        // 진 인식기는 모두 닫히고, 이후에는 승자만 인식 스레드에서 디코딩
+        assertEquals(Arrays.asList("ja", "ko"), factory.released());
+        ScriptedDecoder japanese = factory.lastCreated("ja-word");
+        int japaneseFrames = japanese.totalFrames;
+        assertTrue(feed(FRAMES_PER_UTTERANCE).contains("en-word"));
+        assertEquals(japaneseFrames, japanese.totalFrames);
+        assertEquals(Thread.currentThread().getName(), factory.lastCreated("en-word").lastThread);
+    }
+
+    @Test
+    public void keepsCurrentLanguageWhenScoresAreClose() throws Exception {
+        factory.confidences.put("ko", 0.93f);
+        createDetector("ko");
+
+        assertTrue(feed(2 * FRAMES_PER_UTTERANCE).contains("ko-word"));
+        feedUntil(() -> reports.size() == 1);
+        assertEquals("ko", detector.getLanguage());
+        assertFalse(reports.get(0).isSwitched());
+        assertEquals(0, detector.getSwitches());
+        assertEquals(Arrays.asList("en", "ja"), factory.released());
+    }
+
+    @Test
+    public void reprobesWhenConfidenceDrops() throws Exception {
+        createDetector("ko");
+        feed(2 * FRAMES_PER_UTTERANCE);
+        feedUntil(() -> "en".equals(detector.getLanguage()));
+        assertEquals("en", detector.getLanguage());
+
+        // 화자가 일본어로 바뀜: 영어 인식기의 신뢰도가 떨어지고 일본어가 가장 높음
+        factory.lastCreated("en-word").confidence = 0.3f;
+        factory.confidences.put("ja", 0.9f);
+        // 3번째 발화에서 재검사 요청 → 다음 발화 경계에서 probe 시작
+        feedUntil(detector::isProbing);
+        assertTrue(detector.isProbing());
+
+        feedUntil(() -> "ja".equals(detector.getLanguage()));
+        assertEquals("ja", detector.getLanguage());
+        assertEquals(2, reports.size());
+        assertEquals(LanguageDetectingDecoder.REASON_LOW_CONFIDENCE, reports.get(1).getReason());
+        assertEquals(2, detector.getSwitches());
+    }
+
+    @Test
+    public void reprobesPeriodically() throws Exception {
+        factory.confidences.put("ko", 0.93f);
+        createDetector("ko");
+        detector.setReprobeIntervalMs(3000);
+        feed(2 * FRAMES_PER_UTTERANCE);
+        feedUntil(() -> reports.size() == 1);
+        assertFalse(detector.isProbing());
+
+        feedUntil(detector::isProbing);
+        assertTrue(detector.isProbing());
+        feedUntil(() -> reports.size() == 2);
+        assertEquals(LanguageDetectingDecoder.REASON_PERIODIC, reports.get(1).getReason());
+        assertEquals("ko", detector.getLanguage());
+    }
+
+    @Test
+    public void endsProbeAtMaxWindowWhenSpeechNeverPauses() throws Exception {
+        framesPerUtterance = Integer.MAX_VALUE;
+        createDetector("ko");
+        detector.setProbeWindowMs(1000, 2000);
+
+        // 발화가 끝나지 않아도 2초에서 끊고 판정
+        String result = feed(50);
+        assertNotNull(result);
+        assertTrue(result.contains("ko-word"));
+
+        // 발화 경계가 오지 않아도 이전 언어의 발화를 끊고 승자로 교체
+        feedUntil(() -> "en".equals(detector.getLanguage()));
+        assertEquals(2000, reports.get(0).getProbeAudioMs());
+        assertEquals("en", detector.getLanguage());
+    }
+
+    @Test
+    public void switchIsReportedAfterPreviousLanguagesLastResult() throws Exception {
+        // 멈춘 후보 때문에 판정이 다음 발화 도중에 남
+        CountDownLatch stall = new CountDownLatch(1);
+        factory.stalls.put("ja", stall);
+        framesPerUtterance = Integer.MAX_VALUE;
+        createDetector("ko");
+        detector.setProbeWindowMs(1000, 2000);
+        final List<String> events = new ArrayList<>();
+        detector.setListener(report -> events.add("switch:" + report.getLanguage()));
+
+        // 판정 후 끊긴 이전 언어의 발화가 먼저 나오고, 교체 알림은 그 뒤에 옴
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!events.contains("switch:en") && System.currentTimeMillis() < deadline) {
+            if (detector.acceptWaveForm(frame, FRAME_BYTES)) {
+                String result = detector.getResult();
+                events.add(result.contains("ko-word") ? "ko" : result.contains("en-word") ? "en" : "?");
+            }
+            Thread.sleep(1);
+        }
+        assertEquals(Arrays.asList("ko", "ko", "switch:en"), events);
+        assertEquals("en", detector.getLanguage());
+
+        stall.countDown();
+        awaitReleased("ja");
+    }
+
+    @Test
+    public void forcedFinalResultEndsProbe() throws Exception {
+        createDetector("ko");
+        feed(10);
+        assertTrue(detector.isProbing());
+
+        // 부하 대응이나 세션 종료로 강제 마무리되면 그때까지의 점수로 판정
+        assertTrue(detector.getFinalResult().contains("ko-word"));
+        assertFalse(detector.isProbing());
+        feedUntil(() -> reports.size() == 1);
+        assertEquals(400, reports.get(0).getProbeAudioMs());
+        assertEquals("en", reports.get(0).getLanguage());
+    }
+
+    @Test
+    public void probeEndDoesNotWaitForStalledCandidate() throws Exception {
+        CountDownLatch stall = new CountDownLatch(1);
+        factory.stalls.put("ja", stall);
+        createDetector("ko");
+
+        // 후보 하나가 멈춰 있어도 probe를 끝내는 발화는 바로 반환됨
+        long start = System.nanoTime();
+        assertTrue(feed(2 * FRAMES_PER_UTTERANCE).contains("ko-word"));
+        assertTrue((System.nanoTime() - start) / 1_000_000L < 1000);
+        assertFalse(detector.isProbing());
+
+        // 제한 시간이 지나면 멈춘 후보를 빼고 판정
+        feedUntil(() -> "en".equals(detector.getLanguage()));
+        assertEquals("en", detector.getLanguage());
+        assertEquals(Arrays.asList("ko"), factory.released());
+
+        // 멈췄던 후보는 스레드가 끝날 때 스스로 반납
+        stall.countDown();
+        awaitReleased("ja");
+        assertEquals(Arrays.asList("ja", "ko"), factory.released());
+    }
+
+    @Test
+    public void closeReleasesCandidatesWithoutWaiting() throws Exception {
+        CountDownLatch stall = new CountDownLatch(1);
+        factory.stalls.put("ja", stall);
+        createDetector("ko");
+        feed(10);
+        assertTrue(detector.isProbing());
+
+        // 후보 스레드를 기다리지 않고 반환, 멈춘 후보는 끝날 때까지 반납되지 않음
+        long start = System.nanoTime();
+        detector.close();
+        detector = null;
+        assertTrue((System.nanoTime() - start) / 1_000_000L < 1000);
+        awaitReleased("en");
+        assertEquals(Arrays.asList("en", "ko"), factory.released());
+
+        stall.countDown();
+        awaitReleased("ja");
+        assertEquals(Arrays.asList("en", "ja", "ko"), factory.released());
+    }
+
+    @Test
+    public void reloadingReleasesCandidatesThatNeverStarted() throws Exception {
+        createDetector("ko");
+        detector.loadCandidates(LanguageDetectingDecoder.REASON_PERIODIC);
+        assertEquals(Arrays.asList("en", "ja"), factory.released());
+
+        // 닫힌 뒤에 만들어진 후보도 바로 반납
+        detector.close();
+        detector.loadCandidates(LanguageDetectingDecoder.REASON_PERIODIC);
+        detector = null;
+        assertEquals(Arrays.asList("en", "en", "en", "ja", "ja", "ja", "ko"), factory.released());
+    }
+
+    /**
+     * 조건이 맞을 때까지 프레임을 하나씩 넣음 (판정은 후보 스레드가 끝난 뒤의 프레임에서 남)
+     */
+    private void feedUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            feed(1);
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitReleased(String language) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!factory.released().contains(language) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * 후보 인식기는 자기 스레드에서 비동기로 디코딩하므로 첫 프레임을 처리할 때까지 대기
+     */
+    private static String awaitDecodingThread(ScriptedDecoder decoder) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (decoder.lastThread == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        return decoder.lastThread;
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = new ArrayList<>(values);
+        java.util.Collections.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,107 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * LoadShedder의 단계별 결정 (큐 깊이는 16kHz 16bit 기준 32바이트 = 1ms)
+ */
+public class LoadShedderTest {
+
+    private static final int SAMPLE_RATE = 16000;
+    private static final int FRAME_BYTES = 1280; // 40ms
+    private static final int BYTES_PER_MS = 32;
+    private static final int CAPACITY = 128;
+
+    private final byte[] speech = PcmFrames.tone(FRAME_BYTES, 220, 8000);
+    private final byte[] quiet = PcmFrames.tone(FRAME_BYTES, 220, 500);
+
+    private LoadShedder shedder;
+
+    @Before
+    public void setUp() {
+        shedder = new LoadShedder(SAMPLE_RATE);
+        // 발화 수준 학습
+        for (int i = 0; i < 10; i++) {
+            assertEquals(LoadShedder.KEEP, onFrame(speech, 0));
+        }
+    }
+
+    private int onFrame(byte[] frame, int depthMs) {
+        return shedder.onFrame(frame, FRAME_BYTES, (long) depthMs * BYTES_PER_MS,
+                depthMs / 40, CAPACITY);
+    }
+
+    @Test
+    public void keepsEverythingBelowShedWatermark() {
+        assertEquals(LoadShedder.KEEP, onFrame(quiet, 500));
+        assertEquals(LoadShedder.KEEP, onFrame(speech, 500));
+        assertFalse(shedder.isShedding());
+        assertEquals(0, shedder.getLowEnergyFrames());
+    }
+
+    @Test
+    public void dropsLowEnergyFramesUntilQueueRecovers() {
+        assertEquals(LoadShedder.DROP_LOW_ENERGY, onFrame(quiet, 700));
+        assertEquals(LoadShedder.KEEP, onFrame(speech, 650));
+        assertTrue(shedder.isShedding());
+
+        // resume 기준(300ms) 아래로 내려갈 때까지 계속 버림 (hysteresis)
+        assertEquals(LoadShedder.DROP_LOW_ENERGY, onFrame(quiet, 400));
+        assertEquals(LoadShedder.KEEP, onFrame(quiet, 200));
+        assertFalse(shedder.isShedding());
+
+        assertEquals(2, shedder.getLowEnergyFrames());
+        assertEquals(80, shedder.getLowEnergyShedMs());
+        assertEquals(1, shedder.getSheddingEpisodes());
+    }
+
+    @Test
+    public void finalizesUtteranceOnceWhenDroppedGapIsLongEnough() {
+        // 40ms x 7 = 280ms까지는 버리기만 하고, 320ms에서 한 번 마무리
+        for (int i = 0; i < 7; i++) {
+            assertEquals(LoadShedder.DROP_LOW_ENERGY, onFrame(quiet, 1000));
+        }
+        assertEquals(LoadShedder.DROP_AND_FINALIZE, onFrame(quiet, 1000));
+        assertEquals(LoadShedder.DROP_LOW_ENERGY, onFrame(quiet, 1000));
+        assertEquals(1, shedder.getGapFinalizations());
+
+        // 발화가 다시 시작되면 다음 공백에서 다시 마무리 가능
+        assertEquals(LoadShedder.KEEP, onFrame(speech, 1000));
+        for (int i = 0; i < 7; i++) {
+            onFrame(quiet, 1000);
+        }
+        assertEquals(LoadShedder.DROP_AND_FINALIZE, onFrame(quiet, 1000));
+        assertEquals(2, shedder.getGapFinalizations());
+    }
+
+    @Test
+    public void skipsToLiveAboveSkipWatermark() {
+        assertEquals(LoadShedder.SKIP_TO_LIVE, onFrame(speech, 2000));
+        shedder.onSkipped(2040L * BYTES_PER_MS);
+        assertFalse(shedder.isShedding());
+        assertEquals(1, shedder.getSkips());
+        assertEquals(2040, shedder.getSkippedMs());
+        assertEquals(2000, shedder.getMaxDepthMs());
+    }
+
+    @Test
+    public void skipsWhenRingBufferIsNearlyFullEvenWithShortFrames() {
+        // 대기 시간이 skip 기준보다 짧아도 슬롯이 90% 이상 차면 건너뜀 (프레임이 짧을 때)
+        int action = shedder.onFrame(speech, 640, 100 * BYTES_PER_MS, 120, CAPACITY);
+        assertEquals(LoadShedder.SKIP_TO_LIVE, action);
+    }
+
+    @Test
+    public void watermarksAreConfigurableAndOrdered() {
+        // 순서가 뒤바뀐 값은 skip 기준에 맞춰 resume = shed = skip = 500ms
+        shedder.setWatermarksMs(2000, 1000, 500);
+        assertEquals(LoadShedder.KEEP, onFrame(quiet, 480));
+        assertEquals(LoadShedder.SKIP_TO_LIVE, onFrame(speech, 500));
+        assertTrue(shedder.toString().contains("watermarks=500/500/500ms"));
+    }
+}
@@ -0,0 +1,25 @@
+package com.livecaption.translator;
+
+/**
+ * 테스트용 합성 PCM16 프레임 (16kHz mono little-endian)
+ */
+final class PcmFrames {
+
+    static final int SAMPLE_RATE = 16000;
+
+    private PcmFrames() {
+    }
+
+    /**
+     * frameBytes 길이의 사인파 프레임
+     */
+    static byte[] tone(int frameBytes, int frequency, int amplitude) {
+        byte[] frame = new byte[frameBytes];
+        for (int i = 0; i < frameBytes / 2; i++) {
+            short sample = (short) (amplitude * Math.sin(2 * Math.PI * frequency * i / SAMPLE_RATE));
+            frame[2 * i] = (byte) sample;
+            frame[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return frame;
+    }
+}
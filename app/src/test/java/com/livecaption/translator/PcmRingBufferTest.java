@@ -0,0 +1,177 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * PcmRingBuffer의 순서, 오버런, 대기 바이트 수와 두 스레드 전달
+ */
+public class PcmRingBufferTest {
+
+    private static final int FRAME_BYTES = 320; // 10ms
+
+    private final byte[] target = new byte[FRAME_BYTES];
+
+    @Test
+    public void roundsSlotCountUpToPowerOfTwo() {
+        assertEquals(8, new PcmRingBuffer(5, FRAME_BYTES).getCapacity());
+        assertEquals(8, new PcmRingBuffer(8, FRAME_BYTES).getCapacity());
+    }
+
+    @Test
+    public void keepsFrameOrderAcrossWrapAround() {
+        PcmRingBuffer ring = new PcmRingBuffer(4, FRAME_BYTES);
+        int next = 0;
+        // 한 번에 3개씩 쓰고 읽어 인덱스가 여러 번 한 바퀴 돌게 함
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(ring.offer(frame(round * 3 + i, 100 + i), 100 + i));
+            }
+            for (int i = 0; i < 3; i++) {
+                assertEquals(100 + i, ring.poll(target));
+                assertArrayEquals(frame(next++, 100 + i), Arrays.copyOf(target, 100 + i));
+            }
+        }
+        assertEquals(-1, ring.poll(target));
+        assertTrue(ring.isEmpty());
+        assertEquals(30, ring.getFramesWritten());
+        assertEquals(30, ring.getFramesRead());
+    }
+
+    @Test
+    public void dropsNewFramesWhenFull() {
+        PcmRingBuffer ring = new PcmRingBuffer(4, FRAME_BYTES);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(frame(i, FRAME_BYTES), FRAME_BYTES));
+        }
+        assertFalse(ring.offer(frame(4, FRAME_BYTES), FRAME_BYTES));
+        assertFalse(ring.offer(frame(5, 200), 200));
+        assertEquals(2, ring.getOverrunFrames());
+        assertEquals(FRAME_BYTES + 200, ring.getOverrunBytes());
+
+        // 버려진 것은 새 프레임이고, 기존 프레임은 그대로
+        ring.poll(target);
+        assertArrayEquals(frame(0, FRAME_BYTES), target);
+        assertTrue(ring.offer(frame(6, FRAME_BYTES), FRAME_BYTES));
+        assertEquals(4, ring.size());
+    }
+
+    @Test
+    public void truncatesFramesLargerThanSlot() {
+        PcmRingBuffer ring = new PcmRingBuffer(2, FRAME_BYTES);
+        assertTrue(ring.offer(frame(1, FRAME_BYTES * 2), FRAME_BYTES * 2));
+        assertEquals(FRAME_BYTES, ring.poll(target));
+        assertEquals(1, ring.getTruncatedFrames());
+        assertFalse(ring.offer(null, FRAME_BYTES));
+        assertFalse(ring.offer(target, 0));
+    }
+
+    @Test
+    public void tracksQueuedBytesThroughOfferPollAndClear() {
+        PcmRingBuffer ring = new PcmRingBuffer(8, FRAME_BYTES);
+        ring.offer(frame(0, 100), 100);
+        ring.offer(frame(1, 200), 200);
+        ring.offer(frame(2, 300), 300);
+        assertEquals(600, ring.getQueuedBytes());
+
+        ring.poll(target);
+        assertEquals(500, ring.getQueuedBytes());
+
+        assertEquals(500, ring.clear());
+        assertEquals(0, ring.getQueuedBytes());
+        assertTrue(ring.isEmpty());
+        assertEquals(-1, ring.poll(target));
+    }
+
+    @Test
+    public void highWaterMarkIsActualDepth() {
+        PcmRingBuffer ring = new PcmRingBuffer(8, FRAME_BYTES);
+        ring.offer(frame(0, FRAME_BYTES), FRAME_BYTES);
+        ring.offer(frame(1, FRAME_BYTES), FRAME_BYTES);
+        assertEquals(2, ring.getHighWaterMark());
+
+        // 소비자가 계속 따라잡으면 생산자의 cachedHead가 오래되어도 깊이는 1~2
+        for (int i = 0; i < 20; i++) {
+            ring.poll(target);
+            ring.offer(frame(i, FRAME_BYTES), FRAME_BYTES);
+        }
+        assertEquals(2, ring.getHighWaterMark());
+
+        ring.clear();
+        for (int i = 0; i < 5; i++) {
+            ring.offer(frame(i, FRAME_BYTES), FRAME_BYTES);
+        }
+        assertEquals(5, ring.getHighWaterMark());
+    }
+
+    @Test
+    public void deliversEveryFrameInOrderBetweenThreads() throws Exception {
+        final int frames = 20000;
+        final PcmRingBuffer ring = new PcmRingBuffer(16, 8);
+        final long[] received = new long[1];
+        final boolean[] inOrder = {true};
+
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                byte[] buffer = new byte[8];
+                long expected = 0;
+                while (expected < frames) {
+                    if (ring.poll(buffer) < 0) {
+                        Thread.yield();
+                        continue;
+                    }
+                    if (readLong(buffer) != expected) {
+                        inOrder[0] = false;
+                    }
+                    expected++;
+                }
+                received[0] = expected;
+            }
+        }, "consumer");
+        consumer.start();
+
+        byte[] frame = new byte[8];
+        for (long i = 0; i < frames; i++) {
+            writeLong(frame, i);
+            while (!ring.offer(frame, 8)) {
+                Thread.yield();
+            }
+        }
+        consumer.join(10000);
+
+        assertFalse(consumer.isAlive());
+        assertEquals(frames, received[0]);
+        assertTrue(inOrder[0]);
+        assertEquals(0, ring.getQueuedBytes());
+        assertTrue(ring.getHighWaterMark() <= ring.getCapacity());
+    }
+
+    private static byte[] frame(int seed, int length) {
+        byte[] frame = new byte[length];
+        for (int i = 0; i < length; i++) {
+            frame[i] = (byte) (seed * 31 + i);
+        }
+        return frame;
+    }
+
+    private static void writeLong(byte[] target, long value) {
+        for (int i = 0; i < 8; i++) {
+            target[i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private static long readLong(byte[] source) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value |= (source[i] & 0xFFL) << (8 * i);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,129 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecognitionEngine 종료 경로: 디코더는 인식 스레드가 루프를 빠져나온 뒤에만 닫히고 마무리된다.
+ */
+public class RecognitionEngineTest {
+
+    private static final int FRAME_BYTES = 640;
+
+    /**
+     * acceptWaveForm이 gate가 열릴 때까지 막히는 디코더 (오래 걸리는 네이티브 디코딩)
+     */
+    private static class StallingDecoder implements SpeechDecoder {
+        final CountDownLatch decoding = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        volatile boolean inDecode;
+        volatile boolean closedWhileDecoding;
+        volatile String finalResultThread;
+
+        @Override
+        public boolean acceptWaveForm(byte[] data, int size) {
+            inDecode = true;
+            decoding.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inDecode = false;
+            return false;
+        }
+
+        @Override
+        public String getResult() {
+            return "{\"text\" : \"\"}";
+        }
+
+        @Override
+        public String getPartialResult() {
+            return "{\"partial\" : \"\"}";
+        }
+
+        @Override
+        public String getFinalResult() {
+            finalResultThread = Thread.currentThread().getName();
+            return "{\"text\" : \"hello\"}";
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public void close() {
+            if (inDecode) {
+                closedWhileDecoding = true;
+            }
+        }
+    }
+
+    @Test
+    public void releaseWaitsForDecodeInProgress() throws Exception {
+        StallingDecoder decoder = new StallingDecoder();
+        RecognitionEngine engine = new RecognitionEngine(decoder, Runnable::run);
+        engine.setPartialResultsEnabled(false);
+        engine.start();
+        assertTrue(engine.processAudio(new byte[FRAME_BYTES], FRAME_BYTES));
+        assertTrue(decoder.decoding.await(5, TimeUnit.SECONDS));
+
+        final CountDownLatch released = new CountDownLatch(1);
+        final String[] releaseThread = new String[1];
+        // join(1000)이 시간 초과돼도 디코딩 중에는 닫지 않음
+        engine.release(() -> {
+            releaseThread[0] = Thread.currentThread().getName();
+            decoder.close();
+            released.countDown();
+        });
+        assertEquals(1, released.getCount());
+
+        decoder.gate.countDown();
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+        assertFalse(decoder.closedWhileDecoding);
+        assertEquals("VoskRecognition", releaseThread[0]);
+    }
+
+    @Test
+    public void drainAndStopFinalizesOnRecognitionThread() throws Exception {
+        StallingDecoder decoder = new StallingDecoder();
+        decoder.gate.countDown();
+        RecognitionEngine engine = new RecognitionEngine(decoder, Runnable::run);
+        engine.setPartialResultsEnabled(false);
+        final String[] text = new String[1];
+        engine.setCallback(new RecognitionCallback() {
+            @Override
+            public void onUtteranceRecognized(Utterance utterance, UtteranceTrace trace) {
+                text[0] = utterance.getText();
+            }
+
+            @Override
+            public void onPartialTextRecognized(String partial) {
+            }
+
+            @Override
+            public void onError(String error) {
+                throw new AssertionError(error);
+            }
+        });
+        engine.start();
+        assertTrue(engine.processAudio(new byte[FRAME_BYTES], FRAME_BYTES));
+        engine.drainAndStop(5000);
+
+        assertEquals("hello", text[0]);
+        assertEquals("VoskRecognition", decoder.finalResultThread);
+
+        // 이미 끝난 루프면 바로 해제
+        final boolean[] released = new boolean[1];
+        engine.release(() -> released[0] = true);
+        assertTrue(released[0]);
+    }
+}
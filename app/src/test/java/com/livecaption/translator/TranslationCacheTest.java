@@ -0,0 +1,174 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TranslationCache의 조회 경로: 메모리 적중은 호출 스레드에서 바로, 디스크 조회는 디스크 스레드에서
+ * 하고 결과는 호출자가 넘긴 executor("caller" 스레드, 앱에서는 메인 스레드)로 돌아온다
+ */
+public class TranslationCacheTest {
+
+    /**
+     * 콜백 결과와 콜백이 실행된 스레드
+     */
+    private static class Lookup implements TranslationCache.LookupCallback {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile String translation;
+        volatile Thread thread;
+
+        @Override
+        public void onLookup(String translation) {
+            this.translation = translation;
+            this.thread = Thread.currentThread();
+            done.countDown();
+        }
+
+        Lookup await() throws InterruptedException {
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            return this;
+        }
+    }
+
+    private File file;
+    private TranslationCache cache;
+    private final ExecutorService caller = Executors.newSingleThreadExecutor(r -> new Thread(r, "caller"));
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("translation-cache", ".bin");
+        file.delete();
+        cache = new TranslationCache(file, 64 * 1024, 1024 * 1024);
+    }
+
+    @After
+    public void tearDown() {
+        caller.shutdownNow();
+        cache.close();
+        file.delete();
+    }
+
+    @Test
+    public void memoryHitIsAnsweredOnCallingThread() throws Exception {
+        cache.put("en", "ko", "Hello  World", "안녕 세상");
+
+        assertEquals("안녕 세상", cache.getFromMemory("en", "ko", "hello world"));
+        Lookup lookup = new Lookup();
+        cache.get("en", "ko", "hello world", caller, lookup);
+        assertEquals(0, lookup.done.getCount());
+        assertSame(Thread.currentThread(), lookup.thread);
+        assertEquals(2, cache.getMemoryHits());
+    }
+
+    @Test
+    public void diskHitIsAnsweredOnCallerExecutorAndPromoted() throws Exception {
+        cache.put("en", "ko", "good morning", "좋은 아침");
+        cache.close();
+
+        cache = new TranslationCache(file, 64 * 1024, 1024 * 1024);
+        assertNull(cache.getFromMemory("en", "ko", "good morning"));
+
+        Lookup lookup = new Lookup();
+        cache.get("en", "ko", "good morning", caller, lookup);
+        lookup.await();
+        assertEquals("좋은 아침", lookup.translation);
+        assertEquals("caller", lookup.thread.getName());
+        assertEquals(1, cache.getDiskHits());
+
+        // 메모리로 올라왔으므로 다음은 바로 적중
+        assertEquals("좋은 아침", cache.getFromMemory("en", "ko", "good morning"));
+    }
+
+    @Test
+    public void missIsReportedWithNull() throws Exception {
+        Lookup lookup = new Lookup();
+        cache.get("en", "ja", "nothing here", caller, lookup);
+        lookup.await();
+        assertNull(lookup.translation);
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void lookupAfterCloseIsMiss() throws Exception {
+        cache.close();
+        Lookup lookup = new Lookup();
+        cache.get("en", "ko", "late", caller, lookup);
+        assertEquals(0, lookup.done.getCount());
+        assertNull(lookup.translation);
+    }
+
+    @Test
+    public void diskHitAndFreshTranslationCompleteInOrderOnCaller() throws Exception {
+        cache.put("en", "ko", "old caption", "이전 자막");
+        cache.close();
+        cache = new TranslationCache(file, 64 * 1024, 1024 * 1024);
+
+        // TranslationManager.translate와 같은 흐름: 캐시 → 번역기 (번역 결과는 caller 스레드로)
+        TranslationScheduler scheduler = new TranslationScheduler((text, source, target, callback) ->
+                cache.get(source, target, text, caller, cached -> {
+                    if (cached != null) {
+                        callback.onTranslationSuccess(cached);
+                        return;
+                    }
+                    caller.execute(() -> callback.onTranslationSuccess("번역: " + text));
+                }), 2);
+
+        final List<String> shown = Collections.synchronizedList(new ArrayList<String>());
+        final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+        TranslationCallback record = new TranslationCallback() {
+            @Override
+            public void onTranslationSuccess(String translatedText) {
+                threads.add(Thread.currentThread().getName());
+                shown.add(translatedText);
+            }
+
+            @Override
+            public void onTranslationError(String error) {
+                threads.add(Thread.currentThread().getName());
+            }
+        };
+
+        // caller 스레드가 바쁜 동안 디스크 적중과 새 번역이 함께 끝나도 결과는 caller에서만 처리됨
+        final CountDownLatch busy = new CountDownLatch(1);
+        caller.execute(() -> {
+            scheduler.submit("old caption", "en", "ko", record);
+            scheduler.submit("new caption", "en", "ko", record);
+            try {
+                busy.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(100);
+        assertTrue(threads.isEmpty());
+        busy.countDown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getDelivered() + scheduler.getStaleDropped() < 2
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, scheduler.getDelivered() + scheduler.getStaleDropped());
+        caller.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        for (String name : threads) {
+            assertEquals("caller", name);
+        }
+        assertEquals("번역: new caption", shown.get(shown.size() - 1));
+        assertEquals(1, cache.getDiskHits());
+    }
+}
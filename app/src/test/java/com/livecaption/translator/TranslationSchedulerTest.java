@@ -0,0 +1,183 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TranslationScheduler의 합치기, 오래된 결과 버리기, 동시 진행 수 제한.
+ * 번역기는 응답 순서를 직접 정하고, 결과는 원문을 대문자로 바꾼 것.
+ */
+public class TranslationSchedulerTest {
+
+    private static class PendingBackend implements TranslationScheduler.Backend {
+        final List<String> texts = new ArrayList<>();
+        final List<TranslationCallback> callbacks = new ArrayList<>();
+
+        @Override
+        public void translate(String text, String sourceLanguage, String targetLanguage,
+                              TranslationCallback callback) {
+            texts.add(text);
+            callbacks.add(callback);
+        }
+
+        void answer(int index) {
+            callbacks.get(index).onTranslationSuccess(texts.get(index).toUpperCase());
+        }
+
+        void fail(int index) {
+            callbacks.get(index).onTranslationError("failed");
+        }
+    }
+
+    /**
+     * 받은 결과를 순서대로 기록 (실패는 "!error")
+     */
+    private static class Results implements TranslationCallback {
+        final List<String> received = new ArrayList<>();
+
+        @Override
+        public void onTranslationSuccess(String translatedText) {
+            received.add(translatedText);
+        }
+
+        @Override
+        public void onTranslationError(String error) {
+            received.add("!" + error);
+        }
+    }
+
+    private final PendingBackend backend = new PendingBackend();
+    private final Results results = new Results();
+
+    private void submit(TranslationScheduler scheduler, String text) {
+        scheduler.submit(text, "English", "Korean", results);
+    }
+
+    @Test
+    public void mergesIdenticalTextIntoOneTranslation() {
+        TranslationScheduler scheduler = new TranslationScheduler(backend, 2);
+        submit(scheduler, "hello");
+        submit(scheduler, "hello");
+
+        assertEquals(1, backend.texts.size());
+        backend.answer(0);
+        assertEquals(2, results.received.size());
+        assertEquals("HELLO", results.received.get(1));
+        assertEquals(1, scheduler.getMerged());
+        assertEquals(1, scheduler.getDelivered());
+    }
+
+    @Test
+    public void dropsOlderResultThatFinishesAfterNewerOne() {
+        TranslationScheduler scheduler = new TranslationScheduler(backend, 2);
+        submit(scheduler, "first");
+        submit(scheduler, "second");
+
+        backend.answer(1);
+        backend.answer(0);
+
+        assertEquals(1, results.received.size());
+        assertEquals("SECOND", results.received.get(0));
+        assertEquals(1, scheduler.getStaleDropped());
+    }
+
+    @Test
+    public void failedNewerRequestDoesNotHideOlderResult() {
+        TranslationScheduler scheduler = new TranslationScheduler(backend, 2);
+        submit(scheduler, "first");
+        submit(scheduler, "second");
+
+        backend.fail(1);
+        backend.answer(0);
+
+        assertEquals(2, results.received.size());
+        assertEquals("!failed", results.received.get(0));
+        assertEquals("FIRST", results.received.get(1));
+        assertEquals(1, scheduler.getFailed());
+        assertEquals(1, scheduler.getDelivered());
+        assertEquals(0, scheduler.getStaleDropped());
+    }
+
+    @Test
+    public void keepsOnlyLatestRequestWaitingBehindMaxInFlight() {
+        TranslationScheduler scheduler = new TranslationScheduler(backend, 1);
+        submit(scheduler, "one");
+        submit(scheduler, "two");
+        submit(scheduler, "three");
+
+        // 진행 중 1개, 대기는 최신 1개만
+        assertEquals(1, backend.texts.size());
+        assertEquals(1, scheduler.getSuperseded());
+
+        backend.answer(0);
+        assertEquals(2, backend.texts.size());
+        assertEquals("three", backend.texts.get(1));
+        backend.answer(1);
+
+        assertEquals(2, results.received.size());
+        assertEquals("THREE", results.received.get(1));
+        assertTrue(scheduler.toString().contains("inFlight=0"));
+    }
+
+    @Test
+    public void mergesIntoWaitingRequest() {
+        TranslationScheduler scheduler = new TranslationScheduler(backend, 1);
+        submit(scheduler, "one");
+        submit(scheduler, "two");
+        submit(scheduler, "two");
+
+        backend.answer(0);
+        backend.answer(1);
+
+        assertEquals(2, backend.texts.size());
+        assertEquals(3, results.received.size());
+        assertEquals(1, scheduler.getMerged());
+        assertEquals(0, scheduler.getSuperseded());
+    }
+
+    @Test
+    public void segmentsWaitInOrderAndAreNeverDropped() {
+        TranslationScheduler scheduler = new TranslationScheduler(backend, 1);
+        Results segments = new Results();
+        scheduler.submitSegment("part one", "English", "Korean", segments);
+        scheduler.submitSegment("part two", "English", "Korean", segments);
+        submit(scheduler, "caption");
+        submit(scheduler, "newer caption");
+
+        // 한 번에 하나만 진행: 구간은 대체되지 않고 먼저 온 순서대로 시작
+        assertEquals(1, backend.texts.size());
+        backend.answer(0);
+        assertEquals("part two", backend.texts.get(1));
+        backend.answer(1);
+        assertEquals("newer caption", backend.texts.get(2));
+        backend.answer(2);
+
+        assertEquals(2, segments.received.size());
+        assertEquals("PART TWO", segments.received.get(1));
+        assertEquals(1, scheduler.getSuperseded());
+        assertEquals("NEWER CAPTION", results.received.get(0));
+    }
+
+    @Test
+    public void segmentMergesWithCaptionAndSurvivesStaleness() {
+        TranslationScheduler scheduler = new TranslationScheduler(backend, 2);
+        submit(scheduler, "same words");
+        Results segments = new Results();
+        scheduler.submitSegment("same words", "English", "Korean", segments);
+        submit(scheduler, "later");
+        assertEquals(2, backend.texts.size());
+        assertEquals(1, scheduler.getMergedSegments());
+
+        // 자막은 더 새로운 결과 뒤에 끝나 버려져도, 합쳐진 구간은 결과를 받음
+        backend.answer(1);
+        backend.answer(0);
+        assertEquals(1, scheduler.getStaleDropped());
+        assertEquals("SAME WORDS", segments.received.get(0));
+        assertEquals(1, results.received.size());
+    }
+}
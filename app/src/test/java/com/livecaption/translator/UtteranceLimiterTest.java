@@ -0,0 +1,211 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UtteranceLimiter의 강제 마무리 결정과 RecognitionEngine 연동 (프레임 40ms)
+ */
+public class UtteranceLimiterTest {
+
+    private static final int SAMPLE_RATE = 16000;
+    private static final int FRAME_BYTES = 1280; // 40ms
+
+    private final byte[] speech = PcmFrames.tone(FRAME_BYTES, 220, 8000);
+    private final byte[] quiet = PcmFrames.tone(FRAME_BYTES, 220, 500);
+
+    private UtteranceLimiter limiter;
+    private int textLength;
+
+    @Before
+    public void setUp() {
+        limiter = new UtteranceLimiter(SAMPLE_RATE);
+        limiter.setLimitsMs(2000, 1000);
+    }
+
+    /**
+     * 단어가 계속 늘어나는 말 (프레임마다 중간 결과 확인)
+     */
+    private int speak(int frames) {
+        int action = UtteranceLimiter.KEEP;
+        for (int i = 0; i < frames && action == UtteranceLimiter.KEEP; i++) {
+            action = limiter.onFrameDecoded(speech, FRAME_BYTES);
+            limiter.onWordsChecked(++textLength);
+        }
+        return action;
+    }
+
+    @Test
+    public void waitsForWordGapAfterMaxLength() {
+        // 2초까지는 그대로, 이후 단어 사이 공백에서 마무리
+        assertEquals(UtteranceLimiter.KEEP, speak(55));
+        assertEquals(UtteranceLimiter.FINALIZE_MAX_LENGTH, limiter.onFrameDecoded(quiet, FRAME_BYTES));
+        limiter.onUtteranceEnded(UtteranceLimiter.FINALIZE_MAX_LENGTH);
+
+        assertEquals(1, limiter.getMaxLengthEndpoints());
+        assertEquals(0, limiter.getBoundaryTimeouts());
+        assertEquals(2240, limiter.getLongestUtteranceMs());
+    }
+
+    @Test
+    public void cutsWithoutGapAfterBoundaryWait() {
+        // 공백 없이 2초 + BOUNDARY_WAIT_MS(1초) = 75프레임째에 자름
+        assertEquals(UtteranceLimiter.FINALIZE_MAX_LENGTH, speak(100));
+        limiter.onUtteranceEnded(UtteranceLimiter.FINALIZE_MAX_LENGTH);
+
+        assertEquals(1, limiter.getBoundaryTimeouts());
+        assertEquals(3000, limiter.getLongestUtteranceMs());
+    }
+
+    @Test
+    public void finalizesWhenWordsStopGrowing() {
+        speak(10);
+        // 음악: 소리는 크지만 단어가 늘지 않음 → 확인된 1초 뒤 다음 프레임에서 마무리
+        int action = UtteranceLimiter.KEEP;
+        int frames = 0;
+        while (action == UtteranceLimiter.KEEP) {
+            action = limiter.onFrameDecoded(speech, FRAME_BYTES);
+            limiter.onWordsChecked(textLength);
+            frames++;
+        }
+        assertEquals(UtteranceLimiter.FINALIZE_TRAILING_SILENCE, action);
+        assertEquals(26, frames);
+        assertEquals(1, limiter.getTrailingSilenceEndpoints());
+    }
+
+    @Test
+    public void unconfirmedAudioDoesNotCountAsSilence() {
+        speak(10);
+        // 확인 없이 디코딩만 한 오디오는 (빠르게 따라잡는 중) 단어가 없다고 단정하지 않음
+        for (int i = 0; i < 40; i++) {
+            assertEquals(UtteranceLimiter.KEEP, limiter.onFrameDecoded(speech, FRAME_BYTES));
+        }
+        assertTrue(limiter.isWordCheckDue());
+        limiter.onWordsChecked(textLength + 5);
+        assertFalse(limiter.isWordCheckDue());
+        assertEquals(UtteranceLimiter.KEEP, limiter.onFrameDecoded(speech, FRAME_BYTES));
+    }
+
+    @Test
+    public void naturalEndpointResetsAndIsCounted() {
+        speak(40);
+        limiter.onUtteranceEnded(UtteranceLimiter.END_NATURAL);
+        textLength = 0;
+        assertEquals(UtteranceLimiter.KEEP, speak(40));
+
+        assertEquals(1, limiter.getNaturalEndpoints());
+        assertEquals(0, limiter.getForcedEndpoints());
+    }
+
+    @Test
+    public void loadSheddingEndpointsAreCountedAsForced() {
+        speak(20);
+        limiter.onUtteranceEnded(UtteranceLimiter.END_LOAD_SHED);
+        speak(20);
+        limiter.onUtteranceEnded(UtteranceLimiter.END_FLUSH);
+
+        assertEquals(1, limiter.getLoadShedEndpoints());
+        assertEquals(1, limiter.getForcedEndpoints());
+        assertEquals(1, limiter.getFlushEndpoints());
+        assertEquals(0, limiter.getNaturalEndpoints());
+    }
+
+    @Test
+    public void zeroLimitsDisable() {
+        limiter.setLimitsMs(0, 0);
+        assertFalse(limiter.isEnabled());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(UtteranceLimiter.KEEP, limiter.onFrameDecoded(speech, FRAME_BYTES));
+        }
+    }
+
+    /**
+     * 끝점을 내지 않는 인식기: 프레임마다 단어 하나씩 늘어나고, getFinalResult에서만 발화가 끝남
+     */
+    private static class EndlessDecoder implements SpeechDecoder {
+        private final StringBuilder text = new StringBuilder();
+        private int words;
+
+        @Override
+        public boolean acceptWaveForm(byte[] data, int size) {
+            text.append(text.length() == 0 ? "" : " ").append('w').append(++words);
+            return false;
+        }
+
+        @Override
+        public String getResult() {
+            return getFinalResult();
+        }
+
+        @Override
+        public String getPartialResult() {
+            return "{\"partial\" : \"" + text + "\"}";
+        }
+
+        @Override
+        public String getFinalResult() {
+            String result = "{\"text\" : \"" + text + "\"}";
+            text.setLength(0);
+            return result;
+        }
+
+        @Override
+        public void reset() {
+            text.setLength(0);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    public void engineEmitsForcedUtterancesDuringContinuousSpeech() {
+        final List<Utterance> utterances = new ArrayList<>();
+        RecognitionEngine engine = new RecognitionEngine(new EndlessDecoder(), Runnable::run, SAMPLE_RATE);
+        engine.setPartialResultsEnabled(false);
+        engine.setUtteranceLimiter(limiter);
+        engine.setCallback(new RecognitionCallback() {
+            @Override
+            public void onUtteranceRecognized(Utterance utterance, UtteranceTrace trace) {
+                utterances.add(utterance);
+            }
+
+            @Override
+            public void onPartialTextRecognized(String text) {
+                throw new AssertionError("partials disabled");
+            }
+
+            @Override
+            public void onError(String error) {
+                throw new AssertionError(error);
+            }
+        });
+        engine.start();
+
+        // 6초 동안 쉬지 않는 말 (1초마다 짧은 공백)
+        for (int i = 1; i <= 150; i++) {
+            while (!engine.processAudio(i % 25 == 0 ? quiet : speech, FRAME_BYTES)) {
+                Thread.yield();
+            }
+        }
+        engine.drainAndStop(5000);
+
+        // 2초가 된 공백(2초, 4초, 6초)마다 마무리, 단어 사이를 자르지 않음
+        assertEquals(3, utterances.size());
+        assertEquals(3, limiter.getMaxLengthEndpoints());
+        assertEquals(0, limiter.getTrailingSilenceEndpoints());
+        assertEquals(0, limiter.getNaturalEndpoints());
+        assertTrue(utterances.get(0).getText().startsWith("w1 w2"));
+        assertEquals(150, utterances.get(0).getText().split(" ").length
+                + utterances.get(1).getText().split(" ").length
+                + utterances.get(2).getText().split(" ").length);
+    }
+}
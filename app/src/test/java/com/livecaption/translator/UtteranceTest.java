@@ -0,0 +1,83 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Vosk 최종 결과 → Utterance 변환 (단어 시각은 16kHz 샘플 위치로)
+ */
+public class UtteranceTest {
+
+    private static final int SAMPLE_RATE = 16000;
+
+    private final VoskResultParser parser = new VoskResultParser();
+    private final VoskResult result = new VoskResult();
+
+    private Utterance parse(String json) {
+        assertTrue(parser.parse(json, result));
+        return Utterance.fromResult(result, SAMPLE_RATE);
+    }
+
+    @Test
+    public void convertsWordTimesToSampleOffsets() {
+        Utterance utterance = parse("{\"result\" : ["
+                + "{\"conf\" : 1.000000, \"end\" : 0.450000, \"start\" : 0.150000, \"word\" : \"the\"},"
+                + "{\"conf\" : 0.434521, \"end\" : 1.200000, \"start\" : 0.840000, \"word\" : \"brown\"},"
+                + "{\"conf\" : 0.981354, \"end\" : 1.590000, \"start\" : 1.200000, \"word\" : \"fox\"}],"
+                + " \"text\" : \"the brown fox\"}");
+
+        assertTrue(utterance.hasWords());
+        assertEquals("the brown fox", utterance.getText());
+        assertEquals(3, utterance.getWordCount());
+        assertEquals("brown", utterance.getWord(1));
+        assertEquals(13440, utterance.getStartSample(1));
+        assertEquals(19200, utterance.getEndSample(1));
+        assertEquals(2400, utterance.getStartSample());
+        assertEquals(25440, utterance.getEndSample());
+        assertEquals(1440, utterance.getDurationMs());
+        assertEquals((1f + 0.434521f + 0.981354f) / 3, utterance.getMeanConfidence(), 1e-6);
+    }
+
+    @Test
+    public void textOnlyResultHasNoTiming() {
+        Utterance utterance = parse("{\"text\" : \"hello world\"}");
+        assertFalse(utterance.hasWords());
+        assertEquals("hello world", utterance.getText());
+        assertEquals(-1, utterance.getDurationMs());
+        assertEquals(-1, utterance.getMeanConfidence(), 0);
+        assertEquals(0, utterance.getDisplayDurationMs());
+    }
+
+    @Test
+    public void displayDurationFollowsSpokenLength() {
+        // 1.44초 발화 + 읽을 여유 1초
+        assertEquals(2440, words(0.15, 1.59).getDisplayDurationMs());
+        // 짧은 대답도 최소 시간은 표시, 긴 발화는 상한
+        assertEquals(Utterance.MIN_DISPLAY_MS, words(0.1, 0.3).getDisplayDurationMs());
+        assertEquals(Utterance.MAX_DISPLAY_MS, words(0.0, 12.0).getDisplayDurationMs());
+    }
+
+    @Test
+    public void subRangeRebuildsText() {
+        Utterance utterance = parse("{\"result\" : ["
+                + "{\"conf\" : 0.2, \"end\" : 0.3, \"start\" : 0.1, \"word\" : \"uh\"},"
+                + "{\"conf\" : 0.9, \"end\" : 0.6, \"start\" : 0.3, \"word\" : \"good\"},"
+                + "{\"conf\" : 0.9, \"end\" : 0.9, \"start\" : 0.6, \"word\" : \"morning\"}],"
+                + " \"text\" : \"uh good morning\"}");
+
+        Utterance trimmed = utterance.subRange(1, 3);
+        assertEquals("good morning", trimmed.getText());
+        assertEquals(4800, trimmed.getStartSample());
+        assertEquals(0.9f, trimmed.getMeanConfidence(), 1e-6);
+        assertSame(utterance, utterance.subRange(0, 3));
+    }
+
+    private Utterance words(double start, double end) {
+        return parse("{\"result\" : [{\"conf\" : 1.0, \"end\" : " + end + ", \"start\" : " + start
+                + ", \"word\" : \"w\"}], \"text\" : \"w\"}");
+    }
+}
@@ -0,0 +1,154 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * VoiceActivityDetector의 attack/hangover, pre-roll 전달과 노이즈 플로어 (프레임 20ms)
+ */
+public class VoiceActivityDetectorTest {
+
+    private static final int SAMPLE_RATE = 16000;
+    private static final int FRAME_BYTES = 640; // 20ms
+
+    private final byte[] speech = PcmFrames.tone(FRAME_BYTES, 220, 8000);
+    private final byte[] silence = PcmFrames.tone(FRAME_BYTES, 220, 50);
+
+    private VoiceActivityDetector vad;
+    private final ByteArrayOutputStream passed = new ByteArrayOutputStream();
+    private int passedFrames;
+
+    private final VoiceActivityDetector.FrameSink sink = new VoiceActivityDetector.FrameSink() {
+        @Override
+        public void onFrame(byte[] data, int size) {
+            passed.write(data, 0, size);
+            passedFrames++;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        // attack 60ms = 3프레임, hangover 100ms = 5프레임, pre-roll 100ms
+        vad = new VoiceActivityDetector(SAMPLE_RATE, 100);
+        vad.setAttackMs(60);
+        vad.setHangoverMs(100);
+    }
+
+    @Test
+    public void rmsOfFullScaleSquareWave() {
+        byte[] frame = new byte[8];
+        for (int i = 0; i < 4; i++) {
+            short sample = (short) (i % 2 == 0 ? 1000 : -1000);
+            frame[2 * i] = (byte) sample;
+            frame[2 * i + 1] = (byte) (sample >> 8);
+        }
+        assertEquals(1000.0, VoiceActivityDetector.computeRms(frame, 4), 1e-9);
+    }
+
+    @Test
+    public void silenceNeverPasses() {
+        for (int i = 0; i < 50; i++) {
+            assertFalse(vad.process(silence, FRAME_BYTES, sink));
+        }
+        assertEquals(0, passedFrames);
+        assertEquals(0, vad.getSpeechSegments());
+    }
+
+    @Test
+    public void speechStartsAfterAttackAndFlushesPreRoll() {
+        for (int i = 0; i < 10; i++) {
+            vad.process(silence, FRAME_BYTES, sink);
+        }
+        assertFalse(vad.process(speech, FRAME_BYTES, sink));
+        assertFalse(vad.process(speech, FRAME_BYTES, sink));
+        assertEquals(0, passedFrames);
+
+        // 세 번째 음성 프레임에서 시작: pre-roll 100ms(무음 3 + 음성 2 프레임) 후 현재 프레임
+        assertTrue(vad.process(speech, FRAME_BYTES, sink));
+        assertEquals(1, vad.getSpeechSegments());
+        assertEquals(6 * FRAME_BYTES, passed.size());
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int i = 0; i < 3; i++) {
+            expected.write(silence, 0, FRAME_BYTES);
+        }
+        for (int i = 0; i < 3; i++) {
+            expected.write(speech, 0, FRAME_BYTES);
+        }
+        assertArrayEquals(expected.toByteArray(), passed.toByteArray());
+    }
+
+    @Test
+    public void hangoverKeepsTrailingSilenceThenCloses() {
+        for (int i = 0; i < 3; i++) {
+            vad.process(speech, FRAME_BYTES, sink);
+        }
+        assertTrue(vad.isSpeech());
+        int before = passedFrames;
+
+        // hangover 100ms = 무음 5프레임까지 통과, 6번째에 종료
+        for (int i = 0; i < 5; i++) {
+            assertTrue(vad.process(silence, FRAME_BYTES, sink));
+        }
+        assertFalse(vad.process(silence, FRAME_BYTES, sink));
+        assertFalse(vad.isSpeech());
+        assertEquals(before + 5, passedFrames);
+
+        // 짧은 잡음으로는 다시 열리지 않음
+        assertFalse(vad.process(speech, FRAME_BYTES, sink));
+        assertFalse(vad.process(silence, FRAME_BYTES, sink));
+        assertEquals(1, vad.getSpeechSegments());
+    }
+
+    @Test
+    public void speechInsideHangoverResetsIt() {
+        for (int i = 0; i < 3; i++) {
+            vad.process(speech, FRAME_BYTES, sink);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(vad.process(silence, FRAME_BYTES, sink));
+            }
+            assertTrue(vad.process(speech, FRAME_BYTES, sink));
+        }
+        assertEquals(1, vad.getSpeechSegments());
+    }
+
+    @Test
+    public void thresholdFollowsBackgroundNoise() {
+        // 배경 rms ~177 (처음 기준 300 아래), 탐침 rms ~424
+        byte[] background = PcmFrames.tone(FRAME_BYTES, 60, 250);
+        byte[] probe = PcmFrames.tone(FRAME_BYTES, 220, 600);
+
+        VoiceActivityDetector fresh = new VoiceActivityDetector(SAMPLE_RATE, 100);
+        fresh.setAttackMs(60);
+        for (int i = 0; i < 3; i++) {
+            fresh.process(probe, FRAME_BYTES, sink);
+        }
+        assertTrue(fresh.isSpeech());
+
+        // 배경이 계속되면 노이즈 플로어가 천천히 올라가 같은 탐침은 더 이상 음성이 아님
+        for (int i = 0; i < 300; i++) {
+            vad.process(background, FRAME_BYTES, sink);
+        }
+        assertEquals(177, vad.getNoiseFloor(), 5);
+        passedFrames = 0;
+        for (int i = 0; i < 20; i++) {
+            assertFalse(vad.process(probe, FRAME_BYTES, sink));
+        }
+        assertEquals(0, passedFrames);
+
+        // 조용해지면 빠르게 내려감
+        for (int i = 0; i < 30; i++) {
+            vad.process(silence, FRAME_BYTES, sink);
+        }
+        assertTrue(vad.getNoiseFloor() < 50);
+    }
+}
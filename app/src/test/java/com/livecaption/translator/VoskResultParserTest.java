@@ -0,0 +1,146 @@
+package com.livecaption.translator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * VoskResultParser를 Vosk 출력 형식의 결과(src/test/resources/vosk)와 org.json 파싱 결과로 비교
+ */
+public class VoskResultParserTest {
+
+    private final VoskResultParser parser = new VoskResultParser();
+    private final VoskResult result = new VoskResult();
+
+    @Test
+    public void finalText() throws Exception {
+        assertMatchesJsonObject("final.json");
+        assertFalse(result.isPartial());
+        assertEquals(0, result.getWordCount());
+    }
+
+    @Test
+    public void partialText() throws Exception {
+        assertMatchesJsonObject("partial.json");
+        assertTrue(result.isPartial());
+    }
+
+    @Test
+    public void emptyResults() throws Exception {
+        assertMatchesJsonObject("final_empty.json");
+        assertTrue(result.hasText());
+        assertTrue(result.isTextEmpty());
+        assertMatchesJsonObject("partial_empty.json");
+        assertTrue(result.isTextEmpty());
+    }
+
+    @Test
+    public void nonAsciiText() throws Exception {
+        assertMatchesJsonObject("final_ko.json");
+    }
+
+    @Test
+    public void wordsWithTimings() throws Exception {
+        assertMatchesJsonObject("final_words.json");
+        assertEquals(4, result.getWordCount());
+        assertEquals("brown", result.getWord(2));
+        assertEquals(0.434521f, result.getConfidence(2), 1e-6f);
+        assertEquals(0.84f, result.getStart(2), 1e-6f);
+        assertEquals(1.2f, result.getEnd(2), 1e-6f);
+    }
+
+    @Test
+    public void partialWords() throws Exception {
+        assertMatchesJsonObject("partial_words.json");
+        assertTrue(result.isPartial());
+        assertEquals(2, result.getWordCount());
+    }
+
+    @Test
+    public void alternativesUseFirstHypothesis() throws Exception {
+        String json = readResource("alternatives.json");
+        assertTrue(parser.parse(json, result));
+
+        JSONObject best = new JSONObject(json).getJSONArray("alternatives").getJSONObject(0);
+        assertEquals(best.getString("text"), result.getText());
+        assertWordsMatch(best.getJSONArray("result"));
+        // alternatives 결과에는 conf가 없으므로 기본값 1
+        assertEquals(1f, result.getConfidence(0), 0f);
+    }
+
+    @Test
+    public void escapesAndUnknownFields() throws Exception {
+        assertMatchesJsonObject("escaped.json");
+        assertEquals("say \"hi\" \\ é/ok", result.getText());
+    }
+
+    @Test
+    public void resultObjectIsReused() throws Exception {
+        assertTrue(parser.parse(readResource("final_words.json"), result));
+        assertTrue(parser.parse(readResource("partial.json"), result));
+        assertEquals("the quick brown", result.getText());
+        assertEquals(0, result.getWordCount());
+        assertTrue(result.textEquals("the quick brown"));
+        assertFalse(result.textEquals("the quick"));
+    }
+
+    @Test
+    public void malformedInput() {
+        assertFalse(parser.parse("", result));
+        assertFalse(parser.parse("{\"text\" : \"unterminated", result));
+        assertFalse(parser.parse("{\"result\" : [{\"conf\" : }]}", result));
+        assertFalse(parser.parse(null, result));
+        assertFalse(result.hasText());
+    }
+
+    private void assertMatchesJsonObject(String resource) throws Exception {
+        String json = readResource(resource);
+        assertTrue(resource, parser.parse(json, result));
+
+        JSONObject expected = new JSONObject(json);
+        String key = expected.has("partial") ? "partial" : "text";
+        assertEquals(resource, expected.getString(key), result.getText());
+        assertTrue(resource, result.textEquals(expected.getString(key)));
+
+        JSONArray words = expected.optJSONArray(expected.has("partial") ? "partial_result" : "result");
+        if (words != null) {
+            assertWordsMatch(words);
+        }
+    }
+
+    private void assertWordsMatch(JSONArray words) throws Exception {
+        assertEquals(words.length(), result.getWordCount());
+        for (int i = 0; i < words.length(); i++) {
+            JSONObject word = words.getJSONObject(i);
+            assertEquals(word.getString("word"), result.getWord(i));
+            assertEquals((float) word.getDouble("start"), result.getStart(i), 1e-6f);
+            assertEquals((float) word.getDouble("end"), result.getEnd(i), 1e-6f);
+            if (word.has("conf")) {
+                assertEquals((float) word.getDouble("conf"), result.getConfidence(i), 1e-6f);
+            }
+        }
+    }
+
+    private static String readResource(String name) throws IOException {
+        InputStream in = VoskResultParserTest.class.getResourceAsStream("/vosk/" + name);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+}
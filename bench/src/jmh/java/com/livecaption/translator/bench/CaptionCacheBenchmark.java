@@ -0,0 +1,63 @@
+package com.livecaption.translator.bench;
+
+import com.livecaption.translator.TranslationCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 자막 캐시 조회 비용: 정규화 + 메모리 LRU 적중/미스
+ */
+@State(Scope.Thread)
+public class CaptionCacheBenchmark {
+
+    private static final String[] PHRASES = {
+            "thank you for watching",
+            "  Please   subscribe and like  ",
+            "let's go",
+            "what is going on here",
+            "the quick brown fox jumps over the lazy dog",
+    };
+
+    private TranslationCache cache;
+    private File cacheFile;
+    private int index;
+
+    @Setup
+    public void setUp() throws IOException {
+        cacheFile = File.createTempFile("caption-cache", ".bin");
+        cacheFile.delete();
+        cache = new TranslationCache(cacheFile, 512 * 1024, 4 * 1024 * 1024);
+        for (String phrase : PHRASES) {
+            cache.put("en", "ko", phrase, "번역: " + phrase);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cache.close();
+        cacheFile.delete();
+    }
+
+    @Benchmark
+    public String normalize() {
+        return TranslationCache.normalize(PHRASES[index++ % PHRASES.length]);
+    }
+
+    @Benchmark
+    public String memoryHit() {
+        return cache.getFromMemory("en", "ko", PHRASES[index++ % PHRASES.length]);
+    }
+
+    @Benchmark
+    public String miss() {
+        // 호출 스레드가 내는 비용: 메모리 미스 (디스크 확인은 디스크 스레드로 넘어감)
+        return cache.getFromMemory("en", "ja", PHRASES[index++ % PHRASES.length]);
+    }
+}
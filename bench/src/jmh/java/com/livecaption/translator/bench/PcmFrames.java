@@ -0,0 +1,52 @@
+package com.livecaption.translator.bench;
+
+import java.util.Random;
+
+/**
+ * 벤치마크용 합성 PCM16 프레임 (16kHz mono little-endian)
+ */
+final class PcmFrames {
+
+    static final int SAMPLE_RATE = 16000;
+
+    private PcmFrames() {
+    }
+
+    static byte[] silence(int frameMs, long seed) {
+        return noise(frameMs, 20, seed);
+    }
+
+    static byte[] noise(int frameMs, int amplitude, long seed) {
+        Random random = new Random(seed);
+        int samples = SAMPLE_RATE * frameMs / 1000;
+        byte[] frame = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            putSample(frame, i, (int) (random.nextGaussian() * amplitude));
+        }
+        return frame;
+    }
+
+    /**
+     * 음성 대역 톤 몇 개를 섞은 유사 음성 프레임
+     */
+    static byte[] speech(int frameMs, long seed) {
+        Random random = new Random(seed);
+        int samples = SAMPLE_RATE * frameMs / 1000;
+        byte[] frame = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            double t = (double) i / SAMPLE_RATE;
+            double value = 3000 * Math.sin(2 * Math.PI * 180 * t)
+                    + 1500 * Math.sin(2 * Math.PI * 720 * t)
+                    + 800 * Math.sin(2 * Math.PI * 2400 * t)
+                    + random.nextGaussian() * 100;
+            putSample(frame, i, (int) value);
+        }
+        return frame;
+    }
+
+    private static void putSample(byte[] frame, int index, int value) {
+        short sample = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+        frame[2 * index] = (byte) sample;
+        frame[2 * index + 1] = (byte) (sample >> 8);
+    }
+}
@@ -0,0 +1,73 @@
+package com.livecaption.translator.bench;
+
+import com.livecaption.translator.PcmRingBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * 캡처 스레드 → 인식 스레드 PCM 프레임 전달 비용 (40ms 프레임 기준)
+ */
+@State(Scope.Group)
+public class PcmHandoffBenchmark {
+
+    private static final int FRAME_BYTES = 1280;
+
+    private byte[] frame;
+    private PcmRingBuffer ringBuffer;
+    private ArrayBlockingQueue<byte[]> copyQueue;
+
+    @Setup
+    public void setUp() {
+        frame = PcmFrames.speech(40, 1);
+        ringBuffer = new PcmRingBuffer(64, 8192);
+        copyQueue = new ArrayBlockingQueue<>(64);
+    }
+
+    @State(Scope.Thread)
+    public static class ConsumerBuffer {
+        final byte[] target = new byte[8192];
+    }
+
+    /**
+     * 같은 스레드에서 offer → poll 한 번 (순수 복사 + 인덱스 비용)
+     */
+    @Benchmark
+    @Group("ringSingleThread")
+    public int ringOfferPoll(ConsumerBuffer buffer) {
+        ringBuffer.offer(frame, FRAME_BYTES);
+        return ringBuffer.poll(buffer.target);
+    }
+
+    /**
+     * 비교 대상: 프레임마다 byte[]를 새로 만들어 큐로 넘기는 방식
+     */
+    @Benchmark
+    @Group("copyQueueSingleThread")
+    public int copyQueueOfferPoll() {
+        byte[] copy = new byte[FRAME_BYTES];
+        System.arraycopy(frame, 0, copy, 0, FRAME_BYTES);
+        copyQueue.offer(copy);
+        return copyQueue.poll().length;
+    }
+
+    @Benchmark
+    @Group("ringSpsc")
+    @GroupThreads(1)
+    public boolean ringProducer() {
+        return ringBuffer.offer(frame, FRAME_BYTES);
+    }
+
+    @Benchmark
+    @Group("ringSpsc")
+    @GroupThreads(1)
+    public int ringConsumer(ConsumerBuffer buffer) {
+        return ringBuffer.poll(buffer.target);
+    }
+}
@@ -0,0 +1,65 @@
+package com.livecaption.translator.bench;
+
+import com.livecaption.translator.VoiceActivityDetector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 프레임당 무음 게이트 비용: 기존 바이트 평균 방식과 VoiceActivityDetector 비교
+ */
+@State(Scope.Thread)
+public class SilenceGateBenchmark {
+
+    @Param({"20", "40", "100"})
+    public int frameMs;
+
+    @Param({"silence", "speech"})
+    public String signal;
+
+    private byte[] frame;
+    private VoiceActivityDetector detector;
+    private VoiceActivityDetector.FrameSink sink;
+    private long passedBytes;
+
+    @Setup
+    public void setUp() {
+        frame = "speech".equals(signal)
+                ? PcmFrames.speech(frameMs, 1)
+                : PcmFrames.silence(frameMs, 1);
+        detector = new VoiceActivityDetector(PcmFrames.SAMPLE_RATE);
+        sink = (data, size) -> passedBytes += size;
+    }
+
+    /**
+     * 이전 AudioCaptureService의 게이트 (raw 바이트 절댓값 평균)
+     */
+    @Benchmark
+    public boolean legacyByteAverage() {
+        int sum = 0;
+        for (int i = 0; i < frame.length; i++) {
+            sum += Math.abs(frame[i]);
+        }
+        return sum / frame.length > 5;
+    }
+
+    @Benchmark
+    public boolean voiceActivityDetector() {
+        return detector.process(frame, frame.length, sink);
+    }
+
+    @Benchmark
+    public void rmsOnly(Blackhole blackhole) {
+        long sumSquares = 0;
+        int samples = frame.length / 2;
+        for (int i = 0; i < samples; i++) {
+            int sample = (short) ((frame[2 * i] & 0xFF) | (frame[2 * i + 1] << 8));
+            sumSquares += (long) sample * sample;
+        }
+        blackhole.consume(Math.sqrt((double) sumSquares / samples));
+    }
+}
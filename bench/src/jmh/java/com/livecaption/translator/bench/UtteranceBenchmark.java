@@ -0,0 +1,45 @@
+package com.livecaption.translator.bench;
+
+import com.livecaption.translator.CaptionQualityFilter;
+import com.livecaption.translator.Utterance;
+import com.livecaption.translator.VoskResult;
+import com.livecaption.translator.VoskResultParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 단어 시각 모드에서 최종 결과 하나에 더 드는 비용 (발화당 한 번).
+ * textOnly는 단어 출력을 끈 기존 모드, 나머지는 단어 출력을 켰을 때 파싱과 Utterance/필터 처리.
+ */
+@State(Scope.Thread)
+public class UtteranceBenchmark {
+
+    private static final int SAMPLE_RATE = 16000;
+
+    private final VoskResultParser parser = new VoskResultParser();
+    private final VoskResult result = new VoskResult();
+    private final CaptionQualityFilter filter = new CaptionQualityFilter();
+
+    @Benchmark
+    public Utterance textOnly() {
+        parser.parse(VoskResultParseBenchmark.FINAL_RESULT, result);
+        return Utterance.fromResult(result, SAMPLE_RATE);
+    }
+
+    @Benchmark
+    public Utterance words() {
+        parser.parse(VoskResultParseBenchmark.WORDS_RESULT, result);
+        return Utterance.fromResult(result, SAMPLE_RATE);
+    }
+
+    /**
+     * 단어 파싱 + 번역 전 신뢰도 필터 (앱의 전체 경로)
+     */
+    @Benchmark
+    public Utterance wordsFiltered() {
+        parser.parse(VoskResultParseBenchmark.WORDS_RESULT, result);
+        return filter.filter(Utterance.fromResult(result, SAMPLE_RATE));
+    }
+}
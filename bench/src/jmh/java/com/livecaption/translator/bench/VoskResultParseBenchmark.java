@@ -0,0 +1,80 @@
+package com.livecaption.translator.bench;
+
+import com.livecaption.translator.VoskResult;
+import com.livecaption.translator.VoskResultParser;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Vosk 결과 JSON에서 텍스트 하나를 꺼내는 비용: org.json 트리 vs VoskResultParser.
+ * 할당량 비교는 -prof gc 로 확인한다.
+ */
+@State(Scope.Thread)
+public class VoskResultParseBenchmark {
+
+    static final String FINAL_RESULT = "{\n  \"text\" : \"the quick brown fox jumps over the lazy dog\"\n}";
+
+    static final String PARTIAL_RESULT = "{\n  \"partial\" : \"the quick brown fox jumps\"\n}";
+
+    static final String WORDS_RESULT = "{\n"
+            + "  \"result\" : [{\n"
+            + "      \"conf\" : 1.000000,\n      \"end\" : 0.450000,\n      \"start\" : 0.150000,\n      \"word\" : \"the\"\n"
+            + "    }, {\n"
+            + "      \"conf\" : 0.981354,\n      \"end\" : 0.840000,\n      \"start\" : 0.450000,\n      \"word\" : \"quick\"\n"
+            + "    }, {\n"
+            + "      \"conf\" : 0.934521,\n      \"end\" : 1.200000,\n      \"start\" : 0.840000,\n      \"word\" : \"brown\"\n"
+            + "    }, {\n"
+            + "      \"conf\" : 1.000000,\n      \"end\" : 1.590000,\n      \"start\" : 1.200000,\n      \"word\" : \"fox\"\n"
+            + "    }],\n"
+            + "  \"text\" : \"the quick brown fox\"\n"
+            + "}";
+
+    @Param({"final", "partial", "words"})
+    public String kind;
+
+    private String json;
+    private String key;
+
+    private final VoskResultParser parser = new VoskResultParser();
+    private final VoskResult result = new VoskResult();
+
+    @Setup
+    public void setUp() {
+        if ("partial".equals(kind)) {
+            json = PARTIAL_RESULT;
+            key = "partial";
+        } else {
+            json = "words".equals(kind) ? WORDS_RESULT : FINAL_RESULT;
+            key = "text";
+        }
+    }
+
+    @Benchmark
+    public String jsonObject() throws Exception {
+        JSONObject result = new JSONObject(json);
+        return result.has(key) ? result.getString(key) : "";
+    }
+
+    /**
+     * 필드만 추출 (같은 중간 결과 반복처럼 String이 필요 없는 경우)
+     */
+    @Benchmark
+    public int streaming() {
+        parser.parse(json, result);
+        return result.getTextLength() + result.getWordCount();
+    }
+
+    /**
+     * 추출 후 텍스트를 String으로 꺼냄 (콜백으로 전달하는 경우)
+     */
+    @Benchmark
+    public String streamingToString() {
+        parser.parse(json, result);
+        return result.getText();
+    }
+}
@@ -0,0 +1,56 @@
+package android.util;
+
+/**
+ * JVM 실행용 android.util.Log 대체 구현.
+ * app 모듈의 클래스를 기기 없이 실행할 때 로그를 표준 에러로 출력한다.
+ */
+public final class Log {
+
+    private static volatile boolean enabled = Boolean.getBoolean("livecaption.log");
+
+    private Log() {
+    }
+
+    public static void setEnabled(boolean enabled) {
+        Log.enabled = enabled;
+    }
+
+    public static int v(String tag, String msg) {
+        return print("V", tag, msg, null);
+    }
+
+    public static int d(String tag, String msg) {
+        return print("D", tag, msg, null);
+    }
+
+    public static int i(String tag, String msg) {
+        return print("I", tag, msg, null);
+    }
+
+    public static int w(String tag, String msg) {
+        return print("W", tag, msg, null);
+    }
+
+    public static int w(String tag, String msg, Throwable tr) {
+        return print("W", tag, msg, tr);
+    }
+
+    public static int e(String tag, String msg) {
+        return print("E", tag, msg, null);
+    }
+
+    public static int e(String tag, String msg, Throwable tr) {
+        return print("E", tag, msg, tr);
+    }
+
+    private static int print(String level, String tag, String msg, Throwable tr) {
+        if (!enabled) {
+            return 0;
+        }
+        System.err.println(level + "/" + tag + ": " + msg);
+        if (tr != null) {
+            tr.printStackTrace();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,34 @@
+package com.livecaption.translator.replay;
+
+import com.livecaption.translator.TranslationCallback;
+import com.livecaption.translator.TranslationScheduler;
+
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 네트워크/ML Kit 없이 쓰는 결정적 번역기.
+ * 입력을 대문자로 바꾸고 언어 태그를 붙이며, 지정한 지연 후 콜백한다.
+ */
+public class FakeTranslationBackend implements TranslationScheduler.Backend {
+
+    private final long latencyMs;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    public FakeTranslationBackend(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public void translate(String text, String sourceLanguage, String targetLanguage,
+                          TranslationCallback callback) {
+        final String translated = "[" + targetLanguage + "] " + text.toUpperCase(Locale.ROOT);
+        executor.schedule(() -> callback.onTranslationSuccess(translated), latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
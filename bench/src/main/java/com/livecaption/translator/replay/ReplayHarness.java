@@ -0,0 +1,395 @@
+package com.livecaption.translator.replay;
+
+import com.livecaption.translator.CaptionEvent;
+import com.livecaption.translator.CaptionEventBus;
+import com.livecaption.translator.CaptionQualityFilter;
+import com.livecaption.translator.CaptionSegmenter;
+import com.livecaption.translator.FrameSizeTuner;
+import com.livecaption.translator.LatencyTracker;
+import com.livecaption.translator.LoadShedder;
+import com.livecaption.translator.RecognitionCallback;
+import com.livecaption.translator.RecognitionEngine;
+import com.livecaption.translator.SpeechDecoder;
+import com.livecaption.translator.TranslationCache;
+import com.livecaption.translator.TranslationCallback;
+import com.livecaption.translator.TranslationScheduler;
+import com.livecaption.translator.Utterance;
+import com.livecaption.translator.UtteranceLimiter;
+import com.livecaption.translator.UtteranceTrace;
+import com.livecaption.translator.VoiceActivityDetector;
+import com.livecaption.translator.VoskSpeechDecoder;
+
+import org.vosk.Model;
+import org.vosk.Recognizer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 녹음 파일을 AudioCaptureService와 같은 경로(VAD → RecognitionEngine →
+ * CaptionSegmenter/TranslationScheduler → CaptionEventBus)로 흘려 보내는 오프라인 재생 도구.
+ *
+ * <pre>
+ * ./gradlew :bench:replay -Pargs="recording.wav --model /path/to/vosk-model --speed 0"
+ * </pre>
+ *
+ * --speed 0 은 최대 속도(큐가 차면 기다림), N은 실시간의 N배 속도(큐가 차면 프레임 드롭)로 입력한다.
+ */
+public class ReplayHarness {
+
+    private static final int SAMPLE_RATE = 16000;
+
+    public static class Options {
+        public File input;
+        public File model;
+        public double speed = 0;
+        public int frameMs = 40;
+        public boolean autoFrame;
+        public double simulatedRtf = 0.1;
+        public long simulatedCallMicros;
+        public long translateLatencyMs = 30;
+        public String sourceLanguage = "en";
+        public String targetLanguage = "ko";
+        public boolean partials = true;
+        public boolean loadShedding = true;
+        public boolean words;
+        public boolean segmentation = true;
+        public int maxUtteranceMs = UtteranceLimiter.DEFAULT_MAX_UTTERANCE_MS;
+        public int maxTrailingSilenceMs = UtteranceLimiter.DEFAULT_MAX_TRAILING_SILENCE_MS;
+    }
+
+    public static class Report {
+        public double audioSeconds;
+        public double wallSeconds;
+        public long framesIn;
+        public long framesPassed;
+        public long framesDropped;
+        public long backpressureWaits;
+        public int partials;
+        public int captions;
+        public String scheduler;
+        public String cache;
+        public String frameSize;
+        public String loadShedding;
+        public String endpoints;
+        public String qualityFilter;
+        public String segmenter;
+
+        public double realTimeFactor() {
+            return audioSeconds == 0 ? 0 : wallSeconds / audioSeconds;
+        }
+
+        public void print(PrintWriter out) {
+            out.println(String.format(Locale.US, "audio          %.2f s", audioSeconds));
+            out.println(String.format(Locale.US, "wall           %.2f s", wallSeconds));
+            out.println(String.format(Locale.US, "real-time x    %.3f (%.1fx faster than real time)",
+                    realTimeFactor(), realTimeFactor() == 0 ? 0 : 1 / realTimeFactor()));
+            out.println("frames in      " + framesIn);
+            out.println("frames to asr  " + framesPassed);
+            out.println("frames dropped " + framesDropped);
+            out.println("backpressure   " + backpressureWaits);
+            out.println("frame size     " + frameSize);
+            out.println("load shedding  " + loadShedding);
+            out.println("endpoints      " + endpoints);
+            out.println("partials       " + partials);
+            out.println("captions       " + captions);
+            out.println("quality filter " + qualityFilter);
+            out.println("segmenter      " + segmenter);
+            out.println("scheduler      " + scheduler);
+            out.println("cache          " + cache);
+            LatencyTracker.getInstance().dump(out);
+        }
+    }
+
+    public static Report run(Options options) throws IOException, InterruptedException {
+        byte[] pcm = WavReader.read(options.input);
+
+        Model model = null;
+        SpeechDecoder decoder;
+        if (options.model != null) {
+            model = new Model(options.model.getAbsolutePath());
+            Recognizer recognizer = new Recognizer(model, SAMPLE_RATE);
+            if (options.words) {
+                // 앱의 단어 시각 모드와 같은 설정 (대안을 켜면 단어별 conf가 빠짐)
+                recognizer.setWords(true);
+            } else {
+                recognizer.setMaxAlternatives(1);
+                recognizer.setWords(false);
+            }
+            decoder = new VoskSpeechDecoder(recognizer);
+        } else {
+            decoder = new SimulatedDecoder(options.simulatedRtf, options.simulatedCallMicros);
+        }
+
+        // 앱의 메인 스레드 역할
+        final ScheduledExecutorService mainThread = Executors.newSingleThreadScheduledExecutor();
+        final Report report = new Report();
+        final AtomicInteger captions = new AtomicInteger();
+        final AtomicInteger partials = new AtomicInteger();
+
+        File cacheFile = File.createTempFile("replay-cache", ".bin");
+        cacheFile.delete();
+        final TranslationCache cache = new TranslationCache(cacheFile, 512 * 1024, 4 * 1024 * 1024);
+        final FakeTranslationBackend translator = new FakeTranslationBackend(options.translateLatencyMs);
+
+        // TranslationManager.translate와 같은 순서: 캐시 → 번역기 → 캐시 저장
+        TranslationScheduler.Backend backend = (text, source, target, callback) ->
+                cache.get(source, target, text, mainThread, cached -> {
+                    if (cached != null) {
+                        callback.onTranslationSuccess(cached);
+                        return;
+                    }
+                    translator.translate(text, source, target, new TranslationCallback() {
+                        @Override
+                        public void onTranslationSuccess(String translatedText) {
+                            cache.put(source, target, text, translatedText);
+                            mainThread.execute(() -> callback.onTranslationSuccess(translatedText));
+                        }
+
+                        @Override
+                        public void onTranslationError(String error) {
+                            mainThread.execute(() -> callback.onTranslationError(error));
+                        }
+                    });
+                });
+        TranslationScheduler scheduler = new TranslationScheduler(backend, 2);
+
+        CaptionEventBus bus = CaptionEventBus.getInstance();
+        CaptionEventBus.Subscriber renderer = event -> {
+            if (event.trace != null) {
+                event.trace.markRendered();
+                LatencyTracker.getInstance().record(event.trace);
+            }
+            if (event.isPartial) {
+                partials.incrementAndGet();
+            } else {
+                captions.incrementAndGet();
+                System.out.println("caption: " + event.originalText + " -> " + event.translatedText);
+            }
+        };
+        bus.subscribe(renderer, mainThread);
+
+        // 자동 모드는 앱과 같이 가장 짧은 후보부터 시작
+        final FrameSizeTuner tuner = new FrameSizeTuner(SAMPLE_RATE,
+                options.autoFrame ? FrameSizeTuner.MIN_FRAME_MS : options.frameMs, options.autoFrame);
+
+        final RecognitionEngine engine = new RecognitionEngine(decoder, mainThread, SAMPLE_RATE);
+        final CaptionQualityFilter qualityFilter = new CaptionQualityFilter();
+        // 앱과 같이 구간은 번역기로 바로, 분할하지 않은 발화는 스케줄러로
+        final CaptionSegmenter segmenter = new CaptionSegmenter(scheduler, bus, LatencyTracker.getInstance());
+        segmenter.setLanguages(options.sourceLanguage, options.targetLanguage);
+        segmenter.setEnabled(options.segmentation);
+        final ScheduledFuture<?>[] pauseCheck = new ScheduledFuture<?>[1];
+        engine.setPartialResultsEnabled(options.partials);
+        engine.setFrameSizeTuner(tuner);
+        // 실시간 입력일 때만 앱과 같이 밀린 오디오를 버림 (최대 속도 모드는 항상 큐가 차 있음)
+        if (options.loadShedding && options.speed > 0) {
+            engine.setLoadShedder(new LoadShedder(SAMPLE_RATE));
+        }
+        UtteranceLimiter limiter = new UtteranceLimiter(SAMPLE_RATE);
+        limiter.setLimitsMs(options.maxUtteranceMs, options.maxTrailingSilenceMs);
+        if (limiter.isEnabled()) {
+            engine.setUtteranceLimiter(limiter);
+        }
+        engine.setCallback(new RecognitionCallback() {
+            @Override
+            public void onUtteranceRecognized(Utterance utterance, UtteranceTrace trace) {
+                if (trace != null) {
+                    trace.markDispatched();
+                }
+                cancelPauseCheck(pauseCheck);
+                // 앱과 같이 신뢰도 낮은 발화는 번역 전에 버림 (단어 정보가 있을 때만)
+                Utterance kept = options.words ? qualityFilter.filter(utterance) : utterance;
+                if (kept == null) {
+                    segmenter.onFinal("", 0, trace, System.nanoTime());
+                    return;
+                }
+                segmenter.onFinal(kept.getText(), kept.getDisplayDurationMs(), trace, System.nanoTime());
+            }
+
+            @Override
+            public void onPartialTextRecognized(String text) {
+                segmenter.onPartial(text, System.nanoTime());
+                cancelPauseCheck(pauseCheck);
+                pauseCheck[0] = mainThread.schedule(() -> segmenter.onIdle(System.nanoTime()),
+                        CaptionSegmenter.PAUSE_MS, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void onError(String error) {
+                System.err.println("recognition error: " + error);
+            }
+        });
+        engine.start();
+
+        VoiceActivityDetector vad = new VoiceActivityDetector(SAMPLE_RATE);
+        final boolean blocking = options.speed <= 0;
+        VoiceActivityDetector.FrameSink sink = (data, size) -> {
+            while (!engine.processAudio(data, size)) {
+                if (!blocking) {
+                    report.framesDropped++;
+                    return;
+                }
+                // 최대 속도 모드: 버려진 프레임은 자리가 날 때까지 다시 넣는다
+                report.backpressureWaits++;
+                LockSupport.parkNanos(200_000L);
+            }
+        };
+
+        byte[] frame = new byte[tuner.getMaxFrameBytes()];
+        long startNanos = System.nanoTime();
+
+        int size;
+        for (int offset = 0; offset < pcm.length; offset += size) {
+            // AudioCaptureService처럼 프레임마다 현재 길이를 다시 확인
+            size = Math.min(tuner.getFrameBytes(), pcm.length - offset) & ~1;
+            if (size == 0) {
+                break;
+            }
+            System.arraycopy(pcm, offset, frame, 0, size);
+            vad.process(frame, size, sink);
+            report.framesIn++;
+
+            if (!blocking) {
+                // 실시간 배속에 맞춰 다음 프레임 시각까지 대기
+                long audioNanos = (long) ((offset + size) / 2 * 1e9 / SAMPLE_RATE / options.speed);
+                long wait = startNanos + audioNanos - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+        }
+
+        engine.drainAndStop(60_000);
+        long processedNanos = System.nanoTime() - startNanos;
+
+        // 남은 인식 결과 전달 → 번역 → 렌더링이 끝날 때까지 대기
+        flush(mainThread);
+        long deadline = System.currentTimeMillis() + 5_000 + options.translateLatencyMs * 4;
+        while (System.currentTimeMillis() < deadline
+                && scheduler.getDelivered() + scheduler.getStaleDropped() + scheduler.getSuperseded()
+                < scheduler.getSubmitted() - scheduler.getMerged()
+                || segmenter.getPendingSegments() > 0) {
+            Thread.sleep(10);
+        }
+        flush(mainThread);
+
+        report.audioSeconds = pcm.length / 2.0 / SAMPLE_RATE;
+        report.wallSeconds = processedNanos / 1e9;
+        report.framesPassed = vad.getFramesPassed();
+        report.captions = captions.get();
+        report.partials = partials.get();
+        report.scheduler = scheduler.toString();
+        report.cache = cache.toString();
+        report.frameSize = tuner.toString();
+        report.loadShedding = String.valueOf(engine.getLoadShedder());
+        report.endpoints = String.valueOf(engine.getUtteranceLimiter());
+        report.qualityFilter = options.words ? qualityFilter.toString() : "off";
+        report.segmenter = segmenter.toString();
+
+        bus.unsubscribe(renderer);
+        translator.shutdown();
+        mainThread.shutdown();
+        mainThread.awaitTermination(1, TimeUnit.SECONDS);
+        cache.close();
+        cacheFile.delete();
+        // 인식 스레드가 아직 디코딩 중이면 루프가 끝난 뒤 그 스레드에서 닫힘
+        final SpeechDecoder closingDecoder = decoder;
+        final Model closingModel = model;
+        engine.release(() -> {
+            closingDecoder.close();
+            if (closingModel != null) {
+                closingModel.close();
+            }
+        });
+        return report;
+    }
+
+    private static void cancelPauseCheck(ScheduledFuture<?>[] pauseCheck) {
+        if (pauseCheck[0] != null) {
+            pauseCheck[0].cancel(false);
+        }
+    }
+
+    /**
+     * 메인 스레드 역할 executor에 이미 올라간 작업이 모두 실행될 때까지 대기
+     */
+    private static void flush(ExecutorService executor) throws InterruptedException {
+        try {
+            executor.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = parseArgs(args);
+        if (options == null) {
+            System.err.println("usage: ReplayHarness <file.wav|file.pcm> [--model dir] [--speed N]"
+                    + " [--frame-ms N | --auto-frame] [--sim-rtf X] [--sim-call-us N] [--translate-ms N]"
+                    + " [--source en] [--target ko] [--no-partials] [--no-shed] [--words]"
+                    + " [--no-segment] [--max-utterance-ms N] [--max-silence-ms N]");
+            System.exit(2);
+            return;
+        }
+
+        Report report = run(options);
+        PrintWriter out = new PrintWriter(System.out, true);
+        report.print(out);
+        out.flush();
+    }
+
+    static Options parseArgs(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            boolean hasValue = i + 1 < args.length;
+            if ("--model".equals(arg) && hasValue) {
+                options.model = new File(args[++i]);
+            } else if ("--speed".equals(arg) && hasValue) {
+                options.speed = Double.parseDouble(args[++i]);
+            } else if ("--frame-ms".equals(arg) && hasValue) {
+                options.frameMs = Integer.parseInt(args[++i]);
+            } else if ("--auto-frame".equals(arg)) {
+                options.autoFrame = true;
+            } else if ("--sim-call-us".equals(arg) && hasValue) {
+                options.simulatedCallMicros = Long.parseLong(args[++i]);
+            } else if ("--sim-rtf".equals(arg) && hasValue) {
+                options.simulatedRtf = Double.parseDouble(args[++i]);
+            } else if ("--translate-ms".equals(arg) && hasValue) {
+                options.translateLatencyMs = Long.parseLong(args[++i]);
+            } else if ("--source".equals(arg) && hasValue) {
+                options.sourceLanguage = args[++i];
+            } else if ("--target".equals(arg) && hasValue) {
+                options.targetLanguage = args[++i];
+            } else if ("--no-partials".equals(arg)) {
+                options.partials = false;
+            } else if ("--no-shed".equals(arg)) {
+                options.loadShedding = false;
+            } else if ("--words".equals(arg)) {
+                options.words = true;
+            } else if ("--no-segment".equals(arg)) {
+                options.segmentation = false;
+            } else if ("--max-utterance-ms".equals(arg) && hasValue) {
+                options.maxUtteranceMs = Integer.parseInt(args[++i]);
+            } else if ("--max-silence-ms".equals(arg) && hasValue) {
+                options.maxTrailingSilenceMs = Integer.parseInt(args[++i]);
+            } else if (!arg.startsWith("--") && options.input == null) {
+                options.input = new File(arg);
+            } else {
+                return null;
+            }
+        }
+        return options.input != null ? options : null;
+    }
+}
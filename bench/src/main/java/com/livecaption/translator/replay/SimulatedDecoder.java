@@ -0,0 +1,136 @@
+package com.livecaption.translator.replay;
+
+import com.livecaption.translator.SpeechDecoder;
+
+/**
+ * Vosk 모델 없이 파이프라인을 돌리기 위한 결정적 디코더.
+ * 에너지로 발화 구간을 나누고 일정 길이 이상의 무음이 오면 발화를 끝낸다.
+ * 중간 결과는 말한 길이에 비례해 단어가 늘어나고 (WORD_MS마다 한 단어, 몇 단어마다 쉼표),
+ * 최종 결과는 그 뒤에 발화 길이를 붙인다.
+ * decodeRtf > 0이면 오디오 길이에 비례해 CPU를 소모해 실제 디코딩 부하를 흉내 내고,
+ * callOverheadMicros > 0이면 acceptWaveForm 호출마다 고정 비용(JNI 호출 오버헤드 흉내)을 더한다.
+ */
+public class SimulatedDecoder implements SpeechDecoder {
+
+    private static final int SAMPLE_RATE = 16000;
+    private static final double SPEECH_RMS = 300.0;
+    private static final int ENDPOINT_SILENCE_MS = 500;
+    private static final int WORD_MS = 300;
+    private static final int WORDS_PER_CLAUSE = 7;
+
+    private final double decodeRtf;
+    private final long callOverheadNanos;
+
+    private int utteranceIndex;
+    private int speechSamples;
+    private int silenceSamples;
+    private boolean inSpeech;
+    private String lastResult = "";
+
+    public SimulatedDecoder(double decodeRtf) {
+        this(decodeRtf, 0);
+    }
+
+    public SimulatedDecoder(double decodeRtf, long callOverheadMicros) {
+        this.decodeRtf = decodeRtf;
+        this.callOverheadNanos = callOverheadMicros * 1000L;
+    }
+
+    @Override
+    public boolean acceptWaveForm(byte[] data, int size) {
+        int samples = size / 2;
+        burnCpu(samples);
+
+        long sumSquares = 0;
+        for (int i = 0; i < samples; i++) {
+            int sample = (short) ((data[2 * i] & 0xFF) | (data[2 * i + 1] << 8));
+            sumSquares += (long) sample * sample;
+        }
+        boolean voiced = samples > 0 && Math.sqrt((double) sumSquares / samples) > SPEECH_RMS;
+
+        if (voiced) {
+            inSpeech = true;
+            speechSamples += samples;
+            silenceSamples = 0;
+            return false;
+        }
+
+        if (inSpeech) {
+            silenceSamples += samples;
+            if (silenceSamples >= SAMPLE_RATE * ENDPOINT_SILENCE_MS / 1000) {
+                lastResult = "{\"text\" : \"" + finalText() + "\"}";
+                startNextUtterance();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String currentText() {
+        StringBuilder text = new StringBuilder("utterance ").append(utteranceIndex + 1);
+        int words = speechSamples / (SAMPLE_RATE * WORD_MS / 1000);
+        for (int i = 1; i <= words; i++) {
+            text.append(" w").append(i);
+            if (i % WORDS_PER_CLAUSE == 0) {
+                text.append(',');
+            }
+        }
+        return text.toString();
+    }
+
+    private String finalText() {
+        return currentText() + " lasting " + (speechSamples * 10 / SAMPLE_RATE) / 10.0 + " seconds";
+    }
+
+    private void startNextUtterance() {
+        utteranceIndex++;
+        speechSamples = 0;
+        silenceSamples = 0;
+        inSpeech = false;
+    }
+
+    /**
+     * 호출 고정 비용 + 오디오 길이 x decodeRtf 만큼 바쁜 대기
+     */
+    private void burnCpu(int samples) {
+        long costNanos = callOverheadNanos + (long) (samples * 1e9 / SAMPLE_RATE * Math.max(decodeRtf, 0));
+        if (costNanos <= 0) {
+            return;
+        }
+        long end = System.nanoTime() + costNanos;
+        while (System.nanoTime() < end) {
+            // spin
+        }
+    }
+
+    @Override
+    public String getResult() {
+        return lastResult;
+    }
+
+    @Override
+    public String getPartialResult() {
+        return inSpeech ? "{\"partial\" : \"" + currentText() + "\"}" : "{\"partial\" : \"\"}";
+    }
+
+    @Override
+    public String getFinalResult() {
+        if (!inSpeech) {
+            return "{\"text\" : \"\"}";
+        }
+        String result = "{\"text\" : \"" + finalText() + "\"}";
+        startNextUtterance();
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        speechSamples = 0;
+        silenceSamples = 0;
+        inSpeech = false;
+    }
+
+    @Override
+    public void close() {
+    }
+}
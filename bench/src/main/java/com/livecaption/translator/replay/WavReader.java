@@ -0,0 +1,118 @@
+package com.livecaption.translator.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * WAV(PCM16) 또는 raw PCM 파일을 16kHz mono little-endian PCM16으로 읽는다.
+ * 스테레오는 평균으로 합치고, 다른 샘플레이트는 선형 보간으로 변환한다.
+ */
+public final class WavReader {
+
+    public static final int TARGET_SAMPLE_RATE = 16000;
+
+    private WavReader() {
+    }
+
+    public static byte[] read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] data = readAll(in);
+            if (data.length >= 12 && data[0] == 'R' && data[1] == 'I' && data[2] == 'F' && data[3] == 'F') {
+                return decodeWav(data);
+            }
+            // 확장자와 관계없이 RIFF 헤더가 없으면 16kHz mono s16le raw로 간주
+            return data;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static byte[] decodeWav(byte[] data) throws IOException {
+        int channels = 0;
+        int sampleRate = 0;
+        int bitsPerSample = 0;
+        int offset = 12;
+
+        while (offset + 8 <= data.length) {
+            String chunkId = new String(data, offset, 4, "US-ASCII");
+            int chunkSize = readIntLE(data, offset + 4);
+            int body = offset + 8;
+
+            if ("fmt ".equals(chunkId)) {
+                int format = readShortLE(data, body);
+                channels = readShortLE(data, body + 2);
+                sampleRate = readIntLE(data, body + 4);
+                bitsPerSample = readShortLE(data, body + 14);
+                if (format != 1 && format != 0xFFFE) {
+                    throw new IOException("Unsupported WAV format: " + format);
+                }
+            } else if ("data".equals(chunkId)) {
+                if (bitsPerSample != 16 || channels <= 0) {
+                    throw new IOException("Only 16-bit PCM WAV is supported");
+                }
+                int length = Math.min(chunkSize, data.length - body);
+                return toMono16k(data, body, length, channels, sampleRate);
+            }
+            offset = body + chunkSize + (chunkSize & 1);
+        }
+        throw new EOFException("No data chunk in WAV file");
+    }
+
+    private static byte[] toMono16k(byte[] data, int offset, int length, int channels, int sampleRate) {
+        int frames = length / (2 * channels);
+        short[] mono = new short[frames];
+        for (int i = 0; i < frames; i++) {
+            int sum = 0;
+            for (int c = 0; c < channels; c++) {
+                sum += (short) readShortLE(data, offset + 2 * (i * channels + c));
+            }
+            mono[i] = (short) (sum / channels);
+        }
+
+        short[] resampled = mono;
+        if (sampleRate != TARGET_SAMPLE_RATE) {
+            int outFrames = (int) ((long) frames * TARGET_SAMPLE_RATE / sampleRate);
+            resampled = new short[outFrames];
+            double step = (double) sampleRate / TARGET_SAMPLE_RATE;
+            for (int i = 0; i < outFrames; i++) {
+                double position = i * step;
+                int index = (int) position;
+                double fraction = position - index;
+                int next = Math.min(index + 1, frames - 1);
+                resampled[i] = (short) Math.round(mono[index] * (1 - fraction) + mono[next] * fraction);
+            }
+        }
+
+        byte[] out = new byte[resampled.length * 2];
+        for (int i = 0; i < resampled.length; i++) {
+            out[2 * i] = (byte) resampled[i];
+            out[2 * i + 1] = (byte) (resampled[i] >> 8);
+        }
+        return out;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static int readShortLE(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8);
+    }
+
+    private static int readIntLE(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8)
+                | ((data[offset + 2] & 0xFF) << 16) | ((data[offset + 3] & 0xFF) << 24);
+    }
+}